@@ -0,0 +1,88 @@
+package hwr.oop.chess.benchmark;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.Position;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.FENException;
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.pieces.Bishop;
+import hwr.oop.chess.pieces.King;
+import hwr.oop.chess.pieces.Knight;
+import hwr.oop.chess.pieces.Pawn;
+import hwr.oop.chess.pieces.Piece;
+import hwr.oop.chess.pieces.Queen;
+import hwr.oop.chess.pieces.Rook;
+import hwr.oop.chess.player.Player;
+import java.util.Map;
+
+/** Representative positions shared by the benchmarks, selected by name through a JMH param. */
+final class BenchmarkPositions {
+  private static final Map<String, String> FENS =
+      Map.of(
+          "start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+          "middlegame", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+          "endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+          "check", "rnbqkbnr/ppp2ppp/3p4/1B2p3/4P3/8/PPPP1PPP/RNBQK1NR b KQkq - 1 3",
+          "mate", "rnb1kbnr/pppp1ppp/8/4p3/5PPq/8/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+
+  private BenchmarkPositions() {}
+
+  /**
+   * A game in the named position, set up only with API that the baseline already had: the FEN is
+   * shortened to the "layout colour move-count" form it read. Castling rights follow from the
+   * kings and rooks on their initial squares and none of the positions has an en passant square,
+   * so the position is the same.
+   */
+  static Game game(String name) {
+    String[] fields = fen(name).split(" ");
+    String shortFen = fields[0] + " " + fields[1] + " " + fields[5];
+    return new Game(new Player("white"), new Player("black"), shortFen, "benchmark");
+  }
+
+  /**
+   * The board of {@code game} with every piece replaced by an equal one. The baseline gave the
+   * pieces it read from FEN no board to move on; this works there and changes nothing later.
+   */
+  static ChessBoard board(Game game) {
+    ChessBoard board = game.getBoard();
+    for (int row = 0; row < 8; row++) {
+      for (int column = 0; column < 8; column++) {
+        Position position = new Position(row, column);
+        Piece piece = board.getPieceAtPosition(position);
+        if (piece != null) {
+          board.setPieceAtPosition(position, copy(piece, position, board));
+        }
+      }
+    }
+    return board;
+  }
+
+  private static Piece copy(Piece piece, Position position, ChessBoard board) {
+    Color color = piece.getColor();
+    return switch (piece.getType()) {
+      case KING -> new King(color, position, board);
+      case QUEEN -> new Queen(color, position, board);
+      case ROOK -> new Rook(color, position, board);
+      case BISHOP -> new Bishop(color, position, board);
+      case KNIGHT -> new Knight(color, position, board);
+      case PAWN -> new Pawn(color, position, board);
+    };
+  }
+
+  /**
+   * Puts the king of {@code color} back on its square. The position stays the same, but the board
+   * counts it as changed, so nothing worked out for the previous call is reused.
+   */
+  static void touch(ChessBoard board, Color color) {
+    King king = board.getKingOfColor(color);
+    board.setPieceAtPosition(king.getPosition(), king);
+  }
+
+  static String fen(String name) {
+    String fen = FENS.get(name);
+    if (fen == null) {
+      throw new FENException("Unknown benchmark position: " + name);
+    }
+    return fen;
+  }
+}
@@ -0,0 +1,60 @@
+package hwr.oop.chess.benchmark;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.pieces.King;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Check and checkmate detection for the side to move. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckBenchmark {
+
+  @Param({"start", "middlegame", "check", "mate"})
+  String position;
+
+  private ChessBoard board;
+  private Color sideToMove;
+  private King king;
+
+  @Setup
+  public void setUp() {
+    Game game = BenchmarkPositions.game(position);
+    board = BenchmarkPositions.board(game);
+    sideToMove = game.getNextToMove();
+    king = board.getKingOfColor(sideToMove);
+  }
+
+  // the board caches its check and pin analysis, which a real game redoes after every move
+  @Setup(Level.Invocation)
+  public void changeBoard() {
+    BenchmarkPositions.touch(board, sideToMove);
+  }
+
+  @Benchmark
+  public boolean isCheckMate() {
+    return board.isCheckMate();
+  }
+
+  @Benchmark
+  public boolean kingIsInCheck() {
+    return king.isInCheck();
+  }
+}
@@ -0,0 +1,49 @@
+package hwr.oop.chess.benchmark;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.player.Player;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Conversion between boards and FEN in both directions. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+  @Param({"start", "middlegame", "endgame"})
+  String position;
+
+  private String fen;
+  private Game game;
+
+  @Setup
+  public void setUp() {
+    fen = BenchmarkPositions.fen(position);
+    game = new Game(new Player("white"), new Player("black"), fen, "benchmark");
+  }
+
+  @Benchmark
+  public String convertBoardToFEN() {
+    return game.convertBoardToFEN();
+  }
+
+  @Benchmark
+  public ChessBoard convertFENToBoard() {
+    return game.convertFENToBoard(fen);
+  }
+}
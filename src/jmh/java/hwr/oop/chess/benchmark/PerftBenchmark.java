@@ -0,0 +1,45 @@
+package hwr.oop.chess.benchmark;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.engine.Perft;
+import hwr.oop.chess.game.Game;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Whole move generator throughput: make, generate and unmake through a perft tree. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerftBenchmark {
+
+  @Param({"start", "middlegame", "endgame"})
+  String position;
+
+  @Param({"3"})
+  int depth;
+
+  private ChessBoard board;
+
+  @Setup
+  public void setUp() {
+    board = Game.boardFromFEN(BenchmarkPositions.fen(position));
+  }
+
+  @Benchmark
+  public long perft() {
+    return Perft.count(board, depth);
+  }
+}
@@ -0,0 +1,71 @@
+package hwr.oop.chess.benchmark;
+
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.persistence.FileBasedPersistence;
+import hwr.oop.chess.player.Player;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Saving and loading the game store of {@link FileBasedPersistence} at several sizes. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmark {
+  private static final String[] POSITIONS = {"start", "middlegame", "endgame"};
+
+  @Param({"1", "10", "100"})
+  int storeSize;
+
+  private Path directory;
+  private FileBasedPersistence persistence;
+  private List<Game> games;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("chess-benchmark");
+    persistence =
+        new FileBasedPersistence(directory.resolve("games.txt"), directory.resolve("players.txt"));
+    games = new ArrayList<>(storeSize);
+    for (int i = 0; i < storeSize; i++) {
+      String fen = BenchmarkPositions.fen(POSITIONS[i % POSITIONS.length]);
+      games.add(new Game(new Player("white" + i), new Player("black" + i), fen, "game" + i));
+    }
+    persistence.saveGames(games);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(directory.resolve("games.txt"));
+    Files.deleteIfExists(directory.resolve("players.txt"));
+    Files.deleteIfExists(directory);
+  }
+
+  @Benchmark
+  public void saveGames() {
+    persistence.saveGames(games);
+  }
+
+  @Benchmark
+  public List<Game> loadGames() {
+    return persistence.loadGames();
+  }
+}
@@ -0,0 +1,67 @@
+package hwr.oop.chess.benchmark;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.Position;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.pieces.Piece;
+import hwr.oop.chess.pieces.PieceType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** {@link Piece#possibleMoves()} for every piece of one type in a position. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PossibleMovesBenchmark {
+
+  @Param({"start", "middlegame", "endgame"})
+  String position;
+
+  @Param({"KING", "QUEEN", "ROOK", "BISHOP", "KNIGHT", "PAWN"})
+  PieceType pieceType;
+
+  private final List<Piece> pieces = new ArrayList<>();
+  private ChessBoard board;
+
+  @Setup
+  public void setUp() {
+    board = BenchmarkPositions.board(BenchmarkPositions.game(position));
+    pieces.clear();
+    for (int square = 0; square < 64; square++) {
+      Piece piece = board.getPieceAtPosition(new Position(square / 8, square % 8));
+      if (piece != null && piece.getType() == pieceType) {
+        pieces.add(piece);
+      }
+    }
+  }
+
+  // the board caches its check and pin analysis, which a real game redoes after every move
+  @Setup(Level.Invocation)
+  public void changeBoard() {
+    BenchmarkPositions.touch(board, Color.WHITE);
+  }
+
+  @Benchmark
+  public void possibleMoves(Blackhole blackhole) {
+    for (Piece piece : pieces) {
+      blackhole.consume(piece.possibleMoves());
+    }
+  }
+}
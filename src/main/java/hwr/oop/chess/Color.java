@@ -4,5 +4,9 @@ import java.io.Serializable;
 
 public enum Color implements Serializable {
   BLACK,
-  WHITE
+  WHITE;
+
+  public Color opposite() {
+    return this == WHITE ? BLACK : WHITE;
+  }
 }
@@ -0,0 +1,22 @@
+package hwr.oop.chess;
+
+/** State of a position for the side to move. */
+public enum GameStatus {
+  IN_PROGRESS,
+  CHECK,
+  CHECKMATE,
+  STALEMATE,
+  THREEFOLD_REPETITION,
+  FIFTY_MOVE_RULE,
+  INSUFFICIENT_MATERIAL;
+
+  /** Whether the game is over, by checkmate or by one of the draw rules. */
+  public boolean isGameOver() {
+    return this != IN_PROGRESS && this != CHECK;
+  }
+
+  /** Whether the game is drawn: stalemate, repetition, fifty moves or insufficient material. */
+  public boolean isDraw() {
+    return isGameOver() && this != CHECKMATE;
+  }
+}
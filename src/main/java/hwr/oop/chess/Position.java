@@ -2,4 +2,32 @@ package hwr.oop.chess;
 
 import java.io.Serializable;
 
-public record Position(int row, int column) implements Serializable {}
+/**
+ * A square given by row and column, both 0-7. The core works with square indices {@code row * 8 +
+ * column}; {@link #of(int)} hands out one shared instance per square for the conversion back.
+ */
+public record Position(int row, int column) implements Serializable {
+  private static final Position[] SQUARES = new Position[64];
+
+  static {
+    for (int square = 0; square < 64; square++) {
+      SQUARES[square] = new Position(square >>> 3, square & 7);
+    }
+  }
+
+  public static Position of(int square) {
+    return SQUARES[square];
+  }
+
+  /** Returns the shared instance for a square on the board, or a new one for any other value. */
+  public static Position of(int row, int column) {
+    if (row >= 0 && row < 8 && column >= 0 && column < 8) {
+      return SQUARES[row * 8 + column];
+    }
+    return new Position(row, column);
+  }
+
+  public int square() {
+    return row * 8 + column;
+  }
+}
@@ -0,0 +1,208 @@
+package hwr.oop.chess.board;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.Position;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Helpers for 64-bit board masks. Square {@code row * 8 + column} maps to bit {@code 1L << square},
+ * so a1 is bit 0 and h8 is bit 63.
+ */
+public final class Bitboard {
+  public static final long FILE_A = 0x0101010101010101L;
+  public static final long FILE_H = FILE_A << 7;
+  public static final long RANK_1 = 0xFFL;
+  public static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+  public static final int NORTH = 0;
+  public static final int SOUTH = 1;
+  public static final int EAST = 2;
+  public static final int WEST = 3;
+  public static final int NORTH_EAST = 4;
+  public static final int SOUTH_WEST = 5;
+  public static final int NORTH_WEST = 6;
+  public static final int SOUTH_EAST = 7;
+  public static final int[] ROOK_DIRECTIONS = {NORTH, SOUTH, EAST, WEST};
+  public static final int[] BISHOP_DIRECTIONS = {NORTH_EAST, NORTH_WEST, SOUTH_EAST, SOUTH_WEST};
+  public static final int[] QUEEN_DIRECTIONS = {
+    NORTH_EAST, NORTH_WEST, SOUTH_EAST, SOUTH_WEST, NORTH, SOUTH, EAST, WEST
+  };
+
+  // opposite directions differ only in the lowest bit
+  private static final int[][] DIRECTION_STEPS = {
+    {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {-1, -1}, {1, -1}, {-1, 1}
+  };
+  private static final long[][] RAYS = new long[8][64];
+  // offsets are listed in the order the pieces have always reported their targets
+  private static final int[][] KNIGHT_OFFSETS = {
+    {2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}
+  };
+  private static final int[][] KING_OFFSETS = {
+    {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+  };
+  private static final int[][] WHITE_PAWN_CAPTURE_OFFSETS = {{1, 1}, {1, -1}};
+  private static final int[][] BLACK_PAWN_CAPTURE_OFFSETS = {{-1, 1}, {-1, -1}};
+
+  private static final int[][] KNIGHT_TARGETS = new int[64][];
+  private static final int[][][] PAWN_CAPTURE_TARGETS = new int[2][64][];
+  private static final long[] KNIGHT_ATTACKS = new long[64];
+  private static final long[] KING_ATTACKS = new long[64];
+  private static final long[][] PAWN_ATTACKS = new long[2][64];
+  private static final long[][] BETWEEN = new long[64][64];
+  private static final long[][] LINE = new long[64][64];
+
+  static {
+    for (int direction = 0; direction < 8; direction++) {
+      for (int square = 0; square < 64; square++) {
+        int newRow = row(square) + DIRECTION_STEPS[direction][0];
+        int newColumn = column(square) + DIRECTION_STEPS[direction][1];
+        while (newRow >= 0 && newRow < 8 && newColumn >= 0 && newColumn < 8) {
+          RAYS[direction][square] |= bit(square(newRow, newColumn));
+          newRow += DIRECTION_STEPS[direction][0];
+          newColumn += DIRECTION_STEPS[direction][1];
+        }
+      }
+    }
+    for (int direction = 0; direction < 8; direction++) {
+      int opposite = direction ^ 1;
+      for (int from = 0; from < 64; from++) {
+        long ray = RAYS[direction][from];
+        long line = ray | RAYS[opposite][from] | bit(from);
+        while (ray != 0) {
+          int to = Long.numberOfTrailingZeros(ray);
+          BETWEEN[from][to] = RAYS[direction][from] & ~RAYS[direction][to] & ~bit(to);
+          LINE[from][to] = line;
+          ray &= ray - 1;
+        }
+      }
+    }
+    int white = Color.WHITE.ordinal();
+    int black = Color.BLACK.ordinal();
+    for (int square = 0; square < 64; square++) {
+      KNIGHT_TARGETS[square] = targets(square, KNIGHT_OFFSETS);
+      PAWN_CAPTURE_TARGETS[white][square] = targets(square, WHITE_PAWN_CAPTURE_OFFSETS);
+      PAWN_CAPTURE_TARGETS[black][square] = targets(square, BLACK_PAWN_CAPTURE_OFFSETS);
+      KNIGHT_ATTACKS[square] = toBitboard(KNIGHT_TARGETS[square]);
+      KING_ATTACKS[square] = toBitboard(targets(square, KING_OFFSETS));
+      PAWN_ATTACKS[white][square] = toBitboard(PAWN_CAPTURE_TARGETS[white][square]);
+      PAWN_ATTACKS[black][square] = toBitboard(PAWN_CAPTURE_TARGETS[black][square]);
+    }
+  }
+
+  private static int[] targets(int square, int[][] offsets) {
+    int[] targets = new int[offsets.length];
+    int count = 0;
+    for (int[] offset : offsets) {
+      int newRow = row(square) + offset[0];
+      int newColumn = column(square) + offset[1];
+      if (newRow >= 0 && newRow < 8 && newColumn >= 0 && newColumn < 8) {
+        targets[count++] = square(newRow, newColumn);
+      }
+    }
+    return Arrays.copyOf(targets, count);
+  }
+
+  private static long toBitboard(int[] squares) {
+    long bitboard = 0L;
+    for (int square : squares) {
+      bitboard |= bit(square);
+    }
+    return bitboard;
+  }
+
+  private Bitboard() {}
+
+  public static int square(int row, int column) {
+    return row * 8 + column;
+  }
+
+  public static int row(int square) {
+    return square >>> 3;
+  }
+
+  public static int column(int square) {
+    return square & 7;
+  }
+
+  public static long bit(int square) {
+    return 1L << square;
+  }
+
+  public static long rank(int row) {
+    return RANK_1 << (row * 8);
+  }
+
+  public static List<Position> toPositions(long bitboard) {
+    List<Position> positions = new ArrayList<>(Long.bitCount(bitboard));
+    while (bitboard != 0) {
+      int square = Long.numberOfTrailingZeros(bitboard);
+      positions.add(Position.of(square));
+      bitboard &= bitboard - 1;
+    }
+    return positions;
+  }
+
+  /** Squares reached from {@code square} in one direction on an empty board. */
+  public static long ray(int direction, int square) {
+    return RAYS[direction][square];
+  }
+
+  /** Squares strictly between two squares on a shared line, or 0 if they are not aligned. */
+  public static long between(int from, int to) {
+    return BETWEEN[from][to];
+  }
+
+  /** The whole line through two aligned squares, or 0 if they are not aligned. */
+  public static long line(int from, int to) {
+    return LINE[from][to];
+  }
+
+  /**
+   * Converts the targets of a sliding piece to positions, walking each ray from the piece outwards
+   * in the given direction order.
+   */
+  public static List<Position> toPositionsAlongRays(int square, long targets, int[] directions) {
+    List<Position> positions = new ArrayList<>(Long.bitCount(targets));
+    for (int direction : directions) {
+      long onRay = targets & RAYS[direction][square];
+      boolean towardsHigherSquares = DIRECTION_STEPS[direction][0] > 0 || direction == EAST;
+      while (onRay != 0) {
+        int target =
+            towardsHigherSquares
+                ? Long.numberOfTrailingZeros(onRay)
+                : 63 - Long.numberOfLeadingZeros(onRay);
+        positions.add(Position.of(target));
+        onRay &= ~bit(target);
+      }
+    }
+    return positions;
+  }
+
+  /** Knight targets from {@code square}; the returned array is shared and must not be changed. */
+  public static int[] knightTargets(int square) {
+    return KNIGHT_TARGETS[square];
+  }
+
+  /**
+   * Capture targets of a pawn of the given colour; the returned array is shared and must not be
+   * changed.
+   */
+  public static int[] pawnCaptureTargets(int square, Color color) {
+    return PAWN_CAPTURE_TARGETS[color.ordinal()][square];
+  }
+
+  public static long knightAttacksFrom(int square) {
+    return KNIGHT_ATTACKS[square];
+  }
+
+  public static long kingAttacksFrom(int square) {
+    return KING_ATTACKS[square];
+  }
+
+  /** Squares a pawn of the given colour on {@code square} could capture on. */
+  public static long pawnAttacksFrom(int square, Color color) {
+    return PAWN_ATTACKS[color.ordinal()][square];
+  }
+}
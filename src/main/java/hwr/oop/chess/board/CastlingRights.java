@@ -0,0 +1,93 @@
+package hwr.oop.chess.board;
+
+import hwr.oop.chess.Color;
+import java.util.Arrays;
+
+/**
+ * Castling rights packed into the four low bits of an {@code int}, one bit per side and wing. A
+ * right is lost for good once the king or the rook of that wing leaves, or is captured on, its
+ * initial square; {@link #keptAfterMoveOn(int)} gives the rights that survive such a move.
+ */
+public final class CastlingRights {
+  public static final int NONE = 0;
+  public static final int WHITE_KINGSIDE = 1;
+  public static final int WHITE_QUEENSIDE = 2;
+  public static final int BLACK_KINGSIDE = 4;
+  public static final int BLACK_QUEENSIDE = 8;
+  public static final int ALL = 15;
+
+  private static final int[] KEPT = new int[64];
+
+  static {
+    Arrays.fill(KEPT, ALL);
+    KEPT[Bitboard.square(0, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+    KEPT[Bitboard.square(0, 7)] &= ~WHITE_KINGSIDE;
+    KEPT[Bitboard.square(0, 0)] &= ~WHITE_QUEENSIDE;
+    KEPT[Bitboard.square(7, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    KEPT[Bitboard.square(7, 7)] &= ~BLACK_KINGSIDE;
+    KEPT[Bitboard.square(7, 0)] &= ~BLACK_QUEENSIDE;
+  }
+
+  private CastlingRights() {}
+
+  public static int kingside(Color color) {
+    return color == Color.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+  }
+
+  public static int queenside(Color color) {
+    return color == Color.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+  }
+
+  /** Mask of the rights that are kept when a piece moves from or to {@code square}. */
+  public static int keptAfterMoveOn(int square) {
+    return KEPT[square];
+  }
+
+  /** The castling field of FEN, e.g. {@code KQkq}, or {@code -} without rights. */
+  public static String toFEN(int rights) {
+    if (rights == NONE) {
+      return "-";
+    }
+    StringBuilder fen = new StringBuilder(4);
+    if ((rights & WHITE_KINGSIDE) != 0) {
+      fen.append('K');
+    }
+    if ((rights & WHITE_QUEENSIDE) != 0) {
+      fen.append('Q');
+    }
+    if ((rights & BLACK_KINGSIDE) != 0) {
+      fen.append('k');
+    }
+    if ((rights & BLACK_QUEENSIDE) != 0) {
+      fen.append('q');
+    }
+    return fen.toString();
+  }
+
+  /**
+   * Reads the castling field of FEN.
+   *
+   * @return the rights, or -1 if the field contains anything but {@code KQkq} or a single {@code -}
+   */
+  public static int fromFEN(String field) {
+    if (field.equals("-")) {
+      return NONE;
+    }
+    int rights = NONE;
+    for (char c : field.toCharArray()) {
+      int right =
+          switch (c) {
+            case 'K' -> WHITE_KINGSIDE;
+            case 'Q' -> WHITE_QUEENSIDE;
+            case 'k' -> BLACK_KINGSIDE;
+            case 'q' -> BLACK_QUEENSIDE;
+            default -> -1;
+          };
+      if (right == -1) {
+        return -1;
+      }
+      rights |= right;
+    }
+    return field.isEmpty() ? -1 : rights;
+  }
+}
@@ -1,116 +1,763 @@
 package hwr.oop.chess.board;
 
 import hwr.oop.chess.Color;
+import hwr.oop.chess.GameStatus;
 import hwr.oop.chess.domain.IllegalPromotionException;
 import hwr.oop.chess.Position;
 import hwr.oop.chess.pieces.*;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.IntStream;
 
 public class ChessBoard implements Serializable {
-  private final List<List<Piece>> board = new ArrayList<>();
+  private static final long serialVersionUID = 1L;
+  private static final int PIECE_TYPES = PieceType.values().length;
+  private static final int FIFTY_MOVES = 100;
+  public static final int NO_SQUARE = -1;
+
+  private final Piece[] squares = new Piece[64];
+  private final long[] pieceBitboards = new long[2 * PIECE_TYPES];
+  private final long[] colorOccupancy = new long[2];
+  private long occupied;
+  // squares each piece attacks, and per colour how often every square is attacked
+  private final long[] attacksFrom = new long[64];
+  private final long[] attackedSquares = new long[2];
+  private final byte[][] attackCounts = new byte[2][64];
+  private int version;
+  private final MoveGenerator moveGenerator = new MoveGenerator(this);
+
+  private Color sideToMove = Color.WHITE;
+  private short moveCount = 0;
+  // half moves since the last capture or pawn move, for the fifty-move rule
+  private int halfmoveClock;
+  private int castlingRights = CastlingRights.NONE;
+  // square a pawn can be captured on en passant, only set if an enemy pawn attacks it
+  private int enPassantSquare = NO_SQUARE;
+  // Zobrist key of pieces, side to move, castling rights and en passant square, kept up to date
+  private long key;
+  // evaluation terms per colour, kept up to date by every change
+  private final int[] material = new int[2];
+  private final int[] middlegameScores = new int[2];
+  private final int[] endgameScores = new int[2];
+  private int phaseMaterial;
+  private long pawnKey;
+  // not saved with the board, it has to be attached again after loading
+  private transient PieceListener pieceListener;
+
+  // undo stack, one entry per made move
+  private int[] undoMoves = new int[64];
+  private Piece[] undoMovedPieces = new Piece[64];
+  private Piece[] undoCapturedPieces = new Piece[64];
+  private short[] undoMoveCounts = new short[64];
+  // key of the position before each move, to detect repetitions
+  private long[] undoKeys = new long[64];
+  private int[] undoHalfmoveClocks = new int[64];
+  private int[] undoCastlingRights = new int[64];
+  private int[] undoEnPassantSquares = new int[64];
+  private int undoSize;
+  // entries at the bottom of the stack that a copy took over from the original board; they only
+  // hold keys and cannot be taken back
+  private int copiedKeys;
 
   public ChessBoard() {
-    setupEmptyBoard();
     setupPieces();
+    setCastlingRights(CastlingRights.ALL);
   }
 
-  public void clearChessboard() {
-    for (int row = 0; row < 8; row++) {
-      for (int col = 0; col < 8; col++) {
-        setPieceAtPosition(new Position(row, col), null);
+  private ChessBoard(ChessBoard original) {
+    for (int square = 0; square < 64; square++) {
+      Piece piece = original.squares[square];
+      if (piece != null) {
+        setPieceAt(
+            square, createPiece(piece.getType(), piece.getColor(), Position.of(square)));
       }
     }
+    setSideToMove(original.sideToMove);
+    moveCount = original.moveCount;
+    halfmoveClock = original.halfmoveClock;
+    setCastlingRights(original.castlingRights);
+    setEnPassantSquare(original.enPassantSquare);
+    // only positions since the last capture or pawn move can repeat
+    copiedKeys = Math.min(original.halfmoveClock, original.undoSize);
+    if (copiedKeys > undoKeys.length) {
+      growUndoStack(Integer.highestOneBit(copiedKeys) * 2);
+    }
+    System.arraycopy(original.undoKeys, original.undoSize - copiedKeys, undoKeys, 0, copiedKeys);
+    undoSize = copiedKeys;
   }
 
-  private void setupEmptyBoard() {
-    IntStream.range(0, 8)
-        .forEach(
-            i -> {
-              List<Piece> row = new ArrayList<>();
-              IntStream.range(0, 8).forEach(j -> row.add(null));
-              board.add(row);
-            });
+  /**
+   * Returns an independent board with the same pieces, turn, castling rights and en passant square.
+   * It knows the positions since the last capture or pawn move, so repetitions are still detected,
+   * but none of the moves made on this board can be taken back on the copy.
+   */
+  public ChessBoard copy() {
+    return new ChessBoard(this);
+  }
+
+  /**
+   * Registers the listener that is told about every piece added to or removed from this board
+   * from now on, replacing any previous one; {@code null} removes it. Copies of the board do not
+   * inherit it, and neither do boards read back from a saved game.
+   */
+  public void setPieceListener(PieceListener pieceListener) {
+    this.pieceListener = pieceListener;
+  }
+
+  /** Removes all pieces, together with the castling rights and the en passant square. */
+  public void clearChessboard() {
+    for (int square = 0; square < 64; square++) {
+      setPieceAt(square, null);
+    }
+    setCastlingRights(CastlingRights.NONE);
+    setEnPassantSquare(NO_SQUARE);
   }
 
   private void setupPieces() {
     // Place Rooks
-    board.get(0).set(0, new Rook(Color.WHITE, new Position(0, 0), this));
-    board.get(0).set(7, new Rook(Color.WHITE, new Position(0, 7), this));
-    board.get(7).set(0, new Rook(Color.BLACK, new Position(7, 0), this));
-    board.get(7).set(7, new Rook(Color.BLACK, new Position(7, 7), this));
+    placePiece(new Rook(Color.WHITE, Position.of(0, 0), this));
+    placePiece(new Rook(Color.WHITE, Position.of(0, 7), this));
+    placePiece(new Rook(Color.BLACK, Position.of(7, 0), this));
+    placePiece(new Rook(Color.BLACK, Position.of(7, 7), this));
     // Place Knights
-    board.get(0).set(1, new Knight(Color.WHITE, new Position(0, 1), this));
-    board.get(0).set(6, new Knight(Color.WHITE, new Position(0, 6), this));
-    board.get(7).set(1, new Knight(Color.BLACK, new Position(7, 1), this));
-    board.get(7).set(6, new Knight(Color.BLACK, new Position(7, 6), this));
+    placePiece(new Knight(Color.WHITE, Position.of(0, 1), this));
+    placePiece(new Knight(Color.WHITE, Position.of(0, 6), this));
+    placePiece(new Knight(Color.BLACK, Position.of(7, 1), this));
+    placePiece(new Knight(Color.BLACK, Position.of(7, 6), this));
     // Place Bishops
-    board.get(0).set(2, new Bishop(Color.WHITE, new Position(0, 2), this));
-    board.get(0).set(5, new Bishop(Color.WHITE, new Position(0, 5), this));
-    board.get(7).set(2, new Bishop(Color.BLACK, new Position(7, 2), this));
-    board.get(7).set(5, new Bishop(Color.BLACK, new Position(7, 5), this));
+    placePiece(new Bishop(Color.WHITE, Position.of(0, 2), this));
+    placePiece(new Bishop(Color.WHITE, Position.of(0, 5), this));
+    placePiece(new Bishop(Color.BLACK, Position.of(7, 2), this));
+    placePiece(new Bishop(Color.BLACK, Position.of(7, 5), this));
     // Place Queens
-    board.get(0).set(3, new Queen(Color.WHITE, new Position(0, 3), this));
-    board.get(7).set(3, new Queen(Color.BLACK, new Position(7, 3), this));
+    placePiece(new Queen(Color.WHITE, Position.of(0, 3), this));
+    placePiece(new Queen(Color.BLACK, Position.of(7, 3), this));
     // Place Kings
-    board.get(0).set(4, new King(Color.WHITE, new Position(0, 4), this));
-    board.get(7).set(4, new King(Color.BLACK, new Position(7, 4), this));
+    placePiece(new King(Color.WHITE, Position.of(0, 4), this));
+    placePiece(new King(Color.BLACK, Position.of(7, 4), this));
     // Place Pawns
     for (int i = 0; i < 8; i++) {
-      board.get(1).set(i, new Pawn(Color.WHITE, new Position(1, i), this));
-      board.get(6).set(i, new Pawn(Color.BLACK, new Position(6, i), this));
+      placePiece(new Pawn(Color.WHITE, Position.of(1, i), this));
+      placePiece(new Pawn(Color.BLACK, Position.of(6, i), this));
     }
   }
 
+  private void placePiece(Piece piece) {
+    setPieceAtPosition(piece.getPosition(), piece);
+  }
+
   public Piece getPieceAtPosition(Position position) {
     if (isValidPosition(position.row(), position.column())) {
-      return board.get(position.row()).get(position.column());
+      return squares[position.square()];
     }
     return null;
   }
 
   public void setPieceAtPosition(Position position, Piece piece) {
-    board.get(position.row()).set(position.column(), piece);
+    if (!isValidPosition(position.row(), position.column())) {
+      throw new IndexOutOfBoundsException("Position is not on the board: " + position);
+    }
+    setPieceAt(position.square(), piece);
+  }
+
+  public void setPieceAt(int square, Piece piece) {
+    // sliders looking at the square see further or less far once it changes
+    long sliders = slidersAttacking(square);
+    for (long rest = sliders; rest != 0; rest &= rest - 1) {
+      removeAttacks(Long.numberOfTrailingZeros(rest));
+    }
+    removeAttacks(square);
+    removePiece(square);
+    if (piece != null) {
+      addPiece(square, piece);
+      addAttacks(square);
+    }
+    for (long rest = sliders; rest != 0; rest &= rest - 1) {
+      addAttacks(Long.numberOfTrailingZeros(rest));
+    }
+    version++;
+  }
+
+  public Piece getPieceAt(int square) {
+    return squares[square];
+  }
+
+  /** Changes with every modification of the board, so derived data can be cached against it. */
+  int getVersion() {
+    return version;
+  }
+
+  public Color getSideToMove() {
+    return sideToMove;
+  }
+
+  public void setSideToMove(Color sideToMove) {
+    if (this.sideToMove != sideToMove) {
+      key ^= Zobrist.sideToMove();
+    }
+    this.sideToMove = sideToMove;
+  }
+
+  public short getMoveCount() {
+    return moveCount;
+  }
+
+  public void setMoveCount(short moveCount) {
+    this.moveCount = moveCount;
+  }
+
+  /** Half moves since the last capture or pawn move. */
+  public int getHalfmoveClock() {
+    return halfmoveClock;
+  }
+
+  public void setHalfmoveClock(int halfmoveClock) {
+    this.halfmoveClock = halfmoveClock;
+  }
+
+  /** The {@link CastlingRights} of both sides. */
+  public int getCastlingRights() {
+    return castlingRights;
+  }
+
+  public void setCastlingRights(int castlingRights) {
+    key ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+    this.castlingRights = castlingRights;
+  }
+
+  /** The square behind a pawn that has just moved two squares, or {@link #NO_SQUARE}. */
+  public int getEnPassantSquare() {
+    return enPassantSquare;
+  }
+
+  /**
+   * Sets the en passant square. It is only kept if a pawn of the side to move can capture there,
+   * so positions that differ in an en passant square nobody can use are the same position.
+   */
+  public void setEnPassantSquare(int square) {
+    if (enPassantSquare != NO_SQUARE) {
+      key ^= Zobrist.enPassant(enPassantSquare);
+    }
+    enPassantSquare =
+        square != NO_SQUARE
+                && (Bitboard.pawnAttacksFrom(square, sideToMove.opposite())
+                        & getPieces(PieceType.PAWN, sideToMove))
+                    != 0
+            ? square
+            : NO_SQUARE;
+    if (enPassantSquare != NO_SQUARE) {
+      key ^= Zobrist.enPassant(enPassantSquare);
+    }
+  }
+
+  /** Hands the turn to the other side without moving a piece. */
+  public void toggleSideToMove() {
+    setEnPassantSquare(NO_SQUARE);
+    sideToMove = sideToMove.opposite();
+    key ^= Zobrist.sideToMove();
+    moveCount++;
+  }
+
+  /**
+   * Zobrist key of the position: the pieces on their squares, the side to move, the castling
+   * rights and the en passant square.
+   */
+  public long getKey() {
+    return key;
+  }
+
+  /** Recomputes the key from scratch; the incremental {@link #getKey()} must always match it. */
+  long computeKey() {
+    long computed = sideToMove == Color.BLACK ? Zobrist.sideToMove() : 0L;
+    computed ^= Zobrist.castling(castlingRights);
+    if (enPassantSquare != NO_SQUARE) {
+      computed ^= Zobrist.enPassant(enPassantSquare);
+    }
+    for (int square = 0; square < 64; square++) {
+      Piece piece = squares[square];
+      if (piece != null) {
+        computed ^= Zobrist.piece(piece.getType(), piece.getColor(), square);
+      }
+    }
+    return computed;
+  }
+
+  /**
+   * Plays a move encoded with {@link Move} and hands the turn to the other side. The move is not
+   * validated; it can be taken back with {@link #unmakeMove()}.
+   */
+  public void makeMove(int move) {
+    int from = Move.from(move);
+    int to = Move.to(move);
+    Piece piece = squares[from];
+    if (piece == null) {
+      throw new IllegalArgumentException("No piece to move on " + Position.of(from));
+    }
+    boolean pawn = piece.getType() == PieceType.PAWN;
+    int capturedSquare = pawn && to == enPassantSquare ? enPassantVictim(to) : to;
+    Piece captured = squares[capturedSquare];
+    pushUndo(move, piece, captured);
+    halfmoveClock = pawn || captured != null ? 0 : halfmoveClock + 1;
+
+    PieceType promotion = Move.promotion(move);
+    Piece arriving =
+        promotion == null ? piece : createPiece(promotion, piece.getColor(), Position.of(to));
+    setPieceAt(from, null);
+    if (capturedSquare != to) {
+      setPieceAt(capturedSquare, null);
+    }
+    piece.placeAt(to);
+    setPieceAt(to, arriving);
+    if (isCastling(piece, from, to)) {
+      moveRook(rookHome(from, to), (from + to) / 2);
+    }
+    setCastlingRights(
+        castlingRights
+            & CastlingRights.keptAfterMoveOn(from)
+            & CastlingRights.keptAfterMoveOn(to));
+    sideToMove = sideToMove.opposite();
+    key ^= Zobrist.sideToMove();
+    setEnPassantSquare(pawn && Math.abs(to - from) == 16 ? (from + to) / 2 : NO_SQUARE);
+    moveCount++;
+  }
+
+  /** Takes back the last move made with {@link #makeMove(int)}. */
+  public void unmakeMove() {
+    if (undoSize == copiedKeys) {
+      throw new IllegalStateException("There is no move to take back");
+    }
+    undoSize--;
+    int move = undoMoves[undoSize];
+    Piece piece = undoMovedPieces[undoSize];
+    int from = Move.from(move);
+    int to = Move.to(move);
+    Piece captured = undoCapturedPieces[undoSize];
+    if (isCastling(piece, from, to)) {
+      moveRook((from + to) / 2, rookHome(from, to));
+    }
+    if (piece.getType() == PieceType.PAWN && to == undoEnPassantSquares[undoSize]) {
+      setPieceAt(to, null);
+      setPieceAt(enPassantVictim(to), captured);
+    } else {
+      setPieceAt(to, captured);
+    }
+    piece.placeAt(from);
+    setPieceAt(from, piece);
+    undoMovedPieces[undoSize] = null;
+    undoCapturedPieces[undoSize] = null;
+    moveCount = undoMoveCounts[undoSize];
+    halfmoveClock = undoHalfmoveClocks[undoSize];
+    setCastlingRights(undoCastlingRights[undoSize]);
+    setSideToMove(piece.getColor());
+    if (enPassantSquare != NO_SQUARE) {
+      key ^= Zobrist.enPassant(enPassantSquare);
+    }
+    // restored as it was; it was only stored if it could be used
+    enPassantSquare = undoEnPassantSquares[undoSize];
+    if (enPassantSquare != NO_SQUARE) {
+      key ^= Zobrist.enPassant(enPassantSquare);
+    }
+  }
+
+  private static boolean isCastling(Piece piece, int from, int to) {
+    return piece.getType() == PieceType.KING && Math.abs(to - from) == 2;
+  }
+
+  /** Initial square of the rook castling along with a king from {@code from} to {@code to}. */
+  private static int rookHome(int from, int to) {
+    return to > from ? from + 3 : from - 4;
+  }
+
+  private void moveRook(int from, int to) {
+    Piece rook = squares[from];
+    setPieceAt(from, null);
+    rook.placeAt(to);
+    setPieceAt(to, rook);
+  }
+
+  /** The square of the pawn that is captured en passant on {@code square}. */
+  private static int enPassantVictim(int square) {
+    return Bitboard.row(square) == 5 ? square - 8 : square + 8;
+  }
+
+  private void pushUndo(int move, Piece piece, Piece captured) {
+    if (undoSize == undoMoves.length) {
+      growUndoStack(undoSize * 2);
+    }
+    undoMoves[undoSize] = move;
+    undoMovedPieces[undoSize] = piece;
+    undoCapturedPieces[undoSize] = captured;
+    undoMoveCounts[undoSize] = moveCount;
+    undoKeys[undoSize] = key;
+    undoHalfmoveClocks[undoSize] = halfmoveClock;
+    undoCastlingRights[undoSize] = castlingRights;
+    undoEnPassantSquares[undoSize] = enPassantSquare;
+    undoSize++;
+  }
+
+  private void growUndoStack(int capacity) {
+    undoMoves = Arrays.copyOf(undoMoves, capacity);
+    undoMovedPieces = Arrays.copyOf(undoMovedPieces, capacity);
+    undoCapturedPieces = Arrays.copyOf(undoCapturedPieces, capacity);
+    undoMoveCounts = Arrays.copyOf(undoMoveCounts, capacity);
+    undoKeys = Arrays.copyOf(undoKeys, capacity);
+    undoHalfmoveClocks = Arrays.copyOf(undoHalfmoveClocks, capacity);
+    undoCastlingRights = Arrays.copyOf(undoCastlingRights, capacity);
+    undoEnPassantSquares = Arrays.copyOf(undoEnPassantSquares, capacity);
+  }
+
+  private Piece createPiece(PieceType type, Color color, Position position) {
+    return switch (type) {
+      case KING -> new King(color, position, this);
+      case KNIGHT -> new Knight(color, position, this);
+      case PAWN -> new Pawn(color, position, this);
+      case QUEEN -> new Queen(color, position, this);
+      case ROOK -> new Rook(color, position, this);
+      case BISHOP -> new Bishop(color, position, this);
+    };
+  }
+
+  private void removePiece(int square) {
+    Piece piece = squares[square];
+    if (piece == null) {
+      return;
+    }
+    long mask = ~Bitboard.bit(square);
+    key ^= Zobrist.piece(piece.getType(), piece.getColor(), square);
+    updateScores(piece, square, -1);
+    if (pieceListener != null) {
+      pieceListener.pieceRemoved(piece.getType(), piece.getColor(), square);
+    }
+    pieceBitboards[index(piece.getType(), piece.getColor())] &= mask;
+    colorOccupancy[piece.getColor().ordinal()] &= mask;
+    occupied &= mask;
+    squares[square] = null;
+  }
+
+  private void addPiece(int square, Piece piece) {
+    long bit = Bitboard.bit(square);
+    key ^= Zobrist.piece(piece.getType(), piece.getColor(), square);
+    updateScores(piece, square, 1);
+    if (pieceListener != null) {
+      pieceListener.pieceAdded(piece.getType(), piece.getColor(), square);
+    }
+    pieceBitboards[index(piece.getType(), piece.getColor())] |= bit;
+    colorOccupancy[piece.getColor().ordinal()] |= bit;
+    occupied |= bit;
+    squares[square] = piece;
+  }
+
+  private void updateScores(Piece piece, int square, int sign) {
+    PieceType type = piece.getType();
+    Color color = piece.getColor();
+    int side = color.ordinal();
+    material[side] += sign * PieceSquareTables.value(type);
+    middlegameScores[side] += sign * PieceSquareTables.middlegame(type, color, square);
+    endgameScores[side] += sign * PieceSquareTables.endgame(type, color, square);
+    phaseMaterial += sign * PieceSquareTables.phase(type);
+    if (type == PieceType.PAWN) {
+      pawnKey ^= Zobrist.piece(type, color, square);
+    }
+  }
+
+  private long slidersAttacking(int square) {
+    long rooks = 0L;
+    long bishops = 0L;
+    for (Color color : Color.values()) {
+      long queens = getPieces(PieceType.QUEEN, color);
+      rooks |= getPieces(PieceType.ROOK, color) | queens;
+      bishops |= getPieces(PieceType.BISHOP, color) | queens;
+    }
+    return (MagicBitboards.rookAttacks(square, occupied) & rooks)
+        | (MagicBitboards.bishopAttacks(square, occupied) & bishops);
+  }
+
+  private void addAttacks(int square) {
+    Piece piece = squares[square];
+    int side = piece.getColor().ordinal();
+    long attacks = attacksOf(square, piece);
+    attacksFrom[square] = attacks;
+    attackedSquares[side] |= attacks;
+    while (attacks != 0) {
+      attackCounts[side][Long.numberOfTrailingZeros(attacks)]++;
+      attacks &= attacks - 1;
+    }
+  }
+
+  private void removeAttacks(int square) {
+    Piece piece = squares[square];
+    if (piece == null) {
+      return;
+    }
+    int side = piece.getColor().ordinal();
+    long attacks = attacksFrom[square];
+    attacksFrom[square] = 0L;
+    while (attacks != 0) {
+      int target = Long.numberOfTrailingZeros(attacks);
+      if (--attackCounts[side][target] == 0) {
+        attackedSquares[side] &= ~Bitboard.bit(target);
+      }
+      attacks &= attacks - 1;
+    }
+  }
+
+  private long attacksOf(int square, Piece piece) {
+    return switch (piece.getType()) {
+      case KING -> Bitboard.kingAttacksFrom(square);
+      case KNIGHT -> Bitboard.knightAttacksFrom(square);
+      case PAWN -> Bitboard.pawnAttacksFrom(square, piece.getColor());
+      case BISHOP -> MagicBitboards.bishopAttacks(square, occupied);
+      case ROOK -> MagicBitboards.rookAttacks(square, occupied);
+      case QUEEN -> MagicBitboards.queenAttacks(square, occupied);
+    };
+  }
+
+  private static int index(PieceType type, Color color) {
+    return color.ordinal() * PIECE_TYPES + type.ordinal();
+  }
+
+  public long getPieces(PieceType type, Color color) {
+    return pieceBitboards[index(type, color)];
+  }
+
+  public long getOccupancy(Color color) {
+    return colorOccupancy[color.ordinal()];
+  }
+
+  public long getOccupied() {
+    return occupied;
   }
 
   public List<List<Piece>> getBoard() {
-    return board;
+    List<List<Piece>> rows = new ArrayList<>();
+    for (int row = 0; row < 8; row++) {
+      rows.add(Arrays.asList(Arrays.copyOfRange(squares, row * 8, row * 8 + 8)));
+    }
+    return rows;
   }
 
   public King getKingOfColor(Color color) {
-    for (List<Piece> row : board) {
-      for (Piece piece : row) {
-        if (piece != null && piece.getColor() == color && piece.getType() == PieceType.KING) {
-          return (King) piece;
-        }
-      }
+    long kings = getPieces(PieceType.KING, color);
+    if (kings == 0) {
+      return null;
     }
-    return null;
+    return (King) squares[Long.numberOfTrailingZeros(kings)];
+  }
+
+  /** Sum of the piece values of {@code color}, see {@link PieceSquareTables#value}. */
+  public int getMaterial(Color color) {
+    return material[color.ordinal()];
+  }
+
+  /** Sum of the middlegame piece-square values of the pieces of {@code color}. */
+  public int getMiddlegameScore(Color color) {
+    return middlegameScores[color.ordinal()];
+  }
+
+  /** Sum of the endgame piece-square values of the pieces of {@code color}. */
+  public int getEndgameScore(Color color) {
+    return endgameScores[color.ordinal()];
+  }
+
+  /** Material of both sides without pawns and kings, to tell middlegame from endgame. */
+  public int getPhaseMaterial() {
+    return phaseMaterial;
+  }
+
+  /** Zobrist key of the pawns only, for caching pawn structure terms. */
+  public long getPawnKey() {
+    return pawnKey;
   }
 
   public boolean isValidPosition(int row, int column) {
     return row >= 0 && row < 8 && column >= 0 && column < 8;
   }
 
+  public boolean isSquareAttacked(int square, Color attacker) {
+    return (attackedSquares[attacker.ordinal()] & Bitboard.bit(square)) != 0;
+  }
+
+  /** All squares the pieces of {@code attacker} attack, including squares of their own pieces. */
+  public long getAttackedSquares(Color attacker) {
+    return attackedSquares[attacker.ordinal()];
+  }
+
+  /** Squares attacked by the piece on {@code square}, or 0 if it is empty. */
+  public long getAttacksFrom(int square) {
+    return attacksFrom[square];
+  }
+
+  public int getAttackCount(int square, Color attacker) {
+    return attackCounts[attacker.ordinal()][square];
+  }
+
+  long attackersTo(int square, Color attacker, long occupied) {
+    long queens = getPieces(PieceType.QUEEN, attacker);
+    long rooks = getPieces(PieceType.ROOK, attacker) | queens;
+    long bishops = getPieces(PieceType.BISHOP, attacker) | queens;
+    // attack patterns are symmetric: look from the target square for the attacking piece
+    return (Bitboard.knightAttacksFrom(square) & getPieces(PieceType.KNIGHT, attacker))
+        | (Bitboard.kingAttacksFrom(square) & getPieces(PieceType.KING, attacker))
+        | (Bitboard.pawnAttacksFrom(square, attacker.opposite())
+            & getPieces(PieceType.PAWN, attacker))
+        | (MagicBitboards.rookAttacks(square, occupied) & rooks)
+        | (MagicBitboards.bishopAttacks(square, occupied) & bishops);
+  }
+
+  /**
+   * Returns the squares the piece on {@code square} can legally move to, taking checks and pins
+   * against its own king into account.
+   */
+  public long getLegalTargets(int square) {
+    return moveGenerator.legalTargets(square);
+  }
+
+  /**
+   * Returns whether the piece on {@code from} can legally move to {@code to}, checking only that
+   * one move instead of generating the piece's moves. Castling and en passant are recognised from
+   * the squares, like in {@link #makeMove(int)}.
+   */
+  public boolean isLegal(int from, int to) {
+    return moveGenerator.isLegal(from, to);
+  }
+
+  /** Appends the legal moves of the piece on {@code square} to {@code moves}. */
+  public void generateMoves(int square, MoveSink moves) {
+    moveGenerator.generateMoves(square, MoveGenerator.Stage.ALL, moves);
+  }
+
+  /** Appends all legal moves of the side to move to {@code moves}. */
+  public void generateLegalMoves(MoveSink moves) {
+    generateLegalMoves(sideToMove, moves);
+  }
+
+  /**
+   * Hands every legal move of {@code color} to {@code moves} in one pass over its pieces, in square
+   * order starting at a1. Checks and pins are worked out once for the whole side.
+   */
+  public void generateLegalMoves(Color color, MoveSink moves) {
+    moveGenerator.generateMoves(color, MoveGenerator.Stage.ALL, moves);
+  }
+
+  /**
+   * Hands the legal captures of {@code color}, en passant included, to {@code moves}, together with
+   * the pawn moves to the last row: the moves that change material. {@link #generateQuietMoves}
+   * yields the rest.
+   */
+  public void generateCaptures(Color color, MoveSink moves) {
+    moveGenerator.generateMoves(color, MoveGenerator.Stage.CAPTURES, moves);
+  }
+
+  /** Hands the legal moves of {@code color} that neither capture nor promote to {@code moves}. */
+  public void generateQuietMoves(Color color, MoveSink moves) {
+    moveGenerator.generateMoves(color, MoveGenerator.Stage.QUIET, moves);
+  }
+
+  public boolean isInCheck(Color color) {
+    long kings = getPieces(PieceType.KING, color);
+    return kings != 0
+        && isSquareAttacked(Long.numberOfTrailingZeros(kings), color.opposite());
+  }
+
   public boolean isCheckMate() {
-    Color colorInCheck;
-    if (getKingOfColor(Color.WHITE).isInCheck()) {
-      colorInCheck = Color.WHITE;
-    } else if (getKingOfColor(Color.BLACK).isInCheck()) {
-      colorInCheck = Color.BLACK;
-    } else return false;
-
-    for (List<Piece> row : board) {
-      for (Piece piece : row) {
-        if (piece != null && piece.getColor() == colorInCheck && !piece.possibleMoves().isEmpty())
-          return false;
+    for (Color color : Color.values()) {
+      if (isInCheck(color) && !hasLegalMove(color)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether {@code color} is in check and whether it has a legal move. Only the legal
+   * target masks are looked at, and the search stops at the first piece that can move. Positions
+   * that are drawn by rule are reported as such unless they are checkmate or stalemate.
+   */
+  public GameStatus evaluateStatus(Color color) {
+    boolean inCheck = isInCheck(color);
+    if (!hasLegalMove(color)) {
+      return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+    }
+    if (hasInsufficientMaterial()) {
+      return GameStatus.INSUFFICIENT_MATERIAL;
+    }
+    if (halfmoveClock >= FIFTY_MOVES) {
+      return GameStatus.FIFTY_MOVE_RULE;
+    }
+    if (isThreefoldRepetition()) {
+      return GameStatus.THREEFOLD_REPETITION;
+    }
+    return inCheck ? GameStatus.CHECK : GameStatus.IN_PROGRESS;
+  }
+
+  /**
+   * Whether the position has occurred before with the same side to move. The search scores such a
+   * position as a draw, since the side that could improve on it would not have repeated it.
+   */
+  public boolean isRepetition() {
+    int oldest = Math.max(0, undoSize - halfmoveClock);
+    for (int i = undoSize - 2; i >= oldest; i -= 2) {
+      if (undoKeys[i] == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether the position has occurred twice before with the same side to move. Only the positions
+   * since the last capture or pawn move can repeat, so at most fifty keys are compared.
+   */
+  public boolean isThreefoldRepetition() {
+    int oldest = Math.max(0, undoSize - halfmoveClock);
+    int repetitions = 0;
+    for (int i = undoSize - 2; i >= oldest; i -= 2) {
+      if (undoKeys[i] == key && ++repetitions == 2) {
+        return true;
       }
     }
+    return false;
+  }
 
-    return true;
+  /**
+   * Whether neither side can checkmate with any series of legal moves: only kings and at most one
+   * minor piece are left, or only bishops that all stand on squares of the same colour.
+   */
+  public boolean hasInsufficientMaterial() {
+    long knights = 0L;
+    long bishops = 0L;
+    for (Color color : Color.values()) {
+      if ((getPieces(PieceType.PAWN, color)
+              | getPieces(PieceType.ROOK, color)
+              | getPieces(PieceType.QUEEN, color))
+          != 0) {
+        return false;
+      }
+      knights |= getPieces(PieceType.KNIGHT, color);
+      bishops |= getPieces(PieceType.BISHOP, color);
+    }
+    if (Long.bitCount(knights | bishops) <= 1) {
+      return true;
+    }
+    return knights == 0
+        && ((bishops & Bitboard.LIGHT_SQUARES) == 0 || (bishops & ~Bitboard.LIGHT_SQUARES) == 0);
+  }
+
+  private boolean hasLegalMove(Color color) {
+    long kings = getPieces(PieceType.KING, color);
+    // the king is the only piece that can move in a double check, so it is tried first
+    if (kings != 0 && getLegalTargets(Long.numberOfTrailingZeros(kings)) != 0) {
+      return true;
+    }
+    long pieces = getOccupancy(color) & ~kings;
+    while (pieces != 0) {
+      if (getLegalTargets(Long.numberOfTrailingZeros(pieces)) != 0) {
+        return true;
+      }
+      pieces &= pieces - 1;
+    }
+    return false;
   }
 
   public void promoteTo(Position target, Piece replacedPiece) throws IllegalPromotionException {
@@ -130,11 +777,11 @@ public class ChessBoard implements Serializable {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     ChessBoard that = (ChessBoard) o;
-    return Objects.equals(board, that.board);
+    return key == that.key && occupied == that.occupied && Arrays.equals(squares, that.squares);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(board);
+    return Long.hashCode(key);
   }
 }
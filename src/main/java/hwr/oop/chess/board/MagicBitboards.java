@@ -0,0 +1,159 @@
+package hwr.oop.chess.board;
+
+/**
+ * Attack lookup tables for sliding pieces. For every square the relevant blockers are hashed with a
+ * magic multiplier into a per-square slice of a shared table, so an attack query is one multiply,
+ * one shift and one array read. The magics are searched once when the class is loaded, using a
+ * fixed seed so the tables are identical on every run.
+ */
+public final class MagicBitboards {
+  private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+  private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+  private static final long[] ROOK_MASKS = new long[64];
+  private static final long[] ROOK_MAGICS = new long[64];
+  private static final int[] ROOK_SHIFTS = new int[64];
+  private static final int[] ROOK_OFFSETS = new int[64];
+  private static final long[] ROOK_TABLE;
+
+  private static final long[] BISHOP_MASKS = new long[64];
+  private static final long[] BISHOP_MAGICS = new long[64];
+  private static final int[] BISHOP_SHIFTS = new int[64];
+  private static final int[] BISHOP_OFFSETS = new int[64];
+  private static final long[] BISHOP_TABLE;
+
+  private static long seed = 0x2545F4914F6CDD1DL;
+
+  static {
+    ROOK_TABLE = buildTable(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+    BISHOP_TABLE =
+        buildTable(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+  }
+
+  private MagicBitboards() {}
+
+  public static long rookAttacks(int square, long occupied) {
+    long blockers = occupied & ROOK_MASKS[square];
+    return ROOK_TABLE[
+        ROOK_OFFSETS[square] + (int) ((blockers * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+  }
+
+  public static long bishopAttacks(int square, long occupied) {
+    long blockers = occupied & BISHOP_MASKS[square];
+    return BISHOP_TABLE[
+        BISHOP_OFFSETS[square]
+            + (int) ((blockers * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+  }
+
+  public static long queenAttacks(int square, long occupied) {
+    return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+  }
+
+  private static long[] buildTable(
+      int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+    int size = 0;
+    for (int square = 0; square < 64; square++) {
+      masks[square] = relevantBlockers(square, directions);
+      shifts[square] = 64 - Long.bitCount(masks[square]);
+      offsets[square] = size;
+      size += 1 << Long.bitCount(masks[square]);
+    }
+    long[] table = new long[size];
+    for (int square = 0; square < 64; square++) {
+      magics[square] = findMagic(square, directions, masks[square], shifts[square]);
+      fillSlice(table, offsets[square], square, directions, masks[square], magics[square]);
+    }
+    return table;
+  }
+
+  private static long findMagic(int square, int[][] directions, long mask, int shift) {
+    int count = 1 << Long.bitCount(mask);
+    long[] occupancies = new long[count];
+    long[] attacks = new long[count];
+    int index = 0;
+    long subset = 0L;
+    do {
+      occupancies[index] = subset;
+      attacks[index] = slidingAttacks(square, subset, directions);
+      index++;
+      subset = (subset - mask) & mask;
+    } while (subset != 0);
+
+    long[] used = new long[count];
+    int[] usedInAttempt = new int[count];
+    for (int attempt = 1; ; attempt++) {
+      long magic = nextRandom() & nextRandom() & nextRandom();
+      if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+        continue;
+      }
+      boolean collision = false;
+      for (int i = 0; i < count && !collision; i++) {
+        int slot = (int) ((occupancies[i] * magic) >>> shift);
+        if (usedInAttempt[slot] != attempt) {
+          usedInAttempt[slot] = attempt;
+          used[slot] = attacks[i];
+        } else if (used[slot] != attacks[i]) {
+          collision = true;
+        }
+      }
+      if (!collision) {
+        return magic;
+      }
+    }
+  }
+
+  private static void fillSlice(
+      long[] table, int offset, int square, int[][] directions, long mask, long magic) {
+    int shift = 64 - Long.bitCount(mask);
+    long subset = 0L;
+    do {
+      table[offset + (int) ((subset * magic) >>> shift)] =
+          slidingAttacks(square, subset, directions);
+      subset = (subset - mask) & mask;
+    } while (subset != 0);
+  }
+
+  private static long relevantBlockers(int square, int[][] directions) {
+    long mask = 0L;
+    for (int[] direction : directions) {
+      int newRow = Bitboard.row(square) + direction[0];
+      int newColumn = Bitboard.column(square) + direction[1];
+      // the last square of a ray never blocks anything behind it, so it is not relevant
+      while (isInside(newRow + direction[0], newColumn + direction[1])) {
+        mask |= Bitboard.bit(Bitboard.square(newRow, newColumn));
+        newRow += direction[0];
+        newColumn += direction[1];
+      }
+    }
+    return mask;
+  }
+
+  private static long slidingAttacks(int square, long occupied, int[][] directions) {
+    long attacks = 0L;
+    for (int[] direction : directions) {
+      int newRow = Bitboard.row(square) + direction[0];
+      int newColumn = Bitboard.column(square) + direction[1];
+      while (isInside(newRow, newColumn)) {
+        long target = Bitboard.bit(Bitboard.square(newRow, newColumn));
+        attacks |= target;
+        if ((occupied & target) != 0) {
+          break;
+        }
+        newRow += direction[0];
+        newColumn += direction[1];
+      }
+    }
+    return attacks;
+  }
+
+  private static boolean isInside(int row, int column) {
+    return row >= 0 && row < 8 && column >= 0 && column < 8;
+  }
+
+  private static long nextRandom() {
+    seed ^= seed >>> 12;
+    seed ^= seed << 25;
+    seed ^= seed >>> 27;
+    return seed * 0x2545F4914F6CDD1DL;
+  }
+}
@@ -0,0 +1,119 @@
+package hwr.oop.chess.board;
+
+import hwr.oop.chess.pieces.PieceType;
+
+/**
+ * Moves packed into a single {@code int}, so they can be stored and passed around without
+ * allocating. Bits 0-5 hold the from square and bits 6-11 the to square. Bits 12-14, 15-17 and
+ * 18-20 hold the promotion type, the moving piece and the captured piece, each as piece type
+ * ordinal plus one (0 for none or unknown). The flags start at bit 21.
+ */
+public final class Move {
+  public static final int DOUBLE_PAWN_PUSH = 1 << 21;
+  public static final int CASTLING = 1 << 22;
+  public static final int EN_PASSANT = 1 << 23;
+
+  private static final int SQUARE_MASK = 0x3F;
+  private static final int TYPE_MASK = 7;
+  private static final int TO_SHIFT = 6;
+  private static final int PROMOTION_SHIFT = 12;
+  private static final int PIECE_SHIFT = 15;
+  private static final int CAPTURE_SHIFT = 18;
+  private static final int FLAGS_MASK = -1 << 21;
+  private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+  private Move() {}
+
+  public static int of(int from, int to) {
+    return from | (to << TO_SHIFT);
+  }
+
+  public static int of(int from, int to, PieceType promotion) {
+    return of(from, to) | (typeCode(promotion) << PROMOTION_SHIFT);
+  }
+
+  /** Encodes a fully described move; {@code captured} and {@code promotion} may be null. */
+  public static int of(
+      int from, int to, PieceType piece, PieceType captured, PieceType promotion, int flags) {
+    return of(from, to)
+        | (typeCode(promotion) << PROMOTION_SHIFT)
+        | (typeCode(piece) << PIECE_SHIFT)
+        | (typeCode(captured) << CAPTURE_SHIFT)
+        | flags;
+  }
+
+  private static int typeCode(PieceType type) {
+    return type == null ? 0 : type.ordinal() + 1;
+  }
+
+  private static PieceType type(int code) {
+    return code == 0 ? null : PIECE_TYPES[code - 1];
+  }
+
+  public static int from(int move) {
+    return move & SQUARE_MASK;
+  }
+
+  public static int to(int move) {
+    return (move >>> TO_SHIFT) & SQUARE_MASK;
+  }
+
+  /** Returns the piece type a pawn is promoted to, or {@code null} for other moves. */
+  public static PieceType promotion(int move) {
+    return type((move >>> PROMOTION_SHIFT) & TYPE_MASK);
+  }
+
+  /** Returns the type of the moving piece, or {@code null} if the move does not record it. */
+  public static PieceType piece(int move) {
+    return type((move >>> PIECE_SHIFT) & TYPE_MASK);
+  }
+
+  /** Returns the type of the captured piece, or {@code null} for quiet moves. */
+  public static PieceType captured(int move) {
+    return type((move >>> CAPTURE_SHIFT) & TYPE_MASK);
+  }
+
+  public static boolean isCapture(int move) {
+    return ((move >>> CAPTURE_SHIFT) & TYPE_MASK) != 0;
+  }
+
+  public static int flags(int move) {
+    return move & FLAGS_MASK;
+  }
+
+  public static boolean isCastling(int move) {
+    return (move & CASTLING) != 0;
+  }
+
+  public static boolean isEnPassant(int move) {
+    return (move & EN_PASSANT) != 0;
+  }
+
+  /**
+   * Long algebraic notation as used by UCI, e.g. {@code e2e4} or {@code e7e8q}; castling is the
+   * king's two-square move such as {@code e1g1}.
+   */
+  public static String toString(int move) {
+    StringBuilder notation = new StringBuilder(5);
+    appendSquare(notation, from(move));
+    appendSquare(notation, to(move));
+    PieceType promotion = promotion(move);
+    if (promotion != null) {
+      notation.append(promotionSymbol(promotion));
+    }
+    return notation.toString();
+  }
+
+  private static void appendSquare(StringBuilder notation, int square) {
+    notation.append((char) ('a' + Bitboard.column(square))).append(Bitboard.row(square) + 1);
+  }
+
+  private static char promotionSymbol(PieceType type) {
+    return switch (type) {
+      case KNIGHT -> 'n';
+      case BISHOP -> 'b';
+      case ROOK -> 'r';
+      default -> 'q';
+    };
+  }
+}
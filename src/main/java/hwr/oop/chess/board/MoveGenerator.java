@@ -0,0 +1,362 @@
+package hwr.oop.chess.board;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.pieces.Piece;
+import hwr.oop.chess.pieces.PieceType;
+import java.io.Serializable;
+
+/**
+ * Legal move generation for one board. Checking pieces, pinned pieces and the squares that resolve
+ * a check are worked out once per position and side; every piece of that side then only needs a
+ * few mask operations instead of trying each move on the board.
+ */
+final class MoveGenerator implements Serializable {
+  private static final long serialVersionUID = 1L;
+  private static final PieceType[] PROMOTIONS = {
+    PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT
+  };
+
+  private final ChessBoard board;
+  private final int[] analysedVersion = {-1, -1};
+  private final int[] kingSquare = new int[2];
+  private final long[] checkers = new long[2];
+  private final long[] pinned = new long[2];
+  private final long[] checkMask = new long[2];
+
+  MoveGenerator(ChessBoard board) {
+    this.board = board;
+  }
+
+  long legalTargets(int from) {
+    Piece piece = board.getPieceAt(from);
+    if (piece == null) {
+      return 0L;
+    }
+    Color color = piece.getColor();
+    int side = color.ordinal();
+    analyse(color);
+
+    long blocked = board.getOccupancy(color) | board.getPieces(PieceType.KING, color.opposite());
+    if (piece.getType() == PieceType.KING) {
+      return kingTargets(from, color, blocked) | castlingTargets(from, color);
+    }
+    if (Long.bitCount(checkers[side]) > 1) {
+      return 0L;
+    }
+
+    long occupied = board.getOccupied();
+    long targets =
+        switch (piece.getType()) {
+          case KNIGHT -> Bitboard.knightAttacksFrom(from);
+          case BISHOP -> MagicBitboards.bishopAttacks(from, occupied);
+          case ROOK -> MagicBitboards.rookAttacks(from, occupied);
+          case QUEEN -> MagicBitboards.queenAttacks(from, occupied);
+          case PAWN -> pawnTargets(from, color);
+          case KING -> 0L;
+        };
+    long enPassant = 0L;
+    if (piece.getType() == PieceType.PAWN) {
+      // an en passant capture is checked on its own, the masks below do not cover it
+      enPassant = enPassantTarget(from, color, targets);
+      targets &= ~enPassantBit(color);
+    }
+    targets &= ~blocked & checkMask[side];
+    if ((pinned[side] & Bitboard.bit(from)) != 0) {
+      targets &= Bitboard.line(kingSquare[side], from);
+    }
+    return targets | enPassant;
+  }
+
+  /**
+   * Whether the piece on {@code from} may legally move to {@code to}. A king move only asks whether
+   * the attackers of its target, seen without the king itself, are empty; any other piece tests the
+   * one bit of its legal target mask, so no move list and no attack map are built.
+   */
+  boolean isLegal(int from, int to) {
+    if (from < 0 || from >= 64 || to < 0 || to >= 64 || from == to) {
+      return false;
+    }
+    Piece piece = board.getPieceAt(from);
+    if (piece == null) {
+      return false;
+    }
+    if (piece.getType() != PieceType.KING) {
+      return (legalTargets(from) & Bitboard.bit(to)) != 0;
+    }
+    Color color = piece.getColor();
+    analyse(color);
+    long target = Bitboard.bit(to);
+    if (Bitboard.row(from) == Bitboard.row(to) && Math.abs(to - from) == 2) {
+      return (castlingTargets(from, color) & target) != 0;
+    }
+    long blocked = board.getOccupancy(color) | board.getPieces(PieceType.KING, color.opposite());
+    return (Bitboard.kingAttacksFrom(from) & ~blocked & target) != 0
+        && board.attackersTo(to, color.opposite(), board.getOccupied() & ~Bitboard.bit(from)) == 0;
+  }
+
+  /** Which moves of a side are generated; captures and quiet moves split all moves in two. */
+  enum Stage {
+    ALL,
+    CAPTURES,
+    QUIET
+  }
+
+  /**
+   * Appends the legal moves of {@code color} in the given stage, piece by piece in square order.
+   * The side is analysed once, and in double check only the king is looked at.
+   */
+  void generateMoves(Color color, Stage stage, MoveSink moves) {
+    analyse(color);
+    long pieces = board.getOccupancy(color);
+    if (Long.bitCount(checkers[color.ordinal()]) > 1) {
+      pieces &= board.getPieces(PieceType.KING, color);
+    }
+    while (pieces != 0) {
+      generateMoves(Long.numberOfTrailingZeros(pieces), stage, moves);
+      pieces &= pieces - 1;
+    }
+  }
+
+  /**
+   * Appends the legal moves of the piece on {@code from} in the given stage. Pawn moves are listed
+   * as pushes before captures, and a pawn reaching the last row yields one move per promotion type.
+   */
+  void generateMoves(int from, Stage stage, MoveSink moves) {
+    Piece piece = board.getPieceAt(from);
+    if (piece == null) {
+      return;
+    }
+    PieceType type = piece.getType();
+    Color color = piece.getColor();
+    long targets = legalTargets(from) & stageMask(type, color, stage);
+    if (targets == 0) {
+      return;
+    }
+    if (type == PieceType.PAWN) {
+      generatePawnMoves(from, color, targets, moves);
+      return;
+    }
+    while (targets != 0) {
+      int to = Long.numberOfTrailingZeros(targets);
+      int flags = type == PieceType.KING && Math.abs(to - from) == 2 ? Move.CASTLING : 0;
+      moves.accept(Move.of(from, to, type, capturedType(to), null, flags));
+      targets &= targets - 1;
+    }
+  }
+
+  /**
+   * The target squares of a stage. Captures include en passant and, as they change material just
+   * the same, pawn moves to the last row; everything else is quiet.
+   */
+  private long stageMask(PieceType type, Color color, Stage stage) {
+    if (stage == Stage.ALL) {
+      return -1L;
+    }
+    long captures = board.getOccupancy(color.opposite());
+    if (type == PieceType.PAWN) {
+      long lastRow = color == Color.WHITE ? Bitboard.RANK_1 << 56 : Bitboard.RANK_1;
+      captures |= enPassantBit(color) | lastRow;
+    }
+    return stage == Stage.CAPTURES ? captures : ~captures;
+  }
+
+  private void generatePawnMoves(int from, Color color, long targets, MoveSink moves) {
+    int forward = color == Color.WHITE ? 8 : -8;
+    long pushes = targets & ~board.getOccupied();
+    int oneStep = from + forward;
+    if (oneStep >= 0 && oneStep < 64 && (pushes & Bitboard.bit(oneStep)) != 0) {
+      addPawnMove(from, oneStep, 0, moves);
+    }
+    int twoSteps = oneStep + forward;
+    if (twoSteps >= 0 && twoSteps < 64 && (pushes & Bitboard.bit(twoSteps)) != 0) {
+      addPawnMove(from, twoSteps, Move.DOUBLE_PAWN_PUSH, moves);
+    }
+    int enPassantSquare = board.getEnPassantSquare();
+    for (int to : Bitboard.pawnCaptureTargets(from, color)) {
+      if (to == enPassantSquare && (targets & Bitboard.bit(to)) != 0) {
+        moves.accept(Move.of(from, to, PieceType.PAWN, PieceType.PAWN, null, Move.EN_PASSANT));
+      } else if ((targets & board.getOccupied() & Bitboard.bit(to)) != 0) {
+        addPawnMove(from, to, 0, moves);
+      }
+    }
+  }
+
+  private void addPawnMove(int from, int to, int flags, MoveSink moves) {
+    PieceType captured = capturedType(to);
+    int row = Bitboard.row(to);
+    if (row == 0 || row == 7) {
+      for (PieceType promotion : PROMOTIONS) {
+        moves.accept(Move.of(from, to, PieceType.PAWN, captured, promotion, flags));
+      }
+    } else {
+      moves.accept(Move.of(from, to, PieceType.PAWN, captured, null, flags));
+    }
+  }
+
+  private PieceType capturedType(int square) {
+    Piece captured = board.getPieceAt(square);
+    return captured == null ? null : captured.getType();
+  }
+
+  private void analyse(Color color) {
+    int side = color.ordinal();
+    if (analysedVersion[side] == board.getVersion()) {
+      return;
+    }
+    analysedVersion[side] = board.getVersion();
+
+    long king = board.getPieces(PieceType.KING, color);
+    if (king == 0) {
+      checkers[side] = 0L;
+      pinned[side] = 0L;
+      checkMask[side] = -1L;
+      return;
+    }
+    int square = Long.numberOfTrailingZeros(king);
+    kingSquare[side] = square;
+    checkers[side] =
+        board.isSquareAttacked(square, color.opposite())
+            ? board.attackersTo(square, color.opposite(), board.getOccupied())
+            : 0L;
+    pinned[side] = pinnedPieces(square, color);
+    if (checkers[side] == 0) {
+      checkMask[side] = -1L;
+    } else if (Long.bitCount(checkers[side]) == 1) {
+      checkMask[side] =
+          checkers[side] | Bitboard.between(square, Long.numberOfTrailingZeros(checkers[side]));
+    } else {
+      checkMask[side] = 0L;
+    }
+  }
+
+  private long pinnedPieces(int square, Color color) {
+    Color enemy = color.opposite();
+    long queens = board.getPieces(PieceType.QUEEN, enemy);
+    long snipers =
+        (MagicBitboards.rookAttacks(square, 0L) & (board.getPieces(PieceType.ROOK, enemy) | queens))
+            | (MagicBitboards.bishopAttacks(square, 0L)
+                & (board.getPieces(PieceType.BISHOP, enemy) | queens));
+    long occupied = board.getOccupied();
+    long own = board.getOccupancy(color);
+    long pinnedPieces = 0L;
+    while (snipers != 0) {
+      long blockers = Bitboard.between(square, Long.numberOfTrailingZeros(snipers)) & occupied;
+      if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+        pinnedPieces |= blockers;
+      }
+      snipers &= snipers - 1;
+    }
+    return pinnedPieces;
+  }
+
+  private long kingTargets(int from, Color color, long blocked) {
+    long targets =
+        Bitboard.kingAttacksFrom(from) & ~blocked & ~board.getAttackedSquares(color.opposite());
+    // the attack maps stop at the king, so it must not step back along a checking slider's line
+    Color enemy = color.opposite();
+    long sliders =
+        checkers[color.ordinal()]
+            & (board.getPieces(PieceType.ROOK, enemy)
+                | board.getPieces(PieceType.BISHOP, enemy)
+                | board.getPieces(PieceType.QUEEN, enemy));
+    while (sliders != 0) {
+      int checker = Long.numberOfTrailingZeros(sliders);
+      targets &= ~(Bitboard.line(from, checker) & ~Bitboard.bit(checker));
+      sliders &= sliders - 1;
+    }
+    return targets;
+  }
+
+  /**
+   * The king's two-square moves towards a rook it may still castle with: the squares between them
+   * are empty, and the king is not in check and does not pass or land on an attacked square.
+   */
+  private long castlingTargets(int from, Color color) {
+    int rights = board.getCastlingRights();
+    int home = color == Color.WHITE ? 0 : 56;
+    if (from != home + 4
+        || (rights & (CastlingRights.kingside(color) | CastlingRights.queenside(color))) == 0
+        || checkers[color.ordinal()] != 0) {
+      return 0L;
+    }
+    long occupied = board.getOccupied();
+    long attacked = board.getAttackedSquares(color.opposite());
+    long rooks = board.getPieces(PieceType.ROOK, color);
+    long targets = 0L;
+    long kingside = Bitboard.bit(home + 5) | Bitboard.bit(home + 6);
+    if ((rights & CastlingRights.kingside(color)) != 0
+        && (rooks & Bitboard.bit(home + 7)) != 0
+        && ((occupied | attacked) & kingside) == 0) {
+      targets |= Bitboard.bit(home + 6);
+    }
+    long queensidePath = Bitboard.bit(home + 2) | Bitboard.bit(home + 3);
+    if ((rights & CastlingRights.queenside(color)) != 0
+        && (rooks & Bitboard.bit(home)) != 0
+        && (occupied & (queensidePath | Bitboard.bit(home + 1))) == 0
+        && (attacked & queensidePath) == 0) {
+      targets |= Bitboard.bit(home + 2);
+    }
+    return targets;
+  }
+
+  /**
+   * The en passant square if the pawn on {@code from} can legally capture there. Capturing takes
+   * two pawns off the same row at once, which may uncover an attack on the king that the pin mask
+   * does not see, so the position after the capture is checked against the enemy sliders.
+   */
+  private long enPassantTarget(int from, Color color, long targets) {
+    int square = board.getEnPassantSquare();
+    if (square == ChessBoard.NO_SQUARE || (targets & Bitboard.bit(square)) == 0) {
+      return 0L;
+    }
+    int side = color.ordinal();
+    int victim = square + (color == Color.WHITE ? -8 : 8);
+    Color enemy = color.opposite();
+    if (board.getPieces(PieceType.KING, color) == 0) {
+      return Bitboard.bit(square);
+    }
+    long leapers =
+        board.getPieces(PieceType.KNIGHT, enemy) | board.getPieces(PieceType.PAWN, enemy);
+    if ((checkers[side] & leapers & ~Bitboard.bit(victim)) != 0) {
+      return 0L;
+    }
+    long occupied =
+        (board.getOccupied() & ~Bitboard.bit(from) & ~Bitboard.bit(victim)) | Bitboard.bit(square);
+    long queens = board.getPieces(PieceType.QUEEN, enemy);
+    int king = kingSquare[side];
+    boolean exposed =
+        (MagicBitboards.rookAttacks(king, occupied)
+                    & (board.getPieces(PieceType.ROOK, enemy) | queens))
+                != 0
+            || (MagicBitboards.bishopAttacks(king, occupied)
+                    & (board.getPieces(PieceType.BISHOP, enemy) | queens))
+                != 0;
+    return exposed ? 0L : Bitboard.bit(square);
+  }
+
+  /** The en passant square as a bitboard, for the pawns of the side to move only. */
+  private long enPassantBit(Color color) {
+    int square = board.getEnPassantSquare();
+    if (square == ChessBoard.NO_SQUARE || color != board.getSideToMove()) {
+      return 0L;
+    }
+    return Bitboard.bit(square);
+  }
+
+  private long pawnTargets(int from, Color color) {
+    long enemies = board.getOccupancy(color.opposite()) | enPassantBit(color);
+    long targets = Bitboard.pawnAttacksFrom(from, color) & enemies;
+    int forward = color == Color.WHITE ? 8 : -8;
+    int startRow = color == Color.WHITE ? 1 : 6;
+    int oneStep = from + forward;
+    long empty = ~board.getOccupied();
+    if (oneStep >= 0 && oneStep < 64 && (empty & Bitboard.bit(oneStep)) != 0) {
+      targets |= Bitboard.bit(oneStep);
+      int twoSteps = oneStep + forward;
+      if (Bitboard.row(from) == startRow && (empty & Bitboard.bit(twoSteps)) != 0) {
+        targets |= Bitboard.bit(twoSteps);
+      }
+    }
+    return targets;
+  }
+}
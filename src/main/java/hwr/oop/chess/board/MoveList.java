@@ -0,0 +1,62 @@
+package hwr.oop.chess.board;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of {@link Move} encoded moves backed by an {@code int[]}. Generators append to it
+ * without boxing; callers are expected to {@link #clear()} and reuse one list per search ply.
+ */
+public final class MoveList implements MoveSink {
+  private int[] moves;
+  private int size;
+
+  public MoveList() {
+    this(64);
+  }
+
+  public MoveList(int initialCapacity) {
+    moves = new int[Math.max(initialCapacity, 1)];
+  }
+
+  public void add(int move) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, size * 2);
+    }
+    moves[size++] = move;
+  }
+
+  @Override
+  public void accept(int move) {
+    add(move);
+  }
+
+  public int get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+    return moves[index];
+  }
+
+  /** Exchanges two entries, for move ordering that picks the best remaining move in place. */
+  public void swap(int first, int second) {
+    int move = get(first);
+    moves[first] = get(second);
+    moves[second] = move;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public int[] toArray() {
+    return Arrays.copyOf(moves, size);
+  }
+}
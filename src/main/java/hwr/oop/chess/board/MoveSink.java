@@ -0,0 +1,10 @@
+package hwr.oop.chess.board;
+
+/**
+ * Receives the {@link Move} encoded moves of a generator one at a time. {@link MoveList} collects
+ * them; a lambda can count or filter them without any list at all.
+ */
+@FunctionalInterface
+public interface MoveSink {
+  void accept(int move);
+}
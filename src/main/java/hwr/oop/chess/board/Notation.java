@@ -0,0 +1,116 @@
+package hwr.oop.chess.board;
+
+import hwr.oop.chess.pieces.PieceType;
+
+/**
+ * Standard algebraic notation (SAN) as used by PGN and EPD, e.g. {@code Nbd7}, {@code exd5},
+ * {@code O-O} or {@code e8=Q+}. Moves are converted against the legal moves of a board, so the
+ * notation is only as ambiguous as the position requires.
+ */
+public final class Notation {
+
+  private Notation() {}
+
+  /** SAN of a legal move of the side to move, with {@code +} or {@code #} for check and mate. */
+  public static String san(ChessBoard board, int move) {
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+    StringBuilder san = new StringBuilder(8);
+    PieceType piece = Move.piece(move);
+    int from = Move.from(move);
+    int to = Move.to(move);
+    boolean castling = piece == PieceType.KING && Math.abs(to - from) == 2;
+    if (castling) {
+      san.append(to > from ? "O-O" : "O-O-O");
+    } else if (piece == PieceType.PAWN) {
+      if (Move.isCapture(move)) {
+        san.append(file(from)).append('x');
+      }
+    } else {
+      san.append(letter(piece)).append(disambiguation(moves, move));
+      if (Move.isCapture(move)) {
+        san.append('x');
+      }
+    }
+    if (!castling) {
+      san.append(file(to)).append(Bitboard.row(to) + 1);
+    }
+    if (Move.promotion(move) != null) {
+      san.append('=').append(letter(Move.promotion(move)));
+    }
+    board.makeMove(move);
+    if (board.isInCheck(board.getSideToMove())) {
+      moves.clear();
+      board.generateLegalMoves(moves);
+      san.append(moves.isEmpty() ? '#' : '+');
+    }
+    board.unmakeMove();
+    return san.toString();
+  }
+
+  /**
+   * Finds the legal move written in SAN or in long algebraic notation ({@code e2e4}). Check marks
+   * and annotations such as {@code !?} are ignored.
+   *
+   * @return the move, or 0 if no legal move has that notation
+   */
+  public static int parse(ChessBoard board, String notation) {
+    String wanted = strip(notation);
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      if (Move.toString(move).equals(wanted) || strip(san(board, move)).equals(wanted)) {
+        return move;
+      }
+    }
+    return 0;
+  }
+
+  private static String strip(String notation) {
+    return notation.replaceAll("[+#!?]", "").replace('0', 'O');
+  }
+
+  private static String disambiguation(MoveList moves, int move) {
+    int from = Move.from(move);
+    boolean ambiguous = false;
+    boolean sameFile = false;
+    boolean sameRow = false;
+    for (int i = 0; i < moves.size(); i++) {
+      int other = moves.get(i);
+      int otherFrom = Move.from(other);
+      if (otherFrom != from
+          && Move.to(other) == Move.to(move)
+          && Move.piece(other) == Move.piece(move)) {
+        ambiguous = true;
+        sameFile |= Bitboard.column(otherFrom) == Bitboard.column(from);
+        sameRow |= Bitboard.row(otherFrom) == Bitboard.row(from);
+      }
+    }
+    if (!ambiguous) {
+      return "";
+    }
+    if (!sameFile) {
+      return String.valueOf(file(from));
+    }
+    if (!sameRow) {
+      return String.valueOf(Bitboard.row(from) + 1);
+    }
+    return "" + file(from) + (Bitboard.row(from) + 1);
+  }
+
+  private static char file(int square) {
+    return (char) ('a' + Bitboard.column(square));
+  }
+
+  private static char letter(PieceType type) {
+    return switch (type) {
+      case KING -> 'K';
+      case QUEEN -> 'Q';
+      case ROOK -> 'R';
+      case BISHOP -> 'B';
+      case KNIGHT -> 'N';
+      case PAWN -> 'P';
+    };
+  }
+}
@@ -0,0 +1,15 @@
+package hwr.oop.chess.board;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.pieces.PieceType;
+
+/**
+ * Gets told about every piece that is put on or taken off a {@link ChessBoard}, including the
+ * changes made by {@link ChessBoard#makeMove(int)} and {@link ChessBoard#unmakeMove()}, so it can
+ * keep its own incremental state in step with the board.
+ */
+public interface PieceListener {
+  void pieceAdded(PieceType type, Color color, int square);
+
+  void pieceRemoved(PieceType type, Color color, int square);
+}
@@ -0,0 +1,136 @@
+package hwr.oop.chess.board;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.pieces.PieceType;
+
+/**
+ * Piece values and piece-square tables in centipawns. The tables are written from white's point of
+ * view with the eighth row first, as they are usually printed; black uses them mirrored. Only the
+ * king has a separate endgame table, the other pieces use the same values in both phases.
+ */
+public final class PieceSquareTables {
+  /** Material without pawns and kings at the start, the weight of a pure middlegame. */
+  public static final int OPENING_PHASE = 2 * (2 * 320 + 2 * 330 + 2 * 500 + 900);
+
+  private static final int PIECE_TYPES = PieceType.values().length;
+  private static final int[] VALUES = new int[PIECE_TYPES];
+  private static final int[][] MIDDLEGAME = new int[2 * PIECE_TYPES][64];
+  private static final int[][] ENDGAME = new int[2 * PIECE_TYPES][64];
+
+  private static final int[] PAWN_TABLE = {
+    0, 0, 0, 0, 0, 0, 0, 0,
+    50, 50, 50, 50, 50, 50, 50, 50,
+    10, 10, 20, 30, 30, 20, 10, 10,
+    5, 5, 10, 25, 25, 10, 5, 5,
+    0, 0, 0, 20, 20, 0, 0, 0,
+    5, -5, -10, 0, 0, -10, -5, 5,
+    5, 10, 10, -20, -20, 10, 10, 5,
+    0, 0, 0, 0, 0, 0, 0, 0
+  };
+  private static final int[] KNIGHT_TABLE = {
+    -50, -40, -30, -30, -30, -30, -40, -50,
+    -40, -20, 0, 0, 0, 0, -20, -40,
+    -30, 0, 10, 15, 15, 10, 0, -30,
+    -30, 5, 15, 20, 20, 15, 5, -30,
+    -30, 0, 15, 20, 20, 15, 0, -30,
+    -30, 5, 10, 15, 15, 10, 5, -30,
+    -40, -20, 0, 5, 5, 0, -20, -40,
+    -50, -40, -30, -30, -30, -30, -40, -50
+  };
+  private static final int[] BISHOP_TABLE = {
+    -20, -10, -10, -10, -10, -10, -10, -20,
+    -10, 0, 0, 0, 0, 0, 0, -10,
+    -10, 0, 5, 10, 10, 5, 0, -10,
+    -10, 5, 5, 10, 10, 5, 5, -10,
+    -10, 0, 10, 10, 10, 10, 0, -10,
+    -10, 10, 10, 10, 10, 10, 10, -10,
+    -10, 5, 0, 0, 0, 0, 5, -10,
+    -20, -10, -10, -10, -10, -10, -10, -20
+  };
+  private static final int[] ROOK_TABLE = {
+    0, 0, 0, 0, 0, 0, 0, 0,
+    5, 10, 10, 10, 10, 10, 10, 5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    0, 0, 0, 5, 5, 0, 0, 0
+  };
+  private static final int[] QUEEN_TABLE = {
+    -20, -10, -10, -5, -5, -10, -10, -20,
+    -10, 0, 0, 0, 0, 0, 0, -10,
+    -10, 0, 5, 5, 5, 5, 0, -10,
+    -5, 0, 5, 5, 5, 5, 0, -5,
+    0, 0, 5, 5, 5, 5, 0, -5,
+    -10, 5, 5, 5, 5, 5, 0, -10,
+    -10, 0, 5, 0, 0, 0, 0, -10,
+    -20, -10, -10, -5, -5, -10, -10, -20
+  };
+  private static final int[] KING_MIDDLEGAME_TABLE = {
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -20, -30, -30, -40, -40, -30, -30, -20,
+    -10, -20, -20, -20, -20, -20, -20, -10,
+    20, 20, 0, 0, 0, 0, 20, 20,
+    20, 30, 10, 0, 0, 10, 30, 20
+  };
+  private static final int[] KING_ENDGAME_TABLE = {
+    -50, -40, -30, -20, -20, -30, -40, -50,
+    -30, -20, -10, 0, 0, -10, -20, -30,
+    -30, -10, 20, 30, 30, 20, -10, -30,
+    -30, -10, 30, 40, 40, 30, -10, -30,
+    -30, -10, 30, 40, 40, 30, -10, -30,
+    -30, -10, 20, 30, 30, 20, -10, -30,
+    -30, -30, 0, 0, 0, 0, -30, -30,
+    -50, -30, -30, -30, -30, -30, -30, -50
+  };
+  static {
+    VALUES[PieceType.PAWN.ordinal()] = 100;
+    VALUES[PieceType.KNIGHT.ordinal()] = 320;
+    VALUES[PieceType.BISHOP.ordinal()] = 330;
+    VALUES[PieceType.ROOK.ordinal()] = 500;
+    VALUES[PieceType.QUEEN.ordinal()] = 900;
+    VALUES[PieceType.KING.ordinal()] = 0;
+    fill(PieceType.PAWN, PAWN_TABLE, PAWN_TABLE);
+    fill(PieceType.KNIGHT, KNIGHT_TABLE, KNIGHT_TABLE);
+    fill(PieceType.BISHOP, BISHOP_TABLE, BISHOP_TABLE);
+    fill(PieceType.ROOK, ROOK_TABLE, ROOK_TABLE);
+    fill(PieceType.QUEEN, QUEEN_TABLE, QUEEN_TABLE);
+    fill(PieceType.KING, KING_MIDDLEGAME_TABLE, KING_ENDGAME_TABLE);
+  }
+
+  private static void fill(PieceType type, int[] middlegame, int[] endgame) {
+    for (Color color : Color.values()) {
+      int index = color.ordinal() * PIECE_TYPES + type.ordinal();
+      for (int square = 0; square < 64; square++) {
+        int row = Bitboard.row(square);
+        int printedRow = color == Color.WHITE ? 7 - row : row;
+        int printedIndex = printedRow * 8 + Bitboard.column(square);
+        MIDDLEGAME[index][square] = middlegame[printedIndex];
+        ENDGAME[index][square] = endgame[printedIndex];
+      }
+    }
+  }
+
+  private PieceSquareTables() {}
+
+  public static int value(PieceType type) {
+    return VALUES[type.ordinal()];
+  }
+
+  /** Weight of a piece for telling middlegame from endgame: its value, except pawns and kings. */
+  public static int phase(PieceType type) {
+    return type == PieceType.PAWN ? 0 : VALUES[type.ordinal()];
+  }
+
+  public static int middlegame(PieceType type, Color color, int square) {
+    return MIDDLEGAME[color.ordinal() * PIECE_TYPES + type.ordinal()][square];
+  }
+
+  public static int endgame(PieceType type, Color color, int square) {
+    return ENDGAME[color.ordinal() * PIECE_TYPES + type.ordinal()][square];
+  }
+}
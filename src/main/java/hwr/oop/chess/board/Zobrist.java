@@ -0,0 +1,62 @@
+package hwr.oop.chess.board;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.pieces.PieceType;
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the key of every piece on
+ * its square, of the castling rights, of the en passant file if there is one and of {@link
+ * #sideToMove()} when black is to move, so a move only has to XOR the keys of what it changes. The
+ * keys come from a fixed seed and are the same on every run.
+ */
+public final class Zobrist {
+  private static final int PIECE_TYPES = PieceType.values().length;
+  private static final long[][] PIECE_SQUARE_KEYS = new long[2 * PIECE_TYPES][64];
+  private static final long SIDE_TO_MOVE_KEY;
+  private static final long[] CASTLING_KEYS = new long[CastlingRights.ALL + 1];
+  private static final long[] EN_PASSANT_KEYS = new long[8];
+
+  static {
+    SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+    for (long[] keys : PIECE_SQUARE_KEYS) {
+      for (int square = 0; square < 64; square++) {
+        keys[square] = random.nextLong();
+      }
+    }
+    SIDE_TO_MOVE_KEY = random.nextLong();
+    // one key per right; a combination of rights is the XOR of its keys
+    long[] rightKeys = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+    for (int rights = 0; rights <= CastlingRights.ALL; rights++) {
+      for (int right = 0; right < rightKeys.length; right++) {
+        if ((rights & 1 << right) != 0) {
+          CASTLING_KEYS[rights] ^= rightKeys[right];
+        }
+      }
+    }
+    for (int file = 0; file < EN_PASSANT_KEYS.length; file++) {
+      EN_PASSANT_KEYS[file] = random.nextLong();
+    }
+  }
+
+  private Zobrist() {}
+
+  public static long piece(PieceType type, Color color, int square) {
+    return PIECE_SQUARE_KEYS[color.ordinal() * PIECE_TYPES + type.ordinal()][square];
+  }
+
+  /** Key that is mixed in while black is to move. */
+  public static long sideToMove() {
+    return SIDE_TO_MOVE_KEY;
+  }
+
+  /** Key of a set of {@link CastlingRights}; 0 for none. */
+  public static long castling(int rights) {
+    return CASTLING_KEYS[rights];
+  }
+
+  /** Key of the file of an en passant square. */
+  public static long enPassant(int square) {
+    return EN_PASSANT_KEYS[Bitboard.column(square)];
+  }
+}
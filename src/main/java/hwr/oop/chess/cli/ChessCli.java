@@ -1,5 +1,6 @@
 package hwr.oop.chess.cli;
 
+import hwr.oop.chess.board.Move;
 import hwr.oop.chess.domain.GameAlreadyExistsException;
 import hwr.oop.chess.domain.GameNotFoundException;
 import hwr.oop.chess.domain.IllegalMoveBecauseKingIsInCheckException;
@@ -8,14 +9,34 @@ import hwr.oop.chess.Position;
 import hwr.oop.chess.domain.RemiWasNotOfferedException;
 import hwr.oop.chess.pieces.IllegalMoveException;
 import hwr.oop.chess.pieces.Piece;
+import hwr.oop.chess.engine.BatchAnalysisException;
+import hwr.oop.chess.engine.BatchFormat;
+import hwr.oop.chess.engine.BatchSummary;
+import hwr.oop.chess.engine.BookMove;
+import hwr.oop.chess.engine.EndgameMaterial;
+import hwr.oop.chess.engine.EvaluationBreakdown;
+import hwr.oop.chess.engine.MateResult;
+import hwr.oop.chess.engine.OpeningBookException;
+import hwr.oop.chess.engine.PerftResult;
+import hwr.oop.chess.engine.Search;
+import hwr.oop.chess.engine.SearchResult;
+import hwr.oop.chess.engine.Tablebase;
+import hwr.oop.chess.engine.TablebaseException;
+import hwr.oop.chess.engine.TablebaseResult;
+import hwr.oop.chess.game.FENException;
 import hwr.oop.chess.game.Game;
 import hwr.oop.chess.domain.GameLogic;
 import hwr.oop.chess.player.Player;
 
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
 
 public class ChessCli {
 
@@ -28,6 +49,11 @@ public class ChessCli {
   public static final String ANSI_GREEN = "\u001B[32m";
   public static final String ANSI_RED = "\u001B[31m";
   private static final String ANSI_RESET = "\u001B[0m ";
+  private static final long DEFAULT_HINT_MOVE_TIME_MILLIS = 1000;
+  private static final String DEFAULT_BOOK_PATH = "data/book.bin";
+  private static final String DEFAULT_TABLEBASE_PATH = "data/tablebases";
+  private static final int DEFAULT_BATCH_DEPTH = 6;
+  private static final Set<String> HINT_OPTIONS = Set.of("--depth", "--movetime", "--playouts");
 
   private final PrintStream out;
   private final GameLogic gameLogic;
@@ -56,6 +82,14 @@ public class ChessCli {
       case "resign" -> handleResign(arguments);
       case "offer-remi" -> handleOfferRemi(arguments);
       case "accept-remi" -> handleAccept(arguments);
+      case "perft" -> handlePerft(arguments);
+      case "hint" -> handleHint(arguments);
+      case "solve-mate" -> handleSolveMate(arguments);
+      case "eval" -> handleEval(arguments);
+      case "book" -> handleBook(arguments);
+      case "tb-probe" -> handleTablebaseProbe(arguments);
+      case "tb-generate" -> handleTablebaseGenerate(arguments);
+      case "analyze-batch" -> handleAnalyzeBatch(arguments);
       default -> handleUnknownCommand(command);
     }
   }
@@ -182,6 +216,218 @@ public class ChessCli {
     acceptRemi(gameID);
   }
 
+  private void handlePerft(List<String> arguments) {
+    int depth = arguments.size() >= 2 ? parsePositiveNumber(arguments.get(1)) : 0;
+    if (depth < 1) {
+      out.println(INVALID_COMMAND);
+      out.println("Usage: chess perft <DEPTH> [--divide] [--parallel] [FEN]");
+      return;
+    }
+
+    boolean divide = false;
+    boolean parallel = false;
+    List<String> fenParts = new ArrayList<>();
+    for (String argument : arguments.subList(2, arguments.size())) {
+      switch (argument) {
+        case "--divide" -> divide = true;
+        case "--parallel" -> parallel = true;
+        default -> fenParts.add(argument);
+      }
+    }
+    String fenNotation = fenParts.isEmpty() ? null : String.join(" ", fenParts);
+    runPerft(fenNotation, depth, divide, parallel);
+  }
+
+  private void handleHint(List<String> arguments) {
+    int depth = 0;
+    int moveTimeMillis = 0;
+    int playouts = 0;
+    boolean monteCarlo = false;
+    boolean validArguments = arguments.size() >= 2;
+    for (int i = 2; validArguments && i < arguments.size(); i++) {
+      String option = arguments.get(i);
+      if (option.equals("--mcts")) {
+        monteCarlo = true;
+        continue;
+      }
+      // an unknown option must not take the argument after it as its value
+      boolean hasValue = HINT_OPTIONS.contains(option) && i + 1 < arguments.size();
+      int value = hasValue ? parsePositiveNumber(arguments.get(++i)) : 0;
+      switch (option) {
+        case "--depth" -> depth = value;
+        case "--movetime" -> moveTimeMillis = value;
+        case "--playouts" -> playouts = value;
+        default -> {}
+      }
+      validArguments = value >= 1;
+    }
+    // a depth limit only makes sense for alpha-beta, a playout limit only for Monte Carlo
+    validArguments &= depth == 0 || (moveTimeMillis == 0 && !monteCarlo);
+    validArguments &= playouts == 0 || monteCarlo;
+    if (!validArguments) {
+      out.println(INVALID_COMMAND);
+      out.println("Usage: chess hint <ID> [--depth N | --movetime ms] [--mcts [--playouts N]]");
+      return;
+    }
+
+    String gameID = arguments.get(1);
+    long timeLimit =
+        depth == 0 && moveTimeMillis == 0 && playouts == 0
+            ? DEFAULT_HINT_MOVE_TIME_MILLIS
+            : moveTimeMillis;
+    if (monteCarlo) {
+      long playoutLimit = playouts;
+      showHint(gameID, game -> gameLogic.monteCarloHint(game, playoutLimit, timeLimit));
+    } else {
+      int depthLimit = depth == 0 ? Search.MAX_PLY - 1 : depth;
+      showHint(gameID, game -> gameLogic.hint(game, depthLimit, timeLimit));
+    }
+  }
+
+  private void handleEval(List<String> arguments) {
+    if (arguments.size() != 2) {
+      out.println(INVALID_COMMAND);
+      out.println("Usage: chess eval <ID>");
+      return;
+    }
+
+    String gameID = arguments.get(1);
+    printEvaluation(gameID);
+  }
+
+  private void handleBook(List<String> arguments) {
+    String bookPath = DEFAULT_BOOK_PATH;
+    String keysPath = null;
+    boolean valid = arguments.size() >= 2 && arguments.size() % 2 == 0;
+    for (int i = 2; valid && i < arguments.size(); i += 2) {
+      switch (arguments.get(i)) {
+        case "--book" -> bookPath = arguments.get(i + 1);
+        case "--keys" -> keysPath = arguments.get(i + 1);
+        default -> valid = false;
+      }
+    }
+    if (!valid) {
+      out.println(INVALID_COMMAND);
+      out.println("Usage: chess book <ID> [--book FILE] [--keys FILE]");
+      return;
+    }
+
+    String gameID = arguments.get(1);
+    printBookMoves(gameID, Path.of(bookPath), keysPath == null ? null : Path.of(keysPath));
+  }
+
+  private void handleTablebaseProbe(List<String> arguments) {
+    List<String> fenParts = new ArrayList<>(arguments.subList(1, arguments.size()));
+    Path directory = removeDirectoryOption(fenParts);
+    if (directory == null || fenParts.isEmpty()) {
+      out.println(INVALID_COMMAND);
+      out.println("Usage: chess tb-probe <FEN> [--dir DIR]");
+      return;
+    }
+
+    probeTablebase(String.join(" ", fenParts), directory);
+  }
+
+  private void handleTablebaseGenerate(List<String> arguments) {
+    List<String> names = new ArrayList<>(arguments.subList(1, arguments.size()));
+    Path directory = removeDirectoryOption(names);
+    List<EndgameMaterial> materials = new ArrayList<>();
+    for (String name : names) {
+      Arrays.stream(EndgameMaterial.values())
+          .filter(material -> material.name().equalsIgnoreCase(name))
+          .findFirst()
+          .ifPresent(materials::add);
+    }
+    if (directory == null || materials.size() != names.size()) {
+      out.println(INVALID_COMMAND);
+      out.println("Usage: chess tb-generate [MATERIAL...] [--dir DIR]");
+      out.println("Materials: " + Arrays.toString(EndgameMaterial.values()));
+      return;
+    }
+
+    if (materials.isEmpty()) {
+      materials.addAll(List.of(EndgameMaterial.values()));
+    }
+    generateTablebases(materials, directory);
+  }
+
+  private void handleAnalyzeBatch(List<String> arguments) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    int depth = DEFAULT_BATCH_DEPTH;
+    int moveTimeMillis = 0;
+    BatchFormat format = BatchFormat.CSV;
+    String output = null;
+    boolean valid = arguments.size() >= 2 && arguments.size() % 2 == 0;
+    for (int i = 2; valid && i < arguments.size(); i += 2) {
+      String value = arguments.get(i + 1);
+      switch (arguments.get(i)) {
+        case "--threads" -> threads = parsePositiveNumber(value);
+        case "--depth" -> depth = parsePositiveNumber(value);
+        case "--movetime" -> moveTimeMillis = parsePositiveNumber(value);
+        case "--output" -> output = value;
+        case "--format" -> {
+          valid = value.equals("csv") || value.equals("jsonl");
+          format = value.equals("jsonl") ? BatchFormat.JSONL : BatchFormat.CSV;
+        }
+        default -> valid = false;
+      }
+    }
+    if (!valid || threads < 1 || depth < 1 || moveTimeMillis < 0) {
+      out.println(INVALID_COMMAND);
+      out.println(
+          "Usage: chess analyze-batch <FILE> [--threads N] [--depth D] [--movetime ms]"
+              + " [--format csv|jsonl] [--output FILE]");
+      return;
+    }
+
+    Path input = Path.of(arguments.get(1));
+    Path outputFile = output != null ? Path.of(output) : resultFile(input, format.extension());
+    analyzeBatch(input, outputFile, format, threads, depth, moveTimeMillis);
+  }
+
+  /** The input file with its extension replaced, e.g. {@code suite.csv} for {@code suite.epd}. */
+  private static Path resultFile(Path input, String extension) {
+    String name = input.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    String base = dot > 0 ? name.substring(0, dot) : name;
+    return input.resolveSibling(base + "." + extension);
+  }
+
+  /** Takes {@code --dir DIR} out of the arguments; null if it has no value. */
+  private static Path removeDirectoryOption(List<String> arguments) {
+    int index = arguments.indexOf("--dir");
+    if (index < 0) {
+      return Path.of(DEFAULT_TABLEBASE_PATH);
+    }
+    if (index + 1 == arguments.size()) {
+      return null;
+    }
+    Path directory = Path.of(arguments.get(index + 1));
+    arguments.subList(index, index + 2).clear();
+    return directory;
+  }
+
+  private void handleSolveMate(List<String> arguments) {
+    int moves = arguments.size() >= 3 ? parsePositiveNumber(arguments.get(1)) : 0;
+    if (moves < 1) {
+      out.println(INVALID_COMMAND);
+      out.println("Usage: chess solve-mate <N> <FEN>");
+      return;
+    }
+
+    String fenNotation = String.join(" ", arguments.subList(2, arguments.size()));
+    solveMate(fenNotation, moves);
+  }
+
+  /** The number of a count or limit argument, or 0 if it is not a number. */
+  private int parsePositiveNumber(String number) {
+    try {
+      return Integer.parseInt(number);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
   private void handleUnknownCommand(String command) {
     out.println("Unknown command: " + command);
     out.println("For help and further information: chess help");
@@ -198,6 +444,23 @@ public class ChessCli {
     out.println("  - resign <ID>: Resign the current game");
     out.println("  - offer-remi <ID>: Offer a remi");
     out.println("  - accept-remi <ID>: Accept a remi");
+    out.println(
+        "  - perft <DEPTH> [--divide] [--parallel] [FEN]: Count move generator leaf nodes");
+    out.println(
+        "  - hint <ID> [--depth N | --movetime ms] [--mcts [--playouts N]]: Let the engine suggest"
+            + " a move");
+    out.println("  - solve-mate <N> <FEN>: Prove or refute a forced mate in N moves");
+    out.println("  - eval <ID>: Show the static evaluation of a chess game");
+    out.println(
+        "  - book <ID> [--book FILE] [--keys FILE]: Look up a game in a Polyglot opening book");
+    out.println("  - tb-probe <FEN> [--dir DIR]: Look up an endgame in the tablebases");
+    out.println(
+        "  - tb-generate [MATERIAL...] [--dir DIR]: Build endgame tablebases, e.g. KQK KRK KPK"
+            + " KBNK");
+    out.println(
+        "  - analyze-batch <FILE> [--threads N] [--depth D] [--movetime ms] [--format csv|jsonl]"
+            + " [--output FILE]: Analyse all positions of an EPD or FEN file");
+    out.println("  - uci: Run as an engine speaking UCI on standard input and output");
     out.println("  - help: Display this help message");
   }
 
@@ -246,11 +509,11 @@ public class ChessCli {
   private void movePiece(String from, String to, String gameID) {
     try {
       loadCurrentGameIfNecessary(gameID);
-      boolean isCheckMate = gameLogic.moveTo(from, to, currentGame);
+      boolean isGameOver = gameLogic.moveTo(from, to, currentGame);
       out.println("Moving piece in game " + gameID + " from " + from + " to " + to);
       gameLogic.saveGame(currentGame);
       printChessboard(gameID);
-      if (isCheckMate) {
+      if (isGameOver) {
         String victoryMessage = gameLogic.endGame(currentGame);
         out.println(victoryMessage);
       }
@@ -336,6 +599,192 @@ public class ChessCli {
     }
   }
 
+  private void runPerft(String fenNotation, int depth, boolean divide, boolean parallel) {
+    try {
+      PerftResult result = gameLogic.perft(fenNotation, depth, parallel);
+      if (divide) {
+        result.divide().forEach((move, nodes) -> out.println(move + ": " + nodes));
+      }
+      out.println("Perft depth " + depth + ": " + result.nodes() + " nodes");
+      out.println(
+          "Time: "
+              + result.nanos() / 1_000_000
+              + " ms ("
+              + result.nodesPerSecond()
+              + " nodes per second)");
+    } catch (FENException e) {
+      out.println(e.getMessage());
+    }
+  }
+
+  private void showHint(String gameID, Function<Game, SearchResult> search) {
+    try {
+      loadCurrentGameIfNecessary(gameID);
+      SearchResult result = search.apply(currentGame);
+      if (!result.hasBestMove()) {
+        out.println("There is no legal move in game " + gameID + ".");
+        return;
+      }
+      out.println(
+          "Best move: "
+              + Move.toString(result.bestMove())
+              + " (score "
+              + result.formattedScore()
+              + ", depth "
+              + result.depth()
+              + ")");
+      out.println("Principal variation: " + String.join(" ", result.principalVariation()));
+      printSearchStatistics(result.nodes(), result.nanos(), result.nodesPerSecond());
+    } catch (GameNotFoundException e) {
+      out.println(GAME_NOT_EXIST);
+      out.println(e.getMessage());
+    }
+  }
+
+  private void printEvaluation(String gameID) {
+    try {
+      loadCurrentGameIfNecessary(gameID);
+      EvaluationBreakdown evaluation = gameLogic.evaluate(currentGame);
+      out.println("Evaluation of game " + gameID + " in centipawns (positive is good for white):");
+      out.println("  Material:       " + formatCentipawns(evaluation.material()));
+      out.println("  Piece-square:   " + formatCentipawns(evaluation.pieceSquare()));
+      out.println("  Mobility:       " + formatCentipawns(evaluation.mobility()));
+      out.println("  King safety:    " + formatCentipawns(evaluation.kingSafety()));
+      out.println("  Pawn structure: " + formatCentipawns(evaluation.pawnStructure()));
+      out.println("  Total:          " + formatCentipawns(evaluation.total()));
+    } catch (GameNotFoundException e) {
+      out.println(GAME_NOT_EXIST);
+      out.println(e.getMessage());
+    }
+  }
+
+  private void printBookMoves(String gameID, Path bookFile, Path keysFile) {
+    try {
+      loadCurrentGameIfNecessary(gameID);
+      List<BookMove> moves =
+          keysFile == null
+              ? gameLogic.bookMoves(currentGame, bookFile)
+              : gameLogic.bookMoves(currentGame, bookFile, keysFile);
+      if (moves.isEmpty()) {
+        out.println("Game " + gameID + " is out of book.");
+        return;
+      }
+      int totalWeight = moves.stream().mapToInt(BookMove::weight).sum();
+      out.println("Book moves for game " + gameID + ":");
+      for (BookMove move : moves) {
+        out.printf(
+            Locale.ROOT,
+            "  %-6s weight %5d (%.1f%%)%n",
+            Move.toString(move.move()),
+            move.weight(),
+            100.0 * move.weight() / totalWeight);
+      }
+    } catch (GameNotFoundException e) {
+      out.println(GAME_NOT_EXIST);
+      out.println(e.getMessage());
+    } catch (OpeningBookException e) {
+      out.println(e.getMessage());
+    }
+  }
+
+  private void probeTablebase(String fenNotation, Path directory) {
+    try {
+      TablebaseResult result = gameLogic.probeTablebase(fenNotation, directory);
+      switch (result.outcome()) {
+        case WIN ->
+            out.println(
+                "The side to move wins: mate in "
+                    + result.movesToMate()
+                    + " ("
+                    + result.plies()
+                    + " plies).");
+        case LOSS ->
+            out.println(
+                result.plies() == 0
+                    ? "The side to move is checkmated."
+                    : "The side to move loses: mated in "
+                        + result.movesToMate()
+                        + " ("
+                        + result.plies()
+                        + " plies).");
+        case DRAW -> out.println("The position is a draw.");
+      }
+    } catch (FENException | TablebaseException e) {
+      out.println(e.getMessage());
+    }
+  }
+
+  private void generateTablebases(List<EndgameMaterial> materials, Path directory) {
+    try {
+      long start = System.nanoTime();
+      for (Tablebase table : gameLogic.generateTablebases(materials, directory)) {
+        out.println(
+            "Wrote "
+                + directory.resolve(Tablebase.fileName(table.getMaterial()))
+                + ": "
+                + table.getPositionCount()
+                + " positions, longest mate "
+                + table.getLongestMatePlies()
+                + " plies");
+      }
+      out.println("Time: " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    } catch (TablebaseException e) {
+      out.println(e.getMessage());
+    }
+  }
+
+  private void analyzeBatch(
+      Path input, Path output, BatchFormat format, int threads, int depth, long moveTimeMillis) {
+    try {
+      BatchSummary summary =
+          gameLogic.analyzeBatch(input, output, format, threads, depth, moveTimeMillis);
+      out.println(
+          "Analysed "
+              + summary.positions()
+              + " positions ("
+              + summary.errors()
+              + " invalid) on "
+              + threads
+              + " threads.");
+      if (summary.tests() > 0) {
+        out.println("Solved " + summary.solved() + " of " + summary.tests() + " test positions.");
+      }
+      printSearchStatistics(summary.nodes(), summary.nanos(), summary.nodesPerSecond());
+      out.println("Results written to " + output);
+    } catch (BatchAnalysisException e) {
+      out.println(e.getMessage());
+    }
+  }
+
+  private static String formatCentipawns(int centipawns) {
+    return String.format("%+d", centipawns);
+  }
+
+  private void solveMate(String fenNotation, int moves) {
+    try {
+      MateResult result = gameLogic.solveMate(fenNotation, moves);
+      if (result.found()) {
+        out.println("Mate in " + result.moves() + ": " + String.join(" ", result.line()));
+      } else {
+        out.println("No forced mate in " + moves + " moves.");
+      }
+      printSearchStatistics(result.nodes(), result.nanos(), result.nodesPerSecond());
+    } catch (FENException e) {
+      out.println(e.getMessage());
+    }
+  }
+
+  private void printSearchStatistics(long nodes, long nanos, long nodesPerSecond) {
+    out.println(
+        "Searched "
+            + nodes
+            + " nodes in "
+            + nanos / 1_000_000
+            + " ms ("
+            + nodesPerSecond
+            + " nodes per second)");
+  }
+
   public void loadCurrentGameIfNecessary(String gameID) throws GameNotFoundException {
     if (currentGame == null || !currentGame.getId().equals(gameID)) {
       currentGame = gameLogic.loadGame(gameID);
@@ -366,8 +815,8 @@ public class ChessCli {
   public void printChessboardRowWithHighlights(
       int row, List<Position> highlightPositions, List<Position> capturePositions) {
     for (int column = 0; column < 8; column++) {
-      Position pos = new Position(row, column);
-      Piece piece = currentGame.getBoard().getBoard().get(row).get(column);
+      Position pos = Position.of(row, column);
+      Piece piece = currentGame.getBoard().getPieceAt(pos.square());
       if (capturePositions.contains(pos)) {
         out.print(ANSI_RED + (piece != null ? piece.getSymbol() : "*") + ANSI_RESET);
       } else if (highlightPositions.contains(pos)) {
@@ -18,6 +18,10 @@ public class Main {
 
   @SuppressWarnings("java:S106")
   public static void main(String[] args) {
+    if (args.length == 1 && args[0].equals("uci")) {
+      new UciEngine(System.in, System.out).run();
+      return;
+    }
     GameLogic gameLogic = new GameLogic(persistence);
     ChessCli cli = new ChessCli(System.out, gameLogic);
     cli.handle(List.of(args));
@@ -0,0 +1,280 @@
+package hwr.oop.chess.cli;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MoveList;
+import hwr.oop.chess.engine.Search;
+import hwr.oop.chess.engine.SearchResult;
+import hwr.oop.chess.engine.TranspositionTable;
+import hwr.oop.chess.game.FENException;
+import hwr.oop.chess.game.Game;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Speaks the Universal Chess Interface, so the engine can be driven by chess GUIs and tournament
+ * managers. Commands are read line by line; {@code go} searches on a background thread, so {@code
+ * stop} and {@code isready} are answered while it runs.
+ */
+public class UciEngine {
+  private static final String ENGINE_NAME = "chess-g4";
+  private static final int DEFAULT_HASH_MEGABYTES = 16;
+  private static final int MAX_HASH_MEGABYTES = 1024;
+  private static final int DEFAULT_MOVES_TO_GO = 30;
+  private static final long MOVE_OVERHEAD_MILLIS = 30;
+
+  private final BufferedReader in;
+  private final PrintStream out;
+  private ChessBoard board = new ChessBoard();
+  private TranspositionTable table = new TranspositionTable(DEFAULT_HASH_MEGABYTES);
+  private Search search;
+  private Thread searchThread;
+  private CountDownLatch stopSignal = new CountDownLatch(0);
+
+  public UciEngine(InputStream in, OutputStream out) {
+    this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    this.out = new PrintStream(out, true, StandardCharsets.UTF_8);
+  }
+
+  /** Handles commands until {@code quit} or the end of the input. */
+  public void run() {
+    try {
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (!handle(line)) {
+          return;
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      stopSearch();
+    }
+  }
+
+  /** Handles one command line; returns false once the engine should quit. */
+  boolean handle(String line) {
+    List<String> tokens = Arrays.asList(line.trim().split("\\s+"));
+    switch (tokens.getFirst()) {
+      case "uci" -> {
+        out.println("id name " + ENGINE_NAME);
+        out.println("id author HWR OOP group 4");
+        out.println(
+            "option name Hash type spin default "
+                + DEFAULT_HASH_MEGABYTES
+                + " min 1 max "
+                + MAX_HASH_MEGABYTES);
+        out.println("uciok");
+      }
+      case "isready" -> out.println("readyok");
+      case "ucinewgame" -> {
+        stopSearch();
+        table.clear();
+        board = new ChessBoard();
+      }
+      case "setoption" -> setOption(tokens);
+      case "position" -> {
+        stopSearch();
+        setPosition(tokens);
+      }
+      case "go" -> {
+        stopSearch();
+        go(tokens);
+      }
+      case "stop" -> stopSearch();
+      case "quit" -> {
+        return false;
+      }
+      case "" -> {
+        // blank lines are ignored
+      }
+      default -> out.println("info string Unknown command: " + tokens.getFirst());
+    }
+    return true;
+  }
+
+  private void setOption(List<String> tokens) {
+    int nameIndex = tokens.indexOf("name");
+    int valueIndex = tokens.indexOf("value");
+    if (nameIndex < 0 || valueIndex != nameIndex + 2 || valueIndex + 1 >= tokens.size()) {
+      out.println("info string Usage: setoption name <NAME> value <VALUE>");
+      return;
+    }
+    if (!tokens.get(nameIndex + 1).equalsIgnoreCase("Hash")) {
+      out.println("info string Unknown option: " + tokens.get(nameIndex + 1));
+      return;
+    }
+    long megabytes = parseNumber(tokens.get(valueIndex + 1));
+    if (megabytes < 1 || megabytes > MAX_HASH_MEGABYTES) {
+      out.println("info string Hash must be between 1 and " + MAX_HASH_MEGABYTES + " MB");
+      return;
+    }
+    stopSearch();
+    table = new TranspositionTable((int) megabytes);
+  }
+
+  private void setPosition(List<String> tokens) {
+    int movesIndex = tokens.indexOf("moves");
+    int end = movesIndex < 0 ? tokens.size() : movesIndex;
+    try {
+      if (tokens.size() > 1 && tokens.get(1).equals("startpos")) {
+        board = new ChessBoard();
+      } else if (tokens.size() > 2 && tokens.get(1).equals("fen")) {
+        board = Game.boardFromFEN(String.join(" ", tokens.subList(2, end)));
+      } else {
+        out.println("info string Usage: position [startpos | fen <FEN>] [moves <MOVES>]");
+        return;
+      }
+    } catch (FENException e) {
+      out.println("info string " + e.getMessage());
+      return;
+    }
+    if (movesIndex >= 0) {
+      for (String move : tokens.subList(movesIndex + 1, tokens.size())) {
+        if (!playMove(move)) {
+          out.println("info string Illegal move: " + move);
+          return;
+        }
+      }
+    }
+  }
+
+  private boolean playMove(String notation) {
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+    for (int i = 0; i < moves.size(); i++) {
+      if (Move.toString(moves.get(i)).equals(notation)) {
+        board.makeMove(moves.get(i));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void go(List<String> tokens) {
+    int depth = Search.MAX_PLY - 1;
+    long moveTime = 0;
+    long whiteTime = -1;
+    long blackTime = -1;
+    long whiteIncrement = 0;
+    long blackIncrement = 0;
+    long movesToGo = DEFAULT_MOVES_TO_GO;
+    boolean infinite = false;
+    for (int i = 1; i < tokens.size(); i++) {
+      long value = i + 1 < tokens.size() ? parseNumber(tokens.get(i + 1)) : -1;
+      switch (tokens.get(i)) {
+        case "depth" -> depth = (int) Math.clamp(value, 1, Search.MAX_PLY - 1);
+        case "movetime" -> moveTime = Math.max(value, 1);
+        case "wtime" -> whiteTime = value;
+        case "btime" -> blackTime = value;
+        case "winc" -> whiteIncrement = Math.max(value, 0);
+        case "binc" -> blackIncrement = Math.max(value, 0);
+        case "movestogo" -> movesToGo = Math.max(value, 1);
+        case "infinite" -> infinite = true;
+        default -> {
+          // values and unsupported parameters such as nodes or ponder are skipped
+        }
+      }
+    }
+    boolean whiteToMove = board.getSideToMove() == Color.WHITE;
+    long remaining = whiteToMove ? whiteTime : blackTime;
+    if (moveTime == 0 && remaining >= 0 && !infinite) {
+      long increment = whiteToMove ? whiteIncrement : blackIncrement;
+      moveTime = allocateTime(remaining, increment, movesToGo);
+    }
+    startSearch(depth, moveTime, infinite);
+  }
+
+  private static long allocateTime(long remaining, long increment, long movesToGo) {
+    long budget = remaining / movesToGo + increment / 2;
+    return Math.max(1, Math.min(budget, remaining - MOVE_OVERHEAD_MILLIS));
+  }
+
+  private void startSearch(int depth, long moveTime, boolean infinite) {
+    Search newSearch = new Search(board.copy(), table);
+    newSearch.setIterationListener(this::printInfo);
+    CountDownLatch newStopSignal = new CountDownLatch(1);
+    search = newSearch;
+    stopSignal = newStopSignal;
+    searchThread =
+        new Thread(
+            () -> {
+              SearchResult result = newSearch.search(depth, moveTime);
+              if (infinite) {
+                // in infinite mode the best move may only be sent after stop
+                awaitQuietly(newStopSignal);
+              }
+              printBestMove(result);
+            },
+            "uci-search");
+    searchThread.start();
+  }
+
+  /** Stops a running search and waits until it has sent its best move. */
+  void stopSearch() {
+    if (searchThread == null) {
+      return;
+    }
+    search.stop();
+    stopSignal.countDown();
+    try {
+      searchThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    searchThread = null;
+  }
+
+  /** Waits until a search that ends on its own has finished. */
+  void awaitSearch() throws InterruptedException {
+    if (searchThread != null) {
+      searchThread.join();
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void printInfo(SearchResult result) {
+    out.println(
+        "info depth "
+            + result.depth()
+            + " score "
+            + (result.isMate() ? "mate " + result.mateIn() : "cp " + result.score())
+            + " nodes "
+            + result.nodes()
+            + " nps "
+            + result.nodesPerSecond()
+            + " time "
+            + result.nanos() / 1_000_000
+            + " pv "
+            + String.join(" ", result.principalVariation()));
+  }
+
+  private void printBestMove(SearchResult result) {
+    out.println("bestmove " + (result.hasBestMove() ? Move.toString(result.bestMove()) : "0000"));
+  }
+
+  private static long parseNumber(String value) {
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
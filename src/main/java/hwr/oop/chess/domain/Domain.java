@@ -1,10 +1,25 @@
 package hwr.oop.chess.domain;
 
 import hwr.oop.chess.*;
+import hwr.oop.chess.engine.BatchAnalysisException;
+import hwr.oop.chess.engine.BatchFormat;
+import hwr.oop.chess.engine.BatchSummary;
+import hwr.oop.chess.engine.BookMove;
+import hwr.oop.chess.engine.EndgameMaterial;
+import hwr.oop.chess.engine.EvaluationBreakdown;
+import hwr.oop.chess.engine.OpeningBookException;
+import hwr.oop.chess.engine.MateResult;
+import hwr.oop.chess.engine.PerftResult;
+import hwr.oop.chess.engine.SearchResult;
+import hwr.oop.chess.engine.Tablebase;
+import hwr.oop.chess.engine.TablebaseException;
+import hwr.oop.chess.engine.TablebaseResult;
+import hwr.oop.chess.game.FENException;
 import hwr.oop.chess.game.Game;
 import hwr.oop.chess.pieces.IllegalMoveException;
 import hwr.oop.chess.player.Player;
 
+import java.nio.file.Path;
 import java.util.List;
 
 /** Interface defining the basic functionalities for the chess game. */
@@ -73,7 +88,8 @@ public interface Domain {
    * @param oldPositionString The old position of the piece. (e.g. a1)
    * @param newPositionString The new position of the piece. (e.g. c2)
    * @param game The game in which the move is performed.
-   * @return true, if this move led to check mate.
+   * @return true, if this move ended the game by checkmate, stalemate, threefold repetition, the
+   *     fifty-move rule or insufficient material.
    * @throws ConvertInputToPositionException If the oldPositionString or newPositionString does not
    *     have the right format.
    * @throws IllegalMoveException If the move is illegal.
@@ -145,4 +161,126 @@ public interface Domain {
    */
   List<Position> getCaptureMoves(
       String currentPositionString, List<Position> possibleMoves, Game game);
+
+  /**
+   * Counts the leaf nodes of the legal move tree of a position (perft), broken down per root move.
+   *
+   * @param fenNotation The position to count from, or null for the initial position.
+   * @param depth The number of plies to look ahead, at least 1.
+   * @param parallel Whether the root moves are counted in parallel on a fork-join pool.
+   * @return The node count, the count per root move and the time it took.
+   * @throws FENException If the FEN notation is invalid.
+   */
+  PerftResult perft(String fenNotation, int depth, boolean parallel);
+
+  /**
+   * Proves or refutes a forced mate for the side to move, searching the move tree in parallel on
+   * a fork-join pool. The shortest mate within the limit is reported.
+   *
+   * @param fenNotation The position to solve.
+   * @param moves The maximum number of moves of the side to move until mate, at least 1.
+   * @return Whether a mate was found, the proving line and search statistics.
+   * @throws FENException If the FEN notation is invalid.
+   */
+  MateResult solveMate(String fenNotation, int moves);
+
+  /**
+   * Searches the current position of a game for the best move of the side to move. The game itself
+   * is not changed.
+   *
+   * @param game The game to give a hint for.
+   * @param depth The deepest iteration of the search in plies, at least 1.
+   * @param moveTimeMillis The time budget in milliseconds, or 0 to search until the depth is done.
+   * @return The best move with its score, the expected line of play and search statistics.
+   */
+  SearchResult hint(Game game, int depth, long moveTimeMillis);
+
+  /**
+   * Recommends a move for the side to move by Monte Carlo tree search, running random playouts on
+   * all threads of a fork-join pool. The game itself is not changed.
+   *
+   * @param game The game to give a hint for.
+   * @param playouts The number of playouts to run, or 0 for no limit.
+   * @param moveTimeMillis The time budget in milliseconds, or 0 for no limit.
+   * @return The most visited move, its winning chance as a score, the most visited line and the
+   *     number of playouts as nodes.
+   * @throws IllegalArgumentException If neither a playout nor a time budget is given.
+   */
+  SearchResult monteCarloHint(Game game, long playouts, long moveTimeMillis);
+
+  /**
+   * Evaluates the current position of a game without searching.
+   *
+   * @param game The game to evaluate.
+   * @return The score in centipawns from white's point of view, broken down into material,
+   *     piece-square tables, mobility, king safety and pawn structure.
+   */
+  EvaluationBreakdown evaluate(Game game);
+
+  /**
+   * Looks up the current position of a game in a Polyglot opening book, using the standard
+   * {@code Random64} keys of the Polyglot format. Books are memory-mapped once and kept open for
+   * later lookups.
+   *
+   * @param game The game to look up.
+   * @param bookFile The Polyglot {@code .bin} book.
+   * @return The legal book moves with their weights, most weight first.
+   * @throws OpeningBookException If the book cannot be read.
+   */
+  List<BookMove> bookMoves(Game game, Path bookFile);
+
+  /**
+   * Looks up the current position of a game in a Polyglot opening book whose keys are built from
+   * another table than the standard one.
+   *
+   * @param game The game to look up.
+   * @param bookFile The Polyglot {@code .bin} book.
+   * @param keysFile The text file with the 781 {@code Random64} keys to use.
+   * @return The legal book moves with their weights, most weight first.
+   * @throws OpeningBookException If the book or the key file cannot be read.
+   */
+  List<BookMove> bookMoves(Game game, Path bookFile, Path keysFile);
+
+  /**
+   * Looks up a position in the endgame tablebases of a directory. Tables are memory-mapped once
+   * and kept open for later lookups.
+   *
+   * @param fenNotation The position to look up.
+   * @param directory The directory with the tables, as written by {@link #generateTablebases}.
+   * @return Whether the side to move wins, draws or loses with perfect play, and in how many plies
+   *     it is mated.
+   * @throws FENException If the FEN notation is invalid.
+   * @throws TablebaseException If there is no table for the material on the board, the table
+   *     cannot be read or the side not to move is in check.
+   */
+  TablebaseResult probeTablebase(String fenNotation, Path directory);
+
+  /**
+   * Builds endgame tablebases by retrograde analysis on a fork-join pool and writes them to a
+   * directory. The tables pawns promote into are built as well, unless the directory already has
+   * them.
+   *
+   * @param materials The endgames to build.
+   * @param directory The directory to write the tables to; it is created if needed.
+   * @return The built tables, in the order they were built.
+   * @throws TablebaseException If a table cannot be written.
+   */
+  List<Tablebase> generateTablebases(List<EndgameMaterial> materials, Path directory);
+
+  /**
+   * Analyses every position of an EPD or FEN file on a pool of worker threads and streams one
+   * result per position to an output file, in input order. Positions with {@code bm} or {@code am}
+   * opcodes are scored as test positions.
+   *
+   * @param input The EPD or FEN file, one position per line.
+   * @param output The file to write the results to.
+   * @param format Whether to write CSV or JSON lines.
+   * @param threads The number of worker threads, at least 1.
+   * @param depth The search depth per position in plies, at least 1.
+   * @param moveTimeMillis The time budget per position in milliseconds, or 0 for none.
+   * @return The number of positions, errors and solved tests, and the nodes and time of the run.
+   * @throws BatchAnalysisException If the input cannot be read or the output cannot be written.
+   */
+  BatchSummary analyzeBatch(
+      Path input, Path output, BatchFormat format, int threads, int depth, long moveTimeMillis);
 }
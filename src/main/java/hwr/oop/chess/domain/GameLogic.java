@@ -1,17 +1,56 @@
 package hwr.oop.chess.domain;
 
 import hwr.oop.chess.*;
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MoveList;
+import hwr.oop.chess.engine.BatchAnalysis;
+import hwr.oop.chess.engine.BatchAnalysisException;
+import hwr.oop.chess.engine.BatchFormat;
+import hwr.oop.chess.engine.BatchSummary;
+import hwr.oop.chess.engine.BookMove;
+import hwr.oop.chess.engine.EndgameMaterial;
+import hwr.oop.chess.engine.Evaluation;
+import hwr.oop.chess.engine.EvaluationBreakdown;
+import hwr.oop.chess.engine.MateResult;
+import hwr.oop.chess.engine.MateSolver;
+import hwr.oop.chess.engine.MonteCarloSearch;
+import hwr.oop.chess.engine.OpeningBook;
+import hwr.oop.chess.engine.Perft;
+import hwr.oop.chess.engine.PerftResult;
+import hwr.oop.chess.engine.PolyglotKeys;
+import hwr.oop.chess.engine.Search;
+import hwr.oop.chess.engine.SearchResult;
+import hwr.oop.chess.engine.Tablebase;
+import hwr.oop.chess.engine.TablebaseException;
+import hwr.oop.chess.engine.TablebaseResult;
+import hwr.oop.chess.engine.TranspositionTable;
 import hwr.oop.chess.game.Game;
 import hwr.oop.chess.persistence.Persistence;
 import hwr.oop.chess.pieces.*;
 import hwr.oop.chess.player.Player;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 public class GameLogic implements Domain {
+  private static final int HINT_TABLE_MEGABYTES = 16;
 
   Persistence persistence;
+  // opened books by book file, and key file unless they use the standard keys
+  private final Map<List<Path>, OpeningBook> books = new ConcurrentHashMap<>();
+  // opened and generated tablebases by file
+  private final Map<Path, Tablebase> tablebases = new ConcurrentHashMap<>();
 
   public GameLogic(Persistence persistence) {
     this.persistence = persistence;
@@ -87,7 +126,7 @@ public class GameLogic implements Domain {
   @Override
   public void promotePiece(Game game, String positionString, String type) {
     Position position = convertInputToPosition(positionString);
-    Piece currentPiece = game.getBoard().getPieceAtPosition(position);
+    Piece currentPiece = game.getBoard().getPieceAt(position.square());
     if (currentPiece == null) {
       throw new IllegalPromotionException("Promotion is not allowed. No piece at given position.");
     }
@@ -123,7 +162,7 @@ public class GameLogic implements Domain {
               + ". The start and end positions are the same.");
     }
 
-    Piece currentPiece = game.getBoard().getPieceAtPosition(oldPosition);
+    Piece currentPiece = game.getBoard().getPieceAt(oldPosition.square());
 
     if (currentPiece == null) {
       throw new IllegalMoveException("No piece at the specified position: " + oldPosition);
@@ -137,14 +176,18 @@ public class GameLogic implements Domain {
               + currentPiece.getColor());
     }
 
-    List<Position> possibleMoves = currentPiece.possibleMoves();
-    if (!possibleMoves.contains(newPosition)) {
+    int from = oldPosition.square();
+    int to = newPosition.square();
+    if (!game.getBoard().isLegal(from, to)) {
 
-      if (game.getBoard().getKingOfColor(game.getNextToMove()).isInCheck()) {
+      if (game.getBoard().isInCheck(game.getNextToMove())) {
         throw new IllegalMoveBecauseKingIsInCheckException();
       }
       String firstTwoPossibleMoves =
-          possibleMoves.stream().limit(2).map(Position::toString).collect(Collectors.joining(", "));
+          currentPiece.possibleMoves().stream()
+              .limit(2)
+              .map(Position::toString)
+              .collect(Collectors.joining(", "));
       throw new IllegalMoveException(
           "Illegal move to position: "
               + newPosition
@@ -152,30 +195,42 @@ public class GameLogic implements Domain {
               + firstTwoPossibleMoves);
     }
 
-    currentPiece.moveTo(newPosition);
+    // promotion is chosen separately with promotePiece, so the pawn itself is moved
+    game.getBoard().makeMove(Move.of(from, to));
     game.offerRemi(false);
-    game.toggleNextToMove();
-    saveGame(game);
-    if (game.getBoard().isCheckMate()) {
+    GameStatus status = game.getBoard().evaluateStatus(game.getNextToMove());
+    if (status == GameStatus.CHECKMATE) {
       if (game.getNextToMove() == Color.WHITE) {
         game.declareWinner(GameOutcome.BLACK);
 
       } else {
         game.declareWinner(GameOutcome.WHITE);
       }
-      return true;
+    } else if (status.isDraw()) {
+      game.declareWinner(GameOutcome.REMI);
     }
-    return false;
+    // saved once the outcome is declared, so that a finished game is not loaded as running
+    saveGame(game);
+    return status.isGameOver();
   }
 
   @Override
   public List<Position> getPossibleMoves(String currentPositionString, Game game) {
     Position currentPosition = convertInputToPosition(currentPositionString);
-    Piece currentPiece = game.getBoard().getPieceAtPosition(currentPosition);
-    if (currentPiece == null) {
-      return new ArrayList<>();
+    MoveList moves = new MoveList();
+    game.getBoard().generateMoves(currentPosition.square(), moves);
+
+    List<Position> possibleMoves = new ArrayList<>(moves.size());
+    int previousTarget = -1;
+    for (int i = 0; i < moves.size(); i++) {
+      int target = Move.to(moves.get(i));
+      // promotions are listed once per piece type but lead to the same position
+      if (target != previousTarget) {
+        possibleMoves.add(Position.of(target));
+        previousTarget = target;
+      }
     }
-    return currentPiece.possibleMoves();
+    return possibleMoves;
   }
 
   @Override
@@ -183,10 +238,17 @@ public class GameLogic implements Domain {
       String currentPositionString, List<Position> possibleMoves, Game game) {
     Position currentPosition = convertInputToPosition(currentPositionString);
     List<Position> captureMoves = new ArrayList<>();
-    Piece piece = game.getBoard().getPieceAtPosition(currentPosition);
+    Piece piece = game.getBoard().getPieceAt(currentPosition.square());
+    if (piece == null) {
+      return captureMoves;
+    }
+    long enemies = game.getBoard().getOccupancy(piece.getColor().opposite());
+    int enPassantSquare = game.getBoard().getEnPassantSquare();
+    if (piece.getType() == PieceType.PAWN && enPassantSquare != ChessBoard.NO_SQUARE) {
+      enemies |= Bitboard.bit(enPassantSquare);
+    }
     for (Position pos : possibleMoves) {
-      Piece targetPiece = game.getBoard().getPieceAtPosition(pos);
-      if (isEnemyPiece(piece, targetPiece)) {
+      if ((enemies & Bitboard.bit(pos.square())) != 0) {
         captureMoves.add(pos);
       }
     }
@@ -283,6 +345,100 @@ public class GameLogic implements Domain {
     return victoryMessage;
   }
 
+  @Override
+  public PerftResult perft(String fenNotation, int depth, boolean parallel) {
+    ChessBoard board = fenNotation == null ? new ChessBoard() : Game.boardFromFEN(fenNotation);
+    if (parallel) {
+      return Perft.divideParallel(board, depth, ForkJoinPool.commonPool());
+    }
+    return Perft.divide(board, depth);
+  }
+
+  @Override
+  public MateResult solveMate(String fenNotation, int moves) {
+    return MateSolver.solve(Game.boardFromFEN(fenNotation), moves, ForkJoinPool.commonPool());
+  }
+
+  @Override
+  public SearchResult hint(Game game, int depth, long moveTimeMillis) {
+    TranspositionTable table = new TranspositionTable(HINT_TABLE_MEGABYTES);
+    Search search = new Search(game.getBoard().copy(), table);
+    return search.search(depth, moveTimeMillis);
+  }
+
+  @Override
+  public EvaluationBreakdown evaluate(Game game) {
+    return Evaluation.breakdown(game.getBoard());
+  }
+
+  @Override
+  public SearchResult monteCarloHint(Game game, long playouts, long moveTimeMillis) {
+    return MonteCarloSearch.search(
+        game.getBoard().copy(), playouts, moveTimeMillis, ForkJoinPool.commonPool());
+  }
+
+  @Override
+  public List<BookMove> bookMoves(Game game, Path bookFile) {
+    OpeningBook book =
+        books.computeIfAbsent(
+            List.of(bookFile), files -> OpeningBook.open(bookFile, PolyglotKeys.standard()));
+    return book.lookup(game.getBoard().copy());
+  }
+
+  @Override
+  public List<BookMove> bookMoves(Game game, Path bookFile, Path keysFile) {
+    OpeningBook book =
+        books.computeIfAbsent(
+            List.of(bookFile, keysFile),
+            files -> OpeningBook.open(bookFile, PolyglotKeys.load(keysFile)));
+    return book.lookup(game.getBoard().copy());
+  }
+
+  @Override
+  public TablebaseResult probeTablebase(String fenNotation, Path directory) {
+    ChessBoard board = Game.boardFromFEN(fenNotation);
+    EndgameMaterial material =
+        EndgameMaterial.of(board)
+            .orElseThrow(() -> new TablebaseException("There is no tablebase for this position"));
+    Path file = directory.resolve(Tablebase.fileName(material));
+    return tablebases.computeIfAbsent(file, Tablebase::open).probe(board);
+  }
+
+  @Override
+  public List<Tablebase> generateTablebases(List<EndgameMaterial> materials, Path directory) {
+    Map<EndgameMaterial, Tablebase> built = new EnumMap<>(EndgameMaterial.class);
+    List<Tablebase> generated = new ArrayList<>();
+    // the enum order has the tables pawns promote into first
+    for (EndgameMaterial material : EndgameMaterial.values()) {
+      boolean requested = materials.contains(material);
+      boolean required =
+          materials.stream().anyMatch(other -> other.promotionTables().contains(material));
+      Path file = directory.resolve(Tablebase.fileName(material));
+      if (!requested && required && Files.exists(file)) {
+        built.put(material, tablebases.computeIfAbsent(file, Tablebase::open));
+      } else if (requested || required) {
+        Tablebase table = Tablebase.generate(material, built, ForkJoinPool.commonPool());
+        table.write(file);
+        tablebases.put(file, table);
+        built.put(material, table);
+        generated.add(table);
+      }
+    }
+    return generated;
+  }
+
+  @Override
+  public BatchSummary analyzeBatch(
+      Path input, Path output, BatchFormat format, int threads, int depth, long moveTimeMillis) {
+    try (BufferedReader reader = Files.newBufferedReader(input);
+        Writer writer = Files.newBufferedWriter(output);
+        ForkJoinPool pool = new ForkJoinPool(threads)) {
+      return BatchAnalysis.run(reader, writer, format, depth, moveTimeMillis, pool);
+    } catch (IOException e) {
+      throw new BatchAnalysisException("Could not analyse " + input + ": " + e);
+    }
+  }
+
   public boolean isEnemyPiece(Piece piece, Piece targetPiece) {
     return piece != null && targetPiece != null && !piece.getColor().equals(targetPiece.getColor());
   }
@@ -335,7 +491,7 @@ public class GameLogic implements Domain {
           "Invalid position. Position must be within the chessboard.");
     }
 
-    return new Position(row, column);
+    return Position.of(row, column);
   }
 
   private boolean gameExists(String gameId) {
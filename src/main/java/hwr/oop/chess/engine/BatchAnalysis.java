@@ -0,0 +1,236 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.Notation;
+import hwr.oop.chess.game.FENException;
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.pieces.PieceType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Analyses the positions of an EPD or FEN file, one line each, on the threads of a fork-join pool.
+ * Lines are read and results written as the analysis goes: a few positions per thread are in
+ * flight at any time and each thread takes the next line as soon as it is done. Results that
+ * finish before a slower line ahead of them wait in a bounded reorder buffer, so memory stays
+ * flat however long the file is, and results are written in input order. Every thread searches
+ * with its own transposition table, cleared for each position, so the results do not depend on
+ * which thread analysed what.
+ *
+ * <p>Blank lines and lines starting with {@code #} are skipped; lines that are not a valid position
+ * are reported as errors without stopping the run, and so are positions that cannot occur in a
+ * game: a side without exactly one king, pawns on the first or eighth rank, or the side not to
+ * move in check. Error rows show the line as it was read.
+ */
+public final class BatchAnalysis {
+  private static final int TABLE_MEGABYTES = 4;
+  private static final int POSITIONS_PER_THREAD = 4;
+  private static final int REORDERED_PER_THREAD = 64;
+
+  private final int depth;
+  private final long moveTimeMillis;
+  private final ThreadLocal<TranspositionTable> tables =
+      ThreadLocal.withInitial(() -> new TranspositionTable(TABLE_MEGABYTES));
+  private long positions;
+  private long errors;
+  private long tests;
+  private long solved;
+  private long nodes;
+
+  private BatchAnalysis(int depth, long moveTimeMillis) {
+    this.depth = depth;
+    this.moveTimeMillis = moveTimeMillis;
+  }
+
+  /**
+   * Analyses every position of {@code input} to {@code depth} plies, or until {@code
+   * moveTimeMillis} are up if that is not 0, and writes one line per position to {@code output}.
+   *
+   * @throws BatchAnalysisException if reading or writing fails
+   */
+  public static BatchSummary run(
+      BufferedReader input,
+      Writer output,
+      BatchFormat format,
+      int depth,
+      long moveTimeMillis,
+      ForkJoinPool pool) {
+    return run(input, output, format, depth, moveTimeMillis, pool, text -> {});
+  }
+
+  /** As above; {@code beforeAnalysis} is called with each line first, so tests can slow it. */
+  static BatchSummary run(
+      BufferedReader input,
+      Writer output,
+      BatchFormat format,
+      int depth,
+      long moveTimeMillis,
+      ForkJoinPool pool,
+      Consumer<String> beforeAnalysis) {
+    long start = System.nanoTime();
+    BatchAnalysis analysis = new BatchAnalysis(depth, moveTimeMillis);
+    int threads = Math.max(1, pool.getParallelism());
+    int window = POSITIONS_PER_THREAD * threads;
+    int reorderLimit = REORDERED_PER_THREAD * threads;
+    CompletionService<BatchResult> completion = new ExecutorCompletionService<>(pool);
+    Set<Future<BatchResult>> running = new HashSet<>();
+    // line numbers in input order, and the results that finished before a line ahead of them
+    Deque<Long> order = new ArrayDeque<>();
+    Map<Long, BatchResult> finished = new HashMap<>();
+    try {
+      if (format.header() != null) {
+        output.write(format.header() + '\n');
+      }
+      long lineNumber = 0;
+      String line;
+      while ((line = input.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank() || line.startsWith("#")) {
+          continue;
+        }
+        // a slow line only holds back the output, the threads go on with the lines after it
+        while (running.size() == window || order.size() == reorderLimit) {
+          analysis.collect(completion, running, order, finished, output, format);
+        }
+        long number = lineNumber;
+        String text = line;
+        order.addLast(number);
+        running.add(
+            completion.submit(
+                () -> {
+                  beforeAnalysis.accept(text);
+                  return analysis.analyse(number, text);
+                }));
+      }
+      while (!running.isEmpty()) {
+        analysis.collect(completion, running, order, finished, output, format);
+      }
+      output.flush();
+    } catch (IOException e) {
+      throw new BatchAnalysisException("Batch analysis failed: " + e.getMessage());
+    } finally {
+      running.forEach(task -> task.cancel(true));
+    }
+    return new BatchSummary(
+        analysis.positions,
+        analysis.errors,
+        analysis.tests,
+        analysis.solved,
+        analysis.nodes,
+        System.nanoTime() - start);
+  }
+
+  /** Waits for the next analysis to finish and writes all results that are now in order. */
+  private void collect(
+      CompletionService<BatchResult> completion,
+      Set<Future<BatchResult>> running,
+      Deque<Long> order,
+      Map<Long, BatchResult> finished,
+      Writer output,
+      BatchFormat format)
+      throws IOException {
+    BatchResult result;
+    try {
+      Future<BatchResult> task = completion.take();
+      running.remove(task);
+      result = task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BatchAnalysisException("Batch analysis was interrupted");
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException cause
+          ? cause
+          : new BatchAnalysisException("Batch analysis failed: " + e.getCause());
+    }
+    finished.put(result.line(), result);
+    while (!order.isEmpty() && finished.containsKey(order.peekFirst())) {
+      write(finished.remove(order.removeFirst()), output, format);
+    }
+  }
+
+  private BatchResult analyse(long line, String text) {
+    EpdPosition position = EpdPosition.parse(text);
+    ChessBoard board;
+    try {
+      board = Game.boardFromFEN(position.fen());
+    } catch (FENException e) {
+      return BatchResult.error(line, text, position, e.getMessage());
+    }
+    String invalid = whyInvalid(board);
+    if (invalid != null) {
+      return BatchResult.error(line, text, position, invalid);
+    }
+    TranspositionTable table = tables.get();
+    table.clear();
+    SearchResult result = new Search(board.copy(), table).search(depth, moveTimeMillis);
+    if (!result.hasBestMove()) {
+      return new BatchResult(line, text, position, result, "", false, null);
+    }
+    String san = Notation.san(board, result.bestMove());
+    return new BatchResult(
+        line, text, position, result, san, isSolved(board, position, result), null);
+  }
+
+  /** Why the position cannot occur in a game, or null if it can be analysed. */
+  private static String whyInvalid(ChessBoard board) {
+    for (Color color : Color.values()) {
+      if (Long.bitCount(board.getPieces(PieceType.KING, color)) != 1) {
+        return "Each side needs exactly one king";
+      }
+    }
+    long pawns =
+        board.getPieces(PieceType.PAWN, Color.WHITE) | board.getPieces(PieceType.PAWN, Color.BLACK);
+    if ((pawns & (Bitboard.rank(0) | Bitboard.rank(7))) != 0) {
+      return "Pawns cannot stand on the first or eighth rank";
+    }
+    if (board.isInCheck(board.getSideToMove().opposite())) {
+      return "The side not to move is in check";
+    }
+    return null;
+  }
+
+  private static boolean isSolved(ChessBoard board, EpdPosition position, SearchResult result) {
+    String played = Move.toString(result.bestMove());
+    boolean best =
+        position.bestMoves().isEmpty()
+            || position.bestMoves().stream().anyMatch(move -> isMove(board, move, played));
+    boolean avoided =
+        position.avoidMoves().stream().noneMatch(move -> isMove(board, move, played));
+    return position.isTest() && best && avoided;
+  }
+
+  private static boolean isMove(ChessBoard board, String notation, String played) {
+    int move = Notation.parse(board, notation);
+    return move != 0 && Move.toString(move).equals(played);
+  }
+
+  private void write(BatchResult result, Writer output, BatchFormat format) throws IOException {
+    positions++;
+    if (result.isError()) {
+      errors++;
+    } else {
+      nodes += result.search().nodes();
+      if (result.position().isTest()) {
+        tests++;
+        solved += result.solved() ? 1 : 0;
+      }
+    }
+    output.write(format.format(result) + '\n');
+  }
+}
@@ -0,0 +1,7 @@
+package hwr.oop.chess.engine;
+
+public class BatchAnalysisException extends RuntimeException {
+  public BatchAnalysisException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,123 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.board.Move;
+import java.util.List;
+import java.util.Locale;
+
+/** Output formats of a {@link BatchAnalysis}: one CSV row or one JSON object per line. */
+public enum BatchFormat {
+  CSV,
+  JSONL;
+
+  private static final List<String> COLUMNS =
+      List.of(
+          "line",
+          "id",
+          "fen",
+          "best_move",
+          "san",
+          "score",
+          "depth",
+          "nodes",
+          "time_ms",
+          "result",
+          "error");
+
+  /** File name extension of the format, e.g. {@code csv}. */
+  public String extension() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  /** The first line of the output, or null if the format has none. */
+  String header() {
+    return this == CSV ? String.join(",", COLUMNS) : null;
+  }
+
+  String format(BatchResult result) {
+    SearchResult search = result.search();
+    List<Object> values =
+        List.of(
+            result.line(),
+            result.position().id(),
+            result.isError() ? result.text().trim() : result.position().fen(),
+            search == null || !search.hasBestMove() ? "" : Move.toString(search.bestMove()),
+            result.san(),
+            search == null ? "" : score(search),
+            search == null ? "" : search.depth(),
+            search == null ? "" : search.nodes(),
+            search == null ? "" : search.nanos() / 1_000_000,
+            verdict(result),
+            result.isError() ? result.error() : "");
+    return this == CSV ? csv(values) : json(values);
+  }
+
+  /** The score the way UCI reports it, e.g. {@code cp 35} or {@code mate -2}. */
+  private static String score(SearchResult search) {
+    return search.isMate() ? "mate " + search.mateIn() : "cp " + search.score();
+  }
+
+  private static String verdict(BatchResult result) {
+    if (result.isError()) {
+      return "error";
+    }
+    if (!result.position().isTest()) {
+      return "";
+    }
+    return result.solved() ? "solved" : "failed";
+  }
+
+  private static String csv(List<Object> values) {
+    StringBuilder row = new StringBuilder();
+    for (Object value : values) {
+      String text = value.toString();
+      if (!row.isEmpty()) {
+        row.append(',');
+      }
+      if (text.contains(",") || text.contains("\"")) {
+        row.append('"').append(text.replace("\"", "\"\"")).append('"');
+      } else {
+        row.append(text);
+      }
+    }
+    return row.toString();
+  }
+
+  /** A JSON object of the columns; empty values are left out. */
+  private static String json(List<Object> values) {
+    StringBuilder object = new StringBuilder("{");
+    for (int i = 0; i < values.size(); i++) {
+      Object value = values.get(i);
+      if (value.toString().isEmpty()) {
+        continue;
+      }
+      if (object.length() > 1) {
+        object.append(',');
+      }
+      object.append('"').append(COLUMNS.get(i)).append("\":");
+      if (value instanceof Number) {
+        object.append(value);
+      } else {
+        appendJsonString(object, value.toString());
+      }
+    }
+    return object.append('}').toString();
+  }
+
+  private static void appendJsonString(StringBuilder json, String text) {
+    json.append('"');
+    for (char c : text.toCharArray()) {
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
+  }
+}
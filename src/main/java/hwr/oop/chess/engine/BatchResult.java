@@ -0,0 +1,31 @@
+package hwr.oop.chess.engine;
+
+/**
+ * Analysis of one line of a batch.
+ *
+ * @param line line number in the input file, starting at 1
+ * @param text the line as read, which error rows show instead of the parsed position
+ * @param position the parsed line
+ * @param search the search result, or null if the line is not a valid position
+ * @param san the best move in standard algebraic notation, or an empty string
+ * @param solved whether the best move is one of the {@code bm} moves and none of the {@code am}
+ *     moves; false for positions without those opcodes
+ * @param error why the line could not be analysed, or null
+ */
+public record BatchResult(
+    long line,
+    String text,
+    EpdPosition position,
+    SearchResult search,
+    String san,
+    boolean solved,
+    String error) {
+
+  static BatchResult error(long line, String text, EpdPosition position, String error) {
+    return new BatchResult(line, text, position, null, "", false, error);
+  }
+
+  public boolean isError() {
+    return error != null;
+  }
+}
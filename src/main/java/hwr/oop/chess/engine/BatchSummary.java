@@ -0,0 +1,19 @@
+package hwr.oop.chess.engine;
+
+/**
+ * Totals of a {@link BatchAnalysis} run.
+ *
+ * @param positions number of positions read, including those that could not be analysed
+ * @param errors number of lines that are not a valid position
+ * @param tests number of positions with {@code bm} or {@code am} opcodes
+ * @param solved number of those the engine answered correctly
+ * @param nodes positions searched over all analyses
+ * @param nanos wall clock time of the whole run
+ */
+public record BatchSummary(
+    long positions, long errors, long tests, long solved, long nodes, long nanos) {
+
+  public long nodesPerSecond() {
+    return NodeRate.perSecond(nodes, nanos);
+  }
+}
@@ -0,0 +1,4 @@
+package hwr.oop.chess.engine;
+
+/** A move found in an opening book with its weight; more weight means play it more often. */
+public record BookMove(int move, int weight) {}
@@ -0,0 +1,86 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.pieces.PieceType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The endgames with tablebases: a king and one or two pieces against a lone king. Tables are built
+ * with the pieces on the white side; positions with black as the stronger side are looked up with
+ * the colours swapped.
+ */
+public enum EndgameMaterial {
+  KQK(PieceType.QUEEN),
+  KRK(PieceType.ROOK),
+  KPK(PieceType.PAWN),
+  KBNK(PieceType.BISHOP, PieceType.KNIGHT);
+
+  private final PieceType[] pieces;
+
+  EndgameMaterial(PieceType... pieces) {
+    this.pieces = pieces;
+  }
+
+  /** The pieces of the stronger side besides its king, in the order the tables index them. */
+  public List<PieceType> getPieces() {
+    return List.of(pieces);
+  }
+
+  PieceType piece(int index) {
+    return pieces[index];
+  }
+
+  int pieceCount() {
+    return pieces.length;
+  }
+
+  public boolean hasPawns() {
+    return Arrays.asList(pieces).contains(PieceType.PAWN);
+  }
+
+  /** Tables a pawn can promote into, which have to be built first. */
+  public List<EndgameMaterial> promotionTables() {
+    return hasPawns() ? List.of(KQK, KRK) : List.of();
+  }
+
+  /** Finds the endgame on the board, if there is a table for it. */
+  public static Optional<EndgameMaterial> of(ChessBoard board) {
+    return Optional.ofNullable(strongerSide(board))
+        .flatMap(
+            strong ->
+                Arrays.stream(values())
+                    .filter(material -> material.matches(board, strong))
+                    .findFirst());
+  }
+
+  /** The side with pieces besides its king, or null if both or neither have some. */
+  static Color strongerSide(ChessBoard board) {
+    long whitePieces =
+        board.getOccupancy(Color.WHITE) & ~board.getPieces(PieceType.KING, Color.WHITE);
+    long blackPieces =
+        board.getOccupancy(Color.BLACK) & ~board.getPieces(PieceType.KING, Color.BLACK);
+    if ((whitePieces == 0) == (blackPieces == 0)) {
+      return null;
+    }
+    return whitePieces != 0 ? Color.WHITE : Color.BLACK;
+  }
+
+  private boolean matches(ChessBoard board, Color strong) {
+    if (Long.bitCount(board.getPieces(PieceType.KING, strong)) != 1
+        || Long.bitCount(board.getPieces(PieceType.KING, strong.opposite())) != 1) {
+      return false;
+    }
+    for (PieceType type : PieceType.values()) {
+      if (type != PieceType.KING) {
+        long expected = Arrays.stream(pieces).filter(piece -> piece == type).count();
+        if (Long.bitCount(board.getPieces(type, strong)) != expected) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
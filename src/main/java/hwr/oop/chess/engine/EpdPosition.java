@@ -0,0 +1,97 @@
+package hwr.oop.chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of an EPD test suite or a FEN file: the position and the {@code id}, {@code bm} (best
+ * moves) and {@code am} (moves to avoid) opcodes. Other opcodes are ignored.
+ *
+ * @param fen the position as FEN, with move counters added for EPD lines
+ * @param id the {@code id} opcode, or an empty string
+ * @param bestMoves moves of which the engine should find one, in SAN or long algebraic notation
+ * @param avoidMoves moves the engine should not play
+ */
+public record EpdPosition(
+    String fen, String id, List<String> bestMoves, List<String> avoidMoves) {
+  private static final int POSITION_FIELDS = 4;
+
+  /** Parses an EPD line or a FEN with or without its two move counters. */
+  public static EpdPosition parse(String line) {
+    String[] fields = line.trim().split("\\s+", POSITION_FIELDS + 1);
+    if (fields.length < 2) {
+      return new EpdPosition(line.trim(), "", List.of(), List.of());
+    }
+    String rest = fields.length > POSITION_FIELDS ? fields[POSITION_FIELDS] : "";
+    String counters = "0 1";
+    String[] restFields = rest.split("\\s+", 3);
+    if (restFields.length >= 2 && isNumber(restFields[0]) && isNumber(restFields[1])) {
+      counters = restFields[0] + " " + restFields[1];
+      rest = restFields.length > 2 ? restFields[2] : "";
+    }
+    StringBuilder fen = new StringBuilder();
+    for (int i = 0; i < Math.min(fields.length, POSITION_FIELDS); i++) {
+      fen.append(fields[i]).append(' ');
+    }
+    for (int i = fields.length; i < POSITION_FIELDS; i++) {
+      fen.append("- ");
+    }
+    fen.append(counters);
+
+    String id = "";
+    List<String> bestMoves = List.of();
+    List<String> avoidMoves = List.of();
+    for (List<String> operation : operations(rest)) {
+      List<String> operands = operation.subList(1, operation.size());
+      switch (operation.getFirst()) {
+        case "id" -> id = String.join(" ", operands);
+        case "bm" -> bestMoves = List.copyOf(operands);
+        case "am" -> avoidMoves = List.copyOf(operands);
+        default -> {
+          // other opcodes such as c0 or hmvc are not needed for analysis
+        }
+      }
+    }
+    return new EpdPosition(fen.toString(), id, bestMoves, avoidMoves);
+  }
+
+  /** Whether the position has {@code bm} or {@code am} opcodes to score the engine against. */
+  public boolean isTest() {
+    return !bestMoves.isEmpty() || !avoidMoves.isEmpty();
+  }
+
+  private static boolean isNumber(String field) {
+    return !field.isEmpty() && field.chars().allMatch(Character::isDigit);
+  }
+
+  /** Splits the {@code opcode operand...;} operations; quoted operands may contain spaces. */
+  private static List<List<String>> operations(String text) {
+    List<List<String>> operations = new ArrayList<>();
+    List<String> tokens = new ArrayList<>();
+    StringBuilder token = new StringBuilder();
+    boolean quoted = false;
+    for (char c : text.toCharArray()) {
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (!quoted && (c == ';' || Character.isWhitespace(c))) {
+        if (!token.isEmpty()) {
+          tokens.add(token.toString());
+          token.setLength(0);
+        }
+        if (c == ';' && !tokens.isEmpty()) {
+          operations.add(tokens);
+          tokens = new ArrayList<>();
+        }
+      } else {
+        token.append(c);
+      }
+    }
+    if (!token.isEmpty()) {
+      tokens.add(token.toString());
+    }
+    if (!tokens.isEmpty()) {
+      operations.add(tokens);
+    }
+    return operations;
+  }
+}
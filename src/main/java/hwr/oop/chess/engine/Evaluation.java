@@ -0,0 +1,216 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.PieceSquareTables;
+import hwr.oop.chess.pieces.PieceType;
+
+/**
+ * Static evaluation in centipawns. Material and piece-square totals are kept up to date by {@link
+ * ChessBoard}, mobility and king safety come from its attack maps, and the pawn structure terms are
+ * cached by pawn key, so an evaluation never scans the whole board. The piece-square and king
+ * safety terms are blended from middlegame to endgame as pieces come off.
+ */
+public final class Evaluation {
+  private static final int[] MOBILITY_WEIGHTS = new int[PieceType.values().length];
+  private static final PieceType[] MOBILE_PIECES = {
+    PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+  };
+  private static final int SHIELD_PAWN_BONUS = 12;
+  private static final int MAX_SHIELD_PAWNS = 3;
+  private static final int KING_ZONE_ATTACK_PENALTY = 6;
+  private static final int DOUBLED_PAWN_PENALTY = 12;
+  private static final int ISOLATED_PAWN_PENALTY = 12;
+  // bonus of a passed pawn by the number of rows it has advanced
+  private static final int[] PASSED_PAWN_BONUS = {0, 5, 10, 20, 35, 60, 100, 0};
+
+  private static final long[] ADJACENT_FILES = new long[8];
+  private static final long[][] PASSED_PAWN_MASKS = new long[2][64];
+  private static final long[][] KING_SHIELDS = new long[2][64];
+  private static final PawnCache PAWN_CACHE = new PawnCache(1 << 14);
+
+  static {
+    MOBILITY_WEIGHTS[PieceType.KNIGHT.ordinal()] = 4;
+    MOBILITY_WEIGHTS[PieceType.BISHOP.ordinal()] = 4;
+    MOBILITY_WEIGHTS[PieceType.ROOK.ordinal()] = 2;
+    MOBILITY_WEIGHTS[PieceType.QUEEN.ordinal()] = 1;
+    for (int column = 0; column < 8; column++) {
+      long file = Bitboard.FILE_A << column;
+      ADJACENT_FILES[column] = (column > 0 ? file >>> 1 : 0L) | (column < 7 ? file << 1 : 0L);
+    }
+    int white = Color.WHITE.ordinal();
+    int black = Color.BLACK.ordinal();
+    for (int square = 0; square < 64; square++) {
+      int row = Bitboard.row(square);
+      int column = Bitboard.column(square);
+      long files = ADJACENT_FILES[column] | (Bitboard.FILE_A << column);
+      long above = row < 7 ? -1L << ((row + 1) * 8) : 0L;
+      long below = row > 0 ? -1L >>> ((8 - row) * 8) : 0L;
+      PASSED_PAWN_MASKS[white][square] = files & above;
+      PASSED_PAWN_MASKS[black][square] = files & below;
+      KING_SHIELDS[white][square] = files & above & (row < 6 ? -1L >>> ((5 - row) * 8) : -1L);
+      KING_SHIELDS[black][square] = files & below & (row > 1 ? -1L << ((row - 2) * 8) : -1L);
+    }
+  }
+
+  private Evaluation() {}
+
+  public static int pieceValue(PieceType type) {
+    return PieceSquareTables.value(type);
+  }
+
+  /** Score of the position from the point of view of the side to move. */
+  public static int evaluate(ChessBoard board) {
+    int phase = phase(board);
+    int whiteScore =
+        material(board)
+            + pieceSquare(board, phase)
+            + mobility(board)
+            + kingSafety(board, phase)
+            + pawnStructure(board);
+    return board.getSideToMove() == Color.WHITE ? whiteScore : -whiteScore;
+  }
+
+  /** All terms of the evaluation from white's point of view. */
+  public static EvaluationBreakdown breakdown(ChessBoard board) {
+    int phase = phase(board);
+    return new EvaluationBreakdown(
+        material(board),
+        pieceSquare(board, phase),
+        mobility(board),
+        kingSafety(board, phase),
+        pawnStructure(board));
+  }
+
+  private static int phase(ChessBoard board) {
+    return Math.min(board.getPhaseMaterial(), PieceSquareTables.OPENING_PHASE);
+  }
+
+  private static int taper(int middlegame, int endgame, int phase) {
+    return (middlegame * phase + endgame * (PieceSquareTables.OPENING_PHASE - phase))
+        / PieceSquareTables.OPENING_PHASE;
+  }
+
+  private static int material(ChessBoard board) {
+    return board.getMaterial(Color.WHITE) - board.getMaterial(Color.BLACK);
+  }
+
+  private static int pieceSquare(ChessBoard board, int phase) {
+    int middlegame = board.getMiddlegameScore(Color.WHITE) - board.getMiddlegameScore(Color.BLACK);
+    int endgame = board.getEndgameScore(Color.WHITE) - board.getEndgameScore(Color.BLACK);
+    return taper(middlegame, endgame, phase);
+  }
+
+  private static int mobility(ChessBoard board) {
+    return mobility(board, Color.WHITE) - mobility(board, Color.BLACK);
+  }
+
+  private static int mobility(ChessBoard board, Color color) {
+    long own = board.getOccupancy(color);
+    int score = 0;
+    for (PieceType type : MOBILE_PIECES) {
+      int weight = MOBILITY_WEIGHTS[type.ordinal()];
+      for (long pieces = board.getPieces(type, color); pieces != 0; pieces &= pieces - 1) {
+        long targets = board.getAttacksFrom(Long.numberOfTrailingZeros(pieces)) & ~own;
+        score += weight * Long.bitCount(targets);
+      }
+    }
+    return score;
+  }
+
+  private static int kingSafety(ChessBoard board, int phase) {
+    int middlegame = kingSafety(board, Color.WHITE) - kingSafety(board, Color.BLACK);
+    return taper(middlegame, 0, phase);
+  }
+
+  private static int kingSafety(ChessBoard board, Color color) {
+    long king = board.getPieces(PieceType.KING, color);
+    if (king == 0) {
+      return 0;
+    }
+    int square = Long.numberOfTrailingZeros(king);
+    long shield = KING_SHIELDS[color.ordinal()][square] & board.getPieces(PieceType.PAWN, color);
+    int score = Math.min(Long.bitCount(shield), MAX_SHIELD_PAWNS) * SHIELD_PAWN_BONUS;
+    Color enemy = color.opposite();
+    for (long zone = Bitboard.kingAttacksFrom(square) | king; zone != 0; zone &= zone - 1) {
+      score -=
+          KING_ZONE_ATTACK_PENALTY * board.getAttackCount(Long.numberOfTrailingZeros(zone), enemy);
+    }
+    return score;
+  }
+
+  private static int pawnStructure(ChessBoard board) {
+    long key = board.getPawnKey();
+    long cached = PAWN_CACHE.probe(key);
+    if (PawnCache.isHit(cached)) {
+      return PawnCache.score(cached);
+    }
+    int score = pawnStructure(board, Color.WHITE) - pawnStructure(board, Color.BLACK);
+    PAWN_CACHE.store(key, score);
+    return score;
+  }
+
+  private static int pawnStructure(ChessBoard board, Color color) {
+    long pawns = board.getPieces(PieceType.PAWN, color);
+    long enemyPawns = board.getPieces(PieceType.PAWN, color.opposite());
+    int score = 0;
+    for (int column = 0; column < 8; column++) {
+      long onFile = pawns & (Bitboard.FILE_A << column);
+      int count = Long.bitCount(onFile);
+      if (count > 1) {
+        score -= DOUBLED_PAWN_PENALTY * (count - 1);
+      }
+      if (count > 0 && (pawns & ADJACENT_FILES[column]) == 0) {
+        score -= ISOLATED_PAWN_PENALTY * count;
+      }
+    }
+    for (long rest = pawns; rest != 0; rest &= rest - 1) {
+      int square = Long.numberOfTrailingZeros(rest);
+      if ((PASSED_PAWN_MASKS[color.ordinal()][square] & enemyPawns) == 0) {
+        int row = Bitboard.row(square);
+        score += PASSED_PAWN_BONUS[color == Color.WHITE ? row : 7 - row];
+      }
+    }
+    return score;
+  }
+
+  /**
+   * Pawn structure scores by pawn key. Entries are stored as key XOR data, so concurrent searches
+   * can share the cache without locking; a torn entry just fails the key check.
+   */
+  private static final class PawnCache {
+    private static final long PRESENT = 1L << 32;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    PawnCache(int entries) {
+      keys = new long[entries];
+      data = new long[entries];
+      mask = entries - 1;
+    }
+
+    long probe(long key) {
+      int index = (int) key & mask;
+      long entry = data[index];
+      return (keys[index] ^ entry) == key && entry != 0 ? entry : 0L;
+    }
+
+    void store(long key, int score) {
+      int index = (int) key & mask;
+      long entry = PRESENT | (score & 0xFFFFFFFFL);
+      data[index] = entry;
+      keys[index] = key ^ entry;
+    }
+
+    static boolean isHit(long entry) {
+      return entry != 0;
+    }
+
+    static int score(long entry) {
+      return (int) entry;
+    }
+  }
+}
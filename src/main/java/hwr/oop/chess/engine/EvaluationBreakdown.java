@@ -0,0 +1,18 @@
+package hwr.oop.chess.engine;
+
+/**
+ * The terms of a static evaluation in centipawns, each from white's point of view.
+ *
+ * @param material difference of the piece values
+ * @param pieceSquare piece-square table bonus, blended from middlegame to endgame
+ * @param mobility bonus for squares the knights, bishops, rooks and queens can reach
+ * @param kingSafety pawn shield bonus minus attacks on the king zone, faded out in the endgame
+ * @param pawnStructure penalties for doubled and isolated pawns and bonus for passed pawns
+ */
+public record EvaluationBreakdown(
+    int material, int pieceSquare, int mobility, int kingSafety, int pawnStructure) {
+
+  public int total() {
+    return material + pieceSquare + mobility + kingSafety + pawnStructure;
+  }
+}
@@ -0,0 +1,20 @@
+package hwr.oop.chess.engine;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link MateSolver} run.
+ *
+ * @param found whether a forced mate exists within the requested number of moves
+ * @param moves moves of the side to move until mate if found, otherwise the requested limit
+ * @param line the proving line in long algebraic notation, with the defence that holds out longest;
+ *     empty if no mate was found
+ * @param nodes number of positions searched
+ * @param nanos wall clock time the search took
+ */
+public record MateResult(boolean found, int moves, List<String> line, long nodes, long nanos) {
+
+  public long nodesPerSecond() {
+    return NodeRate.perSecond(nodes, nanos);
+  }
+}
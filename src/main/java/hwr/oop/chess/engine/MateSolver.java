@@ -0,0 +1,284 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MoveList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Proves or refutes a forced mate for the side to move. The search is a plain AND/OR tree: the
+ * attacker needs one move after which every defence still loses in time, the defender one reply
+ * that escapes. The first two plies are split into fork-join tasks, each working on its own copy of
+ * the board; as soon as one task decides its group (a mating move or a refutation), its siblings
+ * are cancelled.
+ */
+public final class MateSolver {
+  private static final int MAX_MOVES = 256;
+  private static final int CANCEL_CHECK_INTERVAL = 256;
+
+  private final ForkJoinPool pool;
+  private final LongAdder nodes = new LongAdder();
+
+  private MateSolver(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Looks for the shortest mate in at most {@code moves} moves of the side to move. The board is
+   * left unchanged.
+   */
+  public static MateResult solve(ChessBoard board, int moves, ForkJoinPool pool) {
+    if (moves < 1) {
+      throw new IllegalArgumentException("Mate distance must be at least 1, but was " + moves);
+    }
+    long start = System.nanoTime();
+    MateSolver solver = new MateSolver(pool);
+    for (int movesToMate = 1; movesToMate <= moves; movesToMate++) {
+      int matingMove = solver.findMatingMove(board, movesToMate);
+      if (matingMove != 0) {
+        List<String> line = solver.provingLine(board.copy(), matingMove, movesToMate);
+        return new MateResult(
+            true, movesToMate, line, solver.nodes.sum(), System.nanoTime() - start);
+      }
+    }
+    return new MateResult(false, moves, List.of(), solver.nodes.sum(), System.nanoTime() - start);
+  }
+
+  private int findMatingMove(ChessBoard board, int movesToMate) {
+    MoveList rootMoves = new MoveList(MAX_MOVES);
+    board.generateLegalMoves(rootMoves);
+    Cancellation group = new Cancellation(null);
+    AtomicInteger matingMove = new AtomicInteger();
+    List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(rootMoves.size());
+    for (int i = 0; i < rootMoves.size(); i++) {
+      int move = rootMoves.get(i);
+      ChessBoard copy = board.copy();
+      copy.makeMove(move);
+      tasks.add(
+          pool.submit(
+              () -> {
+                boolean mates = new DefenderTask(copy, movesToMate, group).compute();
+                if (mates && !group.isCancelled() && matingMove.compareAndSet(0, move)) {
+                  group.cancel();
+                }
+                return mates;
+              }));
+    }
+    tasks.forEach(ForkJoinTask::join);
+    return matingMove.get();
+  }
+
+  /**
+   * Plays out the proof: the attacker's mating moves and, for the defender, the reply that holds
+   * out longest.
+   */
+  private List<String> provingLine(ChessBoard board, int matingMove, int movesToMate) {
+    Prover prover = new Prover(board, new Cancellation(null));
+    MoveList replies = new MoveList(MAX_MOVES);
+    List<String> line = new ArrayList<>();
+    int move = matingMove;
+    for (int movesLeft = movesToMate; movesLeft >= 1; movesLeft--) {
+      line.add(Move.toString(move));
+      board.makeMove(move);
+      replies.clear();
+      board.generateLegalMoves(replies);
+      if (replies.isEmpty()) {
+        break;
+      }
+      int longestDefence = 0;
+      int longestMovesLeft = 0;
+      for (int i = 0; i < replies.size(); i++) {
+        board.makeMove(replies.get(i));
+        int needed = 1;
+        while (needed < movesLeft - 1 && !prover.attack(needed, 0)) {
+          needed++;
+        }
+        board.unmakeMove();
+        if (needed > longestMovesLeft) {
+          longestMovesLeft = needed;
+          longestDefence = replies.get(i);
+        }
+      }
+      line.add(Move.toString(longestDefence));
+      board.makeMove(longestDefence);
+      movesLeft = longestMovesLeft + 1;
+      move = prover.matingMove(longestMovesLeft);
+    }
+    prover.flushNodes();
+    return line;
+  }
+
+  /**
+   * The defender's turn after an attacker move: true if every reply still gets mated within {@code
+   * movesToMate - 1} further attacker moves. The replies are split into one task each.
+   */
+  private final class DefenderTask extends RecursiveTask<Boolean> {
+    private final ChessBoard board;
+    private final int movesToMate;
+    private final Cancellation parent;
+
+    DefenderTask(ChessBoard board, int movesToMate, Cancellation parent) {
+      this.board = board;
+      this.movesToMate = movesToMate;
+      this.parent = parent;
+    }
+
+    @Override
+    protected Boolean compute() {
+      if (movesToMate < 3) {
+        Prover prover = new Prover(board, parent);
+        boolean mates = prover.defend(movesToMate, 0);
+        prover.flushNodes();
+        return mates;
+      }
+      nodes.increment();
+      MoveList replies = new MoveList(MAX_MOVES);
+      board.generateLegalMoves(replies);
+      if (replies.isEmpty()) {
+        return board.isInCheck(board.getSideToMove());
+      }
+      Cancellation group = new Cancellation(parent);
+      List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(replies.size());
+      for (int i = 0; i < replies.size(); i++) {
+        ChessBoard copy = board.copy();
+        copy.makeMove(replies.get(i));
+        tasks.add(
+            ForkJoinTask.adapt(
+                    () -> {
+                      Prover prover = new Prover(copy, group);
+                      boolean mated = prover.attack(movesToMate - 1, 0);
+                      prover.flushNodes();
+                      if (!mated) {
+                        group.cancel();
+                      }
+                      return mated;
+                    })
+                .fork());
+      }
+      boolean allMated = true;
+      for (ForkJoinTask<Boolean> task : tasks) {
+        allMated &= task.join();
+      }
+      return allMated && !parent.isCancelled();
+    }
+  }
+
+  /** Sequential AND/OR search on one board, with reusable move lists per ply. */
+  private final class Prover {
+    private final ChessBoard board;
+    private final Cancellation cancellation;
+    private final List<MoveList> movesPerPly = new ArrayList<>();
+    private long localNodes;
+    private boolean stopped;
+
+    Prover(ChessBoard board, Cancellation cancellation) {
+      this.board = board;
+      this.cancellation = cancellation;
+    }
+
+    /** True if the side to move mates within {@code movesToMate} moves. */
+    boolean attack(int movesToMate, int ply) {
+      return findMatingMove(movesToMate, ply) != 0;
+    }
+
+    int matingMove(int movesToMate) {
+      return findMatingMove(movesToMate, 0);
+    }
+
+    private int findMatingMove(int movesToMate, int ply) {
+      localNodes++;
+      if (isCancelled()) {
+        return 0;
+      }
+      MoveList moves = moves(ply);
+      board.generateLegalMoves(moves);
+      for (int i = 0; i < moves.size(); i++) {
+        int move = moves.get(i);
+        board.makeMove(move);
+        boolean mates = defend(movesToMate, ply + 1);
+        board.unmakeMove();
+        if (mates) {
+          return move;
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * True if the side to move, having just received the attacker's move, is mated or gets mated
+     * within {@code movesToMate - 1} further attacker moves.
+     */
+    boolean defend(int movesToMate, int ply) {
+      localNodes++;
+      if (isCancelled()) {
+        return false;
+      }
+      boolean inCheck = board.isInCheck(board.getSideToMove());
+      if (movesToMate == 1 && !inCheck) {
+        return false;
+      }
+      MoveList replies = moves(ply);
+      board.generateLegalMoves(replies);
+      if (replies.isEmpty()) {
+        return inCheck;
+      }
+      if (movesToMate == 1) {
+        return false;
+      }
+      for (int i = 0; i < replies.size(); i++) {
+        board.makeMove(replies.get(i));
+        boolean mated = attack(movesToMate - 1, ply + 1);
+        board.unmakeMove();
+        if (!mated) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private MoveList moves(int ply) {
+      while (movesPerPly.size() <= ply) {
+        movesPerPly.add(new MoveList(MAX_MOVES));
+      }
+      MoveList moves = movesPerPly.get(ply);
+      moves.clear();
+      return moves;
+    }
+
+    private boolean isCancelled() {
+      if (!stopped && localNodes % CANCEL_CHECK_INTERVAL == 0) {
+        stopped = cancellation.isCancelled();
+      }
+      return stopped;
+    }
+
+    void flushNodes() {
+      nodes.add(localNodes);
+      localNodes = 0;
+    }
+  }
+
+  /** Cancellation flag of a group of sibling tasks; cancelling a group cancels all nested ones. */
+  private static final class Cancellation {
+    private final Cancellation parent;
+    private volatile boolean cancelled;
+
+    Cancellation(Cancellation parent) {
+      this.parent = parent;
+    }
+
+    void cancel() {
+      cancelled = true;
+    }
+
+    boolean isCancelled() {
+      return cancelled || (parent != null && parent.isCancelled());
+    }
+  }
+}
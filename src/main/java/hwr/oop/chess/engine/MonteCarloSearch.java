@@ -0,0 +1,228 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MoveList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte Carlo tree search over one tree shared by several worker threads. Each worker walks down
+ * the tree by UCT on its own copy of the board, expands a node once it has been visited before,
+ * plays a short random playout and backs the result up. Visits are counted on the way down, which
+ * works as a virtual loss: a path that other workers are busy with looks worse until their results
+ * arrive, so the workers spread over the tree instead of all following the same line.
+ *
+ * <p>Playouts use the bitboard move generator and end after a few random moves, at mate or
+ * stalemate, or are scored by {@link Evaluation} turned into a winning chance.
+ */
+public final class MonteCarloSearch {
+  private static final double EXPLORATION = 1.4;
+  private static final int PLAYOUT_PLIES = 16;
+  private static final int EXPANSION_VISITS = 2;
+  private static final long REWARD_SCALE = 1_000_000;
+  private static final double CENTIPAWNS_PER_DECADE = 400.0;
+  private static final int MAX_SCORE = 2_000;
+
+  private final Node root = new Node(0);
+  private final long maxPlayouts;
+  private final long deadline;
+  private final AtomicLong playouts = new AtomicLong();
+
+  private MonteCarloSearch(long maxPlayouts, long deadline) {
+    this.maxPlayouts = maxPlayouts;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Searches the position for the side to move until {@code maxPlayouts} playouts are done or the
+   * time is up, whichever comes first, with one worker per thread of {@code pool}. The board is
+   * left unchanged.
+   *
+   * @param maxPlayouts playout budget, or 0 for no limit
+   * @param moveTimeMillis time budget in milliseconds, or 0 for no limit
+   * @return the most visited move with its winning chance as a centipawn score, the most visited
+   *     line as principal variation and the number of playouts as nodes
+   */
+  public static SearchResult search(
+      ChessBoard board, long maxPlayouts, long moveTimeMillis, ForkJoinPool pool) {
+    if (maxPlayouts <= 0 && moveTimeMillis <= 0) {
+      throw new IllegalArgumentException("Monte Carlo search needs a playout or time budget");
+    }
+    long start = System.nanoTime();
+    long deadline = moveTimeMillis > 0 ? start + moveTimeMillis * 1_000_000 : Long.MAX_VALUE;
+    MonteCarloSearch search =
+        new MonteCarloSearch(maxPlayouts > 0 ? maxPlayouts : Long.MAX_VALUE, deadline);
+
+    Node[] rootChildren = expand(search.root, board, new MoveList());
+    if (rootChildren.length == 0) {
+      int score = board.isInCheck(board.getSideToMove()) ? -Search.MATE_SCORE : 0;
+      return new SearchResult(0, score, 0, List.of(), 0, System.nanoTime() - start);
+    }
+
+    int workers = Math.max(1, pool.getParallelism());
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+    for (int i = 0; i < workers; i++) {
+      ChessBoard copy = board.copy();
+      long seed = start + i;
+      tasks.add(pool.submit(() -> search.work(copy, new SplittableRandom(seed))));
+    }
+    tasks.forEach(ForkJoinTask::join);
+    return search.result(System.nanoTime() - start);
+  }
+
+  private void work(ChessBoard board, SplittableRandom random) {
+    Node[] path = new Node[256];
+    MoveList moves = new MoveList(256);
+    while (playouts.getAndIncrement() < maxPlayouts && System.nanoTime() < deadline) {
+      int length = 0;
+      Node node = root;
+      root.visits.incrementAndGet();
+      while (length < path.length) {
+        Node[] children = node.children;
+        if (children == null) {
+          if (node != root && node.visits.get() < EXPANSION_VISITS) {
+            break;
+          }
+          children = expand(node, board, moves);
+        }
+        if (children.length == 0) {
+          break;
+        }
+        node = select(node, children);
+        node.visits.incrementAndGet();
+        board.makeMove(node.move);
+        path[length++] = node;
+      }
+
+      double reward = playout(board, moves, random);
+      // the reward is for the side to move at the leaf, a node is credited to the side that moved
+      for (int i = length - 1; i >= 0; i--) {
+        reward = 1 - reward;
+        path[i].reward.addAndGet(Math.round(reward * REWARD_SCALE));
+        board.unmakeMove();
+      }
+    }
+    playouts.decrementAndGet();
+  }
+
+  private static Node[] expand(Node node, ChessBoard board, MoveList moves) {
+    synchronized (node) {
+      if (node.children == null) {
+        moves.clear();
+        board.generateLegalMoves(moves);
+        Node[] children = new Node[moves.size()];
+        for (int i = 0; i < children.length; i++) {
+          children[i] = new Node(moves.get(i));
+        }
+        node.children = children;
+      }
+      return node.children;
+    }
+  }
+
+  private static Node select(Node parent, Node[] children) {
+    double logParentVisits = Math.log(Math.max(parent.visits.get(), 1));
+    Node best = children[0];
+    double bestValue = Double.NEGATIVE_INFINITY;
+    for (Node child : children) {
+      int visits = child.visits.get();
+      if (visits == 0) {
+        return child;
+      }
+      double value =
+          child.reward.get() / (double) REWARD_SCALE / visits
+              + EXPLORATION * Math.sqrt(logParentVisits / visits);
+      if (value > bestValue) {
+        bestValue = value;
+        best = child;
+      }
+    }
+    return best;
+  }
+
+  /** Plays random moves and returns the chance of winning for the side to move at the start. */
+  private static double playout(ChessBoard board, MoveList moves, SplittableRandom random) {
+    double reward = 0.5;
+    boolean sameSide = true;
+    int plies = 0;
+    while (true) {
+      moves.clear();
+      board.generateLegalMoves(moves);
+      if (moves.isEmpty()) {
+        reward = board.isInCheck(board.getSideToMove()) ? 0.0 : 0.5;
+        break;
+      }
+      if (plies == PLAYOUT_PLIES) {
+        reward = winningChance(Evaluation.evaluate(board));
+        break;
+      }
+      board.makeMove(moves.get(random.nextInt(moves.size())));
+      sameSide = !sameSide;
+      plies++;
+    }
+    for (int i = 0; i < plies; i++) {
+      board.unmakeMove();
+    }
+    return sameSide ? reward : 1 - reward;
+  }
+
+  private static double winningChance(int centipawns) {
+    return 1 / (1 + Math.pow(10, -centipawns / CENTIPAWNS_PER_DECADE));
+  }
+
+  private static int centipawns(double winningChance) {
+    if (winningChance <= 0) {
+      return -MAX_SCORE;
+    }
+    if (winningChance >= 1) {
+      return MAX_SCORE;
+    }
+    double score = -CENTIPAWNS_PER_DECADE * Math.log10(1 / winningChance - 1);
+    return (int) Math.round(Math.clamp(score, -MAX_SCORE, MAX_SCORE));
+  }
+
+  private SearchResult result(long nanos) {
+    List<String> line = new ArrayList<>();
+    Node best = mostVisited(root);
+    Node node = best;
+    while (node != null && node.visits.get() > 0) {
+      line.add(Move.toString(node.move));
+      node = mostVisited(node);
+    }
+    int visits = best.visits.get();
+    double winningChance = visits == 0 ? 0.5 : best.reward.get() / (double) REWARD_SCALE / visits;
+    return new SearchResult(
+        best.move, centipawns(winningChance), line.size(), line, playouts.get(), nanos);
+  }
+
+  private static Node mostVisited(Node node) {
+    Node[] children = node.children;
+    if (children == null || children.length == 0) {
+      return null;
+    }
+    Node best = children[0];
+    for (Node child : children) {
+      if (child.visits.get() > best.visits.get()) {
+        best = child;
+      }
+    }
+    return best;
+  }
+
+  private static final class Node {
+    private final int move;
+    private final AtomicInteger visits = new AtomicInteger();
+    private final AtomicLong reward = new AtomicLong();
+    private volatile Node[] children;
+
+    Node(int move) {
+      this.move = move;
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package hwr.oop.chess.engine;
+
+public class NetworkFileException extends RuntimeException {
+  public NetworkFileException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,42 @@
+package hwr.oop.chess.engine;
+
+/**
+ * The inner loops of {@link NeuralNetwork}: adding a weight column to an accumulator and the
+ * clipped dot product of the output layer. They run on the Vector API if the build included the
+ * {@code vector} profile and the {@code jdk.incubator.vector} module is loaded, otherwise as plain
+ * loops.
+ */
+interface NetworkKernels {
+  String VECTOR_KERNELS = "hwr.oop.chess.engine.VectorKernels";
+
+  /** Adds {@code weights[offset, offset + accumulator.length)} to {@code accumulator}. */
+  void add(int[] accumulator, int[] weights, int offset);
+
+  /** Subtracts {@code weights[offset, offset + accumulator.length)} from {@code accumulator}. */
+  void subtract(int[] accumulator, int[] weights, int offset);
+
+  /**
+   * Sum of {@code clamp(accumulator[i], 0, max) * weights[offset + i]} over the accumulator. The
+   * weights must fit into a short and {@code max} into an unsigned byte.
+   */
+  long clippedDot(int[] accumulator, int[] weights, int offset, int max);
+
+  static boolean vectorApiAvailable() {
+    String classFile = VECTOR_KERNELS.replace('.', '/') + ".class";
+    return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+        && NetworkKernels.class.getClassLoader().getResource(classFile) != null;
+  }
+
+  static NetworkKernels preferred() {
+    if (!vectorApiAvailable()) {
+      return new ScalarKernels();
+    }
+    // VectorKernels is only compiled with the vector profile, so it is looked up by name
+    try {
+      return (NetworkKernels)
+          Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      return new ScalarKernels();
+    }
+  }
+}
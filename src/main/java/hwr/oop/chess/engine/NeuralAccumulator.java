@@ -0,0 +1,48 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.PieceListener;
+import hwr.oop.chess.pieces.PieceType;
+
+/**
+ * Hidden layer sums of a {@link NeuralNetwork} for one board, from both perspectives. Every piece
+ * the board adds or removes adds or subtracts one weight column, so after a move only the output
+ * layer is left to compute. Created by {@link NeuralNetwork#attach(ChessBoard)}.
+ */
+public final class NeuralAccumulator implements PieceListener {
+  private final NeuralNetwork network;
+  private final ChessBoard board;
+  private final int[][] sums;
+
+  NeuralAccumulator(NeuralNetwork network, ChessBoard board, int[][] sums) {
+    this.network = network;
+    this.board = board;
+    this.sums = sums;
+  }
+
+  @Override
+  public void pieceAdded(PieceType type, Color color, int square) {
+    network.addPiece(sums, type, color, square);
+  }
+
+  @Override
+  public void pieceRemoved(PieceType type, Color color, int square) {
+    network.removePiece(sums, type, color, square);
+  }
+
+  /** Score of the board in centipawns from the point of view of its side to move. */
+  public int evaluate() {
+    return network.output(sums, board.getSideToMove());
+  }
+
+  /** Recomputes the sums from the pieces on the board. */
+  public void refresh() {
+    network.refresh(sums, board);
+  }
+
+  /** Stops following the board. */
+  public void detach() {
+    board.setPieceListener(null);
+  }
+}
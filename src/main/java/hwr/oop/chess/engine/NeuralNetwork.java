@@ -0,0 +1,254 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.pieces.PieceType;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Quantised NNUE-style evaluation network: 768 piece-square inputs per perspective, one hidden
+ * layer of {@code H} neurons shared by both perspectives, clipped ReLU and a single output. The
+ * hidden layer sums are kept in a {@link NeuralAccumulator} that is updated as pieces come and go,
+ * so an evaluation only costs the output layer.
+ *
+ * <p>Network files are little-endian and laid out as
+ *
+ * <ul>
+ *   <li>{@code int} magic {@code "CGNN"}, {@code int} version 1, {@code int} hidden size {@code H}
+ *   <li>{@code short[768 * H]} input weights, {@code H} per input
+ *   <li>{@code short[H]} hidden biases
+ *   <li>{@code short[2 * H]} output weights, first for the side to move, then for the other side
+ *   <li>{@code int} output bias
+ * </ul>
+ *
+ * Input {@code (side * 6 + piece) * 64 + square} is a piece of the perspective's own ({@code side}
+ * 0) or the opponent's side (1), with pieces ordered pawn, knight, bishop, rook, queen, king and
+ * squares from a1 to h8, mirrored vertically for black's perspective. The output is {@code (bias +
+ * sum(clamp(hidden, 0, 255) * weight)) * 400 / (255 * 64)} centipawns for the side to move.
+ */
+public final class NeuralNetwork {
+  static final int MAGIC = 'C' | 'G' << 8 | 'N' << 16 | 'N' << 24;
+  static final int VERSION = 1;
+  static final int INPUTS = 768;
+  static final int MAX_HIDDEN_SIZE = 4096;
+  private static final int HEADER_BYTES = 3 * Integer.BYTES;
+  private static final int HIDDEN_CLIP = 255;
+  private static final int OUTPUT_QUANTISATION = 64;
+  private static final int CENTIPAWN_SCALE = 400;
+  private static final int BATCH_CHUNK = 256;
+  private static final int READ_BUFFER_BYTES = 64 * 1024;
+  private static final int[] PIECE_INDEX = new int[PieceType.values().length];
+
+  static {
+    PIECE_INDEX[PieceType.PAWN.ordinal()] = 0;
+    PIECE_INDEX[PieceType.KNIGHT.ordinal()] = 1;
+    PIECE_INDEX[PieceType.BISHOP.ordinal()] = 2;
+    PIECE_INDEX[PieceType.ROOK.ordinal()] = 3;
+    PIECE_INDEX[PieceType.QUEEN.ordinal()] = 4;
+    PIECE_INDEX[PieceType.KING.ordinal()] = 5;
+  }
+
+  private final int hiddenSize;
+  private final int[] inputWeights;
+  private final int[] hiddenBiases;
+  private final int[] outputWeights;
+  private final int outputBias;
+  private final NetworkKernels kernels;
+
+  private NeuralNetwork(
+      int hiddenSize,
+      int[] inputWeights,
+      int[] hiddenBiases,
+      int[] outputWeights,
+      int outputBias,
+      NetworkKernels kernels) {
+    this.hiddenSize = hiddenSize;
+    this.inputWeights = inputWeights;
+    this.hiddenBiases = hiddenBiases;
+    this.outputWeights = outputWeights;
+    this.outputBias = outputBias;
+    this.kernels = kernels;
+  }
+
+  /**
+   * Loads a network file. The inner loops use the Vector API if the build included the {@code
+   * vector} profile and the JVM was started with {@code --add-modules jdk.incubator.vector}, and
+   * plain loops otherwise.
+   */
+  public static NeuralNetwork load(Path path) {
+    return load(path, NetworkKernels.preferred());
+  }
+
+  /**
+   * Reads the weights straight into the {@code int} arrays the kernels work on, through a small
+   * buffer, so loading needs no more memory than the network itself.
+   */
+  static NeuralNetwork load(Path path, NetworkKernels kernels) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_BYTES) {
+        throw new NetworkFileException("Network file is too short: " + path);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      read(channel, buffer, HEADER_BYTES);
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        throw new NetworkFileException("Not a version " + VERSION + " network file: " + path);
+      }
+      int hiddenSize = buffer.getInt();
+      if (hiddenSize < 1 || hiddenSize > MAX_HIDDEN_SIZE) {
+        throw new NetworkFileException("Unsupported hidden layer size " + hiddenSize + ": " + path);
+      }
+      long expectedSize = HEADER_BYTES + (INPUTS + 3L) * hiddenSize * Short.BYTES + Integer.BYTES;
+      if (size != expectedSize) {
+        throw new NetworkFileException(
+            "Network file should have " + expectedSize + " bytes, but has " + size + ": " + path);
+      }
+      int[] inputWeights = readShorts(channel, buffer, INPUTS * hiddenSize);
+      int[] hiddenBiases = readShorts(channel, buffer, hiddenSize);
+      int[] outputWeights = readShorts(channel, buffer, 2 * hiddenSize);
+      read(channel, buffer, Integer.BYTES);
+      int outputBias = buffer.getInt();
+      return new NeuralNetwork(
+          hiddenSize, inputWeights, hiddenBiases, outputWeights, outputBias, kernels);
+    } catch (IOException e) {
+      throw new NetworkFileException("Could not read network file " + path + ": " + e);
+    }
+  }
+
+  private static int[] readShorts(FileChannel channel, ByteBuffer buffer, int count)
+      throws IOException {
+    int[] values = new int[count];
+    int i = 0;
+    while (i < count) {
+      int chunk = Math.min(count - i, buffer.capacity() / Short.BYTES);
+      read(channel, buffer, chunk * Short.BYTES);
+      for (int end = i + chunk; i < end; i++) {
+        values[i] = buffer.getShort();
+      }
+    }
+    return values;
+  }
+
+  /** Fills {@code buffer} with the next {@code bytes} bytes of the file and flips it for reading. */
+  private static void read(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+    buffer.clear().limit(bytes);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new EOFException("unexpected end of file");
+      }
+    }
+    buffer.flip();
+  }
+
+  public int getHiddenSize() {
+    return hiddenSize;
+  }
+
+  /** Whether the inner loops run on the Vector API rather than as plain loops. */
+  public boolean usesVectorApi() {
+    return !(kernels instanceof ScalarKernels);
+  }
+
+  /** Score of the position in centipawns from the point of view of the side to move. */
+  public int evaluate(ChessBoard board) {
+    int[][] accumulator = new int[2][hiddenSize];
+    refresh(accumulator, board);
+    return output(accumulator, board.getSideToMove());
+  }
+
+  /**
+   * Evaluates many positions, split into chunks that run as tasks in {@code pool}. Each chunk
+   * reuses one accumulator, so the batch allocates little besides the parsed boards.
+   *
+   * @return the score of every FEN for its side to move, in the order of {@code fens}
+   * @throws hwr.oop.chess.game.FENException if one of the FENs is invalid
+   */
+  public int[] evaluateAll(List<String> fens, ForkJoinPool pool) {
+    int[] scores = new int[fens.size()];
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    for (int start = 0; start < fens.size(); start += BATCH_CHUNK) {
+      int from = start;
+      int to = Math.min(start + BATCH_CHUNK, fens.size());
+      tasks.add(
+          pool.submit(
+              () -> {
+                int[][] accumulator = new int[2][hiddenSize];
+                for (int i = from; i < to; i++) {
+                  ChessBoard board = Game.boardFromFEN(fens.get(i));
+                  refresh(accumulator, board);
+                  scores[i] = output(accumulator, board.getSideToMove());
+                }
+              }));
+    }
+    tasks.forEach(ForkJoinTask::join);
+    return scores;
+  }
+
+  /**
+   * Builds an accumulator for {@code board} and registers it as the board's piece listener, so it
+   * follows every later change of the board until it is detached.
+   */
+  public NeuralAccumulator attach(ChessBoard board) {
+    NeuralAccumulator accumulator = new NeuralAccumulator(this, board, new int[2][hiddenSize]);
+    accumulator.refresh();
+    board.setPieceListener(accumulator);
+    return accumulator;
+  }
+
+  void refresh(int[][] accumulator, ChessBoard board) {
+    for (int[] perspective : accumulator) {
+      System.arraycopy(hiddenBiases, 0, perspective, 0, hiddenSize);
+    }
+    for (Color color : Color.values()) {
+      for (PieceType type : PieceType.values()) {
+        for (long pieces = board.getPieces(type, color); pieces != 0; pieces &= pieces - 1) {
+          addPiece(accumulator, type, color, Long.numberOfTrailingZeros(pieces));
+        }
+      }
+    }
+  }
+
+  void addPiece(int[][] accumulator, PieceType type, Color color, int square) {
+    for (Color perspective : Color.values()) {
+      int offset = input(perspective, type, color, square) * hiddenSize;
+      kernels.add(accumulator[perspective.ordinal()], inputWeights, offset);
+    }
+  }
+
+  void removePiece(int[][] accumulator, PieceType type, Color color, int square) {
+    for (Color perspective : Color.values()) {
+      int offset = input(perspective, type, color, square) * hiddenSize;
+      kernels.subtract(accumulator[perspective.ordinal()], inputWeights, offset);
+    }
+  }
+
+  int output(int[][] accumulator, Color sideToMove) {
+    long sum =
+        outputBias
+            + kernels.clippedDot(
+                accumulator[sideToMove.ordinal()], outputWeights, 0, HIDDEN_CLIP)
+            + kernels.clippedDot(
+                accumulator[sideToMove.opposite().ordinal()],
+                outputWeights,
+                hiddenSize,
+                HIDDEN_CLIP);
+    return (int) (sum * CENTIPAWN_SCALE / (HIDDEN_CLIP * OUTPUT_QUANTISATION));
+  }
+
+  static int input(Color perspective, PieceType type, Color color, int square) {
+    int side = color == perspective ? 0 : 1;
+    int relativeSquare = perspective == Color.WHITE ? square : square ^ 56;
+    return (side * 6 + PIECE_INDEX[type.ordinal()]) * 64 + relativeSquare;
+  }
+}
@@ -0,0 +1,15 @@
+package hwr.oop.chess.engine;
+
+/** Nodes per second of the search results. */
+final class NodeRate {
+  private NodeRate() {}
+
+  /**
+   * Nodes per second for {@code nodes} searched in {@code nanos} nanoseconds, or 0 if no time was
+   * measured. Computed in floating point, as {@code nodes * 1_000_000_000} overflows a long from
+   * about 9.2 billion nodes on, which a long perft or batch run reaches.
+   */
+  static long perSecond(long nodes, long nanos) {
+    return nanos == 0 ? 0 : (long) (nodes * 1e9 / nanos);
+  }
+}
@@ -0,0 +1,161 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MoveList;
+import hwr.oop.chess.pieces.PieceType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * A Polyglot {@code .bin} opening book. The file is a list of 16-byte big-endian entries sorted by
+ * position key: key (8 bytes), move (2), weight (2) and a learning field (4). It is mapped into
+ * memory instead of being read, so opening even a large book is cheap and a lookup is a binary
+ * search touching a few pages. Lookups only read the mapping, so one book can serve any number of
+ * threads.
+ */
+public final class OpeningBook {
+  private static final int ENTRY_BYTES = 16;
+  // entries per mapped segment, since a single mapping is limited to 2 GB
+  private static final int SEGMENT_SHIFT = 26;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+  private static final PieceType[] PROMOTIONS = {
+    null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+  };
+
+  private final ByteBuffer[] segments;
+  private final long entries;
+  private final PolyglotKeys keys;
+
+  private OpeningBook(ByteBuffer[] segments, long entries, PolyglotKeys keys) {
+    this.segments = segments;
+    this.entries = entries;
+    this.keys = keys;
+  }
+
+  public static OpeningBook open(Path path, PolyglotKeys keys) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size % ENTRY_BYTES != 0) {
+        throw new OpeningBookException(
+            "Opening book " + path + " is not a list of " + ENTRY_BYTES + "-byte entries");
+      }
+      long entries = size / ENTRY_BYTES;
+      int segmentCount = (int) ((entries + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+      ByteBuffer[] segments = new ByteBuffer[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        long start = ((long) i << SEGMENT_SHIFT) * ENTRY_BYTES;
+        long length = Math.min(size - start, (SEGMENT_MASK + 1) * ENTRY_BYTES);
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+      }
+      return new OpeningBook(segments, entries, keys);
+    } catch (IOException e) {
+      throw new OpeningBookException("Could not open opening book " + path + ": " + e);
+    }
+  }
+
+  public long size() {
+    return entries;
+  }
+
+  /**
+   * Returns the legal book moves of the position, most weight first. Entries with weight 0 and
+   * moves that are not legal on the board are left out.
+   */
+  public List<BookMove> lookup(ChessBoard board) {
+    long key = keys.key(board);
+    List<BookMove> moves = new ArrayList<>();
+    MoveList legalMoves = null;
+    for (long index = firstEntry(key); index < entries && keyAt(index) == key; index++) {
+      int weight = Short.toUnsignedInt(segment(index).getShort(offset(index) + 10));
+      if (weight == 0) {
+        continue;
+      }
+      if (legalMoves == null) {
+        legalMoves = new MoveList();
+        board.generateLegalMoves(legalMoves);
+      }
+      int move = toLegalMove(board, legalMoves, segment(index).getShort(offset(index) + 8));
+      if (move != 0) {
+        moves.add(new BookMove(move, weight));
+      }
+    }
+    moves.sort(Comparator.comparingInt(BookMove::weight).reversed());
+    return moves;
+  }
+
+  /** Picks one of the book moves at random by weight, or returns 0 if there is none. */
+  public int pickMove(ChessBoard board, RandomGenerator random) {
+    List<BookMove> moves = lookup(board);
+    int total = moves.stream().mapToInt(BookMove::weight).sum();
+    if (total == 0) {
+      return 0;
+    }
+    int pick = random.nextInt(total);
+    for (BookMove move : moves) {
+      pick -= move.weight();
+      if (pick < 0) {
+        return move.move();
+      }
+    }
+    return 0;
+  }
+
+  /** Index of the first entry whose key is not smaller than {@code key}, keys being unsigned. */
+  private long firstEntry(long key) {
+    long low = 0;
+    long high = entries;
+    while (low < high) {
+      long middle = (low + high) >>> 1;
+      if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private long keyAt(long index) {
+    return segment(index).getLong(offset(index));
+  }
+
+  private ByteBuffer segment(long index) {
+    return segments[(int) (index >>> SEGMENT_SHIFT)];
+  }
+
+  private static int offset(long index) {
+    return (int) (index & SEGMENT_MASK) * ENTRY_BYTES;
+  }
+
+  /**
+   * Matches a Polyglot move against the legal moves. Polyglot writes castling as the king taking
+   * its own rook, which is turned into the king's two-square move first.
+   */
+  private static int toLegalMove(ChessBoard board, MoveList legalMoves, short bookMove) {
+    int to = bookMove & 0x3F;
+    int from = (bookMove >>> 6) & 0x3F;
+    int promotionCode = (bookMove >>> 12) & 7;
+    PieceType promotion = promotionCode < PROMOTIONS.length ? PROMOTIONS[promotionCode] : null;
+    if (Bitboard.column(from) == 4
+        && (board.getPieces(PieceType.KING, board.getSideToMove()) & Bitboard.bit(from)) != 0
+        && (board.getPieces(PieceType.ROOK, board.getSideToMove()) & Bitboard.bit(to)) != 0) {
+      to = from + (Bitboard.column(to) == 7 ? 2 : -2);
+    }
+    for (int i = 0; i < legalMoves.size(); i++) {
+      int move = legalMoves.get(i);
+      if (Move.from(move) == from && Move.to(move) == to && Move.promotion(move) == promotion) {
+        return move;
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,7 @@
+package hwr.oop.chess.engine;
+
+public class OpeningBookException extends RuntimeException {
+  public OpeningBookException(String message) {
+    super(message);
+  }
+}
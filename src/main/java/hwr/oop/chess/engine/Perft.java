@@ -0,0 +1,112 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MoveList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree from a position. Comparing the counts with published
+ * numbers is the standard correctness check for a move generator, and the node rate is a
+ * repeatable benchmark for it.
+ */
+public final class Perft {
+  private final ChessBoard board;
+  private final MoveList[] movesPerPly;
+
+  private Perft(ChessBoard board, int depth) {
+    this.board = board;
+    this.movesPerPly = new MoveList[Math.max(depth, 1)];
+    for (int ply = 0; ply < movesPerPly.length; ply++) {
+      movesPerPly[ply] = new MoveList(256);
+    }
+  }
+
+  /** Counts the leaf nodes {@code depth} plies below the position; the board is left unchanged. */
+  public static long count(ChessBoard board, int depth) {
+    return new Perft(board, depth).count(depth, 0);
+  }
+
+  /** Counts the leaf nodes and breaks them down per root move, on the calling thread. */
+  public static PerftResult divide(ChessBoard board, int depth) {
+    requirePositiveDepth(depth);
+    long start = System.nanoTime();
+    Perft perft = new Perft(board, depth);
+    MoveList rootMoves = new MoveList(256);
+    board.generateLegalMoves(rootMoves);
+
+    Map<String, Long> divide = new LinkedHashMap<>();
+    long nodes = 0;
+    for (int i = 0; i < rootMoves.size(); i++) {
+      int move = rootMoves.get(i);
+      board.makeMove(move);
+      long moveNodes = perft.count(depth - 1, 1);
+      board.unmakeMove();
+      divide.put(Move.toString(move), moveNodes);
+      nodes += moveNodes;
+    }
+    return new PerftResult(nodes, divide, System.nanoTime() - start);
+  }
+
+  /**
+   * Like {@link #divide(ChessBoard, int)}, but every root move is counted on its own copy of the
+   * board as a task in {@code pool}.
+   */
+  public static PerftResult divideParallel(ChessBoard board, int depth, ForkJoinPool pool) {
+    requirePositiveDepth(depth);
+    long start = System.nanoTime();
+    MoveList rootMoves = new MoveList(256);
+    board.generateLegalMoves(rootMoves);
+
+    List<ForkJoinTask<Long>> tasks = new ArrayList<>(rootMoves.size());
+    for (int i = 0; i < rootMoves.size(); i++) {
+      int move = rootMoves.get(i);
+      ChessBoard copy = board.copy();
+      tasks.add(
+          pool.submit(
+              () -> {
+                copy.makeMove(move);
+                return count(copy, depth - 1);
+              }));
+    }
+
+    Map<String, Long> divide = new LinkedHashMap<>();
+    long nodes = 0;
+    for (int i = 0; i < tasks.size(); i++) {
+      long moveNodes = tasks.get(i).join();
+      divide.put(Move.toString(rootMoves.get(i)), moveNodes);
+      nodes += moveNodes;
+    }
+    return new PerftResult(nodes, divide, System.nanoTime() - start);
+  }
+
+  private static void requirePositiveDepth(int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Perft depth must be at least 1, but was " + depth);
+    }
+  }
+
+  private long count(int depth, int ply) {
+    if (depth == 0) {
+      return 1;
+    }
+    MoveList moves = movesPerPly[ply];
+    moves.clear();
+    board.generateLegalMoves(moves);
+    if (depth == 1) {
+      return moves.size();
+    }
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      board.makeMove(moves.get(i));
+      nodes += count(depth - 1, ply + 1);
+      board.unmakeMove();
+    }
+    return nodes;
+  }
+}
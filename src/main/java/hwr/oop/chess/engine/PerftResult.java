@@ -0,0 +1,17 @@
+package hwr.oop.chess.engine;
+
+import java.util.Map;
+
+/**
+ * Outcome of a perft run.
+ *
+ * @param nodes number of leaf nodes at the requested depth
+ * @param divide leaf nodes per root move in long algebraic notation, in generation order
+ * @param nanos wall clock time the count took
+ */
+public record PerftResult(long nodes, Map<String, Long> divide, long nanos) {
+
+  public long nodesPerSecond() {
+    return NodeRate.perSecond(nodes, nanos);
+  }
+}
@@ -0,0 +1,116 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.pieces.PieceType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Position keys of the Polyglot opening book format. A key is the XOR of one 64-bit random number
+ * per piece on its square, per castling right, for the file of a usable en passant square and for
+ * white to move, taken from the {@code Random64} table of the format specification.
+ *
+ * <p>The standard table ships with the engine ({@link #standard()}); another table can be read
+ * from a text file in which its 781 numbers appear in order as {@code 0x} followed by 16 hex
+ * digits, so an array can be copied straight from C or Java source.
+ */
+public final class PolyglotKeys {
+  public static final int KEY_COUNT = 781;
+  private static final int CASTLING_OFFSET = 768;
+  private static final int EN_PASSANT_OFFSET = 772;
+  private static final int TURN_OFFSET = 780;
+  private static final String STANDARD_TABLE = "polyglot-random64.txt";
+  private static final Pattern HEX_NUMBER = Pattern.compile("0[xX]([0-9a-fA-F]{16})");
+  private static final int[] PIECE_INDEX = new int[PieceType.values().length];
+
+  static {
+    PIECE_INDEX[PieceType.PAWN.ordinal()] = 0;
+    PIECE_INDEX[PieceType.KNIGHT.ordinal()] = 1;
+    PIECE_INDEX[PieceType.BISHOP.ordinal()] = 2;
+    PIECE_INDEX[PieceType.ROOK.ordinal()] = 3;
+    PIECE_INDEX[PieceType.QUEEN.ordinal()] = 4;
+    PIECE_INDEX[PieceType.KING.ordinal()] = 5;
+  }
+
+  private final long[] randoms;
+
+  PolyglotKeys(long[] randoms) {
+    if (randoms.length != KEY_COUNT) {
+      throw new OpeningBookException(
+          "Polyglot key table must contain " + KEY_COUNT + " keys, but has " + randoms.length);
+    }
+    this.randoms = randoms.clone();
+  }
+
+  /** The {@code Random64} table of the Polyglot specification, which all Polyglot books use. */
+  public static PolyglotKeys standard() {
+    try (InputStream in = PolyglotKeys.class.getResourceAsStream(STANDARD_TABLE)) {
+      if (in == null) {
+        throw new OpeningBookException("Missing Polyglot key table " + STANDARD_TABLE);
+      }
+      return parse(new String(in.readAllBytes(), StandardCharsets.US_ASCII), STANDARD_TABLE);
+    } catch (IOException e) {
+      throw new OpeningBookException(
+          "Could not read Polyglot key table " + STANDARD_TABLE + ": " + e);
+    }
+  }
+
+  /** Reads the {@code Random64} table from a text file. */
+  public static PolyglotKeys load(Path path) {
+    try {
+      return parse(Files.readString(path), "Polyglot key file " + path);
+    } catch (IOException e) {
+      throw new OpeningBookException("Could not read Polyglot key file " + path + ": " + e);
+    }
+  }
+
+  private static PolyglotKeys parse(String text, String source) {
+    long[] randoms = new long[KEY_COUNT];
+    int count = 0;
+    Matcher matcher = HEX_NUMBER.matcher(text);
+    while (matcher.find()) {
+      if (count < KEY_COUNT) {
+        randoms[count] = Long.parseUnsignedLong(matcher.group(1), 16);
+      }
+      count++;
+    }
+    if (count != KEY_COUNT) {
+      throw new OpeningBookException(
+          source + " must contain " + KEY_COUNT + " keys, but has " + count);
+    }
+    return new PolyglotKeys(randoms);
+  }
+
+  public long key(ChessBoard board) {
+    long key = 0;
+    for (Color color : Color.values()) {
+      for (PieceType type : PieceType.values()) {
+        int offset = 64 * (2 * PIECE_INDEX[type.ordinal()] + (color == Color.WHITE ? 1 : 0));
+        for (long pieces = board.getPieces(type, color); pieces != 0; pieces &= pieces - 1) {
+          key ^= randoms[offset + Long.numberOfTrailingZeros(pieces)];
+        }
+      }
+    }
+    // the castling right bits are in Polyglot's order: white short, white long, black short, long
+    for (int right = 0; right < 4; right++) {
+      if ((board.getCastlingRights() & 1 << right) != 0) {
+        key ^= randoms[CASTLING_OFFSET + right];
+      }
+    }
+    // the board only keeps an en passant square that a pawn can capture on, as Polyglot does
+    if (board.getEnPassantSquare() != ChessBoard.NO_SQUARE) {
+      key ^= randoms[EN_PASSANT_OFFSET + Bitboard.column(board.getEnPassantSquare())];
+    }
+    if (board.getSideToMove() == Color.WHITE) {
+      key ^= randoms[TURN_OFFSET];
+    }
+    return key;
+  }
+}
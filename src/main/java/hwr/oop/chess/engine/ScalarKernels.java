@@ -0,0 +1,28 @@
+package hwr.oop.chess.engine;
+
+/** Plain loops for JVMs started without the Vector API module. */
+final class ScalarKernels implements NetworkKernels {
+
+  @Override
+  public void add(int[] accumulator, int[] weights, int offset) {
+    for (int i = 0; i < accumulator.length; i++) {
+      accumulator[i] += weights[offset + i];
+    }
+  }
+
+  @Override
+  public void subtract(int[] accumulator, int[] weights, int offset) {
+    for (int i = 0; i < accumulator.length; i++) {
+      accumulator[i] -= weights[offset + i];
+    }
+  }
+
+  @Override
+  public long clippedDot(int[] accumulator, int[] weights, int offset, int max) {
+    long sum = 0;
+    for (int i = 0; i < accumulator.length; i++) {
+      sum += (long) Math.clamp(accumulator[i], 0, max) * weights[offset + i];
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,378 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MoveList;
+import hwr.oop.chess.pieces.PieceType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Iterative deepening alpha-beta search. Each iteration is a principal variation search with check
+ * extensions and a quiescence search over captures and promotions at the leaves. Moves are ordered
+ * by the transposition table move, then captures by most valuable victim and least valuable
+ * attacker, then killer moves and the history heuristic.
+ *
+ * <p>All per-ply buffers are allocated up front and the board is changed with make/unmake only, so
+ * the search itself does not allocate. The board is back in its original state when a search
+ * returns.
+ */
+public final class Search {
+  public static final int MAX_PLY = 128;
+  public static final int MATE_SCORE = 32_000;
+  public static final int INFINITE = 32_500;
+
+  private static final int MAX_MOVES = 256;
+  private static final int TIME_CHECK_INTERVAL = 1024;
+  private static final int TT_MOVE_SCORE = 1 << 30;
+  private static final int CAPTURE_SCORE = 1 << 28;
+  private static final int PROMOTION_SCORE = 1 << 27;
+  private static final int FIRST_KILLER_SCORE = 1 << 26;
+  private static final int SECOND_KILLER_SCORE = FIRST_KILLER_SCORE - 1;
+
+  private final ChessBoard board;
+  private final TranspositionTable table;
+  private final MoveList[] movesPerPly = new MoveList[MAX_PLY];
+  private final int[][] moveScores = new int[MAX_PLY][MAX_MOVES];
+  private final int[][] principalVariation = new int[MAX_PLY][MAX_PLY];
+  private final int[] principalVariationLength = new int[MAX_PLY];
+  private final int[][] killers = new int[MAX_PLY][2];
+  private final int[][] history = new int[64][64];
+
+  private long nodes;
+  private long deadline;
+  private volatile boolean stopped;
+  private Consumer<SearchResult> iterationListener = result -> {};
+
+  public Search(ChessBoard board, TranspositionTable table) {
+    this.board = board;
+    this.table = table;
+    for (int ply = 0; ply < MAX_PLY; ply++) {
+      movesPerPly[ply] = new MoveList(MAX_MOVES);
+    }
+  }
+
+  /**
+   * Searches the position for the side to move.
+   *
+   * @param maxDepth deepest iteration to run, at least 1
+   * @param moveTimeMillis time budget in milliseconds, or 0 for no limit
+   * @return the result of the deepest completed iteration; its best move is {@link Move} 0 if the
+   *     side to move has no legal moves
+   */
+  public SearchResult search(int maxDepth, long moveTimeMillis) {
+    if (maxDepth < 1) {
+      throw new IllegalArgumentException("Search depth must be at least 1, but was " + maxDepth);
+    }
+    long start = System.nanoTime();
+    deadline = moveTimeMillis > 0 ? start + moveTimeMillis * 1_000_000 : Long.MAX_VALUE;
+    nodes = 0;
+    for (int[] killersAtPly : killers) {
+      killersAtPly[0] = 0;
+      killersAtPly[1] = 0;
+    }
+
+    MoveList rootMoves = movesPerPly[0];
+    rootMoves.clear();
+    board.generateLegalMoves(rootMoves);
+    if (rootMoves.isEmpty()) {
+      int score = board.isInCheck(board.getSideToMove()) ? -MATE_SCORE : 0;
+      return new SearchResult(0, score, 0, List.of(), 0, System.nanoTime() - start);
+    }
+
+    SearchResult result =
+        new SearchResult(
+            rootMoves.get(0), 0, 0, List.of(Move.toString(rootMoves.get(0))), 0, 0);
+    for (int depth = 1; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+      int score = negamax(depth, 0, -INFINITE, INFINITE);
+      if (stopped) {
+        break;
+      }
+      result =
+          new SearchResult(
+              principalVariation[0][0],
+              score,
+              depth,
+              principalVariation(),
+              nodes,
+              System.nanoTime() - start);
+      iterationListener.accept(result);
+      if (isMate(score) && MATE_SCORE - Math.abs(score) <= depth) {
+        break;
+      }
+    }
+    return new SearchResult(
+        result.bestMove(),
+        result.score(),
+        result.depth(),
+        result.principalVariation(),
+        nodes,
+        System.nanoTime() - start);
+  }
+
+  /** Receives the result of every completed iteration, e.g. to report search progress. */
+  public void setIterationListener(Consumer<SearchResult> iterationListener) {
+    this.iterationListener = iterationListener;
+  }
+
+  /**
+   * Makes the running search, or the next one if none has started yet, return as soon as possible
+   * with the result of its last completed iteration. Safe to call from another thread; a stopped
+   * search object stays stopped.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  public static boolean isMate(int score) {
+    return Math.abs(score) >= MATE_SCORE - MAX_PLY;
+  }
+
+  private List<String> principalVariation() {
+    List<String> moves = new ArrayList<>(principalVariationLength[0]);
+    for (int i = 0; i < principalVariationLength[0]; i++) {
+      moves.add(Move.toString(principalVariation[0][i]));
+    }
+    return moves;
+  }
+
+  private int negamax(int depth, int ply, int alpha, int beta) {
+    principalVariationLength[ply] = 0;
+    if (ply > 0 && (shouldStop() || board.isRepetition())) {
+      return 0;
+    }
+    boolean inCheck = board.isInCheck(board.getSideToMove());
+    if (inCheck) {
+      depth++;
+    }
+    if (depth <= 0 || ply >= MAX_PLY - 1) {
+      return quiescence(ply, alpha, beta);
+    }
+    nodes++;
+
+    long key = board.getKey();
+    long entry = table.probe(key);
+    int tableMove = 0;
+    if (TranspositionTable.isHit(entry)) {
+      tableMove = TranspositionTable.move(entry);
+      int score = scoreFromTable(TranspositionTable.score(entry), ply);
+      if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+        int bound = TranspositionTable.bound(entry);
+        if (bound == TranspositionTable.EXACT
+            || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+            || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+          return score;
+        }
+      }
+    }
+
+    MoveList moves = movesPerPly[ply];
+    moves.clear();
+    board.generateLegalMoves(moves);
+    if (moves.isEmpty()) {
+      return inCheck ? -MATE_SCORE + ply : 0;
+    }
+    scoreMoves(moves, ply, tableMove);
+
+    int originalAlpha = alpha;
+    int bestScore = -INFINITE;
+    int bestMove = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      int move = pickNextMove(moves, ply, i);
+      board.makeMove(move);
+      int score;
+      if (i == 0) {
+        score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+      } else {
+        score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha);
+        if (score > alpha && score < beta) {
+          score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+        }
+      }
+      board.unmakeMove();
+      if (stopped) {
+        return 0;
+      }
+
+      if (score > bestScore) {
+        bestScore = score;
+        bestMove = move;
+        if (score > alpha) {
+          alpha = score;
+          updatePrincipalVariation(ply, move);
+          if (alpha >= beta) {
+            if (!Move.isCapture(move) && Move.promotion(move) == null) {
+              rememberQuietCutoff(move, ply, depth);
+            }
+            break;
+          }
+        }
+      }
+    }
+
+    int bound;
+    if (bestScore >= beta) {
+      bound = TranspositionTable.LOWER_BOUND;
+    } else if (bestScore > originalAlpha) {
+      bound = TranspositionTable.EXACT;
+    } else {
+      bound = TranspositionTable.UPPER_BOUND;
+    }
+    table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+    return bestScore;
+  }
+
+  private int quiescence(int ply, int alpha, int beta) {
+    principalVariationLength[ply] = 0;
+    if (shouldStop()) {
+      return 0;
+    }
+    nodes++;
+    boolean inCheck = board.isInCheck(board.getSideToMove());
+    if (ply >= MAX_PLY - 1) {
+      return inCheck ? 0 : Evaluation.evaluate(board);
+    }
+    int bestScore = -INFINITE;
+    if (!inCheck) {
+      bestScore = Evaluation.evaluate(board);
+      if (bestScore >= beta) {
+        return bestScore;
+      }
+      alpha = Math.max(alpha, bestScore);
+    }
+
+    MoveList moves = movesPerPly[ply];
+    moves.clear();
+    if (inCheck) {
+      board.generateLegalMoves(moves);
+    } else {
+      board.generateCaptures(board.getSideToMove(), moves);
+    }
+    if (moves.isEmpty()) {
+      return inCheck ? -MATE_SCORE + ply : bestScore;
+    }
+    scoreMoves(moves, ply, 0);
+
+    for (int i = 0; i < moves.size(); i++) {
+      int move = pickNextMove(moves, ply, i);
+      // when not in check only captures and queen promotions are searched
+      if (!inCheck && !isTactical(move)) {
+        continue;
+      }
+      board.makeMove(move);
+      int score = -quiescence(ply + 1, -beta, -alpha);
+      board.unmakeMove();
+      if (stopped) {
+        return 0;
+      }
+      if (score > bestScore) {
+        bestScore = score;
+        if (score > alpha) {
+          alpha = score;
+          updatePrincipalVariation(ply, move);
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    return bestScore;
+  }
+
+  private static boolean isTactical(int move) {
+    PieceType promotion = Move.promotion(move);
+    return promotion == PieceType.QUEEN || (Move.isCapture(move) && promotion == null);
+  }
+
+  private boolean shouldStop() {
+    if (!stopped && (nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline) {
+      stopped = true;
+    }
+    return stopped;
+  }
+
+  private void scoreMoves(MoveList moves, int ply, int tableMove) {
+    int[] scores = moveScores[ply];
+    int tableMoveSquares = tableMove & 0xFFF;
+    PieceType tablePromotion = Move.promotion(tableMove);
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      PieceType promotion = Move.promotion(move);
+      if (tableMove != 0 && (move & 0xFFF) == tableMoveSquares && promotion == tablePromotion) {
+        scores[i] = TT_MOVE_SCORE;
+      } else if (Move.isCapture(move)) {
+        scores[i] =
+            CAPTURE_SCORE
+                + Evaluation.pieceValue(Move.captured(move)) * 16
+                - Evaluation.pieceValue(Move.piece(move)) / 16
+                + (promotion == null ? 0 : Evaluation.pieceValue(promotion));
+      } else if (promotion != null) {
+        scores[i] = PROMOTION_SCORE + Evaluation.pieceValue(promotion);
+      } else if (move == killers[ply][0]) {
+        scores[i] = FIRST_KILLER_SCORE;
+      } else if (move == killers[ply][1]) {
+        scores[i] = SECOND_KILLER_SCORE;
+      } else {
+        scores[i] = history[Move.from(move)][Move.to(move)];
+      }
+    }
+  }
+
+  /** Moves the best scored of the remaining moves to {@code index} and returns it. */
+  private int pickNextMove(MoveList moves, int ply, int index) {
+    int[] scores = moveScores[ply];
+    int best = index;
+    for (int i = index + 1; i < moves.size(); i++) {
+      if (scores[i] > scores[best]) {
+        best = i;
+      }
+    }
+    if (best != index) {
+      moves.swap(index, best);
+      int score = scores[index];
+      scores[index] = scores[best];
+      scores[best] = score;
+    }
+    return moves.get(index);
+  }
+
+  private void rememberQuietCutoff(int move, int ply, int depth) {
+    if (killers[ply][0] != move) {
+      killers[ply][1] = killers[ply][0];
+      killers[ply][0] = move;
+    }
+    int[] fromHistory = history[Move.from(move)];
+    fromHistory[Move.to(move)] = Math.min(fromHistory[Move.to(move)] + depth * depth, 1 << 20);
+  }
+
+  private void updatePrincipalVariation(int ply, int move) {
+    int[] line = principalVariation[ply];
+    line[0] = move;
+    int childLength = principalVariationLength[ply + 1];
+    System.arraycopy(principalVariation[ply + 1], 0, line, 1, childLength);
+    principalVariationLength[ply] = childLength + 1;
+  }
+
+  // mate scores are stored relative to the position, not to the root, so they stay valid when the
+  // position is reached again at another ply
+  private static int scoreToTable(int score, int ply) {
+    if (score >= MATE_SCORE - MAX_PLY) {
+      return score + ply;
+    }
+    if (score <= -MATE_SCORE + MAX_PLY) {
+      return score - ply;
+    }
+    return score;
+  }
+
+  private static int scoreFromTable(int score, int ply) {
+    if (score >= MATE_SCORE - MAX_PLY) {
+      return score - ply;
+    }
+    if (score <= -MATE_SCORE + MAX_PLY) {
+      return score + ply;
+    }
+    return score;
+  }
+}
@@ -0,0 +1,48 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.board.Move;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a {@link Search}.
+ *
+ * @param bestMove best move found, encoded with {@link Move}, or 0 if there is no legal move
+ * @param score score in centipawns from the side to move's point of view; mate scores are {@link
+ *     Search#MATE_SCORE} minus the number of plies to mate
+ * @param depth depth of the deepest completed iteration
+ * @param principalVariation expected line of play in long algebraic notation, starting with the
+ *     best move
+ * @param nodes number of positions searched
+ * @param nanos wall clock time the search took
+ */
+public record SearchResult(
+    int bestMove, int score, int depth, List<String> principalVariation, long nodes, long nanos) {
+
+  public boolean hasBestMove() {
+    return bestMove != 0;
+  }
+
+  public boolean isMate() {
+    return Search.isMate(score);
+  }
+
+  /** Moves until mate, positive if the side to move mates and negative if it gets mated. */
+  public int mateIn() {
+    int plies = Search.MATE_SCORE - Math.abs(score);
+    int moves = (plies + 1) / 2;
+    return score > 0 ? moves : -moves;
+  }
+
+  public long nodesPerSecond() {
+    return NodeRate.perSecond(nodes, nanos);
+  }
+
+  /** The score as pawns with two decimals, e.g. {@code +0.35}, or as {@code mate 3}. */
+  public String formattedScore() {
+    if (isMate()) {
+      return "mate " + mateIn();
+    }
+    return String.format(Locale.ROOT, "%+.2f", score / 100.0);
+  }
+}
@@ -0,0 +1,328 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.pieces.PieceType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Win/draw/loss and distance to mate of every position of one {@link EndgameMaterial}, built by
+ * {@link TablebaseGenerator} and stored in a file that is memory-mapped for probing.
+ *
+ * <p>Positions are indexed by side to move, the squares of the stronger king, the weaker king and
+ * the pieces, in that order. Symmetry keeps the index small: without pawns the board is mirrored
+ * and rotated until the stronger king stands in the a1-d1-d4 triangle (10 squares), with pawns it
+ * is only mirrored onto the a-d files (32 squares), and pawns only take the 48 squares of ranks 2
+ * to 7. Every position takes {@code 2 + b} bits: its outcome for the side to move (illegal, draw,
+ * win or loss) and the plies to mate in {@code b} bits, just enough for the longest mate.
+ *
+ * <p>The file starts with a 32-byte little-endian header: magic {@code "CGTB"}, version, the
+ * material name in 8 ASCII bytes, the bits per position, the longest mate in plies and the number
+ * of positions.
+ */
+public final class Tablebase {
+  static final int MAGIC = 'C' | 'G' << 8 | 'T' << 16 | 'B' << 24;
+  static final int VERSION = 1;
+  static final int ILLEGAL = 0;
+  static final int DRAW = 1;
+  static final int WIN = 2;
+  static final int LOSS = 3;
+  private static final int HEADER_BYTES = 32;
+  private static final int NAME_BYTES = 8;
+  // the packed data is followed by this many zero bytes, so every entry can be read as one long
+  private static final int PADDING_BYTES = Long.BYTES;
+  private static final int FLIP_FILE = 1;
+  private static final int FLIP_RANK = 2;
+  private static final int TRANSPOSE = 4;
+  private static final int[] TRIANGLE_INDEX = new int[64];
+  private static final int[] TRIANGLE_SQUARES = new int[10];
+
+  static {
+    int index = 0;
+    for (int square = 0; square < 64; square++) {
+      int row = Bitboard.row(square);
+      int column = Bitboard.column(square);
+      boolean inTriangle = column < 4 && row <= column;
+      TRIANGLE_INDEX[square] = inTriangle ? index : -1;
+      if (inTriangle) {
+        TRIANGLE_SQUARES[index++] = square;
+      }
+    }
+  }
+
+  private final EndgameMaterial material;
+  private final ByteBuffer data;
+  private final int entryBits;
+  private final int longestMatePlies;
+
+  Tablebase(EndgameMaterial material, ByteBuffer data, int entryBits, int longestMatePlies) {
+    this.material = material;
+    this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+    this.entryBits = entryBits;
+    this.longestMatePlies = longestMatePlies;
+  }
+
+  /**
+   * Builds the table of {@code material} by retrograde analysis on {@code pool}. Tables with pawns
+   * need the tables they promote into, see {@link EndgameMaterial#promotionTables()}.
+   */
+  public static Tablebase generate(
+      EndgameMaterial material,
+      Map<EndgameMaterial, Tablebase> promotionTables,
+      ForkJoinPool pool) {
+    return TablebaseGenerator.generate(material, promotionTables, pool);
+  }
+
+  /** Name of the file of a table within a tablebase directory. */
+  public static String fileName(EndgameMaterial material) {
+    return material.name() + ".cgtb";
+  }
+
+  /** Maps a tablebase file into memory. */
+  public static Tablebase open(Path file) {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES) {
+        throw new TablebaseException("Not a tablebase file: " + file);
+      }
+      ByteBuffer buffer =
+          channel
+              .map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+              .order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        throw new TablebaseException("Not a version " + VERSION + " tablebase file: " + file);
+      }
+      byte[] name = new byte[NAME_BYTES];
+      buffer.get(8, name);
+      EndgameMaterial material = material(new String(name, StandardCharsets.US_ASCII).trim(), file);
+      int entryBits = buffer.getInt(16);
+      int longestMatePlies = buffer.getInt(20);
+      long positions = buffer.getLong(24);
+      if (positions != size(material)
+          || channel.size() != HEADER_BYTES + dataBytes(positions, entryBits)) {
+        throw new TablebaseException("Tablebase file is damaged: " + file);
+      }
+      return new Tablebase(
+          material,
+          buffer.slice(HEADER_BYTES, buffer.limit() - HEADER_BYTES),
+          entryBits,
+          longestMatePlies);
+    } catch (IOException e) {
+      throw new TablebaseException("Could not read tablebase file " + file + ": " + e);
+    }
+  }
+
+  private static EndgameMaterial material(String name, Path file) {
+    for (EndgameMaterial material : EndgameMaterial.values()) {
+      if (material.name().equals(name)) {
+        return material;
+      }
+    }
+    throw new TablebaseException("Unknown tablebase material " + name + ": " + file);
+  }
+
+  /** Writes the table to {@code file}, creating its directory if needed. */
+  public void write(Path file) {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MAGIC).putInt(VERSION);
+    byte[] name = material.name().getBytes(StandardCharsets.US_ASCII);
+    header.put(name).put(new byte[NAME_BYTES - name.length]);
+    header.putInt(entryBits).putInt(longestMatePlies).putLong(size(material)).flip();
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      try (FileChannel channel =
+          FileChannel.open(
+              file,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        ByteBuffer body = data.duplicate().clear();
+        while (header.hasRemaining() || body.hasRemaining()) {
+          channel.write(new ByteBuffer[] {header, body});
+        }
+      }
+    } catch (IOException e) {
+      throw new TablebaseException("Could not write tablebase file " + file + ": " + e);
+    }
+  }
+
+  public EndgameMaterial getMaterial() {
+    return material;
+  }
+
+  public int getLongestMatePlies() {
+    return longestMatePlies;
+  }
+
+  public long getPositionCount() {
+    return size(material);
+  }
+
+  /**
+   * Looks up a position of this table's material.
+   *
+   * @throws TablebaseException if the board holds other material or the side not to move is in
+   *     check
+   */
+  public TablebaseResult probe(ChessBoard board) {
+    Color strong = EndgameMaterial.strongerSide(board);
+    if (strong == null || EndgameMaterial.of(board).orElse(null) != material) {
+      throw new TablebaseException("Position is not a " + material + " endgame");
+    }
+    // tables have the pieces on the white side, so a black one is looked up mirrored
+    int flip = strong == Color.WHITE ? 0 : 56;
+    Color sideToMove =
+        strong == Color.WHITE ? board.getSideToMove() : board.getSideToMove().opposite();
+    int[] squares = new int[2 + material.pieceCount()];
+    squares[0] = Long.numberOfTrailingZeros(board.getPieces(PieceType.KING, strong)) ^ flip;
+    squares[1] =
+        Long.numberOfTrailingZeros(board.getPieces(PieceType.KING, strong.opposite())) ^ flip;
+    long taken = 0;
+    for (int i = 0; i < material.pieceCount(); i++) {
+      long pieces = board.getPieces(material.piece(i), strong) & ~taken;
+      int square = Long.numberOfTrailingZeros(pieces);
+      taken |= Bitboard.bit(square);
+      squares[2 + i] = square ^ flip;
+    }
+    int entry = entry(sideToMove, squares);
+    if ((entry & 3) == ILLEGAL) {
+      throw new TablebaseException("Position is not legal: the side not to move is in check");
+    }
+    return result(entry);
+  }
+
+  static TablebaseResult result(int entry) {
+    return switch (entry & 3) {
+      case WIN -> new TablebaseResult(TablebaseResult.Outcome.WIN, entry >>> 2);
+      case LOSS -> new TablebaseResult(TablebaseResult.Outcome.LOSS, entry >>> 2);
+      default -> new TablebaseResult(TablebaseResult.Outcome.DRAW, 0);
+    };
+  }
+
+  /**
+   * Raw entry of a position with the pieces on the white side: outcome in the low two bits, plies
+   * to mate above. {@code squares} holds the white king, the black king and the pieces; it is
+   * turned into the indexed orientation in place.
+   */
+  int entry(Color sideToMove, int[] squares) {
+    canonicalize(material, squares);
+    long bit = index(material, sideToMove, squares) * entryBits;
+    long word = data.getLong((int) (bit >>> 3));
+    return (int) (word >>> (bit & 7)) & ((1 << entryBits) - 1);
+  }
+
+  /** Mirrors and rotates the squares so that the stronger king is on an indexed square. */
+  static void canonicalize(EndgameMaterial material, int[] squares) {
+    int king = squares[0];
+    int transform = 0;
+    if (Bitboard.column(king) > 3) {
+      transform |= FLIP_FILE;
+      king ^= 7;
+    }
+    if (!material.hasPawns()) {
+      if (Bitboard.row(king) > 3) {
+        transform |= FLIP_RANK;
+        king ^= 56;
+      }
+      if (Bitboard.row(king) > Bitboard.column(king)) {
+        transform |= TRANSPOSE;
+      }
+    }
+    for (int i = 0; i < squares.length; i++) {
+      squares[i] = transform(squares[i], transform);
+    }
+  }
+
+  private static int transform(int square, int transform) {
+    int result = square;
+    if ((transform & FLIP_FILE) != 0) {
+      result ^= 7;
+    }
+    if ((transform & FLIP_RANK) != 0) {
+      result ^= 56;
+    }
+    if ((transform & TRANSPOSE) != 0) {
+      result = Bitboard.square(Bitboard.column(result), Bitboard.row(result));
+    }
+    return result;
+  }
+
+  static long size(EndgameMaterial material) {
+    long size = 2L * kingSquares(material) * 64;
+    for (int i = 0; i < material.pieceCount(); i++) {
+      size *= pieceSquares(material.piece(i));
+    }
+    return size;
+  }
+
+  private static int kingSquares(EndgameMaterial material) {
+    return material.hasPawns() ? 32 : TRIANGLE_SQUARES.length;
+  }
+
+  private static int pieceSquares(PieceType type) {
+    return type == PieceType.PAWN ? 48 : 64;
+  }
+
+  /** Index of a canonical position; pawns must be on ranks 2 to 7. */
+  static long index(EndgameMaterial material, Color sideToMove, int[] squares) {
+    int king = squares[0];
+    long index = sideToMove.ordinal();
+    index =
+        index * kingSquares(material)
+            + (material.hasPawns()
+                ? Bitboard.row(king) * 4 + Bitboard.column(king)
+                : TRIANGLE_INDEX[king]);
+    index = index * 64 + squares[1];
+    for (int i = 0; i < material.pieceCount(); i++) {
+      PieceType type = material.piece(i);
+      int square = squares[2 + i];
+      if (type == PieceType.PAWN && (square < 8 || square >= 56)) {
+        throw new TablebaseException("Pawns cannot stand on the first or last rank");
+      }
+      index = index * pieceSquares(type) + (type == PieceType.PAWN ? square - 8 : square);
+    }
+    return index;
+  }
+
+  /** Inverse of {@link #index}: fills {@code squares} and returns the side to move. */
+  static Color decode(EndgameMaterial material, long index, int[] squares) {
+    long rest = index;
+    for (int i = material.pieceCount() - 1; i >= 0; i--) {
+      PieceType type = material.piece(i);
+      int radix = pieceSquares(type);
+      int square = (int) (rest % radix);
+      squares[2 + i] = type == PieceType.PAWN ? square + 8 : square;
+      rest /= radix;
+    }
+    squares[1] = (int) (rest % 64);
+    rest /= 64;
+    int king = (int) (rest % kingSquares(material));
+    squares[0] = material.hasPawns() ? Bitboard.square(king / 4, king % 4) : TRIANGLE_SQUARES[king];
+    rest /= kingSquares(material);
+    return Color.values()[(int) rest];
+  }
+
+  static int dataBytes(long positions, int entryBits) {
+    long bytes = (positions * entryBits + 7) / 8 + PADDING_BYTES;
+    if (bytes > Integer.MAX_VALUE) {
+      throw new TablebaseException("Tablebase is too large");
+    }
+    return (int) bytes;
+  }
+
+  /** Packs entries into the layout read by {@link #entry}; used by the generator. */
+  static void put(ByteBuffer data, long index, int entryBits, int entry) {
+    long bit = index * entryBits;
+    int offset = (int) (bit >>> 3);
+    data.putLong(offset, data.getLong(offset) | ((long) entry << (bit & 7)));
+  }
+}
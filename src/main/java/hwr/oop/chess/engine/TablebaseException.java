@@ -0,0 +1,7 @@
+package hwr.oop.chess.engine;
+
+public class TablebaseException extends RuntimeException {
+  public TablebaseException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,431 @@
+package hwr.oop.chess.engine;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.MagicBitboards;
+import hwr.oop.chess.pieces.PieceType;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+/**
+ * Builds a {@link Tablebase} by retrograde analysis. All positions are first classified: illegal
+ * ones, mates and stalemates, and for black the number of king moves that stay in the endgame.
+ * Then the mates are worked backwards ply by ply. A white position that can move into a lost
+ * position is won one ply later; a black position loses once all its moves lead to won positions,
+ * which is counted down as those are found, so the ply it is reached at is the longest defence.
+ * Positions that are never reached are draws.
+ *
+ * <p>Predecessors are found by generating un-moves from the attack tables. Captures by the lone
+ * king always leave white with at most one minor piece, so they count as an escape to a draw;
+ * promotions are looked up in the already built queen and rook tables. Every ply is split into
+ * chunks that run as tasks on a fork-join pool, with the shared arrays updated atomically.
+ *
+ * <p>While building, positions are indexed by plain squares, six bits each, for speed; the
+ * finished table is packed into the compact {@link Tablebase} index.
+ */
+final class TablebaseGenerator {
+  private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+  private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+  private static final int CHUNK = 1 << 14;
+  private static final int MAX_PLIES = 255;
+  private static final byte UNKNOWN = 0;
+  private static final byte ILLEGAL = 1;
+  private static final byte WON = 2;
+  private static final byte LOST = 3;
+  private static final byte DRAWN = 4;
+  // counter of a black position that can capture and so never loses
+  private static final int NEVER_LOSES = -1;
+
+  private final EndgameMaterial material;
+  private final Map<EndgameMaterial, Tablebase> promotionTables;
+  private final ForkJoinPool pool;
+  private final int squareCount;
+  private final int size;
+  private final byte[] results;
+  private final byte[] plies;
+  private final int[] counters;
+  private final byte[] exitPlies;
+
+  private TablebaseGenerator(
+      EndgameMaterial material,
+      Map<EndgameMaterial, Tablebase> promotionTables,
+      ForkJoinPool pool) {
+    this.material = material;
+    this.promotionTables = promotionTables;
+    this.pool = pool;
+    this.squareCount = 2 + material.pieceCount();
+    this.size = 2 << (6 * squareCount);
+    this.results = new byte[size];
+    this.plies = new byte[size];
+    this.counters = new int[size];
+    this.exitPlies = material.hasPawns() ? new byte[size] : null;
+  }
+
+  /** See {@link Tablebase#generate}. */
+  static Tablebase generate(
+      EndgameMaterial material,
+      Map<EndgameMaterial, Tablebase> promotionTables,
+      ForkJoinPool pool) {
+    for (EndgameMaterial required : material.promotionTables()) {
+      if (!promotionTables.containsKey(required)) {
+        throw new TablebaseException(material + " needs the " + required + " table first");
+      }
+    }
+    TablebaseGenerator generator = new TablebaseGenerator(material, promotionTables, pool);
+    int longestMate = generator.solve(generator.classify());
+    return generator.pack(longestMate);
+  }
+
+  /** Classifies every position and returns the mates. */
+  private IntList classify() {
+    IntList mates = new IntList();
+    for (IntList chunk : runChunks(size, this::classifyChunk)) {
+      mates.addAll(chunk);
+    }
+    return mates;
+  }
+
+  private IntList classifyChunk(int start) {
+    IntList mates = new IntList();
+    int[] squares = new int[squareCount];
+    for (int index = start; index < Math.min(start + CHUNK, size); index++) {
+      Color sideToMove = decode(index, squares);
+      long occupied = occupancy(squares);
+      if (!isLegal(squares, occupied, sideToMove)) {
+        results[index] = ILLEGAL;
+      } else if (sideToMove == Color.WHITE) {
+        if (exitPlies != null) {
+          exitPlies[index] = (byte) promotionExit(squares, occupied);
+        }
+      } else if (classifyBlack(index, squares, occupied)) {
+        mates.add(index);
+      }
+    }
+    return mates;
+  }
+
+  private boolean isLegal(int[] squares, long occupied, Color sideToMove) {
+    if (Long.bitCount(occupied) != squareCount
+        || (Bitboard.kingAttacksFrom(squares[0]) & Bitboard.bit(squares[1])) != 0) {
+      return false;
+    }
+    for (int i = 2; i < squareCount; i++) {
+      int row = Bitboard.row(squares[i]);
+      if (material.piece(i - 2) == PieceType.PAWN && (row == 0 || row == 7)) {
+        return false;
+      }
+    }
+    // with white to move, black must not have left its king in check
+    return sideToMove == Color.BLACK
+        || !isAttackedByWhite(squares[1], squares, occupied & ~Bitboard.bit(squares[1]), -1);
+  }
+
+  /** Counts the moves of a black position and returns whether it is mate. */
+  private boolean classifyBlack(int index, int[] squares, long occupied) {
+    int king = squares[1];
+    long withoutKing = occupied & ~Bitboard.bit(king);
+    int moves = 0;
+    long targets = Bitboard.kingAttacksFrom(king) & ~Bitboard.kingAttacksFrom(squares[0]);
+    for (; targets != 0; targets &= targets - 1) {
+      int target = Long.numberOfTrailingZeros(targets);
+      int captured = pieceAt(squares, target);
+      if (!isAttackedByWhite(target, squares, withoutKing, captured)) {
+        if (captured >= 0) {
+          counters[index] = NEVER_LOSES;
+          return false;
+        }
+        moves++;
+      }
+    }
+    if (moves > 0) {
+      counters[index] = moves;
+      return false;
+    }
+    if (isAttackedByWhite(king, squares, occupied, -1)) {
+      results[index] = LOST;
+      return true;
+    }
+    results[index] = DRAWN;
+    return false;
+  }
+
+  /** Plies to mate of white's fastest winning promotion, or 0 if there is none. */
+  private int promotionExit(int[] squares, long occupied) {
+    int best = 0;
+    for (int i = 2; i < squareCount; i++) {
+      int to = squares[i] + 8;
+      if (material.piece(i - 2) != PieceType.PAWN
+          || Bitboard.row(squares[i]) != 6
+          || (occupied & Bitboard.bit(to)) != 0) {
+        continue;
+      }
+      for (EndgameMaterial promoted : material.promotionTables()) {
+        int[] after = {squares[0], squares[1], to};
+        int entry = promotionTables.get(promoted).entry(Color.BLACK, after);
+        if ((entry & 3) == Tablebase.LOSS) {
+          int exit = (entry >>> 2) + 1;
+          best = best == 0 ? exit : Math.min(best, exit);
+        }
+      }
+    }
+    return best;
+  }
+
+  /** Works backwards from the mates; returns the longest mate in plies. */
+  private int solve(IntList mates) {
+    IntList[] promotionWins = promotionWinsByPly();
+    IntList frontier = mates;
+    int longestMate = 0;
+    for (int ply = 0; !frontier.isEmpty() || ply < promotionWins.length - 1; ply++) {
+      if (ply == MAX_PLIES) {
+        throw new TablebaseException("Mates of " + material + " are too long to store");
+      }
+      IntList current = frontier;
+      int nextPly = ply + 1;
+      IntList next = new IntList();
+      for (IntList chunk :
+          runChunks(current.size(), start -> retract(current, start, nextPly))) {
+        next.addAll(chunk);
+      }
+      if (nextPly < promotionWins.length && promotionWins[nextPly] != null) {
+        IntList wins = promotionWins[nextPly];
+        for (int i = 0; i < wins.size(); i++) {
+          if (resolve(wins.get(i), WON, nextPly)) {
+            next.add(wins.get(i));
+          }
+        }
+      }
+      if (!next.isEmpty()) {
+        longestMate = nextPly;
+      }
+      frontier = next;
+    }
+    return longestMate;
+  }
+
+  private IntList[] promotionWinsByPly() {
+    if (exitPlies == null) {
+      return new IntList[0];
+    }
+    IntList[] wins = new IntList[MAX_PLIES + 1];
+    int last = 0;
+    for (int index = 0; index < size; index++) {
+      int exit = Byte.toUnsignedInt(exitPlies[index]);
+      if (exit > 0) {
+        if (wins[exit] == null) {
+          wins[exit] = new IntList();
+        }
+        wins[exit].add(index);
+        last = Math.max(last, exit);
+      }
+    }
+    return Arrays.copyOf(wins, last + 1);
+  }
+
+  /** Resolves the predecessors of a chunk of positions decided one ply earlier. */
+  private IntList retract(IntList decided, int start, int ply) {
+    IntList resolved = new IntList();
+    int[] squares = new int[squareCount];
+    for (int i = start; i < Math.min(start + CHUNK, decided.size()); i++) {
+      Color sideToMove = decode(decided.get(i), squares);
+      long occupied = occupancy(squares);
+      if (sideToMove == Color.BLACK) {
+        retractWhite(squares, occupied, ply, resolved);
+      } else {
+        retractBlack(squares, occupied, ply, resolved);
+      }
+    }
+    return resolved;
+  }
+
+  /** Every white position that can move into the lost black position is won. */
+  private void retractWhite(int[] squares, long occupied, int ply, IntList resolved) {
+    for (int i = 0; i < squareCount; i++) {
+      if (i == 1) {
+        continue;
+      }
+      int square = squares[i];
+      for (long origins = unmoveOrigins(i, square, occupied);
+          origins != 0;
+          origins &= origins - 1) {
+        squares[i] = Long.numberOfTrailingZeros(origins);
+        int predecessor = encode(Color.WHITE, squares);
+        if (resolve(predecessor, WON, ply)) {
+          resolved.add(predecessor);
+        }
+      }
+      squares[i] = square;
+    }
+  }
+
+  /** Black positions whose last escape was the won white position now lose. */
+  private void retractBlack(int[] squares, long occupied, int ply, IntList resolved) {
+    int king = squares[1];
+    for (long origins = Bitboard.kingAttacksFrom(king) & ~occupied;
+        origins != 0;
+        origins &= origins - 1) {
+      squares[1] = Long.numberOfTrailingZeros(origins);
+      int predecessor = encode(Color.BLACK, squares);
+      if (results[predecessor] == UNKNOWN
+          && counters[predecessor] > 0
+          && (int) INTS.getAndAdd(counters, predecessor, -1) == 1) {
+        plies[predecessor] = (byte) ply;
+        results[predecessor] = LOST;
+        resolved.add(predecessor);
+      }
+    }
+    squares[1] = king;
+  }
+
+  private boolean resolve(int index, byte result, int ply) {
+    if (BYTES.compareAndSet(results, index, UNKNOWN, result)) {
+      plies[index] = (byte) ply;
+      return true;
+    }
+    return false;
+  }
+
+  /** Squares the white king ({@code slot} 0) or piece could have come from without capturing. */
+  private long unmoveOrigins(int slot, int square, long occupied) {
+    if (slot == 0) {
+      return Bitboard.kingAttacksFrom(square) & ~occupied;
+    }
+    return switch (material.piece(slot - 2)) {
+      case PAWN -> {
+        long single = Bitboard.bit(square) >>> 8 & ~occupied & ~Bitboard.RANK_1;
+        long twice = Bitboard.row(square) == 3 && single != 0 ? single >>> 8 & ~occupied : 0;
+        yield single | twice;
+      }
+      default -> attacks(material.piece(slot - 2), square, occupied) & ~occupied;
+    };
+  }
+
+  private boolean isAttackedByWhite(int target, int[] squares, long occupied, int ignoredSlot) {
+    if ((Bitboard.kingAttacksFrom(squares[0]) & Bitboard.bit(target)) != 0) {
+      return true;
+    }
+    for (int i = 2; i < squareCount; i++) {
+      if (i != ignoredSlot
+          && (attacks(material.piece(i - 2), squares[i], occupied) & Bitboard.bit(target)) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long attacks(PieceType type, int square, long occupied) {
+    return switch (type) {
+      case KING -> Bitboard.kingAttacksFrom(square);
+      case KNIGHT -> Bitboard.knightAttacksFrom(square);
+      case PAWN -> Bitboard.pawnAttacksFrom(square, Color.WHITE);
+      case BISHOP -> MagicBitboards.bishopAttacks(square, occupied);
+      case ROOK -> MagicBitboards.rookAttacks(square, occupied);
+      case QUEEN -> MagicBitboards.queenAttacks(square, occupied);
+    };
+  }
+
+  private int pieceAt(int[] squares, int square) {
+    for (int i = 2; i < squareCount; i++) {
+      if (squares[i] == square) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private long occupancy(int[] squares) {
+    long occupied = 0;
+    for (int square : squares) {
+      occupied |= Bitboard.bit(square);
+    }
+    return occupied;
+  }
+
+  private Color decode(int index, int[] squares) {
+    for (int i = squareCount - 1, rest = index; i >= 0; i--, rest >>>= 6) {
+      squares[i] = rest & 63;
+    }
+    return Color.values()[index >>> (6 * squareCount)];
+  }
+
+  private int encode(Color sideToMove, int[] squares) {
+    int index = sideToMove.ordinal();
+    for (int square : squares) {
+      index = index << 6 | square;
+    }
+    return index;
+  }
+
+  /** Stores the results in the compact, bit-packed index. */
+  private Tablebase pack(int longestMate) {
+    int entryBits = 2 + Math.max(1, 32 - Integer.numberOfLeadingZeros(longestMate));
+    long positions = Tablebase.size(material);
+    ByteBuffer data =
+        ByteBuffer.allocate(Tablebase.dataBytes(positions, entryBits))
+            .order(ByteOrder.LITTLE_ENDIAN);
+    int[] squares = new int[squareCount];
+    for (long index = 0; index < positions; index++) {
+      Color sideToMove = Tablebase.decode(material, index, squares);
+      int position = encode(sideToMove, squares);
+      int entry =
+          switch (results[position]) {
+            case ILLEGAL -> Tablebase.ILLEGAL;
+            case WON -> Tablebase.WIN | Byte.toUnsignedInt(plies[position]) << 2;
+            case LOST -> Tablebase.LOSS | Byte.toUnsignedInt(plies[position]) << 2;
+            default -> Tablebase.DRAW;
+          };
+      Tablebase.put(data, index, entryBits, entry);
+    }
+    return new Tablebase(material, data, entryBits, longestMate);
+  }
+
+  /** Runs {@code chunk} for every start of a {@link #CHUNK}-sized slice of {@code count}. */
+  private List<IntList> runChunks(int count, IntFunction<IntList> chunk) {
+    List<ForkJoinTask<IntList>> tasks = new ArrayList<>();
+    for (int start = 0; start < count; start += CHUNK) {
+      int from = start;
+      tasks.add(pool.submit(() -> chunk.apply(from)));
+    }
+    return tasks.stream().map(ForkJoinTask::join).toList();
+  }
+
+  /** Growable list of position indexes. */
+  private static final class IntList {
+    private int[] values = new int[16];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    void addAll(IntList other) {
+      for (int i = 0; i < other.size; i++) {
+        add(other.values[i]);
+      }
+    }
+
+    int get(int index) {
+      return values[index];
+    }
+
+    int size() {
+      return size;
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package hwr.oop.chess.engine;
+
+/**
+ * Perfect-play value of a tablebase position for the side to move.
+ *
+ * @param outcome whether the side to move wins, draws or loses
+ * @param plies plies until mate with best play by both sides, or 0 for draws
+ */
+public record TablebaseResult(Outcome outcome, int plies) {
+  public enum Outcome {
+    WIN,
+    DRAW,
+    LOSS
+  }
+
+  /** Moves of the winning side until mate, counting its mating move. */
+  public int movesToMate() {
+    return (plies + 1) / 2;
+  }
+}
@@ -0,0 +1,82 @@
+package hwr.oop.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results keyed by the Zobrist key of a position. Each entry is two
+ * {@code long}s: the packed data and the key XORed with that data, so a torn write from another
+ * thread simply fails the key check instead of returning a mix of two entries.
+ */
+public final class TranspositionTable {
+  public static final int EXACT = 0;
+  public static final int LOWER_BOUND = 1;
+  public static final int UPPER_BOUND = 2;
+
+  private static final int NO_ENTRY = -1;
+
+  private final long[] keys;
+  private final long[] data;
+  private final int mask;
+
+  /** Creates a table using roughly {@code megabytes} of memory, rounded down to a power of two. */
+  public TranspositionTable(int megabytes) {
+    if (megabytes < 1) {
+      throw new IllegalArgumentException("Table size must be at least 1 MB, but was " + megabytes);
+    }
+    int entries = Integer.highestOneBit((int) Math.min(megabytes * (1L << 20) / 16, 1 << 30));
+    keys = new long[entries];
+    data = new long[entries];
+    mask = entries - 1;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, 0L);
+    Arrays.fill(data, 0L);
+  }
+
+  /**
+   * Stores a result, replacing whatever was in the slot unless that was a deeper search of the same
+   * position. Mate scores must already be relative to this position, see {@link Search}.
+   */
+  public void store(long key, int move, int score, int depth, int bound) {
+    int index = (int) key & mask;
+    long old = data[index];
+    if ((keys[index] ^ old) == key && depth(old) > depth) {
+      return;
+    }
+    long entry =
+        (move & 0xFFFFFFFFL)
+            | ((long) (score & 0xFFFF) << 32)
+            | ((long) (depth & 0xFF) << 48)
+            | ((long) bound << 56);
+    data[index] = entry;
+    keys[index] = key ^ entry;
+  }
+
+  /** Returns the packed entry for {@code key}, or -1 if the position is not in the table. */
+  public long probe(long key) {
+    int index = (int) key & mask;
+    long entry = data[index];
+    return (keys[index] ^ entry) == key && entry != 0 ? entry : NO_ENTRY;
+  }
+
+  public static boolean isHit(long entry) {
+    return entry != NO_ENTRY;
+  }
+
+  public static int move(long entry) {
+    return (int) entry;
+  }
+
+  public static int score(long entry) {
+    return (short) (entry >>> 32);
+  }
+
+  public static int depth(long entry) {
+    return (int) (entry >>> 48) & 0xFF;
+  }
+
+  public static int bound(long entry) {
+    return (int) (entry >>> 56) & 0x3;
+  }
+}
@@ -3,6 +3,8 @@ package hwr.oop.chess.game;
 import hwr.oop.chess.Color;
 import hwr.oop.chess.GameOutcome;
 import hwr.oop.chess.Position;
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.CastlingRights;
 import hwr.oop.chess.board.ChessBoard;
 import hwr.oop.chess.pieces.*;
 import hwr.oop.chess.player.Player;
@@ -12,14 +14,13 @@ import java.util.List;
 import java.util.Objects;
 
 public class Game implements Serializable {
+  private static final long serialVersionUID = 1L;
   private final String id;
   private Player playerWhite;
   private Player playerBlack;
 
   private final ChessBoard board;
 
-  private Color nextToMove = Color.WHITE;
-  private short moveCount = 0;
   private boolean gameEnded = false;
   private boolean isRemiOffered = false;
   private GameOutcome winner;
@@ -29,7 +30,7 @@ public class Game implements Serializable {
   }
 
   public short getMoveCount() {
-    return moveCount;
+    return board.getMoveCount();
   }
 
   public boolean isGameEnded() {
@@ -66,7 +67,7 @@ public class Game implements Serializable {
   }
 
   public Color getNextToMove() {
-    return nextToMove;
+    return board.getSideToMove();
   }
 
   public boolean isRemiOffered() {
@@ -78,8 +79,7 @@ public class Game implements Serializable {
   }
 
   public void toggleNextToMove() {
-    this.nextToMove = (this.nextToMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
-    moveCount++;
+    board.toggleSideToMove();
   }
 
   public void declareWinner(GameOutcome winner) {
@@ -97,7 +97,7 @@ public class Game implements Serializable {
     for (int row = 7; row >= 0; row--) {
       int emptyCount = 0;
       for (int col = 0; col < 8; col++) {
-        Piece piece = board.getPieceAtPosition(new Position(row, col));
+        Piece piece = board.getPieceAt(Bitboard.square(row, col));
         if (piece == null) {
           emptyCount++;
         } else {
@@ -122,16 +122,29 @@ public class Game implements Serializable {
     return board;
   }
 
+  /** Standard six-field FEN of the current position. */
   public String convertBoardToFEN() {
     StringBuilder fen = buildFENPositionsFromBoard();
     fen.append(" ");
-    fen.append(nextToMove == Color.WHITE ? "w" : "b");
+    fen.append(getNextToMove() == Color.WHITE ? "w" : "b");
     fen.append(" ");
-    fen.append(moveCount);
+    fen.append(CastlingRights.toFEN(board.getCastlingRights()));
+    fen.append(" ");
+    int enPassantSquare = board.getEnPassantSquare();
+    if (enPassantSquare == ChessBoard.NO_SQUARE) {
+      fen.append("-");
+    } else {
+      fen.append((char) ('a' + Bitboard.column(enPassantSquare)));
+      fen.append(Bitboard.row(enPassantSquare) + 1);
+    }
+    fen.append(" ");
+    fen.append(board.getHalfmoveClock());
+    fen.append(" ");
+    fen.append(getMoveCount() / 2 + 1);
     return fen.toString();
   }
 
-  private Piece createPieceFromFEN(char fenChar, Position position) {
+  private static Piece createPieceFromFEN(char fenChar, Position position, ChessBoard board) {
     return switch (fenChar) {
       case 'P' -> new Pawn(Color.WHITE, position, board);
       case 'N' -> new Knight(Color.WHITE, position, board);
@@ -149,7 +162,7 @@ public class Game implements Serializable {
     };
   }
 
-  private List<String> getPartsFromFEN(String fenNotation) {
+  private static List<String> getPartsFromFEN(String fenNotation) {
     List<String> parts = List.of(fenNotation.split(" "));
     if (parts.size() < 2) {
       throw new FENException(
@@ -158,7 +171,7 @@ public class Game implements Serializable {
     return parts;
   }
 
-  private List<String> getRowsFromFEN(List<String> parts) {
+  private static List<String> getRowsFromFEN(List<String> parts) {
     List<String> rows = List.of(parts.getFirst().split("/"));
     if (rows.size() != 8) {
       throw new FENException("Invalid FEN format: 8 rows expected");
@@ -166,15 +179,61 @@ public class Game implements Serializable {
     return rows;
   }
 
-  private void setActiveColorFromFEN(String activeColor) {
+  private static void setActiveColorFromFEN(String activeColor, ChessBoard board) {
     if (activeColor.equals("w")) {
-      nextToMove = Color.WHITE;
+      board.setSideToMove(Color.WHITE);
     } else {
-      nextToMove = Color.BLACK;
+      board.setSideToMove(Color.BLACK);
+    }
+  }
+
+  private static void setCastlingRightsFromFEN(String field, ChessBoard board) {
+    int rights = CastlingRights.fromFEN(field);
+    if (rights < 0) {
+      throw new FENException("Invalid FEN format: castling rights must be - or letters of KQkq");
     }
+    board.setCastlingRights(rights & castlingRightsOfInitialSquares(board));
+  }
+
+  private static void setEnPassantSquareFromFEN(String field, ChessBoard board) {
+    if (field.equals("-")) {
+      return;
+    }
+    if (!field.matches("[a-h][36]")) {
+      throw new FENException("Invalid FEN format: en passant square is not valid");
+    }
+    board.setEnPassantSquare(Bitboard.square(field.charAt(1) - '1', field.charAt(0) - 'a'));
+  }
+
+  /** The rights of every king and rook that still stand on their initial squares. */
+  private static int castlingRightsOfInitialSquares(ChessBoard board) {
+    int rights = CastlingRights.NONE;
+    for (Color color : Color.values()) {
+      int home = color == Color.WHITE ? 0 : 56;
+      if ((board.getPieces(PieceType.KING, color) & Bitboard.bit(home + 4)) == 0) {
+        continue;
+      }
+      long rooks = board.getPieces(PieceType.ROOK, color);
+      if ((rooks & Bitboard.bit(home + 7)) != 0) {
+        rights |= CastlingRights.kingside(color);
+      }
+      if ((rooks & Bitboard.bit(home)) != 0) {
+        rights |= CastlingRights.queenside(color);
+      }
+    }
+    return rights;
   }
 
   public ChessBoard convertFENToBoard(String fenNotation) throws FENException {
+    return boardFromFEN(fenNotation);
+  }
+
+  /**
+   * Builds a board from FEN. Besides standard FEN, this project's older "layout colour move-count"
+   * form is accepted; as it has no castling field, castling is then allowed wherever king and rook
+   * still stand on their initial squares. The full move number is turned into a move count.
+   */
+  public static ChessBoard boardFromFEN(String fenNotation) throws FENException {
     ChessBoard newBoard = new ChessBoard();
     newBoard.clearChessboard();
     List<String> parts = getPartsFromFEN(fenNotation);
@@ -186,9 +245,10 @@ public class Game implements Serializable {
         if (Character.isDigit(c)) {
           col += Character.getNumericValue(c);
         } else {
-          Piece piece = createPieceFromFEN(c, new Position(i, col));
+          Position position = Position.of(i, col);
+          Piece piece = createPieceFromFEN(c, position, newBoard);
           if (piece != null) {
-            newBoard.setPieceAtPosition(new Position(i, col), piece);
+            newBoard.setPieceAtPosition(position, piece);
           } else {
             throw new FENException("FEN notation contains invalid Piece");
           }
@@ -199,10 +259,31 @@ public class Game implements Serializable {
 
     // Get the active color part
     String activeColor = parts.get(1);
-    setActiveColorFromFEN(activeColor);
-    if (parts.size() >= 3) {
+    setActiveColorFromFEN(activeColor, newBoard);
+    if (parts.size() >= 4) {
+      setCastlingRightsFromFEN(parts.get(2), newBoard);
+      setEnPassantSquareFromFEN(parts.get(3), newBoard);
+    } else {
+      newBoard.setCastlingRights(castlingRightsOfInitialSquares(newBoard));
+    }
+    if (parts.size() >= 5) {
+      try {
+        newBoard.setHalfmoveClock(Integer.parseInt(parts.get(4)));
+      } catch (NumberFormatException e) {
+        throw new FENException("Invalid FEN format: halfmove clock is not a valid number");
+      }
+    }
+    if (parts.size() >= 6) {
+      try {
+        int fullMoveNumber = Integer.parseInt(parts.get(5));
+        int blackToMove = newBoard.getSideToMove() == Color.BLACK ? 1 : 0;
+        newBoard.setMoveCount((short) (Math.max(fullMoveNumber - 1, 0) * 2 + blackToMove));
+      } catch (NumberFormatException e) {
+        throw new FENException("Invalid FEN format: full move number is not a valid number");
+      }
+    } else if (parts.size() == 3) {
       try {
-        moveCount = Short.parseShort(parts.get(2));
+        newBoard.setMoveCount(Short.parseShort(parts.get(2)));
       } catch (NumberFormatException e) {
         throw new FENException("Invalid FEN format: total number of moves is not a valid number");
       }
@@ -215,18 +296,19 @@ public class Game implements Serializable {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     Game game = (Game) o;
-    return moveCount == game.moveCount
+    return getMoveCount() == game.getMoveCount()
         && gameEnded == game.gameEnded
         && Objects.equals(id, game.id)
         && Objects.equals(playerWhite, game.playerWhite)
         && Objects.equals(playerBlack, game.playerBlack)
         && Objects.equals(board, game.board)
-        && nextToMove == game.nextToMove;
+        && getNextToMove() == game.getNextToMove();
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, playerWhite, playerBlack, board, nextToMove, moveCount, gameEnded);
+    return Objects.hash(
+        id, playerWhite, playerBlack, board, getNextToMove(), getMoveCount(), gameEnded);
   }
 
   @Override
@@ -242,9 +324,9 @@ public class Game implements Serializable {
         + ", board="
         + board
         + ", nextToMove="
-        + nextToMove
+        + getNextToMove()
         + ", moveCount="
-        + moveCount
+        + getMoveCount()
         + ", gameEnded="
         + gameEnded
         + '}';
@@ -40,6 +40,11 @@ public class FileBasedPersistence implements Persistence {
         List<Game> loadedGames = (List<Game>) o.readObject();
         return loadedGames != null ? loadedGames : new ArrayList<>();
       }
+    } catch (InvalidClassException e) {
+      throw new PersistenceException(
+          "Cannot read: "
+              + filePathGames
+              + " was saved by an incompatible version. Move it away to start with no games.");
     } catch (IOException | ClassNotFoundException e) {
       throw new PersistenceException("Cannot read.");
     }
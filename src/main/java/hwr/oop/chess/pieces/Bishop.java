@@ -2,23 +2,25 @@ package hwr.oop.chess.pieces;
 
 import hwr.oop.chess.Color;
 import hwr.oop.chess.Position;
+import hwr.oop.chess.board.Bitboard;
 import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MagicBitboards;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 public class Bishop implements Piece, Serializable {
+  private static final long serialVersionUID = 1L;
   private final Color color;
   private final ChessBoard chessBoard;
   private final char symbol;
-  private Position position;
+  private int square;
 
   public Bishop(Color color, Position position, ChessBoard chessBoard) {
     this.color = color;
-    this.position = position;
+    this.square = position.square();
     this.chessBoard = chessBoard;
     this.symbol = color == Color.WHITE ? 'B' : 'b';
   }
@@ -30,14 +32,19 @@ public class Bishop implements Piece, Serializable {
 
   @Override
   public Position getPosition() {
-    return position;
+    return Position.of(square);
   }
 
   @Override
   public void setPosition(Position target) {
-    chessBoard.setPieceAtPosition(position, null);
-    this.position = target;
+    chessBoard.setPieceAt(square, null);
     chessBoard.setPieceAtPosition(target, this);
+    this.square = target.square();
+  }
+
+  @Override
+  public void placeAt(int square) {
+    this.square = square;
   }
 
   @Override
@@ -52,86 +59,26 @@ public class Bishop implements Piece, Serializable {
 
   @Override
   public void moveTo(Position target) throws IllegalMoveException {
-    List<Position> possibleMoves = possibleMoves();
-    if (possibleMoves.contains(target) && wouldKingBeNOTInCheckAfterMoveTo(target)) {
-      setPosition(target);
-    } else {
+    if (!chessBoard.isLegal(square, target.square())) {
       throw new IllegalMoveException("Illegal move");
     }
+    // the piece API moves either colour, so the board is first given to the moving side
+    chessBoard.setSideToMove(color);
+    chessBoard.makeMove(Move.of(square, target.square()));
   }
 
   @Override
   public List<Position> possibleMoves() {
-    List<Position> possibleMoves = new ArrayList<>();
-    List<Position> visiblePositions = visiblePositions();
-
-    for (Position visiblePosition : visiblePositions) {
-      Piece pieceAtVisiblePosition = chessBoard.getPieceAtPosition(visiblePosition);
-
-      if (pieceAtVisiblePosition == null) {
-        if (wouldKingBeNOTInCheckAfterMoveTo(visiblePosition)) {
-          possibleMoves.add(visiblePosition);
-        }
-      } else {
-        if (pieceAtVisiblePosition.getType() != PieceType.KING
-                && pieceAtVisiblePosition.getColor() != color
-                && wouldKingBeNOTInCheckAfterMoveTo(visiblePosition)) {
-          possibleMoves.add(visiblePosition);
-        }
-      }
-    }
-    return possibleMoves;
+    return Bitboard.toPositionsAlongRays(
+        square, chessBoard.getLegalTargets(square), Bitboard.BISHOP_DIRECTIONS);
   }
 
 
   public List<Position> visiblePositions() {
-    List<Position> visiblePositions = new ArrayList<>();
-
-    List<List<Integer>> directions = Arrays.asList(
-            Arrays.asList(1, 1),
-            Arrays.asList(1, -1),
-            Arrays.asList(-1, 1),
-            Arrays.asList(-1, -1)
-    );
-
-    for (List<Integer> direction : directions) {
-      int newRow = position.row();
-      int newCol = position.column();
-
-      boolean valid = true;
-      while (valid) {
-        newRow += direction.get(0);
-        newCol += direction.get(1);
-
-        valid = chessBoard.isValidPosition(newRow, newCol);
-        if (valid) {
-          Position newPosition = new Position(newRow, newCol);
-          visiblePositions.add(newPosition);
-          Piece pieceAtNewPosition = chessBoard.getPieceAtPosition(newPosition);
-
-          if (pieceAtNewPosition != null) {
-            valid = false; // Exit the loop as there's a piece in the way
-          }
-        }
-      }
-    }
-
-    return visiblePositions;
-  }
-
-
-  private boolean wouldKingBeNOTInCheckAfterMoveTo(Position target) {
-    Piece pieceAtTarget = chessBoard.getPieceAtPosition(target);
-
-    chessBoard.setPieceAtPosition(position, null);
-    chessBoard.setPieceAtPosition(target, this);
-
-    boolean isKingInCheckNow = chessBoard.getKingOfColor(color).isInCheck();
-
-    chessBoard.setPieceAtPosition(target, pieceAtTarget);
-    chessBoard.setPieceAtPosition(position, this);
-
-    return !isKingInCheckNow;
+    return Bitboard.toPositionsAlongRays(
+        square,
+        MagicBitboards.bishopAttacks(square, chessBoard.getOccupied()),
+        Bitboard.BISHOP_DIRECTIONS);
   }
 
   @Override
@@ -141,16 +88,16 @@ public class Bishop implements Piece, Serializable {
     Bishop bishop = (Bishop) o;
     return symbol == bishop.symbol
         && color == bishop.color
-        && Objects.equals(position, bishop.position);
+        && square == bishop.square;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(color, position, symbol);
+    return Objects.hash(color, getPosition(), symbol);
   }
 
   @Override
   public String toString() {
-    return "Bishop{" + "color=" + color + ", position=" + position + ", symbol=" + symbol + '}';
+    return "Bishop{" + "color=" + color + ", position=" + getPosition() + ", symbol=" + symbol + '}';
   }
 }
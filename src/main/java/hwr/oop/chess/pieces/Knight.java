@@ -2,23 +2,25 @@ package hwr.oop.chess.pieces;
 
 import hwr.oop.chess.Color;
 import hwr.oop.chess.Position;
+import hwr.oop.chess.board.Bitboard;
 import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 public class Knight implements Piece, Serializable {
+  private static final long serialVersionUID = 1L;
   private final Color color;
   private final ChessBoard chessBoard;
   private final char symbol;
-  private Position position;
+  private int square;
 
   public Knight(Color color, Position position, ChessBoard chessBoard) {
     this.color = color;
-    this.position = position;
+    this.square = position.square();
     this.chessBoard = chessBoard;
     this.symbol = color == Color.WHITE ? 'N' : 'n';
   }
@@ -30,14 +32,19 @@ public class Knight implements Piece, Serializable {
 
   @Override
   public Position getPosition() {
-    return position;
+    return Position.of(square);
   }
 
   @Override
   public void setPosition(Position target) {
-    chessBoard.setPieceAtPosition(position, null);
-    this.position = target;
+    chessBoard.setPieceAt(square, null);
     chessBoard.setPieceAtPosition(target, this);
+    this.square = target.square();
+  }
+
+  @Override
+  public void placeAt(int square) {
+    this.square = square;
   }
 
   @Override
@@ -52,78 +59,35 @@ public class Knight implements Piece, Serializable {
 
   @Override
   public void moveTo(Position target) throws IllegalMoveException {
-    List<Position> possibleMoves = possibleMoves();
-    if (possibleMoves.contains(target)) {
-      setPosition(target);
-    } else {
+    if (!chessBoard.isLegal(square, target.square())) {
       throw new IllegalMoveException("Illegal move");
     }
+    // the piece API moves either colour, so the board is first given to the moving side
+    chessBoard.setSideToMove(color);
+    chessBoard.makeMove(Move.of(square, target.square()));
   }
 
   @Override
   public List<Position> possibleMoves() {
+    long legalTargets = chessBoard.getLegalTargets(square);
     List<Position> possibleMoves = new ArrayList<>();
-    List<Position> visiblePositions = visiblePositions();
-
-    for (Position visiblePosition : visiblePositions) {
-      Piece pieceAtVisiblePosition = chessBoard.getPieceAtPosition(visiblePosition);
-
-      if (pieceAtVisiblePosition == null) {
-        if (wouldKingBeNOTInCheckAfterMoveTo(visiblePosition)) {
-          possibleMoves.add(visiblePosition);
-        }
-      } else {
-        if (pieceAtVisiblePosition.getType() != PieceType.KING
-                && pieceAtVisiblePosition.getColor() != color
-                && wouldKingBeNOTInCheckAfterMoveTo(visiblePosition)) {
-          possibleMoves.add(visiblePosition);
-        }
+    for (int target : Bitboard.knightTargets(square)) {
+      if ((legalTargets & Bitboard.bit(target)) != 0) {
+        possibleMoves.add(Position.of(target));
       }
     }
     return possibleMoves;
   }
 
   public List<Position> visiblePositions() {
-    List<Position> visiblePositions = new ArrayList<>();
-
-    List<List<Integer>> moveOffsets =
-        Arrays.asList(
-            Arrays.asList(2, 1),
-            Arrays.asList(2, -1),
-            Arrays.asList(-2, 1),
-            Arrays.asList(-2, -1),
-            Arrays.asList(1, 2),
-            Arrays.asList(1, -2),
-            Arrays.asList(-1, 2),
-            Arrays.asList(-1, -2));
-    int currentRow = position.row();
-    int currentCol = position.column();
-
-    for (List<Integer> offset : moveOffsets) {
-      int newRow = currentRow + offset.get(0);
-      int newCol = currentCol + offset.get(1);
-
-      if (chessBoard.isValidPosition(newRow, newCol)) {
-        visiblePositions.add(new Position(newRow, newCol));
-      }
+    int[] targets = Bitboard.knightTargets(square);
+    List<Position> visiblePositions = new ArrayList<>(targets.length);
+    for (int target : targets) {
+      visiblePositions.add(Position.of(target));
     }
     return visiblePositions;
   }
 
-  private boolean wouldKingBeNOTInCheckAfterMoveTo(Position target) {
-    Piece pieceAtTarget = chessBoard.getPieceAtPosition(target);
-
-    chessBoard.setPieceAtPosition(position, null);
-    chessBoard.setPieceAtPosition(target, this);
-
-    boolean isKingInCheckNow = chessBoard.getKingOfColor(color).isInCheck();
-
-    chessBoard.setPieceAtPosition(target, pieceAtTarget);
-    chessBoard.setPieceAtPosition(position, this);
-
-    return !isKingInCheckNow;
-  }
-
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -131,16 +95,16 @@ public class Knight implements Piece, Serializable {
     Knight knight = (Knight) o;
     return symbol == knight.symbol
         && color == knight.color
-        && Objects.equals(position, knight.position);
+        && square == knight.square;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(color, position, symbol);
+    return Objects.hash(color, getPosition(), symbol);
   }
 
   @Override
   public String toString() {
-    return "Knight{" + "color=" + color + ", position=" + position + ", symbol=" + symbol + '}';
+    return "Knight{" + "color=" + color + ", position=" + getPosition() + ", symbol=" + symbol + '}';
   }
 }
@@ -2,22 +2,24 @@ package hwr.oop.chess.pieces;
 
 import hwr.oop.chess.Color;
 import hwr.oop.chess.Position;
+import hwr.oop.chess.board.Bitboard;
 import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 public class Pawn implements Piece, Serializable {
+  private static final long serialVersionUID = 1L;
   private final Color color;
   private final ChessBoard chessBoard;
   private final char symbol;
-  private Position position;
+  private int square;
 
   public Pawn(Color color, Position position, ChessBoard chessBoard) {
     this.color = color;
-    this.position = position;
+    this.square = position.square();
     this.chessBoard = chessBoard;
     this.symbol = color == Color.WHITE ? 'P' : 'p';
   }
@@ -29,14 +31,19 @@ public class Pawn implements Piece, Serializable {
 
   @Override
   public Position getPosition() {
-    return position;
+    return Position.of(square);
   }
 
   @Override
   public void setPosition(Position target) {
-    chessBoard.setPieceAtPosition(position, null);
-    this.position = target;
+    chessBoard.setPieceAt(square, null);
     chessBoard.setPieceAtPosition(target, this);
+    this.square = target.square();
+  }
+
+  @Override
+  public void placeAt(int square) {
+    this.square = square;
   }
 
   @Override
@@ -51,101 +58,50 @@ public class Pawn implements Piece, Serializable {
 
   @Override
   public void moveTo(Position target) throws IllegalMoveException {
-    List<Position> possibleMoves = possibleMoves();
-    if (possibleMoves.contains(target)) {
-      setPosition(target);
-    } else {
+    if (!chessBoard.isLegal(square, target.square())) {
       throw new IllegalMoveException("Illegal move");
     }
+    // the piece API moves either colour, so the board is first given to the moving side
+    chessBoard.setSideToMove(color);
+    chessBoard.makeMove(Move.of(square, target.square()));
   }
 
   @Override
   public List<Position> possibleMoves() {
+    long legalTargets = chessBoard.getLegalTargets(square);
     List<Position> possibleMoves = new ArrayList<>();
-    int direction = color == Color.WHITE ? 1 : -1;
-    int startRow = color == Color.WHITE ? 1 : 6;
+    int forward = color == Color.WHITE ? 8 : -8;
 
-    addForwardMoves(possibleMoves, direction, startRow);
-    addCaptureMoves(possibleMoves, direction);
+    addIfLegal(possibleMoves, legalTargets, square + forward);
+    addIfLegal(possibleMoves, legalTargets, square + 2 * forward);
+    for (int target : Bitboard.pawnCaptureTargets(square, color)) {
+      addIfLegal(possibleMoves, legalTargets, target);
+    }
 
     return possibleMoves;
   }
 
-  private void addForwardMoves(List<Position> possibleMoves, int direction, int startRow) {
-    Position oneStepAhead = new Position(position.row() + direction, position.column());
-    if (isValidMove(oneStepAhead)) {
-      possibleMoves.add(oneStepAhead);
-
-      if (position.row() == startRow) {
-        int newRow = position.row() + direction;
-        newRow += direction;
-        Position twoStepsAhead = new Position(newRow, position.column());
-        if (isValidMove(twoStepsAhead)) {
-          possibleMoves.add(twoStepsAhead);
-        }
-      }
+  private void addIfLegal(List<Position> possibleMoves, long legalTargets, int target) {
+    if (target >= 0 && target < 64 && (legalTargets & Bitboard.bit(target)) != 0) {
+      possibleMoves.add(Position.of(target));
     }
   }
 
-  private void addCaptureMoves(List<Position> possibleMoves, int direction) {
-    List<List<Integer>> captureOffsets =
-        Arrays.asList(Arrays.asList(direction, 1), Arrays.asList(direction, -1));
-
-    for (List<Integer> offset : captureOffsets) {
-      int newRow = position.row() + offset.get(0);
-      int newCol = position.column() + offset.get(1);
-      Position capturePosition = new Position(newRow, newCol);
-      if (chessBoard.isValidPosition(newRow, newCol)) {
-        Piece pieceAtNewPosition = chessBoard.getPieceAtPosition(capturePosition);
-        if (canCapturePiece(pieceAtNewPosition, capturePosition)) {
-          possibleMoves.add(capturePosition);
-        }
-      }
-    }
-  }
-
-  private boolean isValidMove(Position position) {
-    return chessBoard.isValidPosition(position.row(), position.column())
-        && chessBoard.getPieceAtPosition(position) == null
-        && wouldKingBeNOTInCheckAfterMoveTo(position);
-  }
-
-  private boolean canCapturePiece(Piece piece, Position position) {
-    return piece != null
-        && piece.getColor() != color
-        && piece.getType() != PieceType.KING
-        && wouldKingBeNOTInCheckAfterMoveTo(position);
-  }
-
-  private boolean wouldKingBeNOTInCheckAfterMoveTo(Position target) {
-    Piece pieceAtTarget = chessBoard.getPieceAtPosition(target);
-
-    chessBoard.setPieceAtPosition(position, null);
-    chessBoard.setPieceAtPosition(target, this);
-
-    boolean isKingInCheckNow = chessBoard.getKingOfColor(color).isInCheck();
-
-    chessBoard.setPieceAtPosition(target, pieceAtTarget);
-    chessBoard.setPieceAtPosition(position, this);
-
-    return !isKingInCheckNow;
-  }
-
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     Pawn pawn = (Pawn) o;
-    return symbol == pawn.symbol && color == pawn.color && Objects.equals(position, pawn.position);
+    return symbol == pawn.symbol && color == pawn.color && square == pawn.square;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(color, position, symbol);
+    return Objects.hash(color, getPosition(), symbol);
   }
 
   @Override
   public String toString() {
-    return "Pawn{" + "color=" + color + ", position=" + position + ", symbol=" + symbol + '}';
+    return "Pawn{" + "color=" + color + ", position=" + getPosition() + ", symbol=" + symbol + '}';
   }
 }
@@ -12,11 +12,19 @@ public interface Piece {
 
   void setPosition(Position target);
 
+  /** Updates the square the piece knows about without touching the board. */
+  void placeAt(int square);
+
   char getSymbol();
 
   PieceType getType();
 
+  /**
+   * Plays the move to {@code target} on the board, castling and en passant included, as if the
+   * piece's colour were to move.
+   */
   void moveTo(Position target) throws IllegalMoveException;
 
+  /** The legal targets of the piece, castling and en passant included. */
   List<Position> possibleMoves();
 }
@@ -2,22 +2,25 @@ package hwr.oop.chess.pieces;
 
 import hwr.oop.chess.Color;
 import hwr.oop.chess.Position;
+import hwr.oop.chess.board.Bitboard;
 import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MagicBitboards;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 public class Queen implements Piece, Serializable {
+  private static final long serialVersionUID = 1L;
   private final Color color;
   private final ChessBoard chessBoard;
   private final char symbol;
-  private Position position;
+  private int square;
 
   public Queen(Color color, Position position, ChessBoard chessBoard) {
     this.color = color;
-    this.position = position;
+    this.square = position.square();
     this.chessBoard = chessBoard;
     this.symbol = color == Color.WHITE ? 'Q' : 'q';
   }
@@ -29,14 +32,19 @@ public class Queen implements Piece, Serializable {
 
   @Override
   public Position getPosition() {
-    return position;
+    return Position.of(square);
   }
 
   @Override
   public void setPosition(Position target) {
-    chessBoard.setPieceAtPosition(position, null);
-    this.position = target;
+    chessBoard.setPieceAt(square, null);
     chessBoard.setPieceAtPosition(target, this);
+    this.square = target.square();
+  }
+
+  @Override
+  public void placeAt(int square) {
+    this.square = square;
   }
 
   @Override
@@ -51,63 +59,26 @@ public class Queen implements Piece, Serializable {
 
   @Override
   public void moveTo(Position target) throws IllegalMoveException {
-    List<Position> possibleMoves = possibleMoves();
-    if (possibleMoves.contains(target) && wouldKingBeNOTInCheckAfterMoveTo(target)) {
-      setPosition(target);
-    } else {
+    if (!chessBoard.isLegal(square, target.square())) {
       throw new IllegalMoveException("Illegal move");
     }
+    // the piece API moves either colour, so the board is first given to the moving side
+    chessBoard.setSideToMove(color);
+    chessBoard.makeMove(Move.of(square, target.square()));
   }
 
   @Override
   public List<Position> possibleMoves() {
-    List<Position> possibleMoves = new ArrayList<>();
-    List<Position> visiblePositions = visiblePositions();
-
-    for (Position visiblePosition : visiblePositions) {
-      Piece pieceAtVisiblePosition = chessBoard.getPieceAtPosition(visiblePosition);
-
-      if (pieceAtVisiblePosition == null) {
-        if (wouldKingBeNOTInCheckAfterMoveTo(visiblePosition)) {
-          possibleMoves.add(visiblePosition);
-        }
-      } else {
-        if (pieceAtVisiblePosition.getType() != PieceType.KING
-                && pieceAtVisiblePosition.getColor() != color
-                && wouldKingBeNOTInCheckAfterMoveTo(visiblePosition)) {
-          possibleMoves.add(visiblePosition);
-        }
-      }
-    }
-    return possibleMoves;
+    return Bitboard.toPositionsAlongRays(
+        square, chessBoard.getLegalTargets(square), Bitboard.QUEEN_DIRECTIONS);
   }
 
 
   public List<Position> visiblePositions() {
-    List<Position> visiblePositions = new ArrayList<>();
-
-    ChessBoard copiedBoard = chessBoard;
-    Bishop dummyBishop = new Bishop(color, position, copiedBoard);
-    Rook dummyRook = new Rook(color, position, copiedBoard);
-
-    visiblePositions.addAll(dummyBishop.visiblePositions());
-    visiblePositions.addAll(dummyRook.visiblePositions());
-
-    return visiblePositions;
-  }
-
-  private boolean wouldKingBeNOTInCheckAfterMoveTo(Position target) {
-    Piece pieceAtTarget = chessBoard.getPieceAtPosition(target);
-
-    chessBoard.setPieceAtPosition(position, null);
-    chessBoard.setPieceAtPosition(target, this);
-
-    boolean isKingInCheckNow = chessBoard.getKingOfColor(color).isInCheck();
-
-    chessBoard.setPieceAtPosition(target, pieceAtTarget);
-    chessBoard.setPieceAtPosition(position, this);
-
-    return !isKingInCheckNow;
+    return Bitboard.toPositionsAlongRays(
+        square,
+        MagicBitboards.queenAttacks(square, chessBoard.getOccupied()),
+        Bitboard.QUEEN_DIRECTIONS);
   }
 
   @Override
@@ -117,16 +88,16 @@ public class Queen implements Piece, Serializable {
     Queen queen = (Queen) o;
     return symbol == queen.symbol
         && color == queen.color
-        && Objects.equals(position, queen.position);
+        && square == queen.square;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(color, position, symbol);
+    return Objects.hash(color, getPosition(), symbol);
   }
 
   @Override
   public String toString() {
-    return "Queen{" + "color=" + color + ", position=" + position + ", symbol=" + symbol + '}';
+    return "Queen{" + "color=" + color + ", position=" + getPosition() + ", symbol=" + symbol + '}';
   }
 }
@@ -0,0 +1,28 @@
+package hwr.oop.chess;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PositionTest {
+
+  @Test
+  void ofReturnsSharedInstances() {
+    assertThat(Position.of(28)).isSameAs(Position.of(3, 4));
+    assertThat(Position.of(28)).isEqualTo(new Position(3, 4));
+    assertThat(Position.of(63)).isEqualTo(new Position(7, 7));
+  }
+
+  @Test
+  void ofOutsideTheBoardCreatesNewInstance() {
+    assertThat(Position.of(8, 2)).isEqualTo(new Position(8, 2));
+    assertThat(Position.of(-1, 2)).isNotSameAs(Position.of(-1, 2));
+  }
+
+  @Test
+  void squareIsRowTimesEightPlusColumn() {
+    for (int square = 0; square < 64; square++) {
+      assertThat(Position.of(square).square()).isEqualTo(square);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package hwr.oop.chess.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.Position;
+import org.junit.jupiter.api.Test;
+
+class BitboardTest {
+
+  @Test
+  void squareMapsRowsAndColumns() {
+    assertThat(Bitboard.square(0, 0)).isZero();
+    assertThat(Bitboard.square(7, 7)).isEqualTo(63);
+    assertThat(new Position(3, 4).square()).isEqualTo(28);
+    assertThat(Bitboard.row(28)).isEqualTo(3);
+    assertThat(Bitboard.column(28)).isEqualTo(4);
+  }
+
+  @Test
+  void toPositions() {
+    long bitboard = Bitboard.bit(0) | Bitboard.bit(63);
+    assertThat(Bitboard.toPositions(bitboard))
+        .containsExactly(new Position(0, 0), new Position(7, 7));
+    assertThat(Bitboard.toPositions(0L)).isEmpty();
+  }
+
+  @Test
+  void knightAttacksStayOnBoard() {
+    assertThat(Bitboard.knightAttacksFrom(0))
+        .isEqualTo(Bitboard.bit(10) | Bitboard.bit(17));
+    assertThat(Long.bitCount(Bitboard.knightAttacksFrom(Bitboard.square(3, 3))))
+        .isEqualTo(8);
+    assertThat(Bitboard.knightAttacksFrom(63))
+        .isEqualTo(Bitboard.bit(53) | Bitboard.bit(46));
+  }
+
+  @Test
+  void kingAttacksStayOnBoard() {
+    assertThat(Bitboard.kingAttacksFrom(0))
+        .isEqualTo(Bitboard.bit(1) | Bitboard.bit(8) | Bitboard.bit(9));
+    assertThat(Long.bitCount(Bitboard.kingAttacksFrom(Bitboard.square(4, 4))))
+        .isEqualTo(8);
+  }
+
+  @Test
+  void pawnAttacksDependOnColor() {
+    int pawn = Bitboard.square(1, 0);
+    assertThat(Bitboard.pawnAttacksFrom(pawn, Color.WHITE)).isEqualTo(Bitboard.bit(17));
+    assertThat(Bitboard.pawnAttacksFrom(pawn, Color.BLACK)).isEqualTo(Bitboard.bit(1));
+    assertThat(Bitboard.pawnAttacksFrom(Bitboard.square(4, 4), Color.BLACK))
+        .isEqualTo(Bitboard.bit(Bitboard.square(3, 3)) | Bitboard.bit(Bitboard.square(3, 5)));
+  }
+
+  @Test
+  void raysOnEmptyBoard() {
+    assertThat(Bitboard.ray(Bitboard.NORTH, 0)).isEqualTo(Bitboard.FILE_A & ~Bitboard.bit(0));
+    assertThat(Bitboard.ray(Bitboard.WEST, 0)).isZero();
+    assertThat(Long.bitCount(Bitboard.ray(Bitboard.NORTH_EAST, 0))).isEqualTo(7);
+  }
+
+  @Test
+  void toPositionsAlongRaysWalksOutwards() {
+    int square = Bitboard.square(3, 3);
+    long targets =
+        Bitboard.bit(Bitboard.square(4, 3))
+            | Bitboard.bit(Bitboard.square(5, 3))
+            | Bitboard.bit(Bitboard.square(2, 3))
+            | Bitboard.bit(Bitboard.square(1, 3))
+            | Bitboard.bit(Bitboard.square(3, 2));
+    assertThat(Bitboard.toPositionsAlongRays(square, targets, Bitboard.ROOK_DIRECTIONS))
+        .containsExactly(
+            new Position(4, 3),
+            new Position(5, 3),
+            new Position(2, 3),
+            new Position(1, 3),
+            new Position(3, 2));
+  }
+
+  @Test
+  void targetListsKeepOffsetOrder() {
+    assertThat(Bitboard.knightTargets(Bitboard.square(4, 4)))
+        .containsExactly(53, 51, 21, 19, 46, 42, 30, 26);
+    assertThat(Bitboard.knightTargets(0)).containsExactly(17, 10);
+    assertThat(Bitboard.pawnCaptureTargets(Bitboard.square(1, 1), Color.WHITE))
+        .containsExactly(18, 16);
+    assertThat(Bitboard.pawnCaptureTargets(Bitboard.square(6, 7), Color.BLACK))
+        .containsExactly(46);
+  }
+
+  @Test
+  void betweenAndLine() {
+    assertThat(Bitboard.between(0, 3)).isEqualTo(Bitboard.bit(1) | Bitboard.bit(2));
+    assertThat(Bitboard.between(3, 0)).isEqualTo(Bitboard.bit(1) | Bitboard.bit(2));
+    assertThat(Bitboard.between(0, 63)).isEqualTo(0x0040201008040200L);
+    assertThat(Bitboard.between(0, 1)).isZero();
+    assertThat(Bitboard.between(0, 10)).isZero();
+    assertThat(Bitboard.line(9, 18)).isEqualTo(0x8040201008040201L);
+    assertThat(Bitboard.line(0, 10)).isZero();
+  }
+}
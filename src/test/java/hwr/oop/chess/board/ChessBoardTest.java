@@ -4,12 +4,20 @@ import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import hwr.oop.chess.Color;
+import hwr.oop.chess.GameStatus;
 import hwr.oop.chess.Position;
 import hwr.oop.chess.domain.IllegalPromotionException;
+import hwr.oop.chess.game.Game;
 import hwr.oop.chess.pieces.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class ChessBoardTest {
   private ChessBoard board;
@@ -392,4 +400,676 @@ class ChessBoardTest {
     String expectedMessage = "You can only promote pawns!";
     assertThat(exception.getMessage()).contains(expectedMessage);
   }
+
+  @Test
+  void bitboardsFollowSetPieceAtPosition() {
+    assertThat(board.getPieces(PieceType.PAWN, Color.WHITE)).isEqualTo(0xFF00L);
+    assertThat(board.getOccupancy(Color.BLACK)).isEqualTo(0xFFFF000000000000L);
+    assertThat(board.getOccupied()).isEqualTo(0xFFFF00000000FFFFL);
+
+    Position from = new Position(1, 4);
+    Position to = new Position(3, 4);
+    board.getPieceAtPosition(from).setPosition(to);
+
+    assertThat(board.getPieces(PieceType.PAWN, Color.WHITE))
+        .isEqualTo(0xFF00L & ~Bitboard.bit(12) | Bitboard.bit(28));
+    assertThat(board.getOccupied() & Bitboard.bit(12)).isZero();
+
+    board.clearChessboard();
+    assertThat(board.getOccupied()).isZero();
+  }
+
+  @Test
+  void isSquareAttacked() {
+    board.clearChessboard();
+    board.setPieceAtPosition(
+        new Position(0, 0), new Rook(Color.WHITE, new Position(0, 0), board));
+    board.setPieceAtPosition(
+        new Position(0, 3), new Pawn(Color.BLACK, new Position(0, 3), board));
+    board.setPieceAtPosition(
+        new Position(4, 4), new Knight(Color.BLACK, new Position(4, 4), board));
+
+    assertThat(board.isSquareAttacked(Bitboard.square(0, 2), Color.WHITE)).isTrue();
+    assertThat(board.isSquareAttacked(Bitboard.square(0, 3), Color.WHITE)).isTrue();
+    assertThat(board.isSquareAttacked(Bitboard.square(0, 4), Color.WHITE)).isFalse();
+    assertThat(board.isSquareAttacked(Bitboard.square(7, 0), Color.WHITE)).isTrue();
+    assertThat(board.isSquareAttacked(Bitboard.square(2, 3), Color.BLACK)).isTrue();
+    assertThat(board.isSquareAttacked(Bitboard.square(2, 4), Color.BLACK)).isFalse();
+  }
+
+  @Test
+  void isInCheck() {
+    board.clearChessboard();
+    assertThat(board.isInCheck(Color.WHITE)).isFalse();
+
+    board.setPieceAtPosition(
+        new Position(0, 4), new King(Color.WHITE, new Position(0, 4), board));
+    board.setPieceAtPosition(
+        new Position(7, 4), new Queen(Color.BLACK, new Position(7, 4), board));
+    assertThat(board.isInCheck(Color.WHITE)).isTrue();
+
+    board.setPieceAtPosition(
+        new Position(3, 4), new Bishop(Color.WHITE, new Position(3, 4), board));
+    assertThat(board.isInCheck(Color.WHITE)).isFalse();
+  }
+
+  @Test
+  void getBoardReturnsRows() {
+    List<List<Piece>> rows = board.getBoard();
+    assertThat(rows).hasSize(8);
+    assertThat(rows.get(0).get(4)).isEqualTo(new King(Color.WHITE, new Position(0, 4), board));
+    assertThat(rows.get(4).get(4)).isNull();
+  }
+
+  @Test
+  void pinnedPieceOnlyMovesAlongThePin() {
+    board.clearChessboard();
+    board.setPieceAtPosition(
+        new Position(0, 4), new King(Color.WHITE, new Position(0, 4), board));
+    board.setPieceAtPosition(
+        new Position(2, 4), new Rook(Color.WHITE, new Position(2, 4), board));
+    board.setPieceAtPosition(
+        new Position(1, 3), new Knight(Color.WHITE, new Position(1, 3), board));
+    board.setPieceAtPosition(
+        new Position(7, 4), new Rook(Color.BLACK, new Position(7, 4), board));
+    board.setPieceAtPosition(
+        new Position(4, 0), new Bishop(Color.BLACK, new Position(4, 0), board));
+
+    assertThat(Bitboard.toPositions(board.getLegalTargets(Bitboard.square(2, 4))))
+        .containsExactly(
+            new Position(1, 4),
+            new Position(3, 4),
+            new Position(4, 4),
+            new Position(5, 4),
+            new Position(6, 4),
+            new Position(7, 4));
+    assertThat(board.getLegalTargets(Bitboard.square(1, 3))).isZero();
+  }
+
+  @Test
+  void checkCanOnlyBeAnsweredByBlockingOrCapturing() {
+    board.clearChessboard();
+    board.setPieceAtPosition(
+        new Position(0, 4), new King(Color.WHITE, new Position(0, 4), board));
+    board.setPieceAtPosition(
+        new Position(3, 0), new Rook(Color.WHITE, new Position(3, 0), board));
+    board.setPieceAtPosition(
+        new Position(7, 4), new Queen(Color.BLACK, new Position(7, 4), board));
+
+    assertThat(Bitboard.toPositions(board.getLegalTargets(Bitboard.square(3, 0))))
+        .containsExactly(new Position(3, 4));
+    assertThat(Bitboard.toPositions(board.getLegalTargets(Bitboard.square(0, 4))))
+        .containsExactlyInAnyOrder(
+            new Position(0, 3), new Position(0, 5), new Position(1, 3), new Position(1, 5));
+  }
+
+  @Test
+  void doubleCheckLeavesOnlyKingMoves() {
+    board.clearChessboard();
+    board.setPieceAtPosition(
+        new Position(0, 4), new King(Color.WHITE, new Position(0, 4), board));
+    board.setPieceAtPosition(
+        new Position(3, 0), new Queen(Color.WHITE, new Position(3, 0), board));
+    board.setPieceAtPosition(
+        new Position(7, 4), new Rook(Color.BLACK, new Position(7, 4), board));
+    board.setPieceAtPosition(
+        new Position(2, 3), new Knight(Color.BLACK, new Position(2, 3), board));
+
+    assertThat(board.getLegalTargets(Bitboard.square(3, 0))).isZero();
+    assertThat(board.getLegalTargets(Bitboard.square(0, 4))).isNotZero();
+  }
+
+  @Test
+  void kingCannotStepAlongTheCheckingRay() {
+    board.clearChessboard();
+    board.setPieceAtPosition(
+        new Position(3, 4), new King(Color.WHITE, new Position(3, 4), board));
+    board.setPieceAtPosition(
+        new Position(3, 0), new Rook(Color.BLACK, new Position(3, 0), board));
+
+    long targets = board.getLegalTargets(Bitboard.square(3, 4));
+    assertThat(targets & Bitboard.bit(Bitboard.square(3, 5))).isZero();
+    assertThat(targets & Bitboard.bit(Bitboard.square(3, 3))).isZero();
+    assertThat(targets & Bitboard.bit(Bitboard.square(4, 4))).isNotZero();
+  }
+
+  @Test
+  void attackMapsCountAttackersInStartPosition() {
+    assertThat(board.getAttackCount(Bitboard.square(2, 5), Color.WHITE)).isEqualTo(3);
+    assertThat(board.getAttackCount(Bitboard.square(2, 4), Color.WHITE)).isEqualTo(2);
+    assertThat(board.getAttackCount(Bitboard.square(3, 4), Color.WHITE)).isZero();
+    assertThat(board.getAttackedSquares(Color.WHITE)).isEqualTo(0xFFFF7EL);
+    assertThat(board.isSquareAttacked(Bitboard.square(5, 0), Color.BLACK)).isTrue();
+  }
+
+  @Test
+  void attackMapsFollowMovesAndPromotion() {
+    Random random = new Random(7);
+    for (int i = 0; i < 300; i++) {
+      int from = random.nextInt(64);
+      int to = random.nextInt(64);
+      Piece piece = 
+          board.getPieceAtPosition(new Position(Bitboard.row(from), Bitboard.column(from)));
+      if (piece == null || from == to) {
+        continue;
+      }
+      piece.setPosition(new Position(Bitboard.row(to), Bitboard.column(to)));
+      assertAttackMapsMatchRecomputation();
+    }
+
+    board.clearChessboard();
+    Position promotionSquare = new Position(7, 0);
+    board.setPieceAtPosition(promotionSquare, new Pawn(Color.WHITE, promotionSquare, board));
+    board.promoteTo(promotionSquare, new Queen(Color.WHITE, promotionSquare, board));
+    assertThat(board.getAttackCount(Bitboard.square(0, 0), Color.WHITE)).isEqualTo(1);
+    assertThat(board.getAttackCount(Bitboard.square(0, 7), Color.WHITE)).isEqualTo(1);
+    assertAttackMapsMatchRecomputation();
+  }
+
+  private void assertAttackMapsMatchRecomputation() {
+    for (Color color : Color.values()) {
+      long attacked = 0L;
+      for (int square = 0; square < 64; square++) {
+        int attackers = Long.bitCount(board.attackersTo(square, color, board.getOccupied()));
+        assertThat(board.getAttackCount(square, color)).isEqualTo(attackers);
+        if (attackers > 0) {
+          attacked |= Bitboard.bit(square);
+        }
+      }
+      assertThat(board.getAttackedSquares(color)).isEqualTo(attacked);
+    }
+  }
+
+  @Test
+  void makeAndUnmakeMoveRestoreThePosition() {
+    ChessBoard untouched = new ChessBoard();
+    int[] moves = {
+      Move.of(Bitboard.square(1, 4), Bitboard.square(3, 4)),
+      Move.of(Bitboard.square(6, 3), Bitboard.square(4, 3)),
+      Move.of(Bitboard.square(3, 4), Bitboard.square(4, 3)),
+      Move.of(Bitboard.square(7, 3), Bitboard.square(4, 3))
+    };
+    for (int move : moves) {
+      board.makeMove(move);
+    }
+    assertThat(board.getPieceAtPosition(new Position(4, 3)).getType()).isEqualTo(PieceType.QUEEN);
+    assertThat(board.getPieceAtPosition(new Position(4, 3)).getPosition())
+        .isEqualTo(new Position(4, 3));
+    assertThat(board.getSideToMove()).isEqualTo(Color.WHITE);
+    assertThat(board.getMoveCount()).isEqualTo((short) 4);
+    assertAttackMapsMatchRecomputation();
+
+    for (int i = 0; i < moves.length; i++) {
+      board.unmakeMove();
+    }
+    assertThat(board).isEqualTo(untouched);
+    assertThat(board.getSideToMove()).isEqualTo(Color.WHITE);
+    assertThat(board.getMoveCount()).isZero();
+    assertThat(board.getAttackedSquares(Color.BLACK))
+        .isEqualTo(untouched.getAttackedSquares(Color.BLACK));
+    assertAttackMapsMatchRecomputation();
+  }
+
+  @Test
+  void makeMoveWithPromotionIsTakenBack() {
+    board.clearChessboard();
+    Position pawnPosition = new Position(6, 0);
+    Pawn pawn = new Pawn(Color.WHITE, pawnPosition, board);
+    board.setPieceAtPosition(pawnPosition, pawn);
+    board.setPieceAtPosition(
+        new Position(7, 1), new Rook(Color.BLACK, new Position(7, 1), board));
+
+    board.makeMove(Move.of(Bitboard.square(6, 0), Bitboard.square(7, 1), PieceType.KNIGHT));
+    assertThat(board.getPieceAtPosition(new Position(7, 1)))
+        .isEqualTo(new Knight(Color.WHITE, new Position(7, 1), board));
+    assertThat(board.getSideToMove()).isEqualTo(Color.BLACK);
+
+    board.unmakeMove();
+    assertThat(board.getPieceAtPosition(pawnPosition)).isSameAs(pawn);
+    assertThat(pawn.getPosition()).isEqualTo(pawnPosition);
+    assertThat(board.getPieceAtPosition(new Position(7, 1)).getType()).isEqualTo(PieceType.ROOK);
+    assertThat(board.getSideToMove()).isEqualTo(Color.WHITE);
+  }
+
+  @Test
+  void undoStackGrowsAndRejectsEmptyUnmake() {
+    int knightOut = Move.of(Bitboard.square(0, 6), Bitboard.square(2, 5));
+    int knightBack = Move.of(Bitboard.square(2, 5), Bitboard.square(0, 6));
+    for (int i = 0; i < 100; i++) {
+      board.makeMove(i % 2 == 0 ? knightOut : knightBack);
+    }
+    assertThat(board.getMoveCount()).isEqualTo((short) 100);
+    for (int i = 0; i < 100; i++) {
+      board.unmakeMove();
+    }
+    assertThat(board).isEqualTo(new ChessBoard());
+    assertThatThrownBy(() -> board.unmakeMove()).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> board.makeMove(Move.of(Bitboard.square(4, 4), 0)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void generateLegalMovesInStartPosition() {
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+    assertThat(moves.size()).isEqualTo(20);
+
+    moves.clear();
+    board.generateMoves(Bitboard.square(1, 4), moves);
+    assertThat(moves.toArray())
+        .containsExactly(
+            Move.of(12, 20, PieceType.PAWN, null, null, 0),
+            Move.of(12, 28, PieceType.PAWN, null, null, Move.DOUBLE_PAWN_PUSH));
+  }
+
+  @Test
+  void generateMovesListsEveryPromotion() {
+    board.clearChessboard();
+    board.setPieceAtPosition(
+        new Position(6, 0), new Pawn(Color.WHITE, new Position(6, 0), board));
+    board.setPieceAtPosition(
+        new Position(7, 1), new Rook(Color.BLACK, new Position(7, 1), board));
+
+    MoveList moves = new MoveList();
+    board.generateMoves(Bitboard.square(6, 0), moves);
+
+    assertThat(moves.size()).isEqualTo(8);
+    assertThat(Move.promotion(moves.get(0))).isEqualTo(PieceType.QUEEN);
+    assertThat(Move.captured(moves.get(4))).isEqualTo(PieceType.ROOK);
+    assertThat(Move.promotion(moves.get(7))).isEqualTo(PieceType.KNIGHT);
+  }
+
+  @Test
+  void keyIsUpdatedIncrementally() {
+    Random random = new Random(11);
+    MoveList moves = new MoveList();
+    for (int ply = 0; ply < 200; ply++) {
+      moves.clear();
+      board.generateLegalMoves(moves);
+      if (moves.isEmpty()) {
+        break;
+      }
+      board.makeMove(moves.get(random.nextInt(moves.size())));
+      assertThat(board.getKey()).isEqualTo(board.computeKey());
+    }
+    while (board.getMoveCount() > 0) {
+      board.unmakeMove();
+      assertThat(board.getKey()).isEqualTo(board.computeKey());
+    }
+    assertThat(board.getKey()).isEqualTo(new ChessBoard().getKey());
+  }
+
+  @Test
+  void transpositionsShareTheirKey() {
+    ChessBoard other = new ChessBoard();
+    board.makeMove(Move.of(Bitboard.square(0, 6), Bitboard.square(2, 5)));
+    board.makeMove(Move.of(Bitboard.square(7, 6), Bitboard.square(5, 5)));
+    board.makeMove(Move.of(Bitboard.square(0, 1), Bitboard.square(2, 2)));
+    other.makeMove(Move.of(Bitboard.square(0, 1), Bitboard.square(2, 2)));
+    other.makeMove(Move.of(Bitboard.square(7, 6), Bitboard.square(5, 5)));
+    other.makeMove(Move.of(Bitboard.square(0, 6), Bitboard.square(2, 5)));
+
+    assertThat(board.getKey()).isEqualTo(other.getKey());
+    assertThat(board).isEqualTo(other).hasSameHashCodeAs(other);
+  }
+
+  @Test
+  void sideToMoveChangesTheKey() {
+    long whiteToMove = board.getKey();
+    board.setSideToMove(Color.BLACK);
+    assertThat(board.getKey()).isNotEqualTo(whiteToMove).isEqualTo(board.computeKey());
+    assertThat(board).isNotEqualTo(new ChessBoard());
+
+    board.toggleSideToMove();
+    assertThat(board.getKey()).isEqualTo(whiteToMove);
+    assertThat(board.copy().getKey()).isEqualTo(whiteToMove);
+  }
+
+  @Test
+  void evaluationTermsAreUpdatedIncrementally() {
+    assertThat(board.getMaterial(Color.WHITE))
+        .isEqualTo(8 * 100 + 2 * 320 + 2 * 330 + 2 * 500 + 900);
+    assertThat(board.getPhaseMaterial()).isEqualTo(PieceSquareTables.OPENING_PHASE);
+    assertThat(board.getMiddlegameScore(Color.WHITE))
+        .isEqualTo(board.getMiddlegameScore(Color.BLACK));
+
+    Random random = new Random(5);
+    MoveList moves = new MoveList();
+    for (int ply = 0; ply < 200; ply++) {
+      moves.clear();
+      board.generateLegalMoves(moves);
+      if (moves.isEmpty()) {
+        break;
+      }
+      board.makeMove(moves.get(random.nextInt(moves.size())));
+      assertEvaluationTermsMatchRebuiltBoard();
+    }
+    while (board.getMoveCount() > 0) {
+      board.unmakeMove();
+    }
+    assertEvaluationTermsMatchRebuiltBoard();
+    assertThat(board.getPawnKey()).isEqualTo(new ChessBoard().getPawnKey());
+  }
+
+  private void assertEvaluationTermsMatchRebuiltBoard() {
+    ChessBoard rebuilt = board.copy();
+    for (Color color : Color.values()) {
+      assertThat(board.getMaterial(color)).isEqualTo(rebuilt.getMaterial(color));
+      assertThat(board.getMiddlegameScore(color)).isEqualTo(rebuilt.getMiddlegameScore(color));
+      assertThat(board.getEndgameScore(color)).isEqualTo(rebuilt.getEndgameScore(color));
+    }
+    assertThat(board.getPhaseMaterial()).isEqualTo(rebuilt.getPhaseMaterial());
+    assertThat(board.getPawnKey()).isEqualTo(rebuilt.getPawnKey());
+  }
+
+  @Test
+  void pawnKeyOnlyDependsOnPawns() {
+    long pawnKey = board.getPawnKey();
+    board.makeMove(Move.of(Bitboard.square(0, 6), Bitboard.square(2, 5)));
+    assertThat(board.getPawnKey()).isEqualTo(pawnKey);
+
+    board.makeMove(Move.of(Bitboard.square(6, 4), Bitboard.square(4, 4)));
+    assertThat(board.getPawnKey()).isNotEqualTo(pawnKey);
+  }
+
+  @Test
+  void promotionUpdatesMaterial() throws IllegalPromotionException {
+    board.clearChessboard();
+    assertThat(board.getMaterial(Color.WHITE)).isZero();
+    assertThat(board.getPhaseMaterial()).isZero();
+    Position target = new Position(7, 0);
+    Pawn pawn = new Pawn(Color.WHITE, target, board);
+    board.setPieceAtPosition(target, pawn);
+
+    board.promoteTo(target, new Queen(Color.WHITE, target, board));
+
+    assertThat(board.getMaterial(Color.WHITE)).isEqualTo(900);
+    assertThat(board.getPhaseMaterial()).isEqualTo(900);
+    assertThat(board.getPawnKey()).isZero();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1, WHITE, IN_PROGRESS",
+    "4k3/8/8/8/8/8/8/4K2R b - - 0 1, BLACK, IN_PROGRESS",
+    "4k3/8/8/8/8/8/8/4R1K1 b - - 0 1, BLACK, CHECK",
+    "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1, WHITE, IN_PROGRESS",
+    "R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1, BLACK, CHECKMATE",
+    "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1, BLACK, STALEMATE",
+    "k7/8/1Q6/8/8/7p/7P/K7 b - - 0 1, BLACK, STALEMATE",
+    "4k3/8/8/8/8/8/6PP/1q5K w - - 0 1, WHITE, CHECKMATE",
+    "4k3/8/8/8/8/8/5RPP/1q5K w - - 0 1, WHITE, CHECK",
+    "3k4/8/8/8/8/8/4r3/4K3 w - - 0 1, WHITE, CHECK",
+    "4k3/8/8/8/8/8/8/4K2R w - - 100 80, WHITE, FIFTY_MOVE_RULE",
+    "4k3/8/8/8/8/8/8/4K1N1 b - - 0 1, BLACK, INSUFFICIENT_MATERIAL",
+    "R5k1/5ppp/8/8/8/8/8/6K1 b - - 100 80, BLACK, CHECKMATE"
+  })
+  void evaluatesTheStatusOfTheSideToMove(String fen, Color color, GameStatus status) {
+    ChessBoard position = Game.boardFromFEN(fen);
+
+    assertThat(position.evaluateStatus(color)).isEqualTo(status);
+    assertThat(position.isCheckMate()).isEqualTo(status == GameStatus.CHECKMATE);
+    assertThat(status.isGameOver())
+        .isEqualTo(status != GameStatus.IN_PROGRESS && status != GameStatus.CHECK);
+    assertThat(status.isDraw()).isEqualTo(status.isGameOver() && status != GameStatus.CHECKMATE);
+  }
+
+  @Test
+  void halfmoveClockCountsQuietMovesAndIsRestoredByUnmake() {
+    ChessBoard position = Game.boardFromFEN("4k3/4p3/8/8/8/8/8/R3K3 w - - 7 40");
+
+    position.makeMove(Move.of(Bitboard.square(0, 0), Bitboard.square(6, 0)));
+    assertThat(position.getHalfmoveClock()).isEqualTo(8);
+    position.makeMove(Move.of(Bitboard.square(6, 4), Bitboard.square(4, 4)));
+    assertThat(position.getHalfmoveClock()).isZero();
+    position.makeMove(Move.of(Bitboard.square(6, 0), Bitboard.square(4, 0)));
+    position.makeMove(Move.of(Bitboard.square(7, 4), Bitboard.square(6, 4)));
+    position.makeMove(Move.of(Bitboard.square(4, 0), Bitboard.square(4, 4)));
+    assertThat(position.getHalfmoveClock()).isZero();
+    assertThat(position.copy().getHalfmoveClock()).isZero();
+
+    position.unmakeMove();
+    assertThat(position.getHalfmoveClock()).isEqualTo(2);
+    position.unmakeMove();
+    position.unmakeMove();
+    position.unmakeMove();
+    assertThat(position.getHalfmoveClock()).isEqualTo(8);
+  }
+
+  @Test
+  void detectsThreefoldRepetition() {
+    int[] shuffle = {
+      Move.of(Bitboard.square(0, 6), Bitboard.square(2, 5)),
+      Move.of(Bitboard.square(7, 6), Bitboard.square(5, 5)),
+      Move.of(Bitboard.square(2, 5), Bitboard.square(0, 6)),
+      Move.of(Bitboard.square(5, 5), Bitboard.square(7, 6))
+    };
+    for (int move : shuffle) {
+      board.makeMove(move);
+    }
+    assertThat(board.isThreefoldRepetition()).isFalse();
+    for (int i = 0; i < 3; i++) {
+      board.makeMove(shuffle[i]);
+      assertThat(board.isThreefoldRepetition()).isFalse();
+    }
+    board.makeMove(shuffle[3]);
+
+    assertThat(board.isThreefoldRepetition()).isTrue();
+    assertThat(board.evaluateStatus(Color.WHITE)).isEqualTo(GameStatus.THREEFOLD_REPETITION);
+    board.unmakeMove();
+    assertThat(board.isThreefoldRepetition()).isFalse();
+  }
+
+  @Test
+  void copyKnowsThePositionsSinceTheLastPawnMove() {
+    int[] shuffle = {
+      Move.of(Bitboard.square(0, 6), Bitboard.square(2, 5)),
+      Move.of(Bitboard.square(7, 6), Bitboard.square(5, 5)),
+      Move.of(Bitboard.square(2, 5), Bitboard.square(0, 6)),
+      Move.of(Bitboard.square(5, 5), Bitboard.square(7, 6))
+    };
+    for (int i = 0; i < 3; i++) {
+      board.makeMove(shuffle[i]);
+    }
+    ChessBoard copy = board.copy();
+
+    assertThat(copy.isRepetition()).isFalse();
+    copy.makeMove(shuffle[3]);
+    assertThat(copy.isRepetition()).isTrue();
+    assertThat(copy.isThreefoldRepetition()).isFalse();
+    copy.unmakeMove();
+    assertThatThrownBy(() -> copy.unmakeMove()).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void repetitionsBeforeAPawnMoveDoNotCount() {
+    ChessBoard position = Game.boardFromFEN("4k3/8/8/8/8/8/P7/4K3 w - - 0 1");
+    int whiteOut = Move.of(Bitboard.square(0, 4), Bitboard.square(0, 3));
+    int blackOut = Move.of(Bitboard.square(7, 4), Bitboard.square(7, 3));
+    int whiteBack = Move.of(Bitboard.square(0, 3), Bitboard.square(0, 4));
+    int blackBack = Move.of(Bitboard.square(7, 3), Bitboard.square(7, 4));
+    for (int move : new int[] {whiteOut, blackOut, whiteBack, blackBack}) {
+      position.makeMove(move);
+    }
+    position.makeMove(Move.of(Bitboard.square(1, 0), Bitboard.square(2, 0)));
+    position.makeMove(blackOut);
+    position.makeMove(whiteOut);
+    position.makeMove(blackBack);
+    position.makeMove(whiteBack);
+
+    assertThat(position.isThreefoldRepetition()).isFalse();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "4k3/8/8/8/8/8/8/4K3 w - - 0 1, true",
+    "4k3/8/8/8/8/8/8/2B1K3 w - - 0 1, true",
+    "4kn2/8/8/8/8/8/8/4K3 w - - 0 1, true",
+    "2b1k3/8/8/8/8/8/8/2B1K3 w - - 0 1, false",
+    "3bk3/8/8/8/8/8/8/2B1K3 w - - 0 1, true",
+    "3bk3/8/8/8/8/8/8/B1B1K3 w - - 0 1, true",
+    "4k3/8/8/8/8/8/8/1NN1K3 w - - 0 1, false",
+    "4kn2/8/8/8/8/8/8/2B1K3 w - - 0 1, false",
+    "4k3/8/8/8/8/8/P7/4K3 w - - 0 1, false",
+    "4k3/8/8/8/8/8/8/3RK3 w - - 0 1, false",
+    "3qk3/8/8/8/8/8/8/4K3 w - - 0 1, false"
+  })
+  void detectsInsufficientMaterial(String fen, boolean insufficient) {
+    assertThat(Game.boardFromFEN(fen).hasInsufficientMaterial()).isEqualTo(insufficient);
+  }
+
+  @Test
+  void castlingMovesTheRookAndUnmakeRestoresIt() {
+    ChessBoard position = Game.boardFromFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+    ChessBoard before = position.copy();
+
+    position.makeMove(Move.of(Bitboard.square(0, 4), Bitboard.square(0, 6)));
+
+    assertThat(position.getPieceAt(Bitboard.square(0, 5)).getType()).isEqualTo(PieceType.ROOK);
+    assertThat(position.getPieceAt(Bitboard.square(0, 7))).isNull();
+    assertThat(position.getCastlingRights())
+        .isEqualTo(CastlingRights.BLACK_KINGSIDE | CastlingRights.BLACK_QUEENSIDE);
+    assertThat(position.getKey()).isEqualTo(position.computeKey());
+
+    position.unmakeMove();
+    assertThat(position).isEqualTo(before);
+    assertThat(position.getCastlingRights()).isEqualTo(CastlingRights.ALL);
+    assertThat(position.getKey()).isEqualTo(before.getKey());
+  }
+
+  @Test
+  void rookMovesAndCapturesRemoveCastlingRights() {
+    ChessBoard position = Game.boardFromFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+
+    position.makeMove(Move.of(Bitboard.square(0, 0), Bitboard.square(7, 0)));
+
+    assertThat(position.getCastlingRights())
+        .isEqualTo(CastlingRights.WHITE_KINGSIDE | CastlingRights.BLACK_KINGSIDE);
+    assertThat(position.getKey()).isEqualTo(position.computeKey());
+  }
+
+  @Test
+  void enPassantCaptureRemovesThePassedPawn() {
+    ChessBoard position = Game.boardFromFEN("4k3/3p4/8/4P3/8/8/8/4K3 b - - 0 1");
+    position.makeMove(Move.of(Bitboard.square(6, 3), Bitboard.square(4, 3)));
+    assertThat(position.getEnPassantSquare()).isEqualTo(Bitboard.square(5, 3));
+    ChessBoard before = position.copy();
+
+    position.makeMove(Move.of(Bitboard.square(4, 4), Bitboard.square(5, 3)));
+
+    assertThat(position.getPieceAt(Bitboard.square(4, 3))).isNull();
+    assertThat(position.getPieceAt(Bitboard.square(5, 3)).getType()).isEqualTo(PieceType.PAWN);
+    assertThat(position.getEnPassantSquare()).isEqualTo(ChessBoard.NO_SQUARE);
+    assertThat(position.getKey()).isEqualTo(position.computeKey());
+
+    position.unmakeMove();
+    assertThat(position).isEqualTo(before);
+    assertThat(position.getEnPassantSquare()).isEqualTo(Bitboard.square(5, 3));
+  }
+
+  @Test
+  void enPassantSquareIsOnlyKeptIfAPawnCanCapture() {
+    board.makeMove(Move.of(Bitboard.square(1, 4), Bitboard.square(3, 4)));
+
+    assertThat(board.getEnPassantSquare()).isEqualTo(ChessBoard.NO_SQUARE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2"
+      })
+  void capturesAndQuietMovesSplitAllLegalMoves(String fen) {
+    ChessBoard position = Game.boardFromFEN(fen);
+    MoveList all = new MoveList();
+    MoveList captures = new MoveList();
+    MoveList quiet = new MoveList();
+
+    position.generateLegalMoves(position.getSideToMove(), all);
+    position.generateCaptures(position.getSideToMove(), captures);
+    position.generateQuietMoves(position.getSideToMove(), quiet);
+
+    for (int move : captures.toArray()) {
+      assertThat(Move.isCapture(move) || Move.promotion(move) != null).isTrue();
+    }
+    for (int move : quiet.toArray()) {
+      assertThat(Move.isCapture(move) || Move.promotion(move) != null).isFalse();
+    }
+    assertThat(captures.size() + quiet.size()).isEqualTo(all.size());
+    MoveList sideToMove = new MoveList();
+    position.generateLegalMoves(sideToMove);
+    assertThat(sideToMove.toArray()).containsExactlyInAnyOrder(all.toArray());
+  }
+
+  @Test
+  void generatesTheMovesOfEitherSide() {
+    ChessBoard position = Game.boardFromFEN("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2");
+    int[] count = new int[1];
+
+    position.generateLegalMoves(Color.BLACK, move -> count[0]++);
+
+    // d5d4 plus five king moves; the en passant square belongs to white
+    assertThat(count[0]).isEqualTo(6);
+  }
+
+  @Test
+  void onlyTheKingMovesInDoubleCheck() {
+    ChessBoard position = Game.boardFromFEN("4k3/8/5N2/8/8/8/8/Q3RK2 b - - 0 1");
+    MoveList moves = new MoveList();
+
+    position.generateLegalMoves(Color.BLACK, moves);
+
+    assertThat(Arrays.stream(moves.toArray()).mapToObj(Move::toString))
+        .containsExactlyInAnyOrder("e8d8", "e8f7", "e8f8");
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+      })
+  void isLegalAgreesWithTheGeneratedMoves(String fen) {
+    ChessBoard position = Game.boardFromFEN(fen);
+    Random random = new Random(7);
+    MoveList moves = new MoveList();
+    for (int ply = 0; ply < 40; ply++) {
+      for (int from = 0; from < 64; from++) {
+        moves.clear();
+        position.generateMoves(from, moves);
+        for (int to = 0; to < 64; to++) {
+          boolean generated = false;
+          for (int move : moves.toArray()) {
+            generated |= Move.to(move) == to;
+          }
+          assertThat(position.isLegal(from, to))
+              .as("%d-%d in %s", from, to, fen)
+              .isEqualTo(generated);
+        }
+      }
+      moves.clear();
+      position.generateLegalMoves(moves);
+      if (moves.isEmpty()) {
+        break;
+      }
+      position.makeMove(moves.get(random.nextInt(moves.size())));
+    }
+  }
+
+  @Test
+  void isLegalRejectsSquaresOffTheBoard() {
+    int e2 = Bitboard.square(1, 4);
+
+    assertThat(board.isLegal(e2, e2 + 16)).isTrue();
+    assertThat(board.isLegal(e2, e2)).isFalse();
+    assertThat(board.isLegal(e2, 64)).isFalse();
+    assertThat(board.isLegal(-1, e2)).isFalse();
+    assertThat(board.isLegal(Bitboard.square(3, 3), Bitboard.square(4, 3))).isFalse();
+  }
 }
@@ -0,0 +1,64 @@
+package hwr.oop.chess.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MagicBitboardsTest {
+
+  @Test
+  void rookAttacksStopAtFirstBlocker() {
+    long blockers = Bitboard.bit(Bitboard.square(0, 3)) | Bitboard.bit(Bitboard.square(3, 0));
+    assertThat(MagicBitboards.rookAttacks(0, blockers))
+        .isEqualTo(
+            Bitboard.bit(1)
+                | Bitboard.bit(2)
+                | Bitboard.bit(3)
+                | Bitboard.bit(8)
+                | Bitboard.bit(16)
+                | Bitboard.bit(24));
+  }
+
+  @Test
+  void attacksOnEmptyBoard() {
+    assertThat(Long.bitCount(MagicBitboards.rookAttacks(Bitboard.square(3, 3), 0L)))
+        .isEqualTo(14);
+    assertThat(Long.bitCount(MagicBitboards.bishopAttacks(Bitboard.square(3, 3), 0L)))
+        .isEqualTo(13);
+    assertThat(Long.bitCount(MagicBitboards.bishopAttacks(0, 0L))).isEqualTo(7);
+    assertThat(MagicBitboards.queenAttacks(Bitboard.square(3, 3), 0L))
+        .isEqualTo(
+            MagicBitboards.rookAttacks(Bitboard.square(3, 3), 0L)
+                | MagicBitboards.bishopAttacks(Bitboard.square(3, 3), 0L));
+  }
+
+  @Test
+  void lookupsMatchRayWalkingForRandomOccupancies() {
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      long occupied = random.nextLong() & random.nextLong();
+      int square = random.nextInt(64);
+      assertThat(MagicBitboards.rookAttacks(square, occupied))
+          .isEqualTo(walk(square, occupied, new int[][] {{1, 0}, {-1, 0}, {0, 1}, {0, -1}}));
+      assertThat(MagicBitboards.bishopAttacks(square, occupied))
+          .isEqualTo(walk(square, occupied, new int[][] {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}}));
+    }
+  }
+
+  private static long walk(int square, long occupied, int[][] directions) {
+    long attacks = 0L;
+    for (int[] direction : directions) {
+      int row = Bitboard.row(square) + direction[0];
+      int column = Bitboard.column(square) + direction[1];
+      while (row >= 0 && row < 8 && column >= 0 && column < 8) {
+        long bit = Bitboard.bit(Bitboard.square(row, column));
+        attacks |= bit;
+        if ((occupied & bit) != 0) break;
+        row += direction[0];
+        column += direction[1];
+      }
+    }
+    return attacks;
+  }
+}
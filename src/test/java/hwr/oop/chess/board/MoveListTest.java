@@ -0,0 +1,47 @@
+package hwr.oop.chess.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class MoveListTest {
+
+  @Test
+  void growsBeyondInitialCapacity() {
+    MoveList moves = new MoveList(2);
+    for (int i = 0; i < 100; i++) {
+      moves.add(Move.of(i % 64, (i + 1) % 64));
+    }
+    assertThat(moves.size()).isEqualTo(100);
+    assertThat(Move.from(moves.get(99))).isEqualTo(35);
+    assertThat(moves.toArray()).hasSize(100);
+  }
+
+  @Test
+  void collectsMovesAsASink() {
+    MoveList moves = new MoveList();
+    MoveSink sink = moves;
+
+    sink.accept(Move.of(12, 28));
+
+    assertThat(moves.toArray()).containsExactly(Move.of(12, 28));
+  }
+
+  @Test
+  void clearKeepsListReusable() {
+    MoveList moves = new MoveList();
+    moves.add(Move.of(1, 2));
+    moves.clear();
+    assertThat(moves.isEmpty()).isTrue();
+    moves.add(Move.of(3, 4));
+    assertThat(moves.get(0)).isEqualTo(Move.of(3, 4));
+  }
+
+  @Test
+  void getOutsideSizeThrows() {
+    MoveList moves = new MoveList();
+    moves.add(Move.of(1, 2));
+    assertThatThrownBy(() -> moves.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+}
@@ -0,0 +1,60 @@
+package hwr.oop.chess.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hwr.oop.chess.pieces.PieceType;
+import org.junit.jupiter.api.Test;
+
+class MoveTest {
+
+  @Test
+  void packsFromAndTo() {
+    int move = Move.of(12, 28);
+    assertThat(Move.from(move)).isEqualTo(12);
+    assertThat(Move.to(move)).isEqualTo(28);
+    assertThat(Move.promotion(move)).isNull();
+    assertThat(Move.toString(move)).isEqualTo("e2e4");
+  }
+
+  @Test
+  void packsPromotion() {
+    for (PieceType type : PieceType.values()) {
+      int move = Move.of(52, 63, type);
+      assertThat(Move.from(move)).isEqualTo(52);
+      assertThat(Move.to(move)).isEqualTo(63);
+      assertThat(Move.promotion(move)).isEqualTo(type);
+    }
+    assertThat(Move.toString(Move.of(52, 60, PieceType.KNIGHT))).isEqualTo("e7e8n");
+    assertThat(Move.toString(Move.of(11, 3, PieceType.QUEEN))).isEqualTo("d2d1q");
+  }
+
+  @Test
+  void packsPieceCaptureAndFlags() {
+    int move =
+        Move.of(12, 28, PieceType.PAWN, PieceType.KNIGHT, null, Move.DOUBLE_PAWN_PUSH);
+    assertThat(Move.from(move)).isEqualTo(12);
+    assertThat(Move.to(move)).isEqualTo(28);
+    assertThat(Move.piece(move)).isEqualTo(PieceType.PAWN);
+    assertThat(Move.captured(move)).isEqualTo(PieceType.KNIGHT);
+    assertThat(Move.isCapture(move)).isTrue();
+    assertThat(Move.promotion(move)).isNull();
+    assertThat(Move.flags(move)).isEqualTo(Move.DOUBLE_PAWN_PUSH);
+
+    int quiet = Move.of(1, 18, PieceType.KNIGHT, null, null, 0);
+    assertThat(Move.isCapture(quiet)).isFalse();
+    assertThat(Move.captured(quiet)).isNull();
+    assertThat(Move.flags(quiet)).isZero();
+  }
+
+  @Test
+  void flagsCastlingAndEnPassant() {
+    int castling = Move.of(4, 6, PieceType.KING, null, null, Move.CASTLING);
+    int enPassant = Move.of(36, 43, PieceType.PAWN, PieceType.PAWN, null, Move.EN_PASSANT);
+
+    assertThat(Move.isCastling(castling)).isTrue();
+    assertThat(Move.isEnPassant(castling)).isFalse();
+    assertThat(Move.isEnPassant(enPassant)).isTrue();
+    assertThat(Move.isCastling(enPassant)).isFalse();
+    assertThat(Move.toString(castling)).isEqualTo("e1g1");
+  }
+}
@@ -0,0 +1,68 @@
+package hwr.oop.chess.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hwr.oop.chess.game.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class NotationTest {
+
+  private static int legalMove(ChessBoard board, String notation) {
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+    for (int i = 0; i < moves.size(); i++) {
+      if (Move.toString(moves.get(i)).equals(notation)) {
+        return moves.get(i);
+      }
+    }
+    throw new AssertionError("No legal move " + notation);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1, e2e4, e4",
+    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1, g1f3, Nf3",
+    "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w - - 0 1, e4d5, exd5",
+    "4k3/8/8/8/8/8/8/R4RK1 w - - 0 1, a1d1, Rad1",
+    "4k3/8/8/8/R7/8/8/R3K3 w - - 0 1, a4a2, R4a2",
+    "4k3/8/8/1N3N2/8/1N6/8/4K3 w - - 0 1, b5d4, Nb5d4",
+    "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1, a1a8, Ra8#",
+    "k7/4P3/8/8/8/8/8/4K3 w - - 0 1, e7e8q, e8=Q+",
+    "k7/4P3/8/8/8/8/8/4K3 w - - 0 1, e7e8n, e8=N",
+    "k7/8/8/8/8/8/3p4/K7 b - - 0 1, a8b8, Kb8",
+    "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1, e1g1, O-O",
+    "r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1, e8c8, O-O-O",
+    "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2, e5d6, exd6"
+  })
+  void formatsAndParsesStandardAlgebraicNotation(String fen, String move, String san) {
+    ChessBoard board = Game.boardFromFEN(fen);
+    int legal = legalMove(board, move);
+
+    assertThat(Notation.san(board, legal)).isEqualTo(san);
+    assertThat(Move.toString(Notation.parse(board, san))).isEqualTo(move);
+    assertThat(Move.toString(Notation.parse(board, move))).isEqualTo(move);
+    assertThat(Game.boardFromFEN(fen)).isEqualTo(board);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"Nf3!?, g1f3", "e4!, e2e4", "Nh3?, g1h3"})
+  void ignoresAnnotations(String san, String move) {
+    assertThat(Move.toString(Notation.parse(new ChessBoard(), san))).isEqualTo(move);
+  }
+
+  @Test
+  void acceptsCastlingWrittenWithZeros() {
+    ChessBoard board = Game.boardFromFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+
+    assertThat(Move.toString(Notation.parse(board, "0-0"))).isEqualTo("e1g1");
+    assertThat(Move.toString(Notation.parse(board, "0-0-0+"))).isEqualTo("e1c1");
+  }
+
+  @ParameterizedTest
+  @CsvSource({"e5", "Nf4", "O-O", "e2e5", "xyz"})
+  void returnsZeroForMovesThatAreNotLegal(String notation) {
+    assertThat(Notation.parse(new ChessBoard(), notation)).isZero();
+  }
+}
@@ -0,0 +1,27 @@
+package hwr.oop.chess.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.pieces.PieceType;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ZobristTest {
+
+  @Test
+  void keysAreDistinctAndNonZero() {
+    Set<Long> keys = new HashSet<>();
+    for (Color color : Color.values()) {
+      for (PieceType type : PieceType.values()) {
+        for (int square = 0; square < 64; square++) {
+          keys.add(Zobrist.piece(type, color, square));
+        }
+      }
+    }
+    keys.add(Zobrist.sideToMove());
+
+    assertThat(keys).hasSize(2 * 6 * 64 + 1).doesNotContain(0L);
+  }
+}
@@ -11,6 +11,22 @@ import hwr.oop.chess.domain.GameNotFoundException;
 import hwr.oop.chess.domain.IllegalPromotionException;
 import hwr.oop.chess.Position;
 import hwr.oop.chess.domain.RemiWasNotOfferedException;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.engine.BookMove;
+import hwr.oop.chess.engine.BatchAnalysisException;
+import hwr.oop.chess.engine.BatchFormat;
+import hwr.oop.chess.engine.BatchSummary;
+import hwr.oop.chess.engine.EndgameMaterial;
+import hwr.oop.chess.engine.EvaluationBreakdown;
+import hwr.oop.chess.engine.MateResult;
+import hwr.oop.chess.engine.OpeningBookException;
+import hwr.oop.chess.engine.PerftResult;
+import hwr.oop.chess.engine.Search;
+import hwr.oop.chess.engine.SearchResult;
+import hwr.oop.chess.engine.Tablebase;
+import hwr.oop.chess.engine.TablebaseException;
+import hwr.oop.chess.engine.TablebaseResult;
+import hwr.oop.chess.game.FENException;
 import hwr.oop.chess.game.Game;
 import hwr.oop.chess.pieces.IllegalMoveException;
 import hwr.oop.chess.pieces.King;
@@ -20,10 +36,13 @@ import hwr.oop.chess.player.Player;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -706,4 +725,466 @@ class ChessCliTest {
     // Assert
     assertThat(output).isEqualTo(expectedOutput);
   }
+
+  @Test
+  void hintCommandPrintsBestMoveAndPrincipalVariation() {
+    Game game = mock(Game.class);
+    when(gameLogicMock.loadGame("123")).thenReturn(game);
+    when(gameLogicMock.hint(game, 6, 0))
+        .thenReturn(
+            new SearchResult(
+                Move.of(12, 28), 35, 6, List.of("e2e4", "e7e5", "g1f3"), 40_000, 20_000_000L));
+
+    chessCli.handle(List.of("hint", "123", "--depth", "6"));
+
+    assertThat(outContent.toString())
+        .contains("Best move: e2e4 (score +0.35, depth 6)")
+        .contains("Principal variation: e2e4 e7e5 g1f3")
+        .contains("Searched 40000 nodes in 20 ms (2000000 nodes per second)");
+  }
+
+  @Test
+  void hintCommandUsesMoveTimeAndReportsMate() {
+    Game game = mock(Game.class);
+    when(game.getId()).thenReturn("123");
+    when(gameLogicMock.loadGame("123")).thenReturn(game);
+    when(gameLogicMock.hint(game, Search.MAX_PLY - 1, 1000))
+        .thenReturn(
+            new SearchResult(
+                Move.of(0, 56), Search.MATE_SCORE - 1, 3, List.of("a1a8"), 100, 1_000_000L));
+    when(gameLogicMock.hint(game, Search.MAX_PLY - 1, 250))
+        .thenReturn(new SearchResult(0, 0, 0, List.of(), 0, 0));
+
+    chessCli.handle(List.of("hint", "123"));
+    chessCli.handle(List.of("hint", "123", "--movetime", "250"));
+
+    assertThat(outContent.toString())
+        .contains("Best move: a1a8 (score mate 1, depth 3)")
+        .contains("There is no legal move in game 123.");
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidHintArguments")
+  void hintCommandWithInvalidArguments(List<String> arguments) {
+    chessCli.handle(arguments);
+
+    assertThat(outContent.toString())
+        .contains("Oops... Invalid command.")
+        .contains("Usage: chess hint <ID> [--depth N | --movetime ms]");
+    verifyNoInteractions(gameLogicMock);
+  }
+
+  @Test
+  void hintCommandWithMonteCarloSearch() {
+    Game game = mock(Game.class);
+    when(game.getId()).thenReturn("123");
+    when(gameLogicMock.loadGame("123")).thenReturn(game);
+    when(gameLogicMock.monteCarloHint(game, 5000, 0))
+        .thenReturn(new SearchResult(Move.of(11, 27), -20, 2, List.of("d2d4", "d7d5"), 5000, 0));
+    when(gameLogicMock.monteCarloHint(game, 0, 1000))
+        .thenReturn(new SearchResult(Move.of(12, 28), 10, 1, List.of("e2e4"), 800, 0));
+
+    chessCli.handle(List.of("hint", "123", "--mcts", "--playouts", "5000"));
+    chessCli.handle(List.of("hint", "123", "--mcts"));
+
+    assertThat(outContent.toString())
+        .contains("Best move: d2d4 (score -0.20, depth 2)")
+        .contains("Principal variation: d2d4 d7d5")
+        .contains("Best move: e2e4 (score +0.10, depth 1)");
+  }
+
+  private static Stream<List<String>> invalidHintArguments() {
+    return Stream.of(
+        List.of("hint"),
+        List.of("hint", "123", "--mcts", "--depth", "4"),
+        List.of("hint", "123", "--depth", "4", "--movetime", "100"),
+        List.of("hint", "123", "--playouts", "100"),
+        List.of("hint", "123", "--depth"),
+        List.of("hint", "123", "--depth", "0"),
+        List.of("hint", "123", "--movetime", "soon"),
+        List.of("hint", "123", "--nodes", "5"),
+        List.of("hint", "123", "--nodes", "--mcts"),
+        List.of("hint", "123", "--mcts", "--nodes"));
+  }
+
+  @Test
+  void hintCommandForUnknownGame() {
+    when(gameLogicMock.loadGame("404")).thenThrow(new GameNotFoundException("404"));
+
+    chessCli.handle(List.of("hint", "404"));
+
+    assertThat(outContent.toString())
+        .contains("The game does not exist. Please create this game first!");
+  }
+
+  @Test
+  void evalCommandPrintsTheEvaluationTerms() {
+    Game game = mock(Game.class);
+    when(gameLogicMock.loadGame("123")).thenReturn(game);
+    when(gameLogicMock.evaluate(game)).thenReturn(new EvaluationBreakdown(100, -15, 8, 0, -12));
+
+    chessCli.handle(List.of("eval", "123"));
+
+    assertThat(outContent.toString())
+        .contains("Evaluation of game 123 in centipawns (positive is good for white):")
+        .contains("  Material:       +100")
+        .contains("  Piece-square:   -15")
+        .contains("  Mobility:       +8")
+        .contains("  King safety:    +0")
+        .contains("  Pawn structure: -12")
+        .contains("  Total:          +81");
+  }
+
+  @Test
+  void evalCommandWithInvalidArguments() {
+    chessCli.handle(List.of("eval"));
+
+    assertThat(outContent.toString())
+        .contains("Oops... Invalid command.")
+        .contains("Usage: chess eval <ID>");
+    verifyNoInteractions(gameLogicMock);
+  }
+
+  @Test
+  void evalCommandForUnknownGame() {
+    when(gameLogicMock.loadGame("404")).thenThrow(new GameNotFoundException("404"));
+
+    chessCli.handle(List.of("eval", "404"));
+
+    assertThat(outContent.toString())
+        .contains("The game does not exist. Please create this game first!");
+  }
+
+  @Test
+  void bookCommandPrintsWeightedMoves() {
+    Game game = mock(Game.class);
+    when(gameLogicMock.loadGame("123")).thenReturn(game);
+    when(gameLogicMock.bookMoves(game, Path.of("data/book.bin")))
+        .thenReturn(
+            List.of(new BookMove(Move.of(12, 28), 300), new BookMove(Move.of(11, 27), 100)));
+
+    chessCli.handle(List.of("book", "123"));
+
+    assertThat(outContent.toString())
+        .contains("Book moves for game 123:")
+        .contains("  e2e4   weight   300 (75.0%)")
+        .contains("  d2d4   weight   100 (25.0%)");
+  }
+
+  @Test
+  void bookCommandWithOwnFilesOutOfBook() {
+    Game game = mock(Game.class);
+    when(game.getId()).thenReturn("123");
+    when(gameLogicMock.loadGame("123")).thenReturn(game);
+    when(gameLogicMock.bookMoves(game, Path.of("my.bin"), Path.of("keys.txt")))
+        .thenReturn(List.of());
+    when(gameLogicMock.bookMoves(game, Path.of("missing.bin")))
+        .thenThrow(new OpeningBookException("Could not open opening book missing.bin"));
+
+    chessCli.handle(List.of("book", "123", "--keys", "keys.txt", "--book", "my.bin"));
+    chessCli.handle(List.of("book", "123", "--book", "missing.bin"));
+
+    assertThat(outContent.toString())
+        .contains("Game 123 is out of book.")
+        .contains("Could not open opening book missing.bin");
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidBookArguments")
+  void bookCommandWithInvalidArguments(List<String> arguments) {
+    chessCli.handle(arguments);
+
+    assertThat(outContent.toString())
+        .contains("Oops... Invalid command.")
+        .contains("Usage: chess book <ID> [--book FILE] [--keys FILE]");
+    verifyNoInteractions(gameLogicMock);
+  }
+
+  private static Stream<List<String>> invalidBookArguments() {
+    return Stream.of(
+        List.of("book"),
+        List.of("book", "123", "--book"),
+        List.of("book", "123", "--depth", "3"));
+  }
+
+  @Test
+  void bookCommandForUnknownGame() {
+    when(gameLogicMock.loadGame("404")).thenThrow(new GameNotFoundException("404"));
+
+    chessCli.handle(List.of("book", "404"));
+
+    assertThat(outContent.toString())
+        .contains("The game does not exist. Please create this game first!");
+  }
+
+  @Test
+  void tablebaseProbeCommandPrintsTheOutcome() {
+    String win = "k7/8/1K6/8/8/8/8/7R w - - 0 1";
+    String loss = "k7/8/1K6/8/8/8/8/7R b - - 0 1";
+    String mate = "R6k/8/6K1/8/8/8/8/8 b - - 0 1";
+    String draw = "k7/2Q5/1K6/8/8/8/8/8 b - - 0 1";
+    Path directory = Path.of("data/tablebases");
+    when(gameLogicMock.probeTablebase(win, directory))
+        .thenReturn(new TablebaseResult(TablebaseResult.Outcome.WIN, 27));
+    when(gameLogicMock.probeTablebase(loss, Path.of("tables")))
+        .thenReturn(new TablebaseResult(TablebaseResult.Outcome.LOSS, 2));
+    when(gameLogicMock.probeTablebase(mate, directory))
+        .thenReturn(new TablebaseResult(TablebaseResult.Outcome.LOSS, 0));
+    when(gameLogicMock.probeTablebase(draw, directory))
+        .thenReturn(new TablebaseResult(TablebaseResult.Outcome.DRAW, 0));
+
+    chessCli.handle(List.of("tb-probe", "k7/8/1K6/8/8/8/8/7R", "w", "-", "-", "0", "1"));
+    chessCli.handle(
+        List.of("tb-probe", "--dir", "tables", "k7/8/1K6/8/8/8/8/7R", "b", "-", "-", "0", "1"));
+    chessCli.handle(List.of("tb-probe", mate));
+    chessCli.handle(List.of("tb-probe", draw));
+
+    assertThat(outContent.toString())
+        .contains("The side to move wins: mate in 14 (27 plies).")
+        .contains("The side to move loses: mated in 1 (2 plies).")
+        .contains("The side to move is checkmated.")
+        .contains("The position is a draw.");
+  }
+
+  @Test
+  void tablebaseProbeCommandPrintsErrors() {
+    Path directory = Path.of("data/tablebases");
+    when(gameLogicMock.probeTablebase("invalid", directory))
+        .thenThrow(new FENException("Invalid FEN notation"));
+    when(gameLogicMock.probeTablebase("k7/8/1K6/8/8/8/8/6RR w - - 0 1", directory))
+        .thenThrow(new TablebaseException("There is no tablebase for this position"));
+
+    chessCli.handle(List.of("tb-probe", "invalid"));
+    chessCli.handle(List.of("tb-probe", "k7/8/1K6/8/8/8/8/6RR w - - 0 1"));
+
+    assertThat(outContent.toString())
+        .contains("Invalid FEN notation")
+        .contains("There is no tablebase for this position");
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidTablebaseProbeArguments")
+  void tablebaseProbeCommandWithInvalidArguments(List<String> arguments) {
+    chessCli.handle(arguments);
+
+    assertThat(outContent.toString())
+        .contains("Oops... Invalid command.")
+        .contains("Usage: chess tb-probe <FEN> [--dir DIR]");
+    verifyNoInteractions(gameLogicMock);
+  }
+
+  private static Stream<List<String>> invalidTablebaseProbeArguments() {
+    return Stream.of(
+        List.of("tb-probe"),
+        List.of("tb-probe", "--dir", "tables"),
+        List.of("tb-probe", "k7/8/1K6/8/8/8/8/7R w - - 0 1", "--dir"));
+  }
+
+  @Test
+  void tablebaseGenerateCommandBuildsTheRequestedTables() {
+    Tablebase kqk = mock(Tablebase.class);
+    when(kqk.getMaterial()).thenReturn(EndgameMaterial.KQK);
+    when(kqk.getPositionCount()).thenReturn(81920L);
+    when(kqk.getLongestMatePlies()).thenReturn(20);
+    when(gameLogicMock.generateTablebases(List.of(EndgameMaterial.KQK), Path.of("tables")))
+        .thenReturn(List.of(kqk));
+    when(gameLogicMock.generateTablebases(
+            List.of(EndgameMaterial.values()), Path.of("data/tablebases")))
+        .thenThrow(new TablebaseException("Could not write tablebase file data/tablebases"));
+
+    chessCli.handle(List.of("tb-generate", "kqk", "--dir", "tables"));
+    chessCli.handle(List.of("tb-generate"));
+
+    assertThat(outContent.toString())
+        .contains(
+            "Wrote "
+                + Path.of("tables", "KQK.cgtb")
+                + ": 81920 positions, longest mate 20 plies")
+        .contains("Time: ")
+        .contains("Could not write tablebase file data/tablebases");
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidTablebaseGenerateArguments")
+  void tablebaseGenerateCommandWithInvalidArguments(List<String> arguments) {
+    chessCli.handle(arguments);
+
+    assertThat(outContent.toString())
+        .contains("Oops... Invalid command.")
+        .contains("Usage: chess tb-generate [MATERIAL...] [--dir DIR]")
+        .contains("Materials: [KQK, KRK, KPK, KBNK]");
+    verifyNoInteractions(gameLogicMock);
+  }
+
+  private static Stream<List<String>> invalidTablebaseGenerateArguments() {
+    return Stream.of(List.of("tb-generate", "KRRK"), List.of("tb-generate", "KQK", "--dir"));
+  }
+
+  @Test
+  void analyzeBatchCommandPrintsTheSummary() {
+    when(gameLogicMock.analyzeBatch(
+            Path.of("suites", "wac.epd"), Path.of("suites", "wac.csv"), BatchFormat.CSV, 4, 6, 0))
+        .thenReturn(new BatchSummary(300, 2, 298, 250, 6_000_000L, 2_000_000_000L));
+    when(gameLogicMock.analyzeBatch(
+            Path.of("games.fen"), Path.of("out.json"), BatchFormat.JSONL, 2, 8, 100))
+        .thenReturn(new BatchSummary(10, 0, 0, 0, 1000, 0));
+
+    chessCli.handle(List.of("analyze-batch", "suites/wac.epd", "--threads", "4"));
+    chessCli.handle(
+        List.of(
+            "analyze-batch",
+            "games.fen",
+            "--format",
+            "jsonl",
+            "--output",
+            "out.json",
+            "--threads",
+            "2",
+            "--depth",
+            "8",
+            "--movetime",
+            "100"));
+
+    assertThat(outContent.toString())
+        .contains("Analysed 300 positions (2 invalid) on 4 threads.")
+        .contains("Solved 250 of 298 test positions.")
+        .contains("Searched 6000000 nodes in 2000 ms (3000000 nodes per second)")
+        .contains("Results written to " + Path.of("suites", "wac.csv"))
+        .contains("Analysed 10 positions (0 invalid) on 2 threads.")
+        .contains("Results written to out.json");
+    assertThat(outContent.toString().split("Solved").length).isEqualTo(2);
+  }
+
+  @Test
+  void analyzeBatchCommandPrintsErrors() {
+    when(gameLogicMock.analyzeBatch(
+            Path.of("missing.epd"), Path.of("missing.csv"), BatchFormat.CSV, 1, 6, 0))
+        .thenThrow(new BatchAnalysisException("Could not analyse missing.epd"));
+
+    chessCli.handle(List.of("analyze-batch", "missing.epd", "--threads", "1"));
+
+    assertThat(outContent.toString()).contains("Could not analyse missing.epd");
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidAnalyzeBatchArguments")
+  void analyzeBatchCommandWithInvalidArguments(List<String> arguments) {
+    chessCli.handle(arguments);
+
+    assertThat(outContent.toString())
+        .contains("Oops... Invalid command.")
+        .contains(
+            "Usage: chess analyze-batch <FILE> [--threads N] [--depth D] [--movetime ms]"
+                + " [--format csv|jsonl] [--output FILE]");
+    verifyNoInteractions(gameLogicMock);
+  }
+
+  private static Stream<List<String>> invalidAnalyzeBatchArguments() {
+    return Stream.of(
+        List.of("analyze-batch"),
+        List.of("analyze-batch", "suite.epd", "--threads"),
+        List.of("analyze-batch", "suite.epd", "--threads", "0"),
+        List.of("analyze-batch", "suite.epd", "--depth", "deep"),
+        List.of("analyze-batch", "suite.epd", "--movetime", "-5"),
+        List.of("analyze-batch", "suite.epd", "--format", "xml"),
+        List.of("analyze-batch", "suite.epd", "--verbose", "true"));
+  }
+
+  @Test
+  void solveMateCommandPrintsTheProvingLine() {
+    when(gameLogicMock.solveMate("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 2))
+        .thenReturn(new MateResult(true, 1, List.of("a1a8"), 3_000, 1_000_000L));
+
+    chessCli.handle(
+        List.of("solve-mate", "2", "6k1/5ppp/8/8/8/8/8/R5K1", "w", "-", "-", "0", "1"));
+
+    assertThat(outContent.toString())
+        .contains("Mate in 1: a1a8")
+        .contains("Searched 3000 nodes in 1 ms (3000000 nodes per second)");
+  }
+
+  @Test
+  void solveMateCommandReportsMissingMate() {
+    when(gameLogicMock.solveMate("8/8/8/8/8/8/8/K6k w 0", 3))
+        .thenReturn(new MateResult(false, 3, List.of(), 10, 0));
+    when(gameLogicMock.solveMate("invalid", 1))
+        .thenThrow(new FENException("Invalid FEN format: 8 rows expected"));
+
+    chessCli.handle(List.of("solve-mate", "3", "8/8/8/8/8/8/8/K6k", "w", "0"));
+    chessCli.handle(List.of("solve-mate", "1", "invalid"));
+
+    assertThat(outContent.toString())
+        .contains("No forced mate in 3 moves.")
+        .contains("Invalid FEN format: 8 rows expected");
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidSolveMateArguments")
+  void solveMateCommandWithInvalidArguments(List<String> arguments) {
+    chessCli.handle(arguments);
+
+    assertThat(outContent.toString())
+        .contains("Oops... Invalid command.")
+        .contains("Usage: chess solve-mate <N> <FEN>");
+    verifyNoInteractions(gameLogicMock);
+  }
+
+  private static Stream<List<String>> invalidSolveMateArguments() {
+    return Stream.of(
+        List.of("solve-mate", "2"),
+        List.of("solve-mate", "two", "8/8/8/8/8/8/8/K6k", "w", "0"),
+        List.of("solve-mate", "0", "8/8/8/8/8/8/8/K6k", "w", "0"));
+  }
+
+  @Test
+  void perftCommandPrintsNodesAndDivide() {
+    Map<String, Long> divide = new LinkedHashMap<>();
+    divide.put("e2e4", 600L);
+    divide.put("d2d4", 560L);
+    when(gameLogicMock.perft("8/8/8/8/8/8/8/K6k w 0", 3, true))
+        .thenReturn(new PerftResult(1160, divide, 2_000_000L));
+
+    chessCli.handle(List.of("perft", "3", "--divide", "--parallel", "8/8/8/8/8/8/8/K6k", "w", "0"));
+    String output = outContent.toString();
+
+    assertThat(output)
+        .contains("e2e4: 600\nd2d4: 560\n")
+        .contains("Perft depth 3: 1160 nodes")
+        .contains("Time: 2 ms (580000 nodes per second)");
+  }
+
+  @Test
+  void perftCommandDefaultsToInitialPosition() {
+    when(gameLogicMock.perft(null, 2, false))
+        .thenReturn(new PerftResult(400, new LinkedHashMap<>(), 0));
+
+    chessCli.handle(List.of("perft", "2"));
+
+    assertThat(outContent.toString()).contains("Perft depth 2: 400 nodes").doesNotContain(": 20");
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidPerftArguments")
+  void perftCommandWithInvalidDepth(List<String> arguments) {
+    chessCli.handle(arguments);
+
+    assertThat(outContent.toString())
+        .contains("Oops... Invalid command.")
+        .contains("Usage: chess perft <DEPTH> [--divide] [--parallel] [FEN]");
+    verifyNoInteractions(gameLogicMock);
+  }
+
+  private static Stream<List<String>> invalidPerftArguments() {
+    return Stream.of(List.of("perft"), List.of("perft", "zero"), List.of("perft", "0"));
+  }
+
+  @Test
+  void perftCommandWithInvalidFEN() {
+    when(gameLogicMock.perft("invalid", 1, false))
+        .thenThrow(new FENException("Invalid FEN format: 8 rows expected"));
+
+    chessCli.handle(List.of("perft", "1", "invalid"));
+
+    assertThat(outContent.toString()).contains("Invalid FEN format: 8 rows expected");
+  }
 }
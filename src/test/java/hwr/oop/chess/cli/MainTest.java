@@ -3,7 +3,9 @@ package hwr.oop.chess.cli;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import org.junit.jupiter.api.AfterEach;
@@ -48,4 +50,16 @@ class MainTest {
     assertSoftly(
         softly -> softly.assertThat(outContent.toString()).contains("Supported commands:"));
   }
+
+  @Test
+  void main_StartsUciModeWithUciArgument() {
+    InputStream originalIn = System.in;
+    System.setIn(new ByteArrayInputStream("uci\nquit\n".getBytes()));
+    try {
+      Main.main(new String[] {"uci"});
+    } finally {
+      System.setIn(originalIn);
+    }
+    assertSoftly(softly -> softly.assertThat(outContent.toString()).contains("uciok"));
+  }
 }
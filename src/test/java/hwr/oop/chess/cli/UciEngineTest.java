@@ -0,0 +1,135 @@
+package hwr.oop.chess.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UciEngineTest {
+  private ByteArrayOutputStream outContent;
+  private UciEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    outContent = new ByteArrayOutputStream();
+    engine = new UciEngine(new ByteArrayInputStream(new byte[0]), outContent);
+  }
+
+  private String output() {
+    return outContent.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void runAnswersHandshakeAndStopsSearchOnQuit() {
+    String commands = "uci\nisready\nposition startpos moves e2e4\ngo depth 2\nquit\nisready\n";
+    ByteArrayInputStream in = new ByteArrayInputStream(commands.getBytes(StandardCharsets.UTF_8));
+    UciEngine uci = new UciEngine(in, outContent);
+
+    uci.run();
+
+    assertThat(output())
+        .contains("id name chess-g4")
+        .contains("option name Hash type spin default 16 min 1 max 1024")
+        .contains("uciok")
+        .containsOnlyOnce("readyok")
+        .contains("bestmove ");
+  }
+
+  @Test
+  void goDepthReportsInfoAndBestMove() throws InterruptedException {
+    engine.handle("position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+    engine.handle("go depth 3");
+    engine.awaitSearch();
+
+    assertThat(output())
+        .contains("info depth 1 score mate 1 nodes ")
+        .contains(" pv a1a8")
+        .endsWith("bestmove a1a8" + System.lineSeparator());
+  }
+
+  @Test
+  void movesAreAppliedToTheStartPosition() throws InterruptedException {
+    engine.handle("ucinewgame");
+    engine.handle("position startpos moves f2f3 e7e5 g2g4");
+    engine.handle("go depth 2");
+    engine.awaitSearch();
+
+    assertThat(output()).contains("bestmove d8h4");
+  }
+
+  @Test
+  void movesBeforeTheSearchCountForRepetitions() throws InterruptedException {
+    engine.handle("position fen 4k3/q7/8/8/8/8/8/6NK w - - 0 1 moves g1f3 e8e7 f3g1 e7e8");
+    engine.handle("go depth 3");
+    engine.awaitSearch();
+
+    assertThat(output()).contains("info depth 3 score cp 0 ").contains("bestmove g1f3");
+  }
+
+  @Test
+  void clockTimeAndMoveTimeLimitTheSearch() throws InterruptedException {
+    engine.handle("position startpos");
+    engine.handle("go wtime 2000 btime 2000 winc 10 binc 10 movestogo 20");
+    engine.awaitSearch();
+    engine.handle("go movetime 20");
+    engine.awaitSearch();
+
+    assertThat(output().split("bestmove ", -1)).hasSize(3);
+  }
+
+  @Test
+  void infiniteSearchSendsBestMoveOnlyAfterStop() throws InterruptedException {
+    engine.handle("position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+    engine.handle("go infinite");
+    Thread.sleep(50);
+    engine.handle("isready");
+
+    assertThat(output()).contains("readyok").doesNotContain("bestmove");
+
+    engine.handle("stop");
+    assertThat(output()).contains("bestmove a1a8");
+  }
+
+  @Test
+  void positionWithoutLegalMovesAnswersNullMove() throws InterruptedException {
+    engine.handle("position fen R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+    engine.handle("go depth 4");
+    engine.awaitSearch();
+
+    assertThat(output()).contains("bestmove 0000");
+  }
+
+  @Test
+  void invalidInputIsReportedAsInfoString() {
+    engine.handle("position fen invalid");
+    engine.handle("position startpos moves e2e5");
+    engine.handle("position");
+    engine.handle("setoption name Hash value 0");
+    engine.handle("setoption name Threads value 4");
+    engine.handle("setoption name Hash");
+    engine.handle("");
+    engine.handle("castle");
+
+    assertThat(output())
+        .contains("info string Invalid FEN format")
+        .contains("info string Illegal move: e2e5")
+        .contains("info string Usage: position [startpos | fen <FEN>] [moves <MOVES>]")
+        .contains("info string Hash must be between 1 and 1024 MB")
+        .contains("info string Unknown option: Threads")
+        .contains("info string Usage: setoption name <NAME> value <VALUE>")
+        .contains("info string Unknown command: castle");
+  }
+
+  @Test
+  void hashCanBeResized() throws InterruptedException {
+    engine.handle("setoption name Hash value 2");
+    engine.handle("position startpos");
+    engine.handle("go depth 1");
+    engine.awaitSearch();
+
+    assertThat(output()).doesNotContain("info string").contains("bestmove ");
+  }
+}
@@ -7,21 +7,42 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import hwr.oop.chess.Color;
 import hwr.oop.chess.GameOutcome;
+import hwr.oop.chess.GameStatus;
 import hwr.oop.chess.Position;
 import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.engine.BookMove;
+import hwr.oop.chess.engine.BatchAnalysisException;
+import hwr.oop.chess.engine.BatchFormat;
+import hwr.oop.chess.engine.BatchSummary;
+import hwr.oop.chess.engine.EndgameMaterial;
+import hwr.oop.chess.engine.EvaluationBreakdown;
+import hwr.oop.chess.engine.MateResult;
+import hwr.oop.chess.engine.OpeningBookException;
+import hwr.oop.chess.engine.PerftResult;
+import hwr.oop.chess.engine.PolyglotKeys;
+import hwr.oop.chess.engine.SearchResult;
+import hwr.oop.chess.engine.Tablebase;
+import hwr.oop.chess.engine.TablebaseException;
+import hwr.oop.chess.engine.TablebaseResult;
 import hwr.oop.chess.game.Game;
 import hwr.oop.chess.persistence.FileBasedPersistence;
 import hwr.oop.chess.persistence.Persistence;
 import hwr.oop.chess.pieces.*;
 import hwr.oop.chess.player.Player;
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class GameLogicTest {
 
@@ -596,6 +617,31 @@ class GameLogicTest {
         });
   }
 
+  @Test
+  void testCheckmateIsSavedWithTheGame() {
+    // Arrange
+    String gameId = "foolsMate";
+    Player playerWhite = gameLogic.loadPlayer("Alice");
+    Player playerBlack = gameLogic.loadPlayer("Bob");
+    gameLogic.createGame(playerWhite, playerBlack, gameId);
+
+    // Act
+    Game game = gameLogic.loadGame(gameId);
+    gameLogic.moveTo("f2", "f3", game);
+    gameLogic.moveTo("e7", "e5", game);
+    gameLogic.moveTo("g2", "g4", game);
+    boolean isCheckMate = gameLogic.moveTo("d8", "h4", game);
+    Game loadedGame = gameLogic.loadGame(gameId);
+
+    // Assert
+    assertSoftly(
+        softly -> {
+          softly.assertThat(isCheckMate).isTrue();
+          softly.assertThat(loadedGame.getWinner()).isEqualTo(GameOutcome.BLACK);
+          softly.assertThat(loadedGame.getMoveCount()).isEqualTo((short) 4);
+        });
+  }
+
   @Test
   void testMoveToNotCheckMate() {
     // Arrange
@@ -612,6 +658,77 @@ class GameLogicTest {
     assertThat(isCheckMate).isFalse();
   }
 
+  @Test
+  void testStalemateEndsTheGameInRemi() {
+    // Arrange
+    String gameId = "stalemate";
+    Player playerWhite = gameLogic.loadPlayer("Alice");
+    Player playerBlack = gameLogic.loadPlayer("Bob");
+    gameLogic.createGame(playerWhite, playerBlack, gameId);
+    List<String> moves =
+        List.of(
+            "e2", "e3", "a7", "a5", "d1", "h5", "a8", "a6", "h5", "a5", "h7", "h5", "h2", "h4",
+            "a6", "h6", "a5", "c7", "f7", "f6", "c7", "d7", "e8", "f7", "d7", "b7", "d8", "d3",
+            "b7", "b8", "d3", "h7", "b8", "c8", "f7", "g6");
+
+    // Act
+    Game game = gameLogic.loadGame(gameId);
+    for (int i = 0; i < moves.size(); i += 2) {
+      assertThat(gameLogic.moveTo(moves.get(i), moves.get(i + 1), game)).isFalse();
+    }
+    boolean isGameOver = gameLogic.moveTo("c8", "e6", game);
+
+    // Assert
+    assertThat(isGameOver).isTrue();
+    assertThat(game.getBoard().evaluateStatus(Color.BLACK)).isEqualTo(GameStatus.STALEMATE);
+    assertThat(game.getWinner()).isEqualTo(GameOutcome.REMI);
+    assertThat(gameLogic.loadGame(gameId).getWinner()).isEqualTo(GameOutcome.REMI);
+    assertThat(gameLogic.endGame(game)).isEqualTo("The game ended in Remi.");
+  }
+
+  @Test
+  void testThreefoldRepetitionEndsTheGameInRemi() {
+    // Arrange
+    String gameId = "repetition";
+    Player playerWhite = gameLogic.loadPlayer("Alice");
+    Player playerBlack = gameLogic.loadPlayer("Bob");
+    gameLogic.createGame(playerWhite, playerBlack, gameId);
+    List<String> moves = List.of("g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+
+    // Act
+    Game game = gameLogic.loadGame(gameId);
+    for (int i = 0; i < moves.size(); i += 2) {
+      assertThat(gameLogic.moveTo(moves.get(i), moves.get(i + 1), game)).isFalse();
+    }
+    for (int i = 0; i < moves.size() - 2; i += 2) {
+      assertThat(gameLogic.moveTo(moves.get(i), moves.get(i + 1), game)).isFalse();
+    }
+    boolean isGameOver = gameLogic.moveTo("f6", "g8", game);
+
+    // Assert
+    assertThat(isGameOver).isTrue();
+    assertThat(game.getWinner()).isEqualTo(GameOutcome.REMI);
+    assertThat(gameLogic.loadGame(gameId).getBoard().isThreefoldRepetition()).isTrue();
+  }
+
+  @Test
+  void testInsufficientMaterialEndsTheGameInRemi() {
+    // Arrange
+    Game game =
+        new Game(
+            gameLogic.loadPlayer("Alice"),
+            gameLogic.loadPlayer("Bob"),
+            "4k3/8/8/8/8/8/3n4/4K3 w 40",
+            "insufficient");
+
+    // Act
+    boolean isGameOver = gameLogic.moveTo("e1", "d2", game);
+
+    // Assert
+    assertThat(isGameOver).isTrue();
+    assertThat(game.getWinner()).isEqualTo(GameOutcome.REMI);
+  }
+
   @Test
   void testIllegalMoveBecauseKingInCheck() {
     // Arrange
@@ -1071,7 +1188,7 @@ class GameLogicTest {
     String fen = gameLogic.getFENNotation(game);
 
     // Assert
-    assertThat(fen).isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w 0");
+    assertThat(fen).isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
   }
 
   @Test
@@ -1088,7 +1205,7 @@ class GameLogicTest {
     String fen = gameLogic.getFENNotation(game);
 
     // Assert
-    assertThat(fen).isEqualTo("rnbqkbnr/pppppppp/8/8/8/5P2/PPPPP1PP/RNBQKBNR b 1");
+    assertThat(fen).isEqualTo("rnbqkbnr/pppppppp/8/8/8/5P2/PPPPP1PP/RNBQKBNR b KQkq - 0 1");
   }
 
   @Test
@@ -1154,4 +1271,194 @@ class GameLogicTest {
     assertThat(actualPossibleMoves).isEqualTo(expectedPossibleMoves);
     assertThat(actualCapturedMoves).isEqualTo(expectedCaptureMoves);
   }
+
+  @Test
+  void testGetPossibleMoves_PromotionIsListedOnce() {
+    Game game = new Game(new Player("Alice"), new Player("Bob"), "123");
+    game.getBoard().clearChessboard();
+    Position pawnPosition = new Position(6, 4);
+    game.getBoard()
+        .setPieceAtPosition(pawnPosition, new Pawn(Color.WHITE, pawnPosition, game.getBoard()));
+
+    List<Position> possibleMoves = gameLogic.getPossibleMoves("e7", game);
+
+    assertThat(possibleMoves).isEqualTo(List.of(new Position(7, 4)));
+  }
+
+  @Test
+  void testCastlingMovesTheRook() {
+    // Arrange
+    Game game =
+        new Game(
+            gameLogic.loadPlayer("Alice"),
+            gameLogic.loadPlayer("Bob"),
+            "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1",
+            "castling");
+
+    // Act
+    gameLogic.moveTo("e1", "g1", game);
+    gameLogic.moveTo("e8", "c8", game);
+
+    // Assert
+    assertThat(game.convertBoardToFEN()).isEqualTo("2kr3r/8/8/8/8/8/8/R4RK1 w - - 2 2");
+  }
+
+  @Test
+  void testEnPassantIsListedAsCapture() {
+    // Arrange
+    Game game =
+        new Game(
+            gameLogic.loadPlayer("Alice"),
+            gameLogic.loadPlayer("Bob"),
+            "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2",
+            "enPassant");
+
+    // Act
+    List<Position> possibleMoves = gameLogic.getPossibleMoves("e5", game);
+    List<Position> captureMoves = gameLogic.getCaptureMoves("e5", possibleMoves, game);
+    gameLogic.moveTo("e5", "d6", game);
+
+    // Assert
+    assertThat(captureMoves).isEqualTo(List.of(new Position(5, 3)));
+    assertThat(game.convertBoardToFEN()).isEqualTo("4k3/8/3P4/8/8/8/8/4K3 b - - 0 2");
+  }
+
+  @Test
+  void testPerft() {
+    PerftResult initial = gameLogic.perft(null, 2, false);
+    PerftResult parallel = gameLogic.perft(null, 2, true);
+    PerftResult fromFEN =
+        gameLogic.perft("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", 1, false);
+
+    assertThat(initial.nodes()).isEqualTo(400);
+    assertThat(parallel.nodes()).isEqualTo(400);
+    assertThat(fromFEN.nodes()).isEqualTo(20);
+  }
+
+  @Test
+  void testHint() {
+    Game game =
+        new Game(new Player("Alice"), new Player("Bob"), "6k1/5ppp/8/8/8/8/8/R5K1 w 0", "123");
+    String fenBefore = gameLogic.getFENNotation(game);
+
+    SearchResult result = gameLogic.hint(game, 3, 0);
+
+    assertThat(Move.toString(result.bestMove())).isEqualTo("a1a8");
+    assertThat(result.mateIn()).isEqualTo(1);
+    assertThat(gameLogic.getFENNotation(game)).isEqualTo(fenBefore);
+  }
+
+  @Test
+  void testSolveMate() {
+    MateResult result = gameLogic.solveMate("k7/8/1K6/8/8/8/8/2R5 w 0", 2);
+
+    assertThat(result.found()).isTrue();
+    assertThat(result.moves()).isEqualTo(1);
+    assertThat(result.line()).isEqualTo(List.of("c1c8"));
+  }
+
+  @Test
+  void testMonteCarloHint() {
+    Game game =
+        new Game(new Player("Alice"), new Player("Bob"), "6k1/5ppp/8/8/8/8/8/R5K1 w 0", "123");
+
+    SearchResult result = gameLogic.monteCarloHint(game, 2_000, 0);
+
+    assertThat(Move.toString(result.bestMove())).isEqualTo("a1a8");
+  }
+
+  @Test
+  void testEvaluate() {
+    Game game =
+        new Game(new Player("Alice"), new Player("Bob"), "4k3/8/8/8/8/8/P7/R3K3 b 0", "123");
+
+    EvaluationBreakdown breakdown = gameLogic.evaluate(game);
+
+    assertThat(breakdown.material()).isEqualTo(600);
+    assertThat(breakdown.total()).isPositive();
+  }
+
+  @Test
+  void testBookMoves(@TempDir Path directory) throws IOException {
+    StringBuilder table = new StringBuilder();
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < PolyglotKeys.KEY_COUNT; i++) {
+      table.append(String.format("0x%016x%n", random.nextLong()));
+    }
+    Path keysFile = Files.writeString(directory.resolve("keys.txt"), table);
+    Game game = new Game(new Player("Alice"), new Player("Bob"), "123");
+    long key = PolyglotKeys.load(keysFile).key(game.getBoard());
+    int e2e4 = 12 << 6 | 28;
+    byte[] entry =
+        ByteBuffer.allocate(16).putLong(key).putShort((short) e2e4).putShort((short) 7).array();
+    Path bookFile = Files.write(directory.resolve("book.bin"), entry);
+
+    List<BookMove> moves = gameLogic.bookMoves(game, bookFile, keysFile);
+
+    assertThat(moves.size()).isEqualTo(1);
+    assertThat(Move.toString(moves.getFirst().move())).isEqualTo("e2e4");
+    assertThat(moves.getFirst().weight()).isEqualTo(7);
+    Path missing = directory.resolve("missing.bin");
+    assertThrows(OpeningBookException.class, () -> gameLogic.bookMoves(game, missing, keysFile));
+  }
+
+  @Test
+  void testBookMovesWithTheStandardKeys(@TempDir Path directory) throws IOException {
+    Game game = new Game(new Player("Alice"), new Player("Bob"), "123");
+    int d2d4 = 11 << 6 | 27;
+    byte[] entry =
+        ByteBuffer.allocate(16)
+            .putLong(0x463b96181691fc9cL)
+            .putShort((short) d2d4)
+            .putShort((short) 3)
+            .array();
+    Path bookFile = Files.write(directory.resolve("book.bin"), entry);
+
+    List<BookMove> moves = gameLogic.bookMoves(game, bookFile);
+
+    assertThat(moves.size()).isEqualTo(1);
+    assertThat(Move.toString(moves.getFirst().move())).isEqualTo("d2d4");
+    assertThat(moves.getFirst().weight()).isEqualTo(3);
+  }
+
+  @Test
+  void testTablebases(@TempDir Path directory) {
+    List<Tablebase> generated =
+        gameLogic.generateTablebases(List.of(EndgameMaterial.KPK), directory);
+    List<Tablebase> regenerated =
+        gameLogic.generateTablebases(List.of(EndgameMaterial.KPK), directory);
+
+    assertThat(generated.stream().map(Tablebase::getMaterial).toList())
+        .isEqualTo(List.of(EndgameMaterial.KQK, EndgameMaterial.KRK, EndgameMaterial.KPK));
+    assertThat(regenerated.size()).isEqualTo(1);
+    assertTrue(Files.exists(directory.resolve("KRK.cgtb")));
+    assertThat(gameLogic.probeTablebase("8/P7/8/8/8/8/8/K6k w - - 0 1", directory))
+        .isEqualTo(new TablebaseResult(TablebaseResult.Outcome.WIN, 17));
+    assertThat(gameLogic.probeTablebase("k7/8/1K6/8/8/8/8/7R b - - 0 1", directory))
+        .isEqualTo(new TablebaseResult(TablebaseResult.Outcome.LOSS, 2));
+    assertThrows(
+        TablebaseException.class,
+        () -> gameLogic.probeTablebase("k7/8/1K6/8/8/8/8/6RR w - - 0 1", directory));
+    assertThrows(
+        TablebaseException.class,
+        () -> gameLogic.probeTablebase("k7/8/1K6/8/8/8/8/5NB1 w - - 0 1", directory));
+  }
+
+  @Test
+  void testAnalyzeBatch(@TempDir Path directory) throws IOException {
+    Path input = directory.resolve("suite.epd");
+    Path output = directory.resolve("suite.jsonl");
+    Files.writeString(
+        input, "6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8#;\n4k3/8/8/8/8/8/8/4K3 w - - 0 1\n");
+
+    BatchSummary summary = gameLogic.analyzeBatch(input, output, BatchFormat.JSONL, 2, 3, 0);
+
+    assertThat(summary.positions()).isEqualTo(2);
+    assertThat(summary.solved()).isEqualTo(1);
+    assertThat(Files.readAllLines(output).size()).isEqualTo(2);
+    Path missing = directory.resolve("missing.epd");
+    assertThrows(
+        BatchAnalysisException.class,
+        () -> gameLogic.analyzeBatch(missing, output, BatchFormat.CSV, 1, 3, 0));
+  }
 }
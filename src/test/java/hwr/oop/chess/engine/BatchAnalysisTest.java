@@ -0,0 +1,203 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BatchAnalysisTest {
+  private static final String SUITE =
+      """
+      # mate in one
+      6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8#; id "mate";
+
+      6k1/5ppp/8/8/8/8/8/R5K1 w - - am Ra8; id "avoid";
+      not a position
+      8/8/8/8/8/8/8/8 w - - 0 1
+      4k3/8/8/8/8/8/8/4K3 w - - 0 1
+      """;
+
+  private final ForkJoinPool pool = new ForkJoinPool(2);
+
+  @AfterEach
+  void shutDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void writesOneCsvRowPerPositionInInputOrder() {
+    StringWriter output = new StringWriter();
+
+    BatchSummary summary = run(SUITE, output, BatchFormat.CSV);
+
+    String[] rows = output.toString().split("\n");
+    assertThat(rows).hasSize(6);
+    assertThat(rows[0])
+        .isEqualTo("line,id,fen,best_move,san,score,depth,nodes,time_ms,result,error");
+    assertThat(rows[1])
+        .startsWith("2,mate,6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1,a1a8,Ra8#,mate 1,1,")
+        .endsWith(",solved,");
+    assertThat(rows[2]).startsWith("4,avoid,").endsWith(",failed,");
+    assertThat(rows[3]).startsWith("5,,not a position,").contains(",error,");
+    assertThat(rows[4]).startsWith("6,,").endsWith(",error,Each side needs exactly one king");
+    assertThat(rows[5])
+        .startsWith("7,,4k3/8/8/8/8/8/8/4K3 w - - 0 1,")
+        .contains(",cp ")
+        .endsWith(",,");
+
+    assertThat(summary.positions()).isEqualTo(5);
+    assertThat(summary.errors()).isEqualTo(2);
+    assertThat(summary.tests()).isEqualTo(2);
+    assertThat(summary.solved()).isEqualTo(1);
+    assertThat(summary.nodes()).isPositive();
+  }
+
+  @Test
+  void writesJsonLinesWithoutEmptyValues() {
+    StringWriter output = new StringWriter();
+
+    run("6k1/5ppp/8/8/8/8/8/R5K1 w - - bm a1a8; id \"C:\\x\";\nx", output, BatchFormat.JSONL);
+
+    String[] lines = output.toString().split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0])
+        .startsWith("{\"line\":1,\"id\":\"C:\\\\x\",\"fen\":")
+        .contains("\"best_move\":\"a1a8\",\"san\":\"Ra8#\",\"score\":\"mate 1\",\"depth\":1,")
+        .endsWith("\"result\":\"solved\"}");
+    assertThat(lines[1]).startsWith("{\"line\":2,\"fen\":\"x\",\"result\":\"error\",\"error\":");
+  }
+
+  @Test
+  void reportsPositionsThatCannotOccurAsErrors() {
+    StringWriter output = new StringWriter();
+    String input =
+        """
+        4k3/4Q3/8/8/8/8/8/4K3 w - -
+        4k2P/8/8/8/8/8/8/4K3 w - -
+        not a fen at all
+        """;
+
+    BatchSummary summary = run(input, output, BatchFormat.CSV);
+
+    String[] rows = output.toString().split("\n");
+    assertThat(rows[1])
+        .isEqualTo("1,,4k3/4Q3/8/8/8/8/8/4K3 w - -,,,,,,,error,The side not to move is in check");
+    assertThat(rows[2])
+        .startsWith("2,,4k2P/8/8/8/8/8/8/4K3 w - -,")
+        .endsWith(",error,Pawns cannot stand on the first or eighth rank");
+    assertThat(rows[3]).startsWith("3,,not a fen at all,").contains(",error,");
+    assertThat(summary.errors()).isEqualTo(3);
+    assertThat(summary.nodes()).isZero();
+  }
+
+  @Test
+  void quotesCsvFieldsWithCommas() {
+    StringWriter output = new StringWriter();
+
+    run("4k3/8/8/8/8/8/8/4K3 w - - id \"a, \"\"b\"\"\";", output, BatchFormat.CSV);
+
+    assertThat(output.toString().split("\n")[1]).startsWith("1,\"a, b\",");
+  }
+
+  @Test
+  void reportsPositionsWithoutMoves() {
+    StringWriter output = new StringWriter();
+
+    BatchSummary summary = run("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", output, BatchFormat.CSV);
+
+    assertThat(output.toString().split("\n")[1]).startsWith("1,,7k/5Q2/6K1/8/8/8/8/8 b - - 0 1,,,");
+    assertThat(summary.errors()).isZero();
+  }
+
+  @Test
+  void aSlowLineDoesNotHoldUpTheOtherThreads() {
+    String slow = "4k3/8/8/8/8/8/8/4K3 w - - id \"slow\";";
+    String fast = "4k3/8/8/8/8/8/8/4K3 w - - 0 1";
+    // more lines than the two threads may have in flight
+    int fastLines = 20;
+    StringBuilder input = new StringBuilder(slow).append('\n');
+    input.append((fast + '\n').repeat(fastLines));
+    CountDownLatch othersStarted = new CountDownLatch(fastLines);
+    AtomicBoolean othersRanAlongside = new AtomicBoolean();
+    StringWriter output = new StringWriter();
+
+    BatchSummary summary =
+        BatchAnalysis.run(
+            new BufferedReader(new StringReader(input.toString())),
+            output,
+            BatchFormat.CSV,
+            3,
+            0,
+            pool,
+            text -> {
+              if (text.equals(slow)) {
+                awaitQuietly(othersStarted, othersRanAlongside);
+              } else {
+                othersStarted.countDown();
+              }
+            });
+
+    assertThat(othersRanAlongside).isTrue();
+    assertThat(summary.positions()).isEqualTo(fastLines + 1);
+    String[] rows = output.toString().split("\n");
+    assertThat(rows).hasSize(fastLines + 2);
+    assertThat(rows[1]).startsWith("1,slow,");
+    for (int i = 2; i < rows.length; i++) {
+      assertThat(rows[i]).startsWith(i + ",,");
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch, AtomicBoolean reached) {
+    try {
+      reached.set(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void failsIfTheOutputCannotBeWritten() {
+    Writer broken =
+        new Writer() {
+          @Override
+          public void write(char[] buffer, int offset, int length) throws IOException {
+            throw new IOException("disk full");
+          }
+
+          @Override
+          public void flush() {}
+
+          @Override
+          public void close() {}
+        };
+
+    assertThatThrownBy(() -> run(SUITE, broken, BatchFormat.CSV))
+        .isInstanceOf(BatchAnalysisException.class)
+        .hasMessage("Batch analysis failed: disk full");
+  }
+
+  @Test
+  void reportsNodesPerSecond() {
+    assertThat(new BatchSummary(1, 0, 0, 0, 500, 1_000_000_000L).nodesPerSecond())
+        .isEqualTo(500);
+    assertThat(new BatchSummary(0, 0, 0, 0, 0, 0).nodesPerSecond()).isZero();
+    // a nightly run of 20 billion nodes in an hour
+    BatchSummary nightly = new BatchSummary(300_000, 0, 0, 0, 20_000_000_000L, 3_600_000_000_000L);
+    assertThat(nightly.nodesPerSecond()).isEqualTo(5_555_555L);
+  }
+
+  private BatchSummary run(String input, Writer output, BatchFormat format) {
+    return BatchAnalysis.run(
+        new BufferedReader(new StringReader(input)), output, format, 3, 0, pool);
+  }
+}
@@ -0,0 +1,54 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.pieces.PieceType;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class EndgameMaterialTest {
+
+  @ParameterizedTest
+  @CsvSource({
+    "k7/8/1K6/8/8/8/8/7R w - - 0 1, KRK, WHITE",
+    "k7/8/1K6/8/8/8/8/7q w - - 0 1, KQK, BLACK",
+    "k7/8/1K6/8/8/8/p7/8 b - - 0 1, KPK, BLACK",
+    "k7/8/1K6/8/8/8/8/5NB1 w - - 0 1, KBNK, WHITE"
+  })
+  void findsTheEndgameAndTheStrongerSide(String fen, EndgameMaterial material, Color strong) {
+    ChessBoard board = Game.boardFromFEN(fen);
+
+    assertThat(EndgameMaterial.of(board)).contains(material);
+    assertThat(EndgameMaterial.strongerSide(board)).isEqualTo(strong);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+        "k7/8/1K6/8/8/8/8/8 w - - 0 1",
+        "k7/8/1K6/8/8/8/8/r6R w - - 0 1",
+        "k7/8/1K6/8/8/8/8/6RR w - - 0 1",
+        "k7/8/1K6/8/8/8/8/6BB w - - 0 1"
+      })
+  void hasNoTableForOtherMaterial(String fen) {
+    assertThat(EndgameMaterial.of(Game.boardFromFEN(fen))).isEqualTo(Optional.empty());
+  }
+
+  @Test
+  void pawnTablesNeedTheQueenAndRookTables() {
+    assertThat(EndgameMaterial.KPK.hasPawns()).isTrue();
+    assertThat(EndgameMaterial.KPK.promotionTables())
+        .containsExactly(EndgameMaterial.KQK, EndgameMaterial.KRK);
+    assertThat(EndgameMaterial.KBNK.hasPawns()).isFalse();
+    assertThat(EndgameMaterial.KBNK.promotionTables()).isEmpty();
+    assertThat(EndgameMaterial.KBNK.getPieces())
+        .containsExactly(PieceType.BISHOP, PieceType.KNIGHT);
+  }
+}
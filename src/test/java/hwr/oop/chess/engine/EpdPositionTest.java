@@ -0,0 +1,45 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class EpdPositionTest {
+
+  @Test
+  void parsesTheOpcodesOfAnEpdLine() {
+    EpdPosition position =
+        EpdPosition.parse(
+            "1k1r4/pp1b1R2/3q2pp/4p3/2B5/4Q3/PPP2B2/2K5 b - - bm Qd1+; id \"BK.01\"; c0 \"x; y\";");
+
+    assertThat(position.fen()).isEqualTo("1k1r4/pp1b1R2/3q2pp/4p3/2B5/4Q3/PPP2B2/2K5 b - - 0 1");
+    assertThat(position.id()).isEqualTo("BK.01");
+    assertThat(position.bestMoves()).containsExactly("Qd1+");
+    assertThat(position.avoidMoves()).isEmpty();
+    assertThat(position.isTest()).isTrue();
+  }
+
+  @Test
+  void readsSeveralBestAndAvoidMoves() {
+    EpdPosition position = EpdPosition.parse("4k3/8/8/8/8/8/8/4K2R w - - bm Rh8+ Kf2; am Kd1;");
+
+    assertThat(position.bestMoves()).containsExactly("Rh8+", "Kf2");
+    assertThat(position.avoidMoves()).containsExactly("Kd1");
+  }
+
+  @Test
+  void keepsTheMoveCountersOfAFen() {
+    EpdPosition position = EpdPosition.parse("  4k3/8/8/8/8/8/8/4K3 b - - 12 40  ");
+
+    assertThat(position.fen()).isEqualTo("4k3/8/8/8/8/8/8/4K3 b - - 12 40");
+    assertThat(position.id()).isEmpty();
+    assertThat(position.isTest()).isFalse();
+  }
+
+  @Test
+  void completesShortPositions() {
+    assertThat(EpdPosition.parse("4k3/8/8/8/8/8/8/4K3 w").fen())
+        .isEqualTo("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+    assertThat(EpdPosition.parse("nonsense").fen()).isEqualTo("nonsense");
+  }
+}
@@ -0,0 +1,98 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.pieces.PieceType;
+import org.junit.jupiter.api.Test;
+
+class EvaluationTest {
+
+  @Test
+  void initialPositionIsBalanced() {
+    assertThat(Evaluation.evaluate(new ChessBoard())).isZero();
+  }
+
+  @Test
+  void scoreIsFromTheSideToMove() {
+    int white = Evaluation.evaluate(Game.boardFromFEN("4k3/8/8/8/8/8/8/3QK3 w - - 0 1"));
+    int black = Evaluation.evaluate(Game.boardFromFEN("4k3/8/8/8/8/8/8/3QK3 b - - 0 1"));
+
+    assertThat(white).isGreaterThan(Evaluation.pieceValue(PieceType.QUEEN) - 100);
+    assertThat(black).isEqualTo(-white);
+  }
+
+  @Test
+  void mirroredPositionsScoreTheSame() {
+    int white = Evaluation.evaluate(Game.boardFromFEN("4k3/8/8/8/4P3/2N5/8/4K3 w - - 0 1"));
+    int black = Evaluation.evaluate(Game.boardFromFEN("4k3/8/2n5/4p3/8/8/8/4K3 b - - 0 1"));
+
+    assertThat(black).isEqualTo(white);
+  }
+
+  @Test
+  void initialPositionBreakdownIsBalanced() {
+    EvaluationBreakdown breakdown = Evaluation.breakdown(new ChessBoard());
+
+    assertThat(breakdown).isEqualTo(new EvaluationBreakdown(0, 0, 0, 0, 0));
+  }
+
+  @Test
+  void breakdownAddsUpToTheEvaluation() {
+    ChessBoard board =
+        Game.boardFromFEN("r1bqk2r/pp3ppp/2n5/3p4/1b1P4/2N2N2/PP3PPP/R2QKB1R b KQkq - 0 1");
+    EvaluationBreakdown breakdown = Evaluation.breakdown(board);
+
+    assertThat(breakdown.total())
+        .isEqualTo(
+            breakdown.material()
+                + breakdown.pieceSquare()
+                + breakdown.mobility()
+                + breakdown.kingSafety()
+                + breakdown.pawnStructure());
+    assertThat(Evaluation.evaluate(board)).isEqualTo(-breakdown.total());
+  }
+
+  @Test
+  void doubledAndIsolatedPawnsArePenalised() {
+    EvaluationBreakdown healthy =
+        Evaluation.breakdown(Game.boardFromFEN("4k3/ppp5/8/8/8/8/PPP5/4K3 w - - 0 1"));
+    EvaluationBreakdown weak =
+        Evaluation.breakdown(Game.boardFromFEN("4k3/ppp5/8/8/8/P7/P1P5/4K3 w - - 0 1"));
+
+    assertThat(healthy.pawnStructure()).isZero();
+    assertThat(weak.pawnStructure()).isLessThan(healthy.pawnStructure());
+  }
+
+  @Test
+  void advancedPassedPawnsScoreMore() {
+    int blocked =
+        Evaluation.breakdown(Game.boardFromFEN("4k3/4p3/8/8/8/8/4P3/4K3 w - - 0 1"))
+            .pawnStructure();
+    int passed =
+        Evaluation.breakdown(Game.boardFromFEN("4k3/p7/4P3/8/8/8/8/4K3 w - - 0 1"))
+            .pawnStructure();
+
+    assertThat(blocked).isZero();
+    assertThat(passed).isPositive();
+  }
+
+  @Test
+  void developedPiecesAreMoreMobile() {
+    EvaluationBreakdown breakdown =
+        Evaluation.breakdown(
+            Game.boardFromFEN("rnbqkbnr/pppppppp/8/8/8/2N2N2/PPPPPPPP/R1BQKB1R w KQkq - 0 1"));
+
+    assertThat(breakdown.mobility()).isPositive();
+  }
+
+  @Test
+  void exposedKingIsPenalised() {
+    EvaluationBreakdown breakdown =
+        Evaluation.breakdown(
+            Game.boardFromFEN("rnbq1rk1/ppppbppp/8/8/8/8/PPPPP3/RNBQKBNR w KQ - 0 1"));
+
+    assertThat(breakdown.kingSafety()).isNegative();
+  }
+}
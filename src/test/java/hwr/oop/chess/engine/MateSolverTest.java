@@ -0,0 +1,78 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class MateSolverTest {
+  private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+  @Test
+  void findsMateInOne() {
+    MateResult result =
+        MateSolver.solve(Game.boardFromFEN("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), 3, POOL);
+
+    assertThat(result.found()).isTrue();
+    assertThat(result.moves()).isEqualTo(1);
+    assertThat(result.line()).containsExactly("a1a8");
+  }
+
+  @Test
+  void findsMateInTwoWithTheLongestDefence() {
+    ChessBoard board =
+        Game.boardFromFEN("r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w - - 1 1");
+
+    MateResult result = MateSolver.solve(board, 2, POOL);
+
+    assertThat(result.found()).isTrue();
+    assertThat(result.moves()).isEqualTo(2);
+    assertThat(result.line()).containsExactly("d5f6", "g7f6", "c4f7");
+    assertThat(result.nodes()).isPositive();
+  }
+
+  @Test
+  void findsMateInThreeSplitAcrossTasks() {
+    MateResult result =
+        MateSolver.solve(Game.boardFromFEN("1k6/8/3K4/8/8/8/8/7R w - - 0 1"), 3, POOL);
+
+    assertThat(result.found()).isTrue();
+    assertThat(result.moves()).isEqualTo(3);
+    assertThat(result.line()).hasSize(5);
+  }
+
+  @Test
+  void refutesMateThatDoesNotExist() {
+    ChessBoard board = new ChessBoard();
+
+    MateResult result = MateSolver.solve(board, 2, POOL);
+
+    assertThat(result.found()).isFalse();
+    assertThat(result.moves()).isEqualTo(2);
+    assertThat(result.line()).isEmpty();
+    assertThat(board).isEqualTo(new ChessBoard());
+  }
+
+  @Test
+  void sameResultOnASingleThread() {
+    ChessBoard board = Game.boardFromFEN("k7/8/1K6/8/8/8/8/2R5 w - - 0 1");
+
+    MateResult parallel = MateSolver.solve(board, 2, POOL);
+    MateResult sequential = MateSolver.solve(board, 2, new ForkJoinPool(1));
+
+    assertThat(parallel.found()).isTrue();
+    assertThat(sequential.found()).isTrue();
+    assertThat(sequential.moves()).isEqualTo(parallel.moves());
+  }
+
+  @Test
+  void mateDistanceMustBePositive() {
+    ChessBoard board = new ChessBoard();
+
+    assertThatThrownBy(() -> MateSolver.solve(board, 0, POOL))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
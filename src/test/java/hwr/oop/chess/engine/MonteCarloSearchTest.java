@@ -0,0 +1,66 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.game.Game;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class MonteCarloSearchTest {
+  private static final ForkJoinPool SINGLE_THREAD = new ForkJoinPool(1);
+
+  @Test
+  void findsMateInOne() {
+    ChessBoard board = Game.boardFromFEN("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+
+    SearchResult result = MonteCarloSearch.search(board, 3_000, 0, SINGLE_THREAD);
+
+    assertThat(Move.toString(result.bestMove())).isEqualTo("a1a8");
+    assertThat(result.score()).isPositive();
+    assertThat(result.principalVariation()).startsWith("a1a8");
+    assertThat(result.nodes()).isEqualTo(3_000);
+  }
+
+  @Test
+  void capturesHangingQueenWithSeveralWorkers() {
+    ChessBoard board = Game.boardFromFEN("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+
+    SearchResult result = MonteCarloSearch.search(board, 4_000, 0, new ForkJoinPool(4));
+
+    assertThat(Move.toString(result.bestMove())).isEqualTo("d1d5");
+    assertThat(result.nodes()).isEqualTo(4_000);
+    assertThat(board).isEqualTo(Game.boardFromFEN("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1"));
+  }
+
+  @Test
+  void stopsWhenTheTimeIsUp() {
+    long start = System.nanoTime();
+
+    SearchResult result = MonteCarloSearch.search(new ChessBoard(), 0, 50, SINGLE_THREAD);
+
+    assertThat(System.nanoTime() - start).isLessThan(2_000_000_000L);
+    assertThat(result.hasBestMove()).isTrue();
+    assertThat(result.depth()).isEqualTo(result.principalVariation().size());
+  }
+
+  @Test
+  void reportsPositionWithoutLegalMoves() {
+    ChessBoard board = Game.boardFromFEN("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+
+    SearchResult result = MonteCarloSearch.search(board, 100, 0, SINGLE_THREAD);
+
+    assertThat(result.hasBestMove()).isFalse();
+    assertThat(result.score()).isEqualTo(-Search.MATE_SCORE);
+  }
+
+  @Test
+  void needsABudget() {
+    ChessBoard board = new ChessBoard();
+
+    assertThatThrownBy(() -> MonteCarloSearch.search(board, 0, 0, SINGLE_THREAD))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
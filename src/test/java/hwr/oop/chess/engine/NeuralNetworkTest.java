@@ -0,0 +1,258 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.board.MoveList;
+import hwr.oop.chess.game.FENException;
+import hwr.oop.chess.game.Game;
+import hwr.oop.chess.pieces.PieceType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NeuralNetworkTest {
+  private static final int HIDDEN_SIZE = 37;
+  private static final String MIDDLEGAME =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+  @TempDir Path directory;
+  private Path networkFile;
+
+  @BeforeEach
+  void writeNetwork() throws IOException {
+    networkFile = directory.resolve("test.nnue");
+    Files.write(networkFile, randomNetwork(HIDDEN_SIZE, 1).array());
+  }
+
+  /** A network with random weights, just to check that the arithmetic is consistent. */
+  private static ByteBuffer randomNetwork(int hiddenSize, long seed) {
+    Random random = new Random(seed);
+    int weights = (NeuralNetwork.INPUTS + 3) * hiddenSize;
+    ByteBuffer buffer =
+        ByteBuffer.allocate(4 * Integer.BYTES + weights * Short.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(NeuralNetwork.MAGIC).putInt(NeuralNetwork.VERSION).putInt(hiddenSize);
+    for (int i = 0; i < weights; i++) {
+      buffer.putShort((short) (random.nextInt(129) - 64));
+    }
+    buffer.putInt(random.nextInt(2001) - 1000);
+    return buffer;
+  }
+
+  @Test
+  void loadsTheNetworkFile() {
+    NeuralNetwork network = NeuralNetwork.load(networkFile);
+
+    assertThat(network.getHiddenSize()).isEqualTo(HIDDEN_SIZE);
+    assertThat(network.usesVectorApi()).isEqualTo(NetworkKernels.vectorApiAvailable());
+  }
+
+  @Test
+  void readsWeightsSpanningSeveralReadBuffers() throws IOException {
+    int hiddenSize = 64;
+    ByteBuffer file = randomNetwork(hiddenSize, 5);
+    Path large = Files.write(directory.resolve("large.nnue"), file.array());
+    NeuralNetwork network = NeuralNetwork.load(large, new ScalarKernels());
+
+    ChessBoard kings = Game.boardFromFEN("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+
+    assertThat(network.evaluate(kings)).isEqualTo(kingsOnlyScore(file, hiddenSize));
+  }
+
+  /** The network output for white to move with kings on e1 and e8, straight from the file. */
+  private static int kingsOnlyScore(ByteBuffer file, int hiddenSize) {
+    int weights = 3 * Integer.BYTES;
+    int biases = weights + NeuralNetwork.INPUTS * hiddenSize * Short.BYTES;
+    int outputs = biases + hiddenSize * Short.BYTES;
+    // both perspectives see their own king on e1 and the other king on e8
+    int ownKing = (5 * 64 + 4) * hiddenSize;
+    int otherKing = (11 * 64 + 60) * hiddenSize;
+    long sum = file.getInt(outputs + 2 * hiddenSize * Short.BYTES);
+    for (int i = 0; i < hiddenSize; i++) {
+      int hidden =
+          file.getShort(biases + i * Short.BYTES)
+              + file.getShort(weights + (ownKing + i) * Short.BYTES)
+              + file.getShort(weights + (otherKing + i) * Short.BYTES);
+      int clipped = Math.clamp(hidden, 0, 255);
+      sum += (long) clipped * file.getShort(outputs + i * Short.BYTES);
+      sum += (long) clipped * file.getShort(outputs + (hiddenSize + i) * Short.BYTES);
+    }
+    return (int) (sum * 400 / (255 * 64));
+  }
+
+  @Test
+  void scoreIsFromTheSideToMove() {
+    NeuralNetwork network = NeuralNetwork.load(networkFile);
+    ChessBoard white = Game.boardFromFEN("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+    ChessBoard black = Game.boardFromFEN("3qk3/8/8/8/8/8/8/4K3 b - - 0 1");
+
+    assertThat(network.evaluate(black)).isEqualTo(network.evaluate(white));
+  }
+
+  @Test
+  void preferredAndScalarKernelsAgree() {
+    NeuralNetwork preferred = NeuralNetwork.load(networkFile, NetworkKernels.preferred());
+    NeuralNetwork scalar = NeuralNetwork.load(networkFile, new ScalarKernels());
+
+    for (String fen : positions()) {
+      ChessBoard board = Game.boardFromFEN(fen);
+      assertThat(preferred.evaluate(board)).isEqualTo(scalar.evaluate(board));
+    }
+  }
+
+  @Test
+  void clippedDotProductDoesNotOverflow() {
+    int[] accumulator = new int[4096];
+    int[] weights = new int[4096];
+    Arrays.fill(accumulator, 1000);
+    Arrays.fill(weights, Short.MAX_VALUE);
+    long expected = 4096L * 255 * Short.MAX_VALUE;
+
+    assertThat(NetworkKernels.preferred().clippedDot(accumulator, weights, 0, 255)).isEqualTo(expected);
+    assertThat(new ScalarKernels().clippedDot(accumulator, weights, 0, 255)).isEqualTo(expected);
+  }
+
+  @Test
+  void accumulatorFollowsMovesIncrementally() {
+    NeuralNetwork network = NeuralNetwork.load(networkFile);
+    ChessBoard board = Game.boardFromFEN(MIDDLEGAME);
+    NeuralAccumulator accumulator = network.attach(board);
+    Random random = new Random(3);
+    MoveList moves = new MoveList();
+    for (int ply = 0; ply < 100; ply++) {
+      moves.clear();
+      board.generateLegalMoves(moves);
+      if (moves.isEmpty()) {
+        break;
+      }
+      board.makeMove(moves.get(random.nextInt(moves.size())));
+      assertThat(accumulator.evaluate()).isEqualTo(network.evaluate(board));
+    }
+    while (board.getMoveCount() > 0) {
+      board.unmakeMove();
+    }
+    assertThat(accumulator.evaluate())
+        .isEqualTo(network.evaluate(Game.boardFromFEN(MIDDLEGAME)));
+  }
+
+  @Test
+  void detachedAccumulatorNoLongerFollowsTheBoard() {
+    NeuralNetwork network = NeuralNetwork.load(networkFile);
+    ChessBoard board = new ChessBoard();
+    NeuralAccumulator accumulator = network.attach(board);
+    int before = accumulator.evaluate();
+
+    accumulator.detach();
+    board.clearChessboard();
+
+    assertThat(accumulator.evaluate()).isEqualTo(before);
+    accumulator.refresh();
+    assertThat(accumulator.evaluate()).isEqualTo(network.evaluate(board));
+  }
+
+  @Test
+  void savedBoardLeavesTheAccumulatorBehind() throws Exception {
+    NeuralNetwork network = NeuralNetwork.load(networkFile);
+    ChessBoard board = Game.boardFromFEN(MIDDLEGAME);
+    network.attach(board);
+    ByteArrayOutputStream saved = new ByteArrayOutputStream();
+
+    try (ObjectOutputStream output = new ObjectOutputStream(saved)) {
+      output.writeObject(board);
+    }
+    ChessBoard loaded;
+    try (ObjectInputStream input =
+        new ObjectInputStream(new ByteArrayInputStream(saved.toByteArray()))) {
+      loaded = (ChessBoard) input.readObject();
+    }
+    NeuralAccumulator accumulator = network.attach(loaded);
+    loaded.makeMove(Move.of(Bitboard.square(4, 4), Bitboard.square(6, 5)));
+
+    assertThat(accumulator.evaluate()).isEqualTo(network.evaluate(loaded));
+  }
+
+  @Test
+  void batchMatchesSingleEvaluations() {
+    NeuralNetwork network = NeuralNetwork.load(networkFile);
+    List<String> fens = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      fens.addAll(positions());
+    }
+
+    int[] scores = network.evaluateAll(fens, new ForkJoinPool(2));
+
+    assertThat(scores).hasSize(fens.size());
+    for (int i = 0; i < fens.size(); i++) {
+      assertThat(scores[i]).isEqualTo(network.evaluate(Game.boardFromFEN(fens.get(i))));
+    }
+  }
+
+  @Test
+  void batchRejectsInvalidFen() {
+    NeuralNetwork network = NeuralNetwork.load(networkFile);
+    List<String> fens = List.of(MIDDLEGAME, "not a fen");
+
+    assertThatThrownBy(() -> network.evaluateAll(fens, ForkJoinPool.commonPool()))
+        .isInstanceOf(FENException.class);
+  }
+
+  @Test
+  void inputsAreMirroredForBlack() {
+    assertThat(NeuralNetwork.input(Color.WHITE, PieceType.PAWN, Color.WHITE, 8)).isEqualTo(8);
+    assertThat(NeuralNetwork.input(Color.BLACK, PieceType.PAWN, Color.BLACK, 48)).isEqualTo(8);
+    assertThat(NeuralNetwork.input(Color.WHITE, PieceType.KING, Color.BLACK, 60))
+        .isEqualTo(11 * 64 + 60);
+    assertThat(NeuralNetwork.input(Color.BLACK, PieceType.KING, Color.WHITE, 4))
+        .isEqualTo(11 * 64 + 60);
+  }
+
+  @Test
+  void rejectsBrokenFiles() throws IOException {
+    Path missing = directory.resolve("missing.nnue");
+    Path empty = Files.write(directory.resolve("empty.nnue"), new byte[0]);
+    Path wrongMagic = Files.write(directory.resolve("magic.nnue"), new byte[64]);
+    byte[] network = Files.readAllBytes(networkFile);
+    Path truncated =
+        Files.write(directory.resolve("short.nnue"), Arrays.copyOf(network, 100));
+
+    assertThatThrownBy(() -> NeuralNetwork.load(missing))
+        .isInstanceOf(NetworkFileException.class)
+        .hasMessageContaining("Could not read network file");
+    assertThatThrownBy(() -> NeuralNetwork.load(empty))
+        .isInstanceOf(NetworkFileException.class)
+        .hasMessageContaining("too short");
+    assertThatThrownBy(() -> NeuralNetwork.load(wrongMagic))
+        .isInstanceOf(NetworkFileException.class)
+        .hasMessageContaining("Not a version 1 network file");
+    assertThatThrownBy(() -> NeuralNetwork.load(truncated))
+        .isInstanceOf(NetworkFileException.class)
+        .hasMessageContaining("should have");
+  }
+
+  private static List<String> positions() {
+    return List.of(
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        MIDDLEGAME,
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "4k3/8/8/8/8/8/8/4K3 b - - 0 1");
+  }
+}
@@ -0,0 +1,125 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.board.Bitboard;
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.game.Game;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OpeningBookTest {
+  private static final String PROMOTION_FEN = "8/P6k/8/8/8/8/8/K7 w - - 0 1";
+
+  @TempDir Path directory;
+  private final PolyglotKeys keys = new PolyglotKeys(PolyglotKeysTest.randomTable(7));
+  private OpeningBook book;
+
+  private record Entry(long key, int move, int weight) {}
+
+  @BeforeEach
+  void writeBook() throws IOException {
+    long start = keys.key(new ChessBoard());
+    List<Entry> entries = new ArrayList<>();
+    entries.add(new Entry(start, polyglotMove("d2", "d4", 0), 20));
+    entries.add(new Entry(start, polyglotMove("e2", "e4", 0), 30));
+    entries.add(new Entry(start, polyglotMove("g1", "f3", 0), 10));
+    entries.add(new Entry(start, polyglotMove("c2", "c4", 0), 0));
+    entries.add(new Entry(start, polyglotMove("e2", "e5", 0), 50));
+    long promotion = keys.key(Game.boardFromFEN(PROMOTION_FEN));
+    entries.add(new Entry(promotion, polyglotMove("a7", "a8", 4), 1));
+    SplittableRandom random = new SplittableRandom(11);
+    for (int i = 0; i < 5000; i++) {
+      entries.add(new Entry(random.nextLong(), random.nextInt(1 << 12), 1 + random.nextInt(100)));
+    }
+    entries.sort((a, b) -> Long.compareUnsigned(a.key(), b.key()));
+    ByteBuffer buffer = ByteBuffer.allocate(16 * entries.size());
+    for (Entry entry : entries) {
+      buffer.putLong(entry.key()).putShort((short) entry.move()).putShort((short) entry.weight());
+      buffer.putInt(0);
+    }
+    Path file = Files.write(directory.resolve("book.bin"), buffer.array());
+    book = OpeningBook.open(file, keys);
+  }
+
+  private static int polyglotMove(String from, String to, int promotion) {
+    return promotion << 12 | square(from) << 6 | square(to);
+  }
+
+  private static int square(String square) {
+    return Bitboard.square(square.charAt(1) - '1', square.charAt(0) - 'a');
+  }
+
+  private static List<String> notation(List<BookMove> moves) {
+    return moves.stream().map(move -> Move.toString(move.move())).toList();
+  }
+
+  @Test
+  void findsLegalMovesWithWeightMostWeightFirst() {
+    List<BookMove> moves = book.lookup(new ChessBoard());
+
+    assertThat(book.size()).isEqualTo(5006);
+    assertThat(notation(moves)).containsExactly("e2e4", "d2d4", "g1f3");
+    assertThat(moves).extracting(BookMove::weight).containsExactly(30, 20, 10);
+  }
+
+  @Test
+  void findsPromotions() {
+    assertThat(notation(book.lookup(Game.boardFromFEN(PROMOTION_FEN)))).containsExactly("a7a8q");
+  }
+
+  @Test
+  void positionsOutOfBookHaveNoMoves() {
+    ChessBoard board = new ChessBoard();
+    board.makeMove(Move.of(square("e2"), square("e4")));
+
+    assertThat(book.lookup(board)).isEmpty();
+    assertThat(book.pickMove(board, new Random(1))).isZero();
+  }
+
+  @Test
+  void picksMovesByWeight() {
+    ChessBoard board = new ChessBoard();
+    Random random = new Random(5);
+    int kingsPawn = 0;
+    for (int i = 0; i < 600; i++) {
+      String move = Move.toString(book.pickMove(board, random));
+      assertThat(move).isIn("e2e4", "d2d4", "g1f3");
+      if (move.equals("e2e4")) {
+        kingsPawn++;
+      }
+    }
+    assertThat(kingsPawn).isBetween(250, 350);
+  }
+
+  @Test
+  void rejectsBrokenFiles() throws IOException {
+    Path truncated = Files.write(directory.resolve("short.bin"), new byte[15]);
+    Path missing = directory.resolve("missing.bin");
+
+    assertThatThrownBy(() -> OpeningBook.open(truncated, keys))
+        .isInstanceOf(OpeningBookException.class)
+        .hasMessageContaining("is not a list of 16-byte entries");
+    assertThatThrownBy(() -> OpeningBook.open(missing, keys))
+        .isInstanceOf(OpeningBookException.class)
+        .hasMessageContaining("Could not open opening book");
+  }
+
+  @Test
+  void emptyBookHasNoMoves() throws IOException {
+    Path empty = Files.write(directory.resolve("empty.bin"), new byte[0]);
+
+    assertThat(OpeningBook.open(empty, keys).lookup(new ChessBoard())).isEmpty();
+  }
+}
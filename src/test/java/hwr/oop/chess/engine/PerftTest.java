@@ -0,0 +1,103 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class PerftTest {
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+  private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+  private static final String POSITION_4 =
+      "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+  private static final String POSITION_5 =
+      "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+  @ParameterizedTest
+  @CsvSource({"1, 20", "2, 400", "3, 8902", "4, 197281"})
+  void initialPositionMatchesPublishedCounts(int depth, long nodes) {
+    assertThat(Perft.count(new ChessBoard(), depth)).isEqualTo(nodes);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1, 14", "2, 191", "3, 2812", "4, 43238"})
+  void endgamePositionMatchesPublishedCounts(int depth, long nodes) {
+    assertThat(Perft.count(Game.boardFromFEN(POSITION_3), depth)).isEqualTo(nodes);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1, 48", "2, 2039", "3, 97862"})
+  void kiwipeteMatchesPublishedCounts(int depth, long nodes) {
+    assertThat(Perft.count(Game.boardFromFEN(KIWIPETE), depth)).isEqualTo(nodes);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1, 6", "2, 264", "3, 9467"})
+  void promotionPositionMatchesPublishedCounts(int depth, long nodes) {
+    assertThat(Perft.count(Game.boardFromFEN(POSITION_4), depth)).isEqualTo(nodes);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1, 44", "2, 1486", "3, 62379"})
+  void castlingPositionMatchesPublishedCounts(int depth, long nodes) {
+    assertThat(Perft.count(Game.boardFromFEN(POSITION_5), depth)).isEqualTo(nodes);
+  }
+
+  @Test
+  void countLeavesTheBoardUnchanged() {
+    ChessBoard board = new ChessBoard();
+    Perft.count(board, 3);
+    assertThat(board).isEqualTo(new ChessBoard());
+    assertThat(Perft.count(board, 0)).isEqualTo(1);
+  }
+
+  @Test
+  void divideSumsUpToTheTotal() {
+    PerftResult result = Perft.divide(new ChessBoard(), 3);
+
+    assertThat(result.nodes()).isEqualTo(8902);
+    assertThat(result.divide()).hasSize(20).containsEntry("e2e4", 600L).containsEntry("g1f3", 440L);
+    assertThat(result.divide().values().stream().mapToLong(Long::longValue).sum())
+        .isEqualTo(8902);
+  }
+
+  @Test
+  void parallelDivideMatchesSequentialDivide() {
+    ChessBoard board = Game.boardFromFEN("4k3/1P6/8/8/8/8/6p1/4K3 w - - 0 1");
+    PerftResult sequential = Perft.divide(board, 4);
+    PerftResult parallel = Perft.divideParallel(board, 4, ForkJoinPool.commonPool());
+
+    assertThat(parallel.divide()).containsExactlyEntriesOf(sequential.divide());
+    assertThat(parallel.nodes()).isEqualTo(sequential.nodes());
+    assertThat(sequential.divide()).containsKeys("b7b8q", "b7b8n");
+  }
+
+  @Test
+  void divideRejectsDepthBelowOne() {
+    ChessBoard board = new ChessBoard();
+    assertThatThrownBy(() -> Perft.divide(board, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void nodesPerSecond() {
+    assertThat(new PerftResult(500, Map.of(), 1_000_000_000L).nodesPerSecond())
+        .isEqualTo(500);
+    assertThat(new PerftResult(500, Map.of(), 0).nodesPerSecond()).isZero();
+  }
+
+  @Test
+  void nodesPerSecondOfPerft8DoesNotOverflow() {
+    // perft 8 of the start position in ten minutes
+    PerftResult result = new PerftResult(84_998_978_956L, Map.of(), 600_000_000_000L);
+
+    assertThat(result.nodesPerSecond()).isEqualTo(141_664_964L);
+  }
+}
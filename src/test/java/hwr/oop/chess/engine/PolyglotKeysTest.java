@@ -0,0 +1,133 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.game.Game;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class PolyglotKeysTest {
+  @TempDir Path directory;
+
+  /** Stand-in for the Random64 table, so that a test can pick the numbers it expects. */
+  static long[] randomTable(long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    long[] table = new long[PolyglotKeys.KEY_COUNT];
+    for (int i = 0; i < table.length; i++) {
+      table[i] = random.nextLong();
+    }
+    return table;
+  }
+
+  // the test positions of the Polyglot book format specification
+  @ParameterizedTest
+  @CsvSource({
+    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, 463b96181691fc9c",
+    "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1, 823c9b50fd114196",
+    "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2, 0756b94461c50fb0",
+    "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2, 662fafb965db29d4",
+    "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3, 22a48b5a8e47ff78",
+    "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3, 652a607ca3f242c1",
+    "rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4, 00fdd303c946bdd9",
+    "rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3, 3c8123ea7b067637",
+    "rnbqkbnr/p1pppppp/8/8/P6P/R1p5/1P1PPPP1/1NBQKBNR b Kkq - 0 4, 5c3f9b829b279560"
+  })
+  void standardTableGivesTheKeysOfTheSpecification(String fen, String key) {
+    ChessBoard board = Game.boardFromFEN(fen);
+
+    assertThat(PolyglotKeys.standard().key(board)).isEqualTo(Long.parseUnsignedLong(key, 16));
+  }
+
+  @Test
+  void keysFollowTheMovesPlayed() {
+    ChessBoard board = new ChessBoard();
+    board.makeMove(Move.of(12, 28));
+    board.makeMove(Move.of(51, 35));
+    board.makeMove(Move.of(28, 36));
+    board.makeMove(Move.of(53, 37));
+
+    assertThat(PolyglotKeys.standard().key(board)).isEqualTo(0x22a48b5a8e47ff78L);
+  }
+
+  @Test
+  void loadsTheTableFromSourceCode() throws IOException {
+    long[] table = randomTable(1);
+    StringBuilder source = new StringBuilder("const uint64 Random64[781] = {\n");
+    for (long value : table) {
+      source.append(String.format("   U64(0x%016X),%n", value));
+    }
+    source.append("};\n");
+    Path file = Files.writeString(directory.resolve("keys.txt"), source);
+
+    ChessBoard board = new ChessBoard();
+
+    assertThat(PolyglotKeys.load(file).key(board)).isEqualTo(new PolyglotKeys(table).key(board));
+  }
+
+  @Test
+  void keyCombinesPiecesCastlingAndTurn() {
+    long[] table = randomTable(2);
+    PolyglotKeys keys = new PolyglotKeys(table);
+    ChessBoard board = Game.boardFromFEN("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+
+    long whiteKing = table[64 * 11 + 4];
+    long whiteRook = table[64 * 7 + 7];
+    long blackKing = table[64 * 10 + 60];
+    long whiteShortCastling = table[768];
+    long whiteToMove = table[780];
+
+    assertThat(keys.key(board))
+        .isEqualTo(whiteKing ^ whiteRook ^ blackKing ^ whiteShortCastling ^ whiteToMove);
+  }
+
+  @Test
+  void castlingRightsNeedKingAndRookAtHome() {
+    long[] table = randomTable(3);
+    PolyglotKeys keys = new PolyglotKeys(table);
+
+    long home = keys.key(Game.boardFromFEN("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1"));
+    long kingMoved = keys.key(Game.boardFromFEN("r3k2r/8/8/8/8/8/8/R4K1R b KQkq - 0 1"));
+
+    assertThat(home ^ kingMoved)
+        .isEqualTo(table[64 * 11 + 4] ^ table[64 * 11 + 5] ^ table[768] ^ table[769]);
+  }
+
+  @Test
+  void enPassantFileCountsOnlyIfAPawnCanCapture() {
+    long[] table = randomTable(4);
+    PolyglotKeys keys = new PolyglotKeys(table);
+    String position = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq ";
+
+    long withEnPassant = keys.key(Game.boardFromFEN(position + "f6 0 3"));
+    long without = keys.key(Game.boardFromFEN(position + "- 0 3"));
+    String pawnBehind = position.replace("3pPp2/8", "3p1p2/4P3");
+
+    assertThat(withEnPassant ^ without).isEqualTo(table[772 + 5]);
+    assertThat(keys.key(Game.boardFromFEN(pawnBehind + "f6 0 3")))
+        .isEqualTo(keys.key(Game.boardFromFEN(pawnBehind + "- 0 3")));
+  }
+
+  @Test
+  void rejectsIncompleteTables() throws IOException {
+    Path file = Files.writeString(directory.resolve("keys.txt"), "0x0123456789ABCDEF");
+    Path missing = directory.resolve("missing.txt");
+
+    assertThatThrownBy(() -> PolyglotKeys.load(file))
+        .isInstanceOf(OpeningBookException.class)
+        .hasMessageContaining("must contain 781 keys, but has 1");
+    assertThatThrownBy(() -> PolyglotKeys.load(missing))
+        .isInstanceOf(OpeningBookException.class)
+        .hasMessageContaining("Could not read Polyglot key file");
+    assertThatThrownBy(() -> new PolyglotKeys(new long[3]))
+        .isInstanceOf(OpeningBookException.class);
+  }
+}
@@ -0,0 +1,103 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.board.Move;
+import hwr.oop.chess.game.Game;
+import org.junit.jupiter.api.Test;
+
+class SearchTest {
+
+  private static SearchResult search(String fen, int depth) {
+    return new Search(Game.boardFromFEN(fen), new TranspositionTable(1)).search(depth, 0);
+  }
+
+  @Test
+  void findsBackRankMate() {
+    SearchResult result = search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 4);
+
+    assertThat(Move.toString(result.bestMove())).isEqualTo("a1a8");
+    assertThat(result.isMate()).isTrue();
+    assertThat(result.mateIn()).isEqualTo(1);
+    assertThat(result.formattedScore()).isEqualTo("mate 1");
+    assertThat(result.principalVariation()).containsExactly("a1a8");
+  }
+
+  @Test
+  void capturesHangingQueen() {
+    SearchResult result = search("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1", 3);
+
+    assertThat(Move.toString(result.bestMove())).isEqualTo("d1d5");
+    assertThat(result.score()).isGreaterThan(400);
+    assertThat(result.principalVariation()).startsWith("d1d5");
+    assertThat(result.depth()).isEqualTo(3);
+    assertThat(result.nodes()).isPositive();
+  }
+
+  @Test
+  void doesNotTakeADefendedRookWithTheQueen() {
+    SearchResult result = search("4k3/2p5/3r4/8/8/8/8/3QK3 w - - 0 1", 3);
+
+    assertThat(Move.toString(result.bestMove())).isNotEqualTo("d1d6");
+  }
+
+  @Test
+  void reportsStalemateAndCheckmateWithoutMove() {
+    SearchResult stalemate = search("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1", 5);
+    SearchResult checkmate = search("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1", 5);
+
+    assertThat(stalemate.hasBestMove()).isFalse();
+    assertThat(stalemate.score()).isZero();
+    assertThat(checkmate.hasBestMove()).isFalse();
+    assertThat(checkmate.score()).isEqualTo(-Search.MATE_SCORE);
+  }
+
+  @Test
+  void scoresARepetitionOfTheGameAsADraw() {
+    ChessBoard board = Game.boardFromFEN("4k3/q7/8/8/8/8/8/6NK w - - 0 1");
+    SearchResult withoutHistory = new Search(board.copy(), new TranspositionTable(1)).search(3, 0);
+    board.makeMove(Move.of(6, 21));
+    board.makeMove(Move.of(60, 52));
+    board.makeMove(Move.of(21, 6));
+    board.makeMove(Move.of(52, 60));
+
+    SearchResult result = new Search(board.copy(), new TranspositionTable(1)).search(3, 0);
+
+    assertThat(withoutHistory.score()).isNegative();
+    assertThat(Move.toString(result.bestMove())).isEqualTo("g1f3");
+    assertThat(result.score()).isZero();
+  }
+
+  @Test
+  void searchLeavesTheBoardUnchanged() {
+    ChessBoard board = new ChessBoard();
+    Search search = new Search(board, new TranspositionTable(1));
+
+    SearchResult result = search.search(4, 0);
+
+    assertThat(board).isEqualTo(new ChessBoard());
+    assertThat(result.hasBestMove()).isTrue();
+    assertThat(result.principalVariation()).hasSizeGreaterThanOrEqualTo(4);
+  }
+
+  @Test
+  void stopsWhenTheTimeIsUp() {
+    Search search = new Search(new ChessBoard(), new TranspositionTable(1));
+
+    long start = System.nanoTime();
+    SearchResult result = search.search(Search.MAX_PLY, 50);
+
+    assertThat(System.nanoTime() - start).isLessThan(2_000_000_000L);
+    assertThat(result.depth()).isPositive();
+    assertThat(result.hasBestMove()).isTrue();
+  }
+
+  @Test
+  void depthMustBePositive() {
+    Search search = new Search(new ChessBoard(), new TranspositionTable(1));
+
+    assertThatThrownBy(() -> search.search(0, 0)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,201 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.Color;
+import hwr.oop.chess.engine.TablebaseResult.Outcome;
+import hwr.oop.chess.game.Game;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class TablebaseTest {
+  private static final Map<EndgameMaterial, Tablebase> TABLES =
+      new EnumMap<>(EndgameMaterial.class);
+
+  @TempDir Path directory;
+
+  @BeforeAll
+  static void generateTables() {
+    for (EndgameMaterial material :
+        new EndgameMaterial[] {EndgameMaterial.KQK, EndgameMaterial.KRK, EndgameMaterial.KPK}) {
+      TABLES.put(material, Tablebase.generate(material, TABLES, ForkJoinPool.commonPool()));
+    }
+  }
+
+  private static TablebaseResult probe(EndgameMaterial material, String fen) {
+    return TABLES.get(material).probe(Game.boardFromFEN(fen));
+  }
+
+  @Test
+  void longestMatesAreTheKnownOnes() {
+    // the longest defences take 10, 16 and 28 moves of the winning side
+    assertThat(TABLES.get(EndgameMaterial.KQK).getLongestMatePlies()).isEqualTo(20);
+    assertThat(TABLES.get(EndgameMaterial.KRK).getLongestMatePlies()).isEqualTo(32);
+    assertThat(TABLES.get(EndgameMaterial.KPK).getLongestMatePlies()).isEqualTo(56);
+  }
+
+  @Test
+  void positionCountUsesSymmetry() {
+    assertThat(TABLES.get(EndgameMaterial.KQK).getPositionCount()).isEqualTo(2L * 10 * 64 * 64);
+    assertThat(TABLES.get(EndgameMaterial.KPK).getPositionCount()).isEqualTo(2L * 32 * 64 * 48);
+    assertThat(Tablebase.size(EndgameMaterial.KBNK)).isEqualTo(2L * 10 * 64 * 64 * 64);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "KRK, k7/8/1K6/8/8/8/8/7R w - - 0 1, WIN, 1",
+    "KRK, k7/8/1K6/8/8/8/8/7R b - - 0 1, LOSS, 2",
+    "KRK, R6k/8/6K1/8/8/8/8/8 b - - 0 1, LOSS, 0",
+    "KRK, 8/8/8/3k4/8/8/8/R3K3 w - - 0 1, WIN, 27",
+    "KQK, k7/2Q5/1K6/8/8/8/8/8 b - - 0 1, DRAW, 0",
+    "KQK, 8/8/8/8/3k4/8/Q7/4K3 w - - 0 1, WIN, 13",
+    "KPK, 8/P7/8/8/8/8/8/K6k w - - 0 1, WIN, 17",
+    "KPK, k7/8/8/8/8/8/P7/K7 w - - 0 1, DRAW, 0",
+    "KPK, 8/8/8/8/8/8/k6P/7K w - - 0 1, WIN, 27"
+  })
+  void probesKnownPositions(EndgameMaterial material, String fen, Outcome outcome, int plies) {
+    assertThat(probe(material, fen)).isEqualTo(new TablebaseResult(outcome, plies));
+  }
+
+  @Test
+  void shortMatesAgreeWithTheMateSolver() {
+    Tablebase table = TABLES.get(EndgameMaterial.KQK);
+    int[] squares = new int[3];
+    int checked = 0;
+    for (long index = 0; checked < 20; index += 101) {
+      Color sideToMove = Tablebase.decode(EndgameMaterial.KQK, index, squares);
+      TablebaseResult result = Tablebase.result(table.entry(sideToMove, squares.clone()));
+      if (sideToMove == Color.WHITE
+          && result.outcome() == Outcome.WIN
+          && result.movesToMate() <= 3) {
+        String fen = fen(squares, 'Q');
+        MateResult mate = MateSolver.solve(Game.boardFromFEN(fen), 3, ForkJoinPool.commonPool());
+
+        assertThat(mate.found()).as(fen).isTrue();
+        assertThat(mate.moves()).as(fen).isEqualTo(result.movesToMate());
+        checked++;
+      }
+    }
+  }
+
+  private static String fen(int[] squares, char piece) {
+    char[] board = new char[64];
+    Arrays.fill(board, '1');
+    board[squares[0]] = 'K';
+    board[squares[1]] = 'k';
+    board[squares[2]] = piece;
+    StringBuilder fen = new StringBuilder();
+    for (int row = 7; row >= 0; row--) {
+      fen.append(board, row * 8, 8).append(row > 0 ? "/" : " w - - 0 1");
+    }
+    return fen.toString();
+  }
+
+  @Test
+  void mirroredAndColourSwappedPositionsHaveTheSameResult() {
+    TablebaseResult original = probe(EndgameMaterial.KRK, "k7/8/1K6/8/8/8/8/7R w - - 0 1");
+
+    assertThat(probe(EndgameMaterial.KRK, "7k/8/6K1/8/8/8/8/R7 w - - 0 1")).isEqualTo(original);
+    assertThat(probe(EndgameMaterial.KRK, "7R/8/8/8/8/1K6/8/k7 w - - 0 1")).isEqualTo(original);
+    assertThat(probe(EndgameMaterial.KRK, "7r/8/8/8/8/1k6/8/K7 b - - 0 1")).isEqualTo(original);
+    assertThat(probe(EndgameMaterial.KPK, "k7/7p/8/8/8/8/8/K7 w - - 0 1"))
+        .isEqualTo(probe(EndgameMaterial.KPK, "k7/8/8/8/8/8/7P/K7 b - - 0 1"));
+  }
+
+  @Test
+  void indexAndDecodeAreInverse() {
+    for (EndgameMaterial material : EndgameMaterial.values()) {
+      int[] squares = new int[2 + material.pieceCount()];
+      for (long index = 0; index < Tablebase.size(material); index += 97) {
+        Color sideToMove = Tablebase.decode(material, index, squares);
+        int[] canonical = squares.clone();
+        Tablebase.canonicalize(material, canonical);
+
+        assertThat(Tablebase.index(material, sideToMove, squares)).isEqualTo(index);
+        assertThat(canonical).isEqualTo(squares);
+      }
+    }
+  }
+
+  @Test
+  void writtenTableCanBeOpenedAgain() {
+    Tablebase table = TABLES.get(EndgameMaterial.KRK);
+    Path file = directory.resolve("tables").resolve(Tablebase.fileName(EndgameMaterial.KRK));
+    table.write(file);
+
+    Tablebase opened = Tablebase.open(file);
+
+    assertThat(file.getFileName()).hasToString("KRK.cgtb");
+    assertThat(opened.getMaterial()).isEqualTo(EndgameMaterial.KRK);
+    assertThat(opened.getLongestMatePlies()).isEqualTo(table.getLongestMatePlies());
+    assertThat(opened.getPositionCount()).isEqualTo(table.getPositionCount());
+    int[] squares = new int[3];
+    for (long index = 0; index < table.getPositionCount(); index += 13) {
+      Color sideToMove = Tablebase.decode(EndgameMaterial.KRK, index, squares);
+      assertThat(opened.entry(sideToMove, squares.clone()))
+          .isEqualTo(table.entry(sideToMove, squares.clone()));
+    }
+  }
+
+  @Test
+  void damagedFilesAreRejected() throws IOException {
+    Path file = directory.resolve("KQK.cgtb");
+    TABLES.get(EndgameMaterial.KQK).write(file);
+    byte[] bytes = Files.readAllBytes(file);
+    Path truncated = Files.write(directory.resolve("truncated.cgtb"), Arrays.copyOf(bytes, 100));
+    Path garbage = Files.writeString(directory.resolve("garbage.cgtb"), "not a tablebase file, just some text");
+    Path tiny = Files.writeString(directory.resolve("tiny.cgtb"), "CGTB");
+    bytes[8] = 'X';
+    Path unknown = Files.write(directory.resolve("unknown.cgtb"), bytes);
+
+    assertThatThrownBy(() -> Tablebase.open(truncated))
+        .isInstanceOf(TablebaseException.class)
+        .hasMessageContaining("damaged");
+    assertThatThrownBy(() -> Tablebase.open(garbage))
+        .isInstanceOf(TablebaseException.class)
+        .hasMessageContaining("Not a version 1 tablebase file");
+    assertThatThrownBy(() -> Tablebase.open(tiny))
+        .isInstanceOf(TablebaseException.class)
+        .hasMessageContaining("Not a tablebase file");
+    assertThatThrownBy(() -> Tablebase.open(unknown))
+        .isInstanceOf(TablebaseException.class)
+        .hasMessageContaining("Unknown tablebase material XQK");
+    assertThatThrownBy(() -> Tablebase.open(directory.resolve("missing.cgtb")))
+        .isInstanceOf(TablebaseException.class)
+        .hasMessageContaining("Could not read tablebase file");
+  }
+
+  @Test
+  void probeRejectsOtherMaterialAndIllegalPositions() {
+    Tablebase krk = TABLES.get(EndgameMaterial.KRK);
+
+    assertThatThrownBy(() -> krk.probe(Game.boardFromFEN("k7/8/1K6/8/8/8/8/7Q w - - 0 1")))
+        .isInstanceOf(TablebaseException.class)
+        .hasMessage("Position is not a KRK endgame");
+    assertThatThrownBy(() -> krk.probe(Game.boardFromFEN("k7/8/1K6/8/8/8/8/R7 w - - 0 1")))
+        .isInstanceOf(TablebaseException.class)
+        .hasMessageContaining("not legal");
+  }
+
+  @Test
+  void pawnTablesNeedTheirPromotionTables() {
+    Map<EndgameMaterial, Tablebase> onlyQueens =
+        Map.of(EndgameMaterial.KQK, TABLES.get(EndgameMaterial.KQK));
+
+    assertThatThrownBy(
+            () -> Tablebase.generate(EndgameMaterial.KPK, onlyQueens, ForkJoinPool.commonPool()))
+        .isInstanceOf(TablebaseException.class)
+        .hasMessage("KPK needs the KRK table first");
+  }
+}
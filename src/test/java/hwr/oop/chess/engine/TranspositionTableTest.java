@@ -0,0 +1,52 @@
+package hwr.oop.chess.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hwr.oop.chess.board.Move;
+import org.junit.jupiter.api.Test;
+
+class TranspositionTableTest {
+
+  @Test
+  void storedEntryCanBeProbed() {
+    TranspositionTable table = new TranspositionTable(1);
+    int move = Move.of(12, 28);
+
+    table.store(0x1234_5678_9ABCL, move, -31_990, 7, TranspositionTable.LOWER_BOUND);
+    long entry = table.probe(0x1234_5678_9ABCL);
+
+    assertThat(TranspositionTable.isHit(entry)).isTrue();
+    assertThat(TranspositionTable.move(entry)).isEqualTo(move);
+    assertThat(TranspositionTable.score(entry)).isEqualTo(-31_990);
+    assertThat(TranspositionTable.depth(entry)).isEqualTo(7);
+    assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.LOWER_BOUND);
+  }
+
+  @Test
+  void otherKeyInTheSameSlotIsAMiss() {
+    TranspositionTable table = new TranspositionTable(1);
+    table.store(5L, Move.of(1, 2), 10, 3, TranspositionTable.EXACT);
+
+    assertThat(TranspositionTable.isHit(table.probe(5L + (1L << 40)))).isFalse();
+    assertThat(TranspositionTable.isHit(table.probe(6L))).isFalse();
+  }
+
+  @Test
+  void deeperEntryIsKeptAndClearRemovesIt() {
+    TranspositionTable table = new TranspositionTable(1);
+    table.store(5L, Move.of(1, 2), 10, 6, TranspositionTable.EXACT);
+    table.store(5L, Move.of(3, 4), 20, 2, TranspositionTable.UPPER_BOUND);
+
+    assertThat(TranspositionTable.depth(table.probe(5L))).isEqualTo(6);
+
+    table.clear();
+    assertThat(TranspositionTable.isHit(table.probe(5L))).isFalse();
+  }
+
+  @Test
+  void sizeMustBePositive() {
+    assertThatThrownBy(() -> new TranspositionTable(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -1,11 +1,16 @@
 package hwr.oop.chess.game;
 
 import hwr.oop.chess.Color;
+import hwr.oop.chess.Position;
+import hwr.oop.chess.board.CastlingRights;
 import hwr.oop.chess.board.ChessBoard;
 import hwr.oop.chess.player.Player;
 
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -140,7 +145,7 @@ class GameTest {
     final Player playerBlack = new Player("player2");
     game = new Game(playerWhite, playerBlack, "1");
     assertThat(game.convertBoardToFEN())
-        .isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w 0");
+        .isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
   }
 
   @Test
@@ -149,7 +154,7 @@ class GameTest {
     final Player playerBlack = new Player("player2");
     String fen = "5b1r/8/8/3Q4/8/8/8/8 w 0";
     game = new Game(playerWhite, playerBlack, fen, "1");
-    assertThat(game.convertBoardToFEN()).isEqualTo(fen);
+    assertThat(game.convertBoardToFEN()).isEqualTo("5b1r/8/8/3Q4/8/8/8/8 w - - 0 1");
   }
 
   @Test
@@ -159,7 +164,18 @@ class GameTest {
     final Player playerBlack = new Player("player2");
     game = new Game(playerWhite, playerBlack, fenNotation, "1");
 
-    assertThat(game.convertBoardToFEN()).isEqualTo(fenNotation);
+    assertThat(game.convertBoardToFEN())
+        .isEqualTo("rnbqkbnr/pppppppp/8/4p1p1/2P5/5P2/PPPPPPPP/RNBQKBNR b KQkq - 0 1");
+  }
+
+  @Test
+  void testBuildFromFEN_PiecesBelongToTheNewBoard() throws FENException {
+    game = new Game(new Player("player1"), new Player("player2"), "8/8/8/3Q4/8/8/8/8 b 3", "1");
+
+    assertThat(game.getBoard().getPieceAtPosition(new Position(4, 3)).possibleMoves()).hasSize(27);
+    assertThat(game.getNextToMove()).isEqualTo(Color.BLACK);
+    assertThat(game.getBoard().getSideToMove()).isEqualTo(Color.BLACK);
+    assertThat(game.getBoard().getMoveCount()).isEqualTo((short) 3);
   }
 
   @Test
@@ -207,6 +223,56 @@ class GameTest {
     assertThat(exception.getMessage()).contains(expectedMessage);
   }
 
+  @Test
+  void testBuildFromFEN_StandardFENWithHalfmoveClock() {
+    ChessBoard board = Game.boardFromFEN("4k3/8/8/8/8/8/8/4K2R b - - 37 60");
+
+    assertThat(board.getHalfmoveClock()).isEqualTo(37);
+    assertThat(board.getMoveCount()).isEqualTo((short) 119);
+    assertThat(Game.boardFromFEN("4k3/8/8/8/8/8/8/4K2R b 12").getHalfmoveClock()).isZero();
+  }
+
+  @Test
+  void testBuildFromFEN_InvalidHalfmoveClock() {
+    FENException exception =
+        assertThrows(
+            FENException.class, () -> Game.boardFromFEN("4k3/8/8/8/8/8/8/4K2R w - - x 1"));
+    assertThat(exception.getMessage())
+        .isEqualTo("Invalid FEN format: halfmove clock is not a valid number");
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1",
+        "r3k2r/8/8/8/8/8/8/R3K2R b Kq - 3 20",
+        "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+        "rnbqkbnr/pppp1ppp/8/8/3Pp3/8/PPP1PPPP/RNBQKBNR b KQkq d3 0 2"
+      })
+  void testToFEN_KeepsCastlingRightsAndEnPassantSquare(String fen) {
+    game = new Game(new Player("player1"), new Player("player2"), fen, "1");
+    assertThat(game.convertBoardToFEN()).isEqualTo(fen);
+  }
+
+  @Test
+  void testBuildFromFEN_DropsRightsWithoutKingAndRookAtHome() {
+    ChessBoard board = Game.boardFromFEN("r3k3/8/8/8/8/8/8/R4K1R w KQkq e3 0 1");
+
+    assertThat(board.getCastlingRights()).isEqualTo(CastlingRights.BLACK_QUEENSIDE);
+    assertThat(board.getEnPassantSquare()).isEqualTo(ChessBoard.NO_SQUARE);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "4k3/8/8/8/8/8/8/4K3 w KX - 0 1, castling rights must be - or letters of KQkq",
+    "4k3/8/8/8/8/8/8/4K3 w - e4 0 1, en passant square is not valid",
+    "4k3/8/8/8/8/8/8/4K3 w - i6 0 1, en passant square is not valid"
+  })
+  void testBuildFromFEN_InvalidCastlingAndEnPassant(String fen, String message) {
+    FENException exception = assertThrows(FENException.class, () -> Game.boardFromFEN(fen));
+    assertThat(exception.getMessage()).isEqualTo("Invalid FEN format: " + message);
+  }
+
   @Test
   void testEquals_SameAttributes() {
     Player white1 = new Player("White");
@@ -343,11 +409,14 @@ class GameTest {
     String fen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b 10";
     game = new Game(playerWhite, playerBlack, fen, "1");
 
-    assertThat(game.convertBoardToFEN()).isEqualTo(fen);
+    assertThat(game.getMoveCount()).isEqualTo((short) 10);
+    assertThat(game.convertBoardToFEN())
+        .isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 6");
 
     game.toggleNextToMove();
+    assertThat(game.getMoveCount()).isEqualTo((short) 11);
     assertThat(game.convertBoardToFEN())
-        .isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w 11");
+        .isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 6");
   }
 
   @Test
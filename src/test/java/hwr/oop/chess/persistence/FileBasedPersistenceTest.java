@@ -10,9 +10,11 @@ import hwr.oop.chess.player.Player;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -241,4 +243,44 @@ class FileBasedPersistenceTest {
     String expectedMessage = "Cannot read.";
     assertThat(exception.getMessage()).contains(expectedMessage);
   }
+
+  @Test
+  void testLoadGames_FromAnIncompatibleVersion_ShouldNameTheFile() throws IOException {
+    // given
+    instUT.saveGames(new ArrayList<>(List.of(new Game(new Player("A"), new Player("B"), "1"))));
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    byte[] className = Game.class.getName().getBytes(StandardCharsets.UTF_8);
+    int uid = indexOf(bytes, className) + className.length;
+    // the serialVersionUID follows the class name in the stream
+    bytes[uid + 7] ^= 1;
+    Files.write(file.toPath(), bytes);
+
+    // then
+    PersistenceException exception =
+        assertThrows(PersistenceException.class, () -> instUT.loadGames());
+    assertThat(exception.getMessage())
+        .startsWith("Cannot read: ")
+        .contains(TEST_FILE_PATH)
+        .contains("incompatible version");
+  }
+
+  @Test
+  void testLoadGames_ShippedDataFile() {
+    Path data = Path.of("data/allGames.txt");
+    List<Game> games = new FileBasedPersistence(data, Path.of("data/allPlayers.txt")).loadGames();
+
+    assertThat(games).hasSize(1);
+    assertThat(games.get(0).getId()).isEqualTo("1");
+    assertThat(games.get(0).convertBoardToFEN())
+        .isEqualTo("rnbqkbnP/p2pppp1/rpp5/8/8/P7/1PPPPP1P/RNBQKBNR b KQq - 0 6");
+  }
+
+  private static int indexOf(byte[] bytes, byte[] part) {
+    for (int i = 0; i + part.length <= bytes.length; i++) {
+      if (Arrays.equals(bytes, i, i + part.length, part, 0, part.length)) {
+        return i;
+      }
+    }
+    throw new AssertionError("Not found");
+  }
 }
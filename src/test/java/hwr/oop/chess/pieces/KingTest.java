@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import hwr.oop.chess.Color;
 import hwr.oop.chess.Position;
 import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
 import java.util.Arrays;
 import java.util.List;
 import org.assertj.core.api.SoftAssertions;
@@ -452,4 +453,22 @@ class KingTest {
     assertThat(board.getPieceAtPosition(kingTargetPositionDown)).isNull();
     assertThat(board.getPieceAtPosition(kingPosition)).isEqualTo(king);
   }
+
+  @Test
+  void testKingMove_castlingMovesTheRookToo() throws IllegalMoveException {
+    ChessBoard castling = Game.boardFromFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 3 10");
+    Piece king = castling.getPieceAtPosition(new Position(0, 4));
+
+    king.moveTo(new Position(0, 6));
+
+    ChessBoard expected = Game.boardFromFEN("r3k2r/8/8/8/8/8/8/R4RK1 b kq - 4 10");
+    assertThat(castling).isEqualTo(expected);
+    assertThat(castling.getCastlingRights()).isEqualTo(expected.getCastlingRights());
+    assertThat(castling.getHalfmoveClock()).isEqualTo(4);
+    assertThat(castling.getKey()).isEqualTo(expected.getKey());
+    assertThat(king.getPosition()).isEqualTo(new Position(0, 6));
+
+    castling.unmakeMove();
+    assertThat(castling).isEqualTo(Game.boardFromFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 3 10"));
+  }
 }
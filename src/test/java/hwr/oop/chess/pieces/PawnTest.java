@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import hwr.oop.chess.Color;
 import hwr.oop.chess.Position;
 import hwr.oop.chess.board.ChessBoard;
+import hwr.oop.chess.game.Game;
 
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -387,4 +388,22 @@ class PawnTest {
     assertThat(exception.getMessage()).contains(expectedMessage);
     assertThat(pawn.getPosition()).isEqualTo(pawnPosition);
   }
+
+  @Test
+  void testPawnMove_enPassantRemovesTheCapturedPawn() throws IllegalMoveException {
+    ChessBoard enPassant = Game.boardFromFEN("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2");
+    Piece pawn = enPassant.getPieceAtPosition(new Position(4, 4));
+    assertThat(pawn.possibleMoves()).contains(new Position(5, 3));
+
+    pawn.moveTo(new Position(5, 3));
+
+    ChessBoard expected = Game.boardFromFEN("4k3/8/3P4/8/8/8/8/4K3 b - - 0 2");
+    assertThat(enPassant).isEqualTo(expected);
+    assertThat(enPassant.getPieceAtPosition(new Position(4, 3))).isNull();
+    assertThat(enPassant.getEnPassantSquare()).isEqualTo(ChessBoard.NO_SQUARE);
+    assertThat(enPassant.getKey()).isEqualTo(expected.getKey());
+
+    enPassant.unmakeMove();
+    assertThat(enPassant).isEqualTo(Game.boardFromFEN("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2"));
+  }
 }
@@ -0,0 +1,67 @@
+package hwr.oop.chess.engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels on the widest integer vectors of the CPU, e.g. 8 lanes with AVX2 and 16 with AVX-512.
+ * The rest of an accumulator that does not fill a whole vector is done lane by lane.
+ */
+final class VectorKernels implements NetworkKernels {
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+  // every product is below 255 * 2^15 and the lanes are reduced in int arithmetic, so at most 256
+  // products may be summed up before the lanes are added to the long total
+  private static final int STEPS_PER_REDUCTION = 256 / SPECIES.length();
+
+  @Override
+  public void add(int[] accumulator, int[] weights, int offset) {
+    int bound = SPECIES.loopBound(accumulator.length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      IntVector.fromArray(SPECIES, accumulator, i)
+          .add(IntVector.fromArray(SPECIES, weights, offset + i))
+          .intoArray(accumulator, i);
+    }
+    for (; i < accumulator.length; i++) {
+      accumulator[i] += weights[offset + i];
+    }
+  }
+
+  @Override
+  public void subtract(int[] accumulator, int[] weights, int offset) {
+    int bound = SPECIES.loopBound(accumulator.length);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      IntVector.fromArray(SPECIES, accumulator, i)
+          .sub(IntVector.fromArray(SPECIES, weights, offset + i))
+          .intoArray(accumulator, i);
+    }
+    for (; i < accumulator.length; i++) {
+      accumulator[i] -= weights[offset + i];
+    }
+  }
+
+  @Override
+  public long clippedDot(int[] accumulator, int[] weights, int offset, int max) {
+    int bound = SPECIES.loopBound(accumulator.length);
+    long sum = 0;
+    IntVector lanes = IntVector.zero(SPECIES);
+    int steps = 0;
+    int i = 0;
+    for (; i < bound; i += SPECIES.length()) {
+      IntVector clipped = IntVector.fromArray(SPECIES, accumulator, i).max(0).min(max);
+      lanes = clipped.mul(IntVector.fromArray(SPECIES, weights, offset + i)).add(lanes);
+      if (++steps == STEPS_PER_REDUCTION) {
+        sum += lanes.reduceLanesToLong(VectorOperators.ADD);
+        lanes = IntVector.zero(SPECIES);
+        steps = 0;
+      }
+    }
+    sum += lanes.reduceLanesToLong(VectorOperators.ADD);
+    for (; i < accumulator.length; i++) {
+      sum += (long) Math.clamp(accumulator[i], 0, max) * weights[offset + i];
+    }
+    return sum;
+  }
+}